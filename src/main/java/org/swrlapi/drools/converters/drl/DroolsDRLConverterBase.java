@@ -1,10 +1,25 @@
 package org.swrlapi.drools.converters.drl;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.semanticweb.owlapi.model.SWRLArgument;
+import org.semanticweb.owlapi.model.SWRLAtom;
+import org.semanticweb.owlapi.model.SWRLVariable;
 import org.swrlapi.bridge.SWRLRuleEngineBridge;
 import org.swrlapi.bridge.converters.TargetRuleEngineConverterBase;
+import org.swrlapi.builtins.arguments.SWRLBuiltInArgument;
+import org.swrlapi.builtins.arguments.SWRLVariableBuiltInArgument;
+import org.swrlapi.core.SWRLAPIBuiltInAtom;
 import org.swrlapi.drools.converters.id.DroolsSWRLVariable2NameConverter;
 import org.swrlapi.drools.converters.oo.DroolsOWLLiteral2LConverter;
+import org.swrlapi.drools.core.DroolsBuiltInInvocationSite;
+import org.swrlapi.drools.core.DroolsNames;
+import org.swrlapi.drools.core.DroolsNativeSWRLBuiltIns;
+import org.swrlapi.drools.core.DroolsSWRLBuiltInInvoker;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Base class providing functionality common to all Drools converters.
@@ -49,4 +64,170 @@ class DroolsDRLConverterBase extends TargetRuleEngineConverterBase
   {
     return this.variable2NameConverter;
   }
+
+  /**
+   * Order the atoms of a rule body for conversion. Non-built-in atoms keep their relative order. Each built-in atom is
+   * placed directly after the earliest atom that binds the last of the variables it does not bind itself, so that
+   * built-ins acting as filters prune join tuples as early as possible. Built-ins ready at the same point are ordered
+   * by their estimated cost.
+   * <p>
+   * The variables bound by each built-in are those SWRLAPI marked as unbound in it, which assumes that all built-ins
+   * follow all other atoms. A built-in is never placed ahead of an atom binding one of its other variables, so each
+   * variable is still bound by the same atom.
+   */
+  @NonNull protected List<@NonNull SWRLAtom> orderBodyAtoms(@NonNull List<@NonNull SWRLAtom> bodyAtoms,
+    @NonNull DroolsSWRLBuiltInInvoker builtInInvoker)
+  {
+    List<@NonNull SWRLAtom> orderedAtoms = new ArrayList<>(bodyAtoms.size());
+    List<@NonNull SWRLAPIBuiltInAtom> pendingBuiltInAtoms = new ArrayList<>();
+    Set<@NonNull String> boundVariableNames = new HashSet<>();
+
+    for (SWRLAtom atom : bodyAtoms)
+      if (atom instanceof SWRLAPIBuiltInAtom)
+        pendingBuiltInAtoms.add((SWRLAPIBuiltInAtom)atom);
+
+    addReadyBuiltInAtoms(pendingBuiltInAtoms, boundVariableNames, orderedAtoms, builtInInvoker);
+
+    for (SWRLAtom atom : bodyAtoms) {
+      if (!(atom instanceof SWRLAPIBuiltInAtom)) {
+        orderedAtoms.add(atom);
+        for (SWRLArgument argument : atom.getAllArguments())
+          if (argument instanceof SWRLVariable)
+            boundVariableNames
+              .add(getDroolsSWRLVariable2NameConverter().swrlVariable2VariableName((SWRLVariable)argument));
+        addReadyBuiltInAtoms(pendingBuiltInAtoms, boundVariableNames, orderedAtoms, builtInInvoker);
+      }
+    }
+
+    orderedAtoms.addAll(pendingBuiltInAtoms); // Only built-ins with variables bound by no atom remain
+
+    return orderedAtoms;
+  }
+
+  private void addReadyBuiltInAtoms(@NonNull List<@NonNull SWRLAPIBuiltInAtom> pendingBuiltInAtoms,
+    @NonNull Set<@NonNull String> boundVariableNames, @NonNull List<@NonNull SWRLAtom> orderedAtoms,
+    @NonNull DroolsSWRLBuiltInInvoker builtInInvoker)
+  {
+    while (true) {
+      SWRLAPIBuiltInAtom cheapestBuiltInAtom = null;
+      int cheapestCost = Integer.MAX_VALUE;
+
+      for (SWRLAPIBuiltInAtom builtInAtom : pendingBuiltInAtoms) {
+        if (isReady(builtInAtom, boundVariableNames)) {
+          int cost = estimateCost(builtInAtom, builtInInvoker);
+          if (cost < cheapestCost) {
+            cheapestBuiltInAtom = builtInAtom;
+            cheapestCost = cost;
+          }
+        }
+      }
+
+      if (cheapestBuiltInAtom == null)
+        return;
+
+      pendingBuiltInAtoms.remove(cheapestBuiltInAtom);
+      orderedAtoms.add(cheapestBuiltInAtom);
+      for (SWRLBuiltInArgument argument : cheapestBuiltInAtom.getBuiltInArguments())
+        if (argument instanceof SWRLVariableBuiltInArgument)
+          boundVariableNames.add(
+            getDroolsSWRLVariable2NameConverter().swrlVariable2VariableName((SWRLVariableBuiltInArgument)argument));
+    }
+  }
+
+  private boolean isReady(@NonNull SWRLAPIBuiltInAtom builtInAtom, @NonNull Set<@NonNull String> boundVariableNames)
+  {
+    if (!boundVariableNames.containsAll(builtInAtom.getPathVariableNames()))
+      return false;
+
+    for (SWRLBuiltInArgument argument : builtInAtom.getBuiltInArguments()) {
+      if (argument instanceof SWRLVariableBuiltInArgument) {
+        SWRLVariableBuiltInArgument variableArgument = (SWRLVariableBuiltInArgument)argument;
+        if (!variableArgument.isUnbound() && !boundVariableNames
+          .contains(getDroolsSWRLVariable2NameConverter().swrlVariable2VariableName(variableArgument)))
+          return false;
+      }
+    }
+    return true;
+  }
+
+  /*
+   * A relative estimate of the cost of evaluating a body built-in. Natively evaluated comparisons are cheapest,
+   * followed by other natively evaluated built-ins and then by built-ins invoked through the bridge. Batched built-ins
+   * suspend the rule until their batch is evaluated, so they are placed last.
+   */
+  private int estimateCost(@NonNull SWRLAPIBuiltInAtom builtInAtom, @NonNull DroolsSWRLBuiltInInvoker builtInInvoker)
+  {
+    String builtInName = builtInAtom.getBuiltInPrefixedName();
+
+    if (builtInInvoker.getBatcher().isBatchable(builtInName))
+      return 3;
+    else if (DroolsNativeSWRLBuiltIns.isComparison(builtInName))
+      return 0;
+    else if (DroolsNativeSWRLBuiltIns.isBinding(builtInName))
+      return 1;
+    else
+      return 2;
+  }
+
+  /**
+   * Define the invocation site of a built-in atom. The generated rule refers to the site by its identifier.
+   */
+  @NonNull protected DroolsBuiltInInvocationSite defineBuiltInInvocationSite(
+    @NonNull DroolsSWRLBuiltInInvoker builtInInvoker, @NonNull SWRLAPIBuiltInAtom builtInAtom, int builtInIndex,
+    boolean isInConsequent)
+  {
+    List<@NonNull String> variableNames = new ArrayList<>();
+
+    for (SWRLBuiltInArgument argument : builtInAtom.getBuiltInArguments()) {
+      if (argument instanceof SWRLVariableBuiltInArgument)
+        variableNames
+          .add(getDroolsSWRLVariable2NameConverter().swrlVariable2VariableName((SWRLVariableBuiltInArgument)argument));
+      else
+        variableNames.add("");
+    }
+
+    return builtInInvoker.defineInvocationSite(builtInAtom.getRuleName(), builtInAtom.getBuiltInPrefixedName(),
+      builtInIndex, isInConsequent, builtInAtom.getPathVariableNames().size(), builtInAtom.getBuiltInArguments(),
+      variableNames);
+  }
+
+  /**
+   * Generate the values passed to the built-in invoker for an invocation site: the path variables followed by the
+   * arguments that are not held by the site, as a single array preceded by a comma.
+   */
+  @NonNull protected String builtInInvocationValues2DRL(@NonNull DroolsBuiltInInvocationSite site,
+    @NonNull SWRLAPIBuiltInAtom builtInAtom, @NonNull DroolsSWRLBuiltInArgument2DRLConverter argumentConverter)
+  {
+    return ", " + builtInInvocationValueArray2DRL(site, builtInAtom, argumentConverter);
+  }
+
+  /**
+   * Generate the values passed to the built-in invoker for an invocation site as a single array, whatever their number.
+   */
+  @NonNull protected String builtInInvocationValueArray2DRL(@NonNull DroolsBuiltInInvocationSite site,
+    @NonNull SWRLAPIBuiltInAtom builtInAtom, @NonNull DroolsSWRLBuiltInArgument2DRLConverter argumentConverter)
+  {
+    String values = builtInInvocationValueList2DRL(site, builtInAtom, argumentConverter);
+
+    if (values.isEmpty())
+      return "new " + DroolsNames.BUILT_IN_ARGUMENT_CLASS_NAME + "[0]";
+    else
+      return "new " + DroolsNames.BUILT_IN_ARGUMENT_CLASS_NAME + "[] {" + values.substring(1) + " }";
+  }
+
+  @NonNull private String builtInInvocationValueList2DRL(@NonNull DroolsBuiltInInvocationSite site,
+    @NonNull SWRLAPIBuiltInAtom builtInAtom, @NonNull DroolsSWRLBuiltInArgument2DRLConverter argumentConverter)
+  {
+    List<@NonNull SWRLBuiltInArgument> arguments = builtInAtom.getBuiltInArguments();
+    StringBuilder values = new StringBuilder();
+
+    for (String variableName : builtInAtom.getPathVariableNames())
+      values.append(", ").append(getDroolsSWRLVariable2NameConverter().variableName2DRL(variableName));
+
+    for (int argumentIndex = 0; argumentIndex < arguments.size(); argumentIndex++)
+      if (site.isPassedArgument(argumentIndex))
+        values.append(", ").append(argumentConverter.convert(arguments.get(argumentIndex)));
+
+    return values.toString();
+  }
 }
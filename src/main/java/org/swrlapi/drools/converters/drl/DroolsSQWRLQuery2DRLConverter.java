@@ -1,27 +1,52 @@
 package org.swrlapi.drools.converters.drl;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.semanticweb.owlapi.model.SWRLArgument;
 import org.semanticweb.owlapi.model.SWRLAtom;
 import org.semanticweb.owlapi.model.SWRLBuiltInAtom;
+import org.semanticweb.owlapi.model.SWRLVariable;
 import org.swrlapi.bridge.SWRLRuleEngineBridge;
 import org.swrlapi.bridge.converters.TargetRuleEngineSQWRLQueryConverter;
+import org.swrlapi.builtins.arguments.SWRLBuiltInArgument;
+import org.swrlapi.builtins.arguments.SWRLLiteralBuiltInArgument;
+import org.swrlapi.builtins.arguments.SWRLVariableBuiltInArgument;
 import org.swrlapi.core.SWRLAPIBuiltInAtom;
 import org.swrlapi.drools.converters.id.DroolsOWLDataRangeHandler;
 import org.swrlapi.drools.converters.oo.DroolsOWLClassExpressionHandler;
 import org.swrlapi.drools.converters.oo.DroolsOWLPropertyExpressionHandler;
 import org.swrlapi.drools.core.DroolsNames;
 import org.swrlapi.drools.core.DroolsSWRLRuleEngine;
+import org.swrlapi.drools.sqwrl.DroolsSQWRLRowLimit;
+import org.swrlapi.drools.sqwrl.DroolsSQWRLSelectQuery;
 import org.swrlapi.exceptions.SWRLBuiltInException;
 import org.swrlapi.exceptions.TargetSWRLRuleEngineException;
 import org.swrlapi.sqwrl.SQWRLNames;
 import org.swrlapi.sqwrl.SQWRLQuery;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * This class converts a SWRLAPI SQWRL query to its Drools representation.
+ * <p>
+ * Queries with collections are converted to a phase 1 rule that builds the collections and a phase 2 rule that operates
+ * on them. When incremental aggregation is enabled, queries that only compute the size, sum, average, minimum or
+ * maximum of their collections do not build them. Their phase 1 rule adds each element to the running aggregates of its
+ * group and their phase 2 rule matches the aggregates of each group.
+ * <p>
+ * Queries without collections that are sliced from the start of their result, such as those with a
+ * <code>sqwrl:limit</code>, have the rows they need recorded with the engine so that their other rows can be dropped
+ * as they are selected.
+ * <p>
+ * Queries without collections that only select variables are also converted to a Drools query with the same body, so
+ * their rows can be read from a saturated knowledge session; see {@link DroolsSWRLRuleEngine#selectSQWRLRows(String)}.
+ * <p>
+ * The rules of prepared queries take the values of their parameter variables from an
+ * {@link org.swrlapi.drools.sqwrl.SQWRLP} fact; see {@link DroolsSWRLRuleEngine#prepareSQWRLQuery(String, List)}.
  *
  * @see org.swrlapi.sqwrl.SQWRLQuery
  */
@@ -31,6 +56,12 @@ public class DroolsSQWRLQuery2DRLConverter extends DroolsDRLConverterBase implem
   @NonNull private final DroolsSWRLHeadAtom2DRLConverter headAtom2DRLConverter;
   @NonNull private final DroolsSWRLRuleEngine droolsEngine;
 
+  // Reserved for the parameters of prepared queries
+  @NonNull private static final String SQWRL_PARAMETERS_VARIABLE_NAME = "sqwrlParameters";
+
+  @NonNull private static final Set<@NonNull String> INCREMENTAL_AGGREGATE_BUILT_IN_NAMES = Set
+    .of(SQWRLNames.Size, SQWRLNames.Sum, SQWRLNames.Avg, SQWRLNames.Min, SQWRLNames.Max);
+
   public DroolsSQWRLQuery2DRLConverter(@NonNull SWRLRuleEngineBridge bridge, @NonNull DroolsSWRLRuleEngine droolsEngine,
     @NonNull DroolsOWLClassExpressionHandler classExpressionHandler,
     @NonNull DroolsOWLPropertyExpressionHandler droolsOWLPropertyExpressionHandler,
@@ -40,9 +71,9 @@ public class DroolsSQWRLQuery2DRLConverter extends DroolsDRLConverterBase implem
 
     this.droolsEngine = droolsEngine;
     this.bodyAtom2DRLConverter = new DroolsSWRLBodyAtom2DRLConverter(bridge, classExpressionHandler,
-      droolsOWLPropertyExpressionHandler, droolsOWLDataRangeHandler);
+      droolsOWLPropertyExpressionHandler, droolsOWLDataRangeHandler, droolsEngine.getBuiltInInvoker());
     this.headAtom2DRLConverter = new DroolsSWRLHeadAtom2DRLConverter(bridge, classExpressionHandler,
-      droolsOWLPropertyExpressionHandler);
+      droolsOWLPropertyExpressionHandler, droolsEngine.getBuiltInInvoker());
   }
 
   public void reset()
@@ -63,6 +94,11 @@ public class DroolsSQWRLQuery2DRLConverter extends DroolsDRLConverterBase implem
   {
     if (!query.hasSQWRLCollections())
       sqwrlNonCollectionQuery2DRL(query);
+    else if (getDroolsSWRLEngine().getPreparedSQWRLQueryParameterNames(query.getQueryName()) != null)
+      throw new TargetSWRLRuleEngineException(
+        "prepared SQWRL query " + query.getQueryName() + " may not use collections");
+    else if (getDroolsSWRLEngine().isIncrementalSQWRLAggregationEnabled() && isIncrementallyAggregatable(query))
+      sqwrlAggregateQuery2DRL(query);
     else
       sqwrlCollectionQuery2DRL(query);
   }
@@ -73,14 +109,18 @@ public class DroolsSQWRLQuery2DRLConverter extends DroolsDRLConverterBase implem
     Set<@NonNull String> previouslyEncounteredVariableNames = new HashSet<>();
     String ruleName = query.getQueryName();
     String drlRule = getQueryPreamble(ruleName);
+    List<@NonNull String> parameterVariableNames = getDroolsSWRLEngine()
+      .getPreparedSQWRLQueryParameterNames(query.getQueryName());
 
-    for (SWRLAtom atom : query.getBodyAtoms().stream().filter(a -> !(a instanceof SWRLBuiltInAtom)).collect(Collectors.toList()))
-      drlRule += "\n   " + getDroolsSWRLBodyAtom2DRLConverter().convert(atom, previouslyEncounteredVariableNames) + " ";
+    String drlBody = "";
 
-    for (SWRLAtom atom : query.getBodyAtoms().stream().filter(a -> a instanceof SWRLBuiltInAtom).collect(Collectors.toList()))
-      drlRule += "\n   " + getDroolsSWRLBodyAtom2DRLConverter().convert(atom, previouslyEncounteredVariableNames) + " ";
+    if (parameterVariableNames != null)
+      drlRule += getPreparedQueryParameterPatterns(query, parameterVariableNames, previouslyEncounteredVariableNames);
 
-    drlRule = addQueryThenClause(drlRule);
+    for (SWRLAtom atom : orderBodyAtoms(query.getBodyAtoms(), getDroolsSWRLEngine().getBuiltInInvoker()))
+      drlBody += "\n   " + getDroolsSWRLBodyAtom2DRLConverter().convert(atom, previouslyEncounteredVariableNames) + " ";
+
+    drlRule = addQueryThenClause(drlRule + drlBody);
 
     for (SWRLAtom atom : query.getHeadAtoms())
       drlRule += "\n   " + getDroolsSWRLHeadAtom2DRLConverter().convert(atom) + " ";
@@ -92,6 +132,115 @@ public class DroolsSQWRLQuery2DRLConverter extends DroolsDRLConverterBase implem
     // System.err.println("DRL:\n" + drlRule);
 
     getDroolsSWRLEngine().defineDRLSQWRLPhase1Rule(query.getQueryName(), ruleName, drlRule);
+
+    DroolsSQWRLRowLimit rowLimit = getSQWRLRowLimit(query);
+
+    if (rowLimit != null)
+      getDroolsSWRLEngine().defineSQWRLRowLimit(ruleName, rowLimit);
+
+    DroolsSQWRLSelectQuery selectQuery = parameterVariableNames == null ? getSQWRLSelectQuery(query) : null;
+
+    if (selectQuery != null)
+      getDroolsSWRLEngine().defineDRLSQWRLSelectQuery(selectQuery,
+        getDRLQueryPreamble(selectQuery.getDRLQueryName()) + drlBody + "\nend");
+  }
+
+  /**
+   * A query without collections can be answered by a Drools query if its head selects variables with a single
+   * <code>sqwrl:select</code> built-in and at most names its columns. Its body built-ins must be pure and not batched,
+   * because the Drools query evaluates them again whenever it is read.
+   */
+  @Nullable private DroolsSQWRLSelectQuery getSQWRLSelectQuery(@NonNull SQWRLQuery query)
+  {
+    SWRLAPIBuiltInAtom selectAtom = null;
+    List<@NonNull String> columnVariableNames = new ArrayList<>();
+    List<@NonNull String> columnDeclarations = new ArrayList<>();
+
+    for (SWRLAtom atom : query.getHeadAtoms()) {
+      if (!(atom instanceof SWRLAPIBuiltInAtom))
+        return null;
+
+      String builtInName = ((SWRLAPIBuiltInAtom)atom).getBuiltInPrefixedName();
+
+      if (builtInName.equals(SQWRLNames.Select)) {
+        if (selectAtom != null)
+          return null;
+        selectAtom = (SWRLAPIBuiltInAtom)atom;
+      } else if (!builtInName.equals(SQWRLNames.ColumnNames))
+        return null;
+    }
+
+    for (SWRLAtom atom : query.getBodyAtoms()) {
+      if (atom instanceof SWRLAPIBuiltInAtom) {
+        String builtInName = ((SWRLAPIBuiltInAtom)atom).getBuiltInPrefixedName();
+        if (getDroolsSWRLEngine().getBuiltInInvoker().getBatcher().isBatchable(builtInName) || !getDroolsSWRLEngine()
+          .getBuiltInInvoker().getPureBuiltInMemo().isDeclaredPure(builtInName))
+          return null;
+      }
+    }
+
+    if (selectAtom == null || selectAtom.getBuiltInArguments().isEmpty())
+      return null;
+
+    for (SWRLBuiltInArgument argument : selectAtom.getBuiltInArguments()) {
+      if (!(argument instanceof SWRLVariableBuiltInArgument))
+        return null;
+
+      String variableName = getDroolsSWRLVariable2NameConverter()
+        .swrlVariable2VariableName((SWRLVariableBuiltInArgument)argument);
+      columnVariableNames.add(variableName);
+      columnDeclarations.add(getDroolsSWRLVariable2NameConverter().variableName2DRL(variableName));
+    }
+    return new DroolsSQWRLSelectQuery(query.getQueryName(), query.getQueryName() + "-select", columnVariableNames,
+      columnDeclarations);
+  }
+
+  /**
+   * The rule of a prepared query matches the {@link org.swrlapi.drools.sqwrl.SQWRLP} fact holding the values of its
+   * parameters and binds each parameter variable to its value, so its body atoms match the values instead of binding
+   * the variables.
+   */
+  @NonNull private String getPreparedQueryParameterPatterns(@NonNull SQWRLQuery query,
+    @NonNull List<@NonNull String> parameterVariableNames,
+    @NonNull Set<@NonNull String> previouslyEncounteredVariableNames) throws TargetSWRLRuleEngineException
+  {
+    String queryName = query.getQueryName();
+    String parameters = getDroolsSWRLVariable2NameConverter().variableName2DRL(SQWRL_PARAMETERS_VARIABLE_NAME);
+    String drlPatterns = "\n   " + parameters + ":" + DroolsNames.SQWRL_PARAMETERS_CLASS_NAME + "("
+      + DroolsNames.QUERY_NAME_FIELD_NAME + "==\"" + queryName + "\") ";
+    Set<@NonNull String> atomVariableNames = new HashSet<>();
+
+    for (SWRLAtom atom : query.getHeadAtoms()) {
+      if (!(atom instanceof SWRLAPIBuiltInAtom))
+        throw new TargetSWRLRuleEngineException(
+          "prepared SQWRL query " + queryName + " may only have SQWRL built-ins in its head, got " + atom);
+      String builtInName = ((SWRLAPIBuiltInAtom)atom).getBuiltInPrefixedName();
+      if (!builtInName.equals(SQWRLNames.Select) && !builtInName.equals(SQWRLNames.SelectDistinct) && !builtInName
+        .equals(SQWRLNames.ColumnNames))
+        throw new TargetSWRLRuleEngineException(
+          "prepared SQWRL query " + queryName + " may not use built-in " + builtInName + " in its head");
+    }
+
+    for (SWRLAtom atom : query.getBodyAtoms())
+      if (!(atom instanceof SWRLBuiltInAtom))
+        for (SWRLArgument argument : atom.getAllArguments())
+          if (argument instanceof SWRLVariable)
+            atomVariableNames
+              .add(getDroolsSWRLVariable2NameConverter().swrlVariable2VariableName((SWRLVariable)argument));
+
+    for (int parameterIndex = 0; parameterIndex < parameterVariableNames.size(); parameterIndex++) {
+      String parameterVariableName = parameterVariableNames.get(parameterIndex);
+
+      if (!atomVariableNames.contains(parameterVariableName) || !previouslyEncounteredVariableNames
+        .add(parameterVariableName))
+        throw new TargetSWRLRuleEngineException(
+          "parameter ?" + parameterVariableName + " of prepared SQWRL query " + queryName
+            + " must be a distinct variable of a class or property atom in its body");
+
+      drlPatterns += "\n   " + getDroolsSWRLVariable2NameConverter().variableName2DRL(parameterVariableName) + ":"
+        + DroolsNames.BUILT_IN_ARGUMENT_CLASS_NAME + "() from " + parameters + ".getArgument(" + parameterIndex + ") ";
+    }
+    return drlPatterns;
   }
 
   private void sqwrlCollectionQuery2DRL(@NonNull SQWRLQuery query)
@@ -175,11 +324,300 @@ public class DroolsSQWRLQuery2DRLConverter extends DroolsDRLConverterBase implem
     getDroolsSWRLEngine().defineDRLSQWRLPhase2Rule(queryName, phase2RuleName, drlPhase2Rule);
   }
 
+  private void sqwrlAggregateQuery2DRL(@NonNull SQWRLQuery query)
+    throws TargetSWRLRuleEngineException, SWRLBuiltInException
+  {
+    Set<@NonNull String> previouslyEncounteredVariableNames = new HashSet<>();
+    String queryName = query.getQueryName();
+    String phase1RuleName = queryName + "-makeCollection";
+    String phase2RuleName = queryName + "-operateCollection";
+    String drlPhase1Rule = getQueryPreamble(phase1RuleName);
+    String drlPhase2Rule = getQueryPreamble(phase2RuleName);
+    List<@NonNull SWRLAPIBuiltInAtom> makeAtoms = query
+      .getBuiltInAtomsFromBody(SQWRLNames.getCollectionMakeBuiltInNames());
+
+    for (SWRLAtom atom : query.getSQWRLPhase1BodyAtoms().stream().filter(a -> !(a instanceof SWRLBuiltInAtom))
+      .collect(Collectors.toList()))
+      drlPhase1Rule +=
+        "\n   " + getDroolsSWRLBodyAtom2DRLConverter().convert(atom, previouslyEncounteredVariableNames) + " ";
+
+    for (SWRLAtom atom : query.getSQWRLPhase1BodyAtoms().stream()
+      .filter(a -> a instanceof SWRLBuiltInAtom && !makeAtoms.contains(a)).collect(Collectors.toList()))
+      drlPhase1Rule +=
+        "\n   " + getDroolsSWRLBodyAtom2DRLConverter().convert(atom, previouslyEncounteredVariableNames) + " ";
+
+    drlPhase1Rule = addQueryThenClause(drlPhase1Rule);
+
+    // Add each element to the aggregates of its group instead of making the collections
+    for (SWRLAPIBuiltInAtom atom : makeAtoms) {
+      List<@NonNull String> variableNames = atom.getArgumentsVariableNames();
+      StringBuilder groupArguments = new StringBuilder();
+
+      for (String groupVariableName : variableNames.subList(2, variableNames.size()))
+        groupArguments.append(groupArguments.length() == 0 ? "" : ", ")
+          .append(getDroolsSWRLVariable2NameConverter().variableName2DRL(groupVariableName));
+
+      drlPhase1Rule += "\n  sqwrlInferrer.accumulate(\"" + queryName + "\", \"" + variableNames.get(0) + "\", "
+        + atom.getBuiltInPrefixedName().equals(SQWRLNames.MakeSet) + ", new " + DroolsNames.BUILT_IN_ARGUMENT_CLASS_NAME
+        + (groupArguments.length() == 0 ? "[0]" : "[] { " + groupArguments + " }") + ", "
+        + getDroolsSWRLVariable2NameConverter().variableName2DRL(variableNames.get(1)) + "); ";
+    }
+    drlPhase1Rule = addQueryEndClause(drlPhase1Rule);
+    getDroolsSWRLEngine().defineDRLSQWRLPhase1Rule(queryName, phase1RuleName, drlPhase1Rule);
+
+    // Match the aggregates of each group of the collections, and bind the group variables and the aggregate results
+    List<@NonNull String> firstCollectionVariableNames = makeAtoms.get(0).getArgumentsVariableNames();
+    String firstCollection = getDroolsSWRLVariable2NameConverter()
+      .variableName2DRL(firstCollectionVariableNames.get(0));
+
+    for (SWRLAPIBuiltInAtom atom : makeAtoms) {
+      String collectionVariableName = atom.getArgumentVariableName(0);
+      String collection = getDroolsSWRLVariable2NameConverter().variableName2DRL(collectionVariableName);
+      drlPhase2Rule += "\n   " + collection + ":" + DroolsNames.SQWRL_AGGREGATE_CLASS_NAME + "("
+        + DroolsNames.QUERY_NAME_FIELD_NAME + "==\"" + queryName + "\", " + DroolsNames.COLLECTION_NAME_FIELD_NAME
+        + "==\"" + collectionVariableName + "\"" + (collection.equals(firstCollection) ?
+        "" :
+        ", " + DroolsNames.GROUP_ARGUMENTS_FIELD_NAME + "==" + firstCollection + "."
+          + DroolsNames.GROUP_ARGUMENTS_FIELD_NAME) + ")";
+    }
+
+    for (int groupIndex = 0; groupIndex < firstCollectionVariableNames.size() - 2; groupIndex++)
+      drlPhase2Rule += "\n   " + getDroolsSWRLVariable2NameConverter()
+        .variableName2DRL(firstCollectionVariableNames.get(groupIndex + 2)) + ":"
+        + DroolsNames.BUILT_IN_ARGUMENT_CLASS_NAME + "() from " + firstCollection + ".getGroupArgument(" + groupIndex
+        + ")";
+
+    for (SWRLAtom atom : query.getSQWRLPhase2BodyAtoms()) {
+      if (query.getSQWRLPhase1BodyAtoms().contains(atom))
+        continue;
+      SWRLAPIBuiltInAtom builtInAtom = (SWRLAPIBuiltInAtom)atom;
+      drlPhase2Rule +=
+        "\n   " + getDroolsSWRLVariable2NameConverter().variableName2DRL(builtInAtom.getArgumentVariableName(0)) + ":"
+          + DroolsNames.BUILT_IN_ARGUMENT_CLASS_NAME + "() from " + getDroolsSWRLVariable2NameConverter()
+          .variableName2DRL(builtInAtom.getArgumentVariableName(1)) + "." + aggregateBuiltIn2MethodName(
+          builtInAtom.getBuiltInPrefixedName()) + "()";
+    }
+
+    drlPhase2Rule = addQueryThenClause(drlPhase2Rule);
+
+    for (SWRLAtom atom : query.getHeadAtoms())
+      drlPhase2Rule += "\n   " + getDroolsSWRLHeadAtom2DRLConverter().convert(atom);
+
+    drlPhase2Rule = addQueryEndClause(drlPhase2Rule);
+    getDroolsSWRLEngine().defineDRLSQWRLPhase2Rule(queryName, phase2RuleName, drlPhase2Rule);
+  }
+
+  /**
+   * A collection query can be aggregated incrementally if each of its collections is a bag or set of the values of a
+   * variable grouped by the same variables, if its collections are only operated on by aggregate built-ins that bind a
+   * variable to their result, and if its head refers only to those variables and the grouping variables.
+   */
+  private boolean isIncrementallyAggregatable(@NonNull SQWRLQuery query) throws SWRLBuiltInException
+  {
+    List<@NonNull SWRLAPIBuiltInAtom> makeAtoms = query
+      .getBuiltInAtomsFromBody(SQWRLNames.getCollectionMakeBuiltInNames());
+    Set<@NonNull String> collectionVariableNames = new HashSet<>();
+    List<@NonNull String> groupVariableNames = null;
+
+    if (makeAtoms.isEmpty())
+      return false;
+
+    // The arguments of the group by built-ins of a collection have been appended to its make built-in
+    for (SWRLAPIBuiltInAtom atom : makeAtoms) {
+      if (!atom.getBuiltInPrefixedName().equals(SQWRLNames.MakeBag) && !atom.getBuiltInPrefixedName()
+        .equals(SQWRLNames.MakeSet) || atom.getNumberOfArguments() < 2)
+        return false;
+
+      for (int argumentIndex = 0; argumentIndex < atom.getNumberOfArguments(); argumentIndex++)
+        if (!atom.isArgumentAVariable(argumentIndex))
+          return false;
+
+      List<@NonNull String> variableNames = atom.getArgumentsVariableNames();
+      List<@NonNull String> atomGroupVariableNames = variableNames.subList(2, variableNames.size());
+
+      if (!collectionVariableNames.add(variableNames.get(0)) || (groupVariableNames != null && !groupVariableNames
+        .equals(atomGroupVariableNames)))
+        return false;
+      groupVariableNames = atomGroupVariableNames;
+    }
+
+    Set<@NonNull String> boundVariableNames = new HashSet<>(groupVariableNames);
+
+    for (SWRLAtom atom : query.getSQWRLPhase2BodyAtoms()) {
+      if (query.getSQWRLPhase1BodyAtoms().contains(atom)) // Phase 1 body atoms are repeated in phase 2
+        continue;
+      if (!(atom instanceof SWRLAPIBuiltInAtom))
+        return false;
+
+      SWRLAPIBuiltInAtom builtInAtom = (SWRLAPIBuiltInAtom)atom;
+
+      if (!INCREMENTAL_AGGREGATE_BUILT_IN_NAMES.contains(builtInAtom.getBuiltInPrefixedName())
+        || builtInAtom.getNumberOfArguments() < 2 || !builtInAtom.isArgumentAVariable(0) || !builtInAtom
+        .isArgumentUnbound(0) || !builtInAtom.isArgumentAVariable(1) || !collectionVariableNames
+        .contains(builtInAtom.getArgumentVariableName(1)))
+        return false;
+      boundVariableNames.add(builtInAtom.getArgumentVariableName(0));
+    }
+
+    for (SWRLAtom atom : query.getHeadAtoms()) {
+      if (!(atom instanceof SWRLAPIBuiltInAtom))
+        return false;
+
+      SWRLAPIBuiltInAtom builtInAtom = (SWRLAPIBuiltInAtom)atom;
+
+      for (int argumentIndex = 0; argumentIndex < builtInAtom.getNumberOfArguments(); argumentIndex++)
+        if (builtInAtom.isArgumentAVariable(argumentIndex) && !boundVariableNames
+          .contains(builtInAtom.getArgumentVariableName(argumentIndex)))
+          return false;
+    }
+    return true;
+  }
+
+  /**
+   * The rows of a query without collections are limited if its head selects them with a single select built-in and
+   * slices them with a single operator that only takes rows from the start of its result. Queries with aggregates in
+   * their head and queries sliced by operators counting from the end of their result need all their rows.
+   */
+  @Nullable private DroolsSQWRLRowLimit getSQWRLRowLimit(@NonNull SQWRLQuery query) throws SWRLBuiltInException
+  {
+    SWRLAPIBuiltInAtom selectAtom = null, sliceAtom = null;
+    List<@NonNull SWRLAPIBuiltInAtom> orderByAtoms = new ArrayList<>();
+
+    for (SWRLAtom atom : query.getHeadAtoms()) {
+      if (!(atom instanceof SWRLAPIBuiltInAtom))
+        return null;
+
+      SWRLAPIBuiltInAtom builtInAtom = (SWRLAPIBuiltInAtom)atom;
+      String builtInName = builtInAtom.getBuiltInPrefixedName();
+
+      if (builtInName.equals(SQWRLNames.Select) || builtInName.equals(SQWRLNames.SelectDistinct)) {
+        if (selectAtom != null)
+          return null;
+        selectAtom = builtInAtom;
+      } else if (builtInName.equals(SQWRLNames.OrderBy) || builtInName.equals(SQWRLNames.OrderByDescending))
+        orderByAtoms.add(builtInAtom);
+      else if (SQWRLNames.isSQWRLHeadSlicingBuiltIn(builtInName)) {
+        if (sliceAtom != null)
+          return null;
+        sliceAtom = builtInAtom;
+      } else if (!builtInName.equals(SQWRLNames.ColumnNames))
+        return null;
+    }
+
+    Integer numberOfRows = sliceAtom != null ? getNumberOfSlicedRows(sliceAtom) : null;
+
+    if (selectAtom == null || numberOfRows == null)
+      return null;
+
+    // The result generator orders rows by the columns of the variables of the order by built-ins in one direction
+    List<@NonNull Integer> orderByColumnIndexes = new ArrayList<>();
+    boolean isAscending = orderByAtoms.isEmpty() || orderByAtoms.get(0).getBuiltInPrefixedName()
+      .equals(SQWRLNames.OrderBy);
+
+    for (SWRLAPIBuiltInAtom orderByAtom : orderByAtoms) {
+      if (orderByAtom.getBuiltInPrefixedName().equals(SQWRLNames.OrderBy) != isAscending)
+        return null;
+
+      for (int argumentIndex = 0; argumentIndex < orderByAtom.getNumberOfArguments(); argumentIndex++) {
+        if (!orderByAtom.isArgumentAVariable(argumentIndex))
+          return null;
+
+        String variableName = orderByAtom.getArgumentVariableName(argumentIndex);
+        int numberOfOrderByColumns = orderByColumnIndexes.size();
+
+        for (int columnIndex = 0; columnIndex < selectAtom.getNumberOfArguments(); columnIndex++)
+          if (selectAtom.isArgumentAVariable(columnIndex) && selectAtom.getArgumentVariableName(columnIndex)
+            .equals(variableName))
+            orderByColumnIndexes.add(columnIndex);
+
+        if (orderByColumnIndexes.size() == numberOfOrderByColumns)
+          return null;
+      }
+    }
+
+    boolean isDistinct = selectAtom.getBuiltInPrefixedName().equals(SQWRLNames.SelectDistinct);
+
+    if (isDistinct && orderByColumnIndexes.isEmpty()) // Duplicates are removed by sorting the rows by all columns
+      for (int columnIndex = 0; columnIndex < selectAtom.getNumberOfArguments(); columnIndex++)
+        orderByColumnIndexes.add(columnIndex);
+
+    return new DroolsSQWRLRowLimit(query.getQueryName(), numberOfRows, orderByColumnIndexes, isAscending, isDistinct);
+  }
+
+  /**
+   * @return The number of rows from the start of a result needed by a slicing operator, or null if it needs all rows
+   */
+  @Nullable private static Integer getNumberOfSlicedRows(@NonNull SWRLAPIBuiltInAtom sliceAtom)
+  {
+    List<@NonNull SWRLBuiltInArgument> arguments = sliceAtom.getBuiltInArguments();
+    Integer n = arguments.size() > 0 ? getPositiveIntegerArgument(arguments.get(0)) : null;
+    Integer sliceSize = arguments.size() > 1 ? getPositiveIntegerArgument(arguments.get(1)) : null;
+    long numberOfRows;
+
+    if (n == null)
+      return null;
+
+    switch (sliceAtom.getBuiltInPrefixedName()) {
+    case SQWRLNames.Limit:
+    case SQWRLNames.Nth:
+    case SQWRLNames.FirstN:
+    case SQWRLNames.LeastN:
+      numberOfRows = n;
+      break;
+    case SQWRLNames.NthSlice:
+      numberOfRows = sliceSize != null ? (long)n + sliceSize - 1 : -1;
+      break;
+    case SQWRLNames.NthLastSlice:
+    case SQWRLNames.NthGreatestSlice: // The result generator takes these slices counting from the start of the result
+      numberOfRows = sliceSize != null ? (long)n + sliceSize : -1;
+      break;
+    default:
+      return null;
+    }
+    return numberOfRows > 0 && numberOfRows <= Integer.MAX_VALUE ? (int)numberOfRows : null;
+  }
+
+  @Nullable private static Integer getPositiveIntegerArgument(@NonNull SWRLBuiltInArgument argument)
+  {
+    if (!(argument instanceof SWRLLiteralBuiltInArgument))
+      return null;
+
+    try {
+      int value = Integer.parseInt(((SWRLLiteralBuiltInArgument)argument).getLiteral().getLiteral().trim());
+      return value > 0 ? value : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  @NonNull private static String aggregateBuiltIn2MethodName(@NonNull String builtInName)
+  {
+    switch (builtInName) {
+    case SQWRLNames.Size:
+      return "getSize";
+    case SQWRLNames.Sum:
+      return "getSum";
+    case SQWRLNames.Avg:
+      return "getAverage";
+    case SQWRLNames.Min:
+      return "getMinimum";
+    case SQWRLNames.Max:
+      return "getMaximum";
+    default:
+      throw new IllegalArgumentException("no incremental aggregate for built-in " + builtInName);
+    }
+  }
+
   @NonNull private String getQueryPreamble(@NonNull String queryName)
   {
     return "rule \"" + queryName + "\" \nwhen ";
   }
 
+  @NonNull private String getDRLQueryPreamble(@NonNull String drlQueryName)
+  {
+    return "query \"" + drlQueryName + "\" ";
+  }
+
   @NonNull private String addQueryEndClause(@NonNull String queryText)
   {
     return queryText + "\nend";
@@ -10,25 +10,28 @@ import org.semanticweb.owlapi.model.SWRLDifferentIndividualsAtom;
 import org.semanticweb.owlapi.model.SWRLIArgument;
 import org.semanticweb.owlapi.model.SWRLObjectPropertyAtom;
 import org.semanticweb.owlapi.model.SWRLSameIndividualAtom;
+import org.semanticweb.owlapi.model.SWRLVariable;
 import org.swrlapi.bridge.SWRLRuleEngineBridge;
 import org.swrlapi.bridge.converters.TargetRuleEngineSWRLBodyAtomWithVariableNamesConverter;
 import org.swrlapi.builtins.arguments.SWRLBuiltInArgument;
+import org.swrlapi.builtins.arguments.SWRLLiteralBuiltInArgument;
 import org.swrlapi.core.SWRLAPIBuiltInAtom;
 import org.swrlapi.drools.converters.id.DroolsOWLDataRangeHandler;
 import org.swrlapi.drools.converters.id.DroolsOWLEntity2NameConverter;
 import org.swrlapi.drools.converters.id.DroolsSWRLVariable2NameConverter;
 import org.swrlapi.drools.converters.oo.DroolsOWLClassExpressionHandler;
 import org.swrlapi.drools.converters.oo.DroolsOWLPropertyExpressionHandler;
+import org.swrlapi.drools.core.DroolsBuiltInInvocationSite;
 import org.swrlapi.drools.core.DroolsNames;
+import org.swrlapi.drools.core.DroolsNativeSWRLBuiltIns;
 import org.swrlapi.drools.core.DroolsSWRLBuiltInInvoker;
-import org.swrlapi.drools.sqwrl.VPATH;
+import org.swrlapi.drools.owl.literals.L;
 import org.swrlapi.drools.swrl.BAP;
-import org.swrlapi.drools.swrl.BAVNs;
 import org.swrlapi.exceptions.SWRLBuiltInException;
-import org.swrlapi.exceptions.TargetSWRLRuleEngineException;
 import org.swrlapi.exceptions.TargetSWRLRuleEngineInternalException;
 import org.swrlapi.exceptions.TargetSWRLRuleEngineNotImplementedFeatureException;
 
+import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -53,16 +56,23 @@ public class DroolsSWRLBodyAtom2DRLConverter extends DroolsDRLConverterBase
   @NonNull private final DroolsOWLLiteral2DRLConverter droolsOWLLiteral2DRLConverter;
   @NonNull private final DroolsOWLIndividual2DRLConverter droolsOWLIndividual2DRLConverter;
   @NonNull private final DroolsOWLEntity2NameConverter droolsOWLEntity2NameConverter;
+  @NonNull private final DroolsSWRLBuiltInInvoker builtInInvoker;
+
+  private static final String BUILT_IN_ARGUMENTS_PATTERN_VARIABLE_PREFIX = "bap";
+  private static final String BUILT_IN_INVOCATION_REQUEST_VARIABLE_PREFIX = "bir";
+
+  @NonNull private final Set<@NonNull String> literalVariableNames; // Variables bound to data property values
 
   private int builtInIndexInBody; // Each built-in atom in the body gets a unique index, starting at 0
 
   public DroolsSWRLBodyAtom2DRLConverter(@NonNull SWRLRuleEngineBridge bridge,
     @NonNull DroolsOWLClassExpressionHandler droolsOWLClassExpressionHandler,
     @NonNull DroolsOWLPropertyExpressionHandler droolsOWLPropertyExpressionHandler,
-    @NonNull DroolsOWLDataRangeHandler droolsOWLDataRangeHandler)
+    @NonNull DroolsOWLDataRangeHandler droolsOWLDataRangeHandler, @NonNull DroolsSWRLBuiltInInvoker builtInInvoker)
   {
     super(bridge);
 
+    this.builtInInvoker = builtInInvoker;
     this.droolsOWLClassExpressionHandler = droolsOWLClassExpressionHandler;
     this.droolsOWLPropertyExpressionHandler = droolsOWLPropertyExpressionHandler;
     this.droolsOWLDataRangeHandler = droolsOWLDataRangeHandler;
@@ -76,11 +86,13 @@ public class DroolsSWRLBodyAtom2DRLConverter extends DroolsDRLConverterBase
       droolsSWRLVariable2NameConverter, droolsOWLLiteral2DRLConverter, droolsOWLIndividual2DRLConverter,
       droolsOWLEntity2NameConverter);
 
+    this.literalVariableNames = new HashSet<>();
     this.builtInIndexInBody = 0;
   }
 
   public void reset()
   {
+    this.literalVariableNames.clear();
     this.builtInIndexInBody = 0;
   }
 
@@ -150,6 +162,10 @@ public class DroolsSWRLBodyAtom2DRLConverter extends DroolsDRLConverterBase
       .convert(argument2, DroolsNames.OBJECT_FIELD_NAME, previouslyEncounteredVariableNames);
     representation += ")";
 
+    if (argument2 instanceof SWRLVariable)
+      this.literalVariableNames
+        .add(getDroolsSWRLVariable2NameConverter().swrlVariable2VariableName((SWRLVariable)argument2));
+
     return representation;
   }
 
@@ -192,84 +208,124 @@ public class DroolsSWRLBodyAtom2DRLConverter extends DroolsDRLConverterBase
   {
     String ruleName = builtInAtom.getRuleName();
     String builtInPrefixedName = builtInAtom.getBuiltInPrefixedName();
+
+    if (isInlineableComparison(builtInAtom, previouslyEncounteredVariableNames))
+      return convertInlineComparison(builtInAtom);
+
+    DroolsBuiltInInvocationSite site = defineBuiltInInvocationSite(getBuiltInInvoker(), builtInAtom,
+      this.builtInIndexInBody, false);
+    boolean isBatched = isBatched(builtInAtom);
     boolean variableArgumentEncountered = false;
+    String patternVariableName = getDroolsSWRLVariable2NameConverter()
+      .variableName2DRL(BUILT_IN_ARGUMENTS_PATTERN_VARIABLE_PREFIX + this.builtInIndexInBody);
+    String requestVariableName = getDroolsSWRLVariable2NameConverter()
+      .variableName2DRL(BUILT_IN_INVOCATION_REQUEST_VARIABLE_PREFIX + this.builtInIndexInBody);
     String representation = DroolsNames.BUILT_IN_ARGUMENTS_PATTERN_CLASS_NAME + "(";
-    boolean isFirst;
+    String positionalPatterns = "";
+    Set<@NonNull String> positionallyBoundVariableNames = new HashSet<>();
 
+    // The first arguments are bound through the fields of the pattern. Drools does not support bindings to method
+    // calls in a pattern whose values are later passed to a built-in, so further unbound arguments are bound by
+    // separate patterns over the positional accessor.
     int argumentNumber = 1;
     for (SWRLBuiltInArgument argument : builtInAtom.getBuiltInArguments()) {
       if (argument.isVariable()) {
         String variableName = getDroolsSWRLVariable2NameConverter().swrlVariable2VariableName(argument.asVariable());
-        if (variableArgumentEncountered)
-          representation += ", ";
-        representation += getDroolsSWRLVariable2NameConverter()
-          .variableName2DRL(variableName, DroolsNames.BUILT_IN_ARGUMENT_PATTERN_FIELD_NAME_PREFIX + argumentNumber,
-            previouslyEncounteredVariableNames);
-        variableArgumentEncountered = true;
+        String variableDRL = getDroolsSWRLVariable2NameConverter().variableName2DRL(variableName);
+        String positionalAccessor = "getArgument(" + argumentNumber + ")";
+
+        if (argumentNumber <= BAP.NumberOfArgumentFields || (previouslyEncounteredVariableNames.contains(variableName)
+          && !positionallyBoundVariableNames.contains(variableName))) {
+          String fieldName = argumentNumber <= BAP.NumberOfArgumentFields ?
+            DroolsNames.BUILT_IN_ARGUMENT_PATTERN_FIELD_NAME_PREFIX + argumentNumber :
+            positionalAccessor;
+          if (variableArgumentEncountered)
+            representation += ", ";
+          representation += getDroolsSWRLVariable2NameConverter()
+            .variableName2DRL(variableName, fieldName, previouslyEncounteredVariableNames);
+          variableArgumentEncountered = true;
+        } else if (positionallyBoundVariableNames.contains(variableName))
+          positionalPatterns += " " + DroolsNames.BUILT_IN_ARGUMENT_CLASS_NAME + "(this==" + variableDRL + ") from "
+            + patternVariableName + "." + positionalAccessor;
+        else {
+          previouslyEncounteredVariableNames.add(variableName);
+          positionallyBoundVariableNames.add(variableName);
+          positionalPatterns += " " + variableDRL + ":" + DroolsNames.BUILT_IN_ARGUMENT_CLASS_NAME + "() from "
+            + patternVariableName + "." + positionalAccessor;
+        }
       }
       argumentNumber++;
-      if (argumentNumber > BAP.MaxArguments)
-        throw new TargetSWRLRuleEngineException(
-          "at most " + BAP.MaxArguments + " built-in arguments currently supported; built-in name "
-            + builtInPrefixedName);
     }
 
-    representation +=
-      ") from invoker.invoke(\"" + ruleName + "\", \"" + builtInPrefixedName + "\", " + this.builtInIndexInBody
-        + ", false, ";
-
-    if (builtInAtom.getPathVariableNames().size() > VPATH.MaxArguments)
-      throw new TargetSWRLRuleEngineException(
-        "at most " + VPATH.MaxArguments + " path variables supported per built-in; built-in name "
-          + builtInPrefixedName);
-
-    isFirst = true;
-    representation += "new " + DroolsNames.BUILT_IN_VARIABLE_PATH_CLASS_NAME + "(";
-    for (String variableName : builtInAtom.getPathVariableNames()) {
-      if (!isFirst)
-        representation += ", ";
-      representation += getDroolsSWRLVariable2NameConverter().variableName2DRL(variableName);
-      isFirst = false;
-    }
-    representation += "), ";
+    if (!positionalPatterns.isEmpty())
+      representation = patternVariableName + ":" + representation;
+
+    // A batched built-in is requested when the rule condition is evaluated. The rule continues once the rule engine has
+    // evaluated the batch and inserted the request holding its results into the working memory.
+    if (isBatched)
+      representation = requestVariableName + ":" + DroolsNames.BUILT_IN_INVOCATION_REQUEST_CLASS_NAME
+        + "() from invoker.request(" + site.getId() + ", " + builtInInvocationValueArray2DRL(site, builtInAtom,
+        getSWRLBuiltInArgumentConverter()) + ") " + DroolsNames.BUILT_IN_INVOCATION_REQUEST_CLASS_NAME + "(this=="
+        + requestVariableName + ") " + representation + ") from " + requestVariableName + ".getResults()";
+    else
+      representation += ") from invoker.invoke(" + site.getId() + builtInInvocationValues2DRL(site, builtInAtom,
+        getSWRLBuiltInArgumentConverter()) + ")";
+    representation += positionalPatterns;
 
-    if (builtInAtom.getNumberOfArguments() > BAVNs.MaxArguments)
-      throw new TargetSWRLRuleEngineException(
-        "at most " + BAVNs.MaxArguments + " built-in arguments supported; built-in name " + builtInPrefixedName);
+    this.builtInIndexInBody++;
 
-    representation += "new " + DroolsNames.BUILT_IN_VARIABLE_NAMES_CLASS_NAME + "(";
-    isFirst = true;
-    for (SWRLBuiltInArgument argument : builtInAtom.getBuiltInArguments()) {
-      if (!isFirst)
-        representation += ", ";
-      if (argument.isVariable())
-        representation +=
-          "\"" + getDroolsSWRLVariable2NameConverter().swrlVariable2VariableName(argument.asVariable()) + "\"";
-      else
-        representation += "\"\"";
-      isFirst = false;
-    }
-    representation += "), ";
+    return representation;
+  }
 
-    if (builtInAtom.getNumberOfArguments() > DroolsSWRLBuiltInInvoker.MAX_BUILTIN_ARGUMENTS)
-      throw new TargetSWRLRuleEngineException(
-        "at most " + DroolsSWRLBuiltInInvoker.MAX_BUILTIN_ARGUMENTS + " allowed; built-in name " + builtInPrefixedName);
+  private boolean isBatched(@NonNull SWRLAPIBuiltInAtom builtInAtom)
+  {
+    return getBuiltInInvoker().getBatcher().isBatchable(builtInAtom.getBuiltInPrefixedName()) && builtInAtom
+      .getPathVariableNames().isEmpty();
+  }
+
+  /*
+   * A comparison built-in is evaluated natively in an eval, without an invocation site, if its arguments are known to be
+   * literals when the rule is converted: literals of a datatype it compares natively, or variables bound to data
+   * property values. Other comparisons are invoked like any other built-in.
+   */
+  private boolean isInlineableComparison(@NonNull SWRLAPIBuiltInAtom builtInAtom,
+    @NonNull Set<@NonNull String> previouslyEncounteredVariableNames) throws SWRLBuiltInException
+  {
+    if (!DroolsNativeSWRLBuiltIns.isComparison(builtInAtom.getBuiltInPrefixedName())
+      || builtInAtom.getNumberOfArguments() != 2 || !builtInAtom.getPathVariableNames().isEmpty())
+      return false;
 
-    isFirst = true;
     for (SWRLBuiltInArgument argument : builtInAtom.getBuiltInArguments()) {
-      if (!isFirst)
-        representation += ", ";
-      representation += getSWRLBuiltInArgumentConverter().convert(argument);
-      isFirst = false;
+      if (argument.isVariable()) {
+        String variableName = getDroolsSWRLVariable2NameConverter().swrlVariable2VariableName(argument.asVariable());
+        if (!previouslyEncounteredVariableNames.contains(variableName) || !this.literalVariableNames
+          .contains(variableName))
+          return false;
+      } else if (!(argument instanceof SWRLLiteralBuiltInArgument) || !DroolsNativeSWRLBuiltIns
+        .isComparable(builtInAtom.getBuiltInPrefixedName(), literal((SWRLLiteralBuiltInArgument)argument)))
+        return false;
     }
+    return true;
+  }
 
-    representation += ")";
+  @NonNull private String convertInlineComparison(@NonNull SWRLAPIBuiltInAtom builtInAtom)
+  {
+    String representation =
+      "eval(" + DroolsNames.NATIVE_BUILT_INS_CLASS_NAME + ".compare(" + addQuotes(
+        builtInAtom.getBuiltInPrefixedName()) + ", " + getSWRLBuiltInArgumentConverter()
+        .convert(builtInAtom.getBuiltInArguments().get(0)) + ", " + getSWRLBuiltInArgumentConverter()
+        .convert(builtInAtom.getBuiltInArguments().get(1)) + ") == Boolean.TRUE)";
 
-    this.builtInIndexInBody++;
+    this.builtInIndexInBody++; // Built-ins keep the indexes they would have if the comparison were invoked
 
     return representation;
   }
 
+  @NonNull private L literal(@NonNull SWRLLiteralBuiltInArgument argument)
+  {
+    return new L(argument.getLiteral().getLiteral(), iri2PrefixedName(argument.getLiteral().getDatatype().getIRI()));
+  }
+
   @NonNull public String convert(@NonNull SWRLAtom atom,
     @NonNull Set<@NonNull String> previouslyEncounteredVariableNames) throws SWRLBuiltInException
   { // TODO Visitor to replace instanceof: SWRLAtomVisitorExP
@@ -296,6 +352,11 @@ public class DroolsSWRLBodyAtom2DRLConverter extends DroolsDRLConverterBase
     return this.droolsBodyAtomArgument2DRLConverter;
   }
 
+  @NonNull private DroolsSWRLBuiltInInvoker getBuiltInInvoker()
+  {
+    return this.builtInInvoker;
+  }
+
   @NonNull private DroolsSWRLBuiltInArgument2DRLConverter getSWRLBuiltInArgumentConverter()
   {
     return this.droolsBuiltInArgument2DRLConverter;
@@ -12,13 +12,12 @@ import org.semanticweb.owlapi.model.SWRLObjectPropertyAtom;
 import org.semanticweb.owlapi.model.SWRLSameIndividualAtom;
 import org.swrlapi.bridge.SWRLRuleEngineBridge;
 import org.swrlapi.bridge.converters.TargetRuleEngineSWRLHeadAtomConverter;
-import org.swrlapi.builtins.arguments.SWRLBuiltInArgument;
 import org.swrlapi.core.SWRLAPIBuiltInAtom;
 import org.swrlapi.drools.converters.oo.DroolsOWLClassExpressionHandler;
 import org.swrlapi.drools.converters.oo.DroolsOWLPropertyExpressionHandler;
+import org.swrlapi.drools.core.DroolsBuiltInInvocationSite;
 import org.swrlapi.drools.core.DroolsNames;
 import org.swrlapi.drools.core.DroolsSWRLBuiltInInvoker;
-import org.swrlapi.exceptions.SWRLAPIException;
 import org.swrlapi.exceptions.TargetSWRLRuleEngineInternalException;
 import org.swrlapi.exceptions.TargetSWRLRuleEngineNotImplementedFeatureException;
 
@@ -40,12 +39,14 @@ public class DroolsSWRLHeadAtom2DRLConverter extends DroolsDRLConverterBase
   @NonNull private final DroolsSWRLBuiltInArgument2DRLConverter droolsSWRLBuiltInArgument2DRLConverter;
   @NonNull private final DroolsOWLPropertyExpressionHandler droolsOWLPropertyExpressionHandler;
   @NonNull private final DroolsOWLClassExpressionHandler droolsOWLClassExpressionHandler;
+  @NonNull private final DroolsSWRLBuiltInInvoker builtInInvoker;
 
   private int inferredAxiomVariableIndex, builtInIndexInHead;
 
   public DroolsSWRLHeadAtom2DRLConverter(@NonNull SWRLRuleEngineBridge bridge,
     @NonNull DroolsOWLClassExpressionHandler droolsOWLClassExpressionHandler,
-    @NonNull DroolsOWLPropertyExpressionHandler droolsOWLPropertyExpressionHandler)
+    @NonNull DroolsOWLPropertyExpressionHandler droolsOWLPropertyExpressionHandler,
+    @NonNull DroolsSWRLBuiltInInvoker builtInInvoker)
   {
     super(bridge);
 
@@ -54,6 +55,7 @@ public class DroolsSWRLHeadAtom2DRLConverter extends DroolsDRLConverterBase
       droolsOWLClassExpressionHandler, droolsOWLPropertyExpressionHandler);
     this.droolsOWLClassExpressionHandler = droolsOWLClassExpressionHandler;
     this.droolsOWLPropertyExpressionHandler = droolsOWLPropertyExpressionHandler;
+    this.builtInInvoker = builtInInvoker;
 
     this.inferredAxiomVariableIndex = 0;
     this.builtInIndexInHead = 0;
@@ -73,8 +75,7 @@ public class DroolsSWRLHeadAtom2DRLConverter extends DroolsDRLConverterBase
     String representation = DroolsNames.CLASS_ASSERTION_AXIOM_CLASS_NAME + " " + caaVariable + "=new "
       + DroolsNames.CLASS_ASSERTION_AXIOM_CLASS_NAME + "(" + addQuotes(classID) + ", ";
 
-    representation +=
-      "new " + DroolsNames.INDIVIDUAL_CLASS_NAME + "(" + getSWRLHeadAtomArgumentConverter().convert(argument) + ")";
+    representation += canonicalIndividual2DRL(argument);
     representation += "); ";
     representation += "inferrer.infer(" + caaVariable + "); ";
 
@@ -90,11 +91,9 @@ public class DroolsSWRLHeadAtom2DRLConverter extends DroolsDRLConverterBase
     String representation = DroolsNames.OBJECT_PROPERTY_ASSERTION_AXIOM_CLASS_NAME + " " + opaaVariable + "=new "
       + DroolsNames.OBJECT_PROPERTY_ASSERTION_AXIOM_CLASS_NAME + "(";
 
-    representation +=
-      "new " + DroolsNames.INDIVIDUAL_CLASS_NAME + "(" + getSWRLHeadAtomArgumentConverter().convert(argument1) + ")";
+    representation += canonicalIndividual2DRL(argument1);
     representation += ", " + addQuotes(propertyID) + ", ";
-    representation +=
-      "new " + DroolsNames.INDIVIDUAL_CLASS_NAME + "(" + getSWRLHeadAtomArgumentConverter().convert(argument2) + ")";
+    representation += canonicalIndividual2DRL(argument2);
     representation += "); ";
     representation += "inferrer.infer(" + opaaVariable + "); ";
 
@@ -110,8 +109,7 @@ public class DroolsSWRLHeadAtom2DRLConverter extends DroolsDRLConverterBase
     String representation = DroolsNames.DATA_PROPERTY_ASSERTION_AXIOM_CLASS_NAME + " " + dpaaVariable + "=new "
       + DroolsNames.DATA_PROPERTY_ASSERTION_AXIOM_CLASS_NAME + "(";
 
-    representation +=
-      "new " + DroolsNames.INDIVIDUAL_CLASS_NAME + "(" + getSWRLHeadAtomArgumentConverter().convert(argument1) + ")";
+    representation += canonicalIndividual2DRL(argument1);
     representation += ", " + addQuotes(propertyID) + ", ";
     representation +=
       "new " + DroolsNames.LITERAL_CLASS_NAME + "(" + getSWRLHeadAtomArgumentConverter().convert(argument2) + ")";
@@ -129,11 +127,9 @@ public class DroolsSWRLHeadAtom2DRLConverter extends DroolsDRLConverterBase
     String representation = DroolsNames.SAME_INDIVIDUAL_AXIOM_CLASS_NAME + " " + siaVariable + "=new "
       + DroolsNames.SAME_INDIVIDUAL_AXIOM_CLASS_NAME + "(";
 
-    representation +=
-      "new " + DroolsNames.INDIVIDUAL_CLASS_NAME + "(" + getSWRLHeadAtomArgumentConverter().convert(argument1) + ")";
+    representation += canonicalIndividual2DRL(argument1);
     representation += ", ";
-    representation +=
-      "new " + DroolsNames.INDIVIDUAL_CLASS_NAME + "(" + getSWRLHeadAtomArgumentConverter().convert(argument2) + ")";
+    representation += canonicalIndividual2DRL(argument2);
     representation += "); ";
     representation += "inferrer.infer(" + siaVariable + "); ";
 
@@ -148,11 +144,9 @@ public class DroolsSWRLHeadAtom2DRLConverter extends DroolsDRLConverterBase
     String representation = DroolsNames.DIFFERENT_INDIVIDUALS_AXIOM_CLASS_NAME + " " + diaVariable + "=new "
       + DroolsNames.DIFFERENT_INDIVIDUALS_AXIOM_CLASS_NAME + "(";
 
-    representation +=
-      "new " + DroolsNames.INDIVIDUAL_CLASS_NAME + "(" + getSWRLHeadAtomArgumentConverter().convert(argument1) + ")";
+    representation += canonicalIndividual2DRL(argument1);
     representation += ", ";
-    representation +=
-      "new " + DroolsNames.INDIVIDUAL_CLASS_NAME + "(" + getSWRLHeadAtomArgumentConverter().convert(argument2) + ")";
+    representation += canonicalIndividual2DRL(argument2);
     representation += "); ";
     representation += "inferrer.infer(" + diaVariable + "); ";
 
@@ -161,23 +155,11 @@ public class DroolsSWRLHeadAtom2DRLConverter extends DroolsDRLConverterBase
 
   @NonNull @Override public String convert(@NonNull SWRLAPIBuiltInAtom builtInAtom)
   {
-    String builtInName = builtInAtom.getBuiltInPrefixedName();
-    String ruleName = builtInAtom.getRuleName();
+    DroolsBuiltInInvocationSite site = defineBuiltInInvocationSite(this.builtInInvoker, builtInAtom,
+      this.builtInIndexInHead, true);
     String representation =
-      "invoker.invoke(\"" + ruleName + "\", \"" + builtInName + "\", " + this.builtInIndexInHead + ", true, ";
-    boolean isFirst = true;
-
-    if (builtInAtom.getNumberOfArguments() > DroolsSWRLBuiltInInvoker.MAX_BUILTIN_ARGUMENTS)
-      throw new SWRLAPIException(
-        "A maximum of " + DroolsSWRLBuiltInInvoker.MAX_BUILTIN_ARGUMENTS + " arguments can be passed to built-ins");
-
-    for (SWRLBuiltInArgument argument : builtInAtom.getBuiltInArguments()) {
-      if (!isFirst)
-        representation += ", ";
-      representation += getSWRLBuiltInArgumentConverter().convert(argument);
-      isFirst = false;
-    }
-    representation += "); ";
+      "invoker.invoke(" + site.getId() + builtInInvocationValues2DRL(site, builtInAtom,
+        getSWRLBuiltInArgumentConverter()) + "); ";
 
     this.builtInIndexInHead++;
 
@@ -209,6 +191,15 @@ public class DroolsSWRLHeadAtom2DRLConverter extends DroolsDRLConverterBase
       throw new TargetSWRLRuleEngineInternalException("unknown SWRL atom type " + atom.getClass().getCanonicalName());
   }
 
+  /*
+   * Individuals in inferred axioms are obtained from the inferrer so that each distinct individual is represented by a
+   * single instance.
+   */
+  @NonNull private String canonicalIndividual2DRL(@NonNull SWRLIArgument argument)
+  {
+    return "inferrer.getI(" + getSWRLHeadAtomArgumentConverter().convert(argument) + ")";
+  }
+
   @NonNull private DroolsSWRLHeadAtomArgument2DRLConverter getSWRLHeadAtomArgumentConverter()
   {
     return this.droolsSWRLHeadAtomArgument2DRLConverter;
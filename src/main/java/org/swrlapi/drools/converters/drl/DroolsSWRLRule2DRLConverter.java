@@ -33,9 +33,9 @@ public class DroolsSWRLRule2DRLConverter extends DroolsDRLConverterBase
     super(bridge);
 
     this.bodyAtom2DRLConverter = new DroolsSWRLBodyAtom2DRLConverter(bridge, droolsOWLClassExpressionHandler,
-      droolsOWLPropertyExpressionHandler, droolsOWLDataRangeHandler);
+      droolsOWLPropertyExpressionHandler, droolsOWLDataRangeHandler, droolsSWRLRuleEngine.getBuiltInInvoker());
     this.headAtom2DRLConverter = new DroolsSWRLHeadAtom2DRLConverter(bridge, droolsOWLClassExpressionHandler,
-      droolsOWLPropertyExpressionHandler);
+      droolsOWLPropertyExpressionHandler, droolsSWRLRuleEngine.getBuiltInInvoker());
 
     this.droolsSWRLRuleEngine = droolsSWRLRuleEngine;
   }
@@ -53,10 +53,7 @@ public class DroolsSWRLRule2DRLConverter extends DroolsDRLConverterBase
     getDroolsSWRLBodyAtom2DRLConverter().reset();
     getDroolsSWRLHeadAtom2DRLConverter().reset();
 
-    for (SWRLAtom atom : rule.getNonBuiltInAtomsFromBody())
-      drlRule += "\n   " + getDroolsSWRLBodyAtom2DRLConverter().convert(atom, previouslyEncounteredVariableNames) + " ";
-
-    for (SWRLAtom atom : rule.getBuiltInAtomsFromBody())
+    for (SWRLAtom atom : orderBodyAtoms(rule.getBodyAtoms(), getDroolsSWRLRuleEngine().getBuiltInInvoker()))
       drlRule += "\n   " + getDroolsSWRLBodyAtom2DRLConverter().convert(atom, previouslyEncounteredVariableNames) + " ";
 
     drlRule = addRuleThenClause(drlRule);
@@ -28,6 +28,7 @@ import org.swrlapi.builtins.arguments.SWRLNamedIndividualBuiltInArgument;
 import org.swrlapi.builtins.arguments.SWRLObjectPropertyBuiltInArgument;
 import org.swrlapi.builtins.arguments.SWRLObjectPropertyExpressionBuiltInArgument;
 import org.swrlapi.builtins.arguments.SWRLVariableBuiltInArgument;
+import org.swrlapi.drools.core.DroolsBuiltInArgumentConversionCache;
 import org.swrlapi.drools.owl.classes.C;
 import org.swrlapi.drools.owl.classes.CE;
 import org.swrlapi.drools.owl.dataranges.D;
@@ -52,12 +53,15 @@ public class DroolsSWRLBuiltInArgument2BAConverter extends DroolsOOConverterBase
   implements TargetRuleEngineSWRLBuiltInArgumentConverter<BA>, SWRLBuiltInArgumentVisitorEx<BA>
 {
   @NonNull private final DroolsOWLClassExpressionHandler droolsOWLClassExpressionHandler;
+  @NonNull private final DroolsBuiltInArgumentConversionCache conversionCache;
 
   public DroolsSWRLBuiltInArgument2BAConverter(@NonNull SWRLRuleEngineBridge bridge,
-    @NonNull DroolsOWLClassExpressionHandler droolsOWLClassExpressionHandler)
+    @NonNull DroolsOWLClassExpressionHandler droolsOWLClassExpressionHandler,
+    @NonNull DroolsBuiltInArgumentConversionCache conversionCache)
   {
     super(bridge);
     this.droolsOWLClassExpressionHandler = droolsOWLClassExpressionHandler;
+    this.conversionCache = conversionCache;
   }
 
   @NonNull public BA convert(@NonNull SWRLBuiltInArgument argument)
@@ -68,8 +72,13 @@ public class DroolsSWRLBuiltInArgument2BAConverter extends DroolsOOConverterBase
   @NonNull @Override public C convert(@NonNull SWRLClassBuiltInArgument argument)
   {
     OWLClass cls = argument.getOWLClass();
+    C c = this.conversionCache.getBA(cls);
 
-    return getDroolsOWLEntity2OEConverter().convert(cls);
+    if (c == null) {
+      c = getDroolsOWLEntity2OEConverter().convert(cls);
+      this.conversionCache.putBA(cls, c);
+    }
+    return c;
   }
 
   @NonNull @Override public CE convert(SWRLClassExpressionBuiltInArgument argument)
@@ -82,15 +91,25 @@ public class DroolsSWRLBuiltInArgument2BAConverter extends DroolsOOConverterBase
   @NonNull @Override public I convert(@NonNull SWRLNamedIndividualBuiltInArgument argument)
   {
     OWLNamedIndividual individual = argument.getOWLNamedIndividual();
+    I i = this.conversionCache.getBA(individual);
 
-    return getDroolsOWLEntity2OEConverter().convert(individual);
+    if (i == null) {
+      i = getDroolsOWLEntity2OEConverter().convert(individual);
+      this.conversionCache.putBA(individual, i);
+    }
+    return i;
   }
 
   @NonNull @Override public OP convert(@NonNull SWRLObjectPropertyBuiltInArgument argument)
   {
     OWLObjectProperty property = argument.getOWLObjectProperty();
+    OP op = this.conversionCache.getBA(property);
 
-    return getDroolsOWLEntity2OEConverter().convert(property);
+    if (op == null) {
+      op = getDroolsOWLEntity2OEConverter().convert(property);
+      this.conversionCache.putBA(property, op);
+    }
+    return op;
   }
 
   @NonNull @Override public OPE convert(SWRLObjectPropertyExpressionBuiltInArgument argument)
@@ -103,8 +122,13 @@ public class DroolsSWRLBuiltInArgument2BAConverter extends DroolsOOConverterBase
   @NonNull @Override public DP convert(@NonNull SWRLDataPropertyBuiltInArgument argument)
   {
     OWLDataProperty property = argument.getOWLDataProperty();
+    DP dp = this.conversionCache.getBA(property);
 
-    return getDroolsOWLEntity2OEConverter().convert(property);
+    if (dp == null) {
+      dp = getDroolsOWLEntity2OEConverter().convert(property);
+      this.conversionCache.putBA(property, dp);
+    }
+    return dp;
   }
 
   @NonNull @Override public DPE convert(SWRLDataPropertyExpressionBuiltInArgument argument)
@@ -116,22 +140,37 @@ public class DroolsSWRLBuiltInArgument2BAConverter extends DroolsOOConverterBase
   @NonNull @Override public AP convert(@NonNull SWRLAnnotationPropertyBuiltInArgument argument)
   {
     OWLAnnotationProperty property = argument.getOWLAnnotationProperty();
+    AP ap = this.conversionCache.getBA(property);
 
-    return getDroolsOWLEntity2OEConverter().convert(property);
+    if (ap == null) {
+      ap = getDroolsOWLEntity2OEConverter().convert(property);
+      this.conversionCache.putBA(property, ap);
+    }
+    return ap;
   }
 
   @NonNull @Override public D convert(@NonNull SWRLDatatypeBuiltInArgument argument)
   {
     OWLDatatype datatype = argument.getOWLDatatype();
+    D d = this.conversionCache.getBA(datatype);
 
-    return getDroolsOWLEntity2OEConverter().convert(datatype);
+    if (d == null) {
+      d = getDroolsOWLEntity2OEConverter().convert(datatype);
+      this.conversionCache.putBA(datatype, d);
+    }
+    return d;
   }
 
   @NonNull @Override public L convert(@NonNull SWRLLiteralBuiltInArgument argument)
   {
     OWLLiteral literal = argument.getLiteral();
+    L l = this.conversionCache.getBA(literal);
 
-    return getDroolsOWLLiteral2LConverter().convert(literal);
+    if (l == null) {
+      l = getDroolsOWLLiteral2LConverter().convert(literal);
+      this.conversionCache.putBA(literal, l);
+    }
+    return l;
   }
 
   @NonNull @Override public UBA convert(@NonNull SWRLVariableBuiltInArgument argument)
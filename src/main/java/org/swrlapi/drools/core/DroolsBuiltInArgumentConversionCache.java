@@ -0,0 +1,124 @@
+package org.swrlapi.drools.core;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.swrlapi.drools.swrl.BA;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Caches the conversion of Drools built-in arguments to the OWLAPI objects wrapped by SWRLAPI built-in arguments and
+ * the conversion of OWLAPI objects in built-in results back to Drools built-in arguments. Both directions are keyed by
+ * identity: Drools facts hold the same argument instances across activations and built-ins commonly return the
+ * OWLAPI objects they were passed, so identity lookups hit without computing hashes of IRIs or lexical forms.
+ * <p>
+ * Only named entities and literals are cached. Each direction records only the conversions made in that direction, so
+ * a cached value is always what the converter would have produced. The caches are cleared when the rule engine is
+ * reset and whenever a direction exceeds its maximum number of entries.
+ *
+ * @see org.swrlapi.drools.extractors.DroolsSWRLBuiltInArgumentExtractor
+ * @see org.swrlapi.drools.converters.oo.DroolsSWRLBuiltInArgument2BAConverter
+ */
+public class DroolsBuiltInArgumentConversionCache
+{
+  public static final int DEFAULT_MAXIMUM_ENTRIES = 100_000;
+
+  @NonNull private final Map<@NonNull BA, @NonNull OWLObject> ba2OWLObject;
+  @NonNull private final Map<@NonNull OWLObject, @NonNull BA> owlObject2BA;
+
+  private int maximumEntries;
+  private long hits;
+  private long misses;
+
+  public DroolsBuiltInArgumentConversionCache()
+  {
+    this.ba2OWLObject = new IdentityHashMap<>();
+    this.owlObject2BA = new IdentityHashMap<>();
+    this.maximumEntries = DEFAULT_MAXIMUM_ENTRIES;
+  }
+
+  public void clear()
+  {
+    this.ba2OWLObject.clear();
+    this.owlObject2BA.clear();
+  }
+
+  /**
+   * @param maximumEntries The maximum number of entries in each direction; zero disables caching
+   */
+  public void setMaximumEntries(int maximumEntries)
+  {
+    if (maximumEntries < 0)
+      throw new IllegalArgumentException("maximum number of cached built-in argument conversions must not be negative");
+
+    this.maximumEntries = maximumEntries;
+    clear();
+  }
+
+  public int size()
+  {
+    return this.ba2OWLObject.size() + this.owlObject2BA.size();
+  }
+
+  public long getHits()
+  {
+    return this.hits;
+  }
+
+  public long getMisses()
+  {
+    return this.misses;
+  }
+
+  /**
+   * @param ba A Drools built-in argument
+   * @return The OWLAPI object previously extracted from the argument, or null if none is cached
+   */
+  @SuppressWarnings("unchecked") @Nullable public <T extends OWLObject> T getOWLObject(@NonNull BA ba)
+  {
+    return (T)record(this.ba2OWLObject.get(ba));
+  }
+
+  public void putOWLObject(@NonNull BA ba, @NonNull OWLObject owlObject)
+  {
+    if (this.maximumEntries == 0)
+      return;
+
+    if (this.ba2OWLObject.size() >= this.maximumEntries)
+      this.ba2OWLObject.clear();
+
+    this.ba2OWLObject.put(ba, owlObject);
+  }
+
+  /**
+   * @param owlObject An OWLAPI object in a built-in result
+   * @return The Drools built-in argument previously converted from the object, or null if none is cached
+   */
+  @SuppressWarnings("unchecked") @Nullable public <T extends BA> T getBA(@NonNull OWLObject owlObject)
+  {
+    return (T)record(this.owlObject2BA.get(owlObject));
+  }
+
+  public void putBA(@NonNull OWLObject owlObject, @NonNull BA ba)
+  {
+    if (this.maximumEntries == 0)
+      return;
+
+    if (this.owlObject2BA.size() >= this.maximumEntries)
+      this.owlObject2BA.clear();
+
+    this.owlObject2BA.put(owlObject, ba);
+  }
+
+  @Nullable private <T> T record(@Nullable T value)
+  {
+    if (value != null)
+      this.hits++;
+    else
+      this.misses++;
+
+    return value;
+  }
+}
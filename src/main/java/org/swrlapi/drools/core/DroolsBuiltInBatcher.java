@@ -0,0 +1,163 @@
+package org.swrlapi.drools.core;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.swrlapi.drools.swrl.BA;
+import org.swrlapi.drools.swrl.BIR;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Collects the invocations of batchable built-ins in rule bodies. Batchable built-ins are not invoked when a rule
+ * condition is evaluated. Instead, the rule binds a request for the invocation and the argument values of each distinct
+ * invocation are queued. The queued invocations are evaluated together once the current firing cycle is complete.
+ * Each request is then inserted into the working memory holding its resulting built-in argument patterns, which the
+ * rules that made the request match against.
+ * <p>
+ * Batching is opt-in per built-in. It suits built-ins with high per-call latency, such as those calling out to remote
+ * services, whose invocations can be overlapped by supplying an executor. Built-in libraries whose built-ins are
+ * evaluated concurrently must be thread-safe. Without an executor the batch is evaluated sequentially on the rule
+ * engine thread.
+ *
+ * @see DroolsSWRLBuiltInInvoker#request(int, BA[])
+ * @see DroolsSWRLBuiltInInvoker#evaluateBatchedInvocations()
+ */
+public class DroolsBuiltInBatcher
+{
+  @NonNull private final Set<@NonNull String> batchableBuiltInNames;
+  @NonNull private final Map<@NonNull DroolsBuiltInInvocationPattern, @NonNull BIR> requests;
+  @NonNull private final List<@NonNull Invocation> pendingInvocations;
+  @Nullable private Executor executor;
+
+  public DroolsBuiltInBatcher()
+  {
+    this.batchableBuiltInNames = new HashSet<>();
+    this.requests = new HashMap<>();
+    this.pendingInvocations = new ArrayList<>();
+    this.executor = null;
+  }
+
+  /**
+   * Declare a built-in as batchable. Takes effect for rules converted after the declaration.
+   *
+   * @param builtInName The prefixed name of the built-in
+   */
+  public void declareBatchable(@NonNull String builtInName)
+  {
+    this.batchableBuiltInNames.add(builtInName);
+  }
+
+  public void declareNotBatchable(@NonNull String builtInName)
+  {
+    this.batchableBuiltInNames.remove(builtInName);
+  }
+
+  public boolean isBatchable(@NonNull String builtInName)
+  {
+    return this.batchableBuiltInNames.contains(builtInName);
+  }
+
+  public boolean hasBatchableBuiltIns()
+  {
+    return !this.batchableBuiltInNames.isEmpty();
+  }
+
+  /**
+   * @param executor The executor on which batched invocations are evaluated, or null to evaluate them sequentially
+   */
+  public void setExecutor(@Nullable Executor executor)
+  {
+    this.executor = executor;
+  }
+
+  @Nullable public Executor getExecutor()
+  {
+    return this.executor;
+  }
+
+  public int getNumberOfPendingInvocations()
+  {
+    return this.pendingInvocations.size();
+  }
+
+  /**
+   * Discard all pending and previously requested invocations.
+   */
+  public void clear()
+  {
+    this.requests.clear();
+    this.pendingInvocations.clear();
+  }
+
+  /**
+   * Request an invocation of the built-in at a site with the values currently held by the site. An invocation that was
+   * already requested with the same values is not queued again; its existing request is returned instead.
+   *
+   * @return The request for the invocation
+   */
+  @NonNull BIR request(@NonNull DroolsBuiltInInvocationSite site)
+  {
+    DroolsBuiltInInvocationPattern invocationPattern = new DroolsBuiltInInvocationPattern(site.getRuleName(),
+      site.getBuiltInName(), site.getBuiltInIndex(), site.isInConsequent(), site.getPathArguments(),
+      site.getArguments());
+    BIR request = this.requests.get(invocationPattern);
+
+    if (request == null) {
+      request = new BIR(site.getId());
+      this.requests.put(invocationPattern.copy(), request);
+      this.pendingInvocations.add(new Invocation(site, site.getArguments().clone(), request));
+    }
+    return request;
+  }
+
+  /**
+   * @return The invocations queued since the previous call
+   */
+  @NonNull List<@NonNull Invocation> takePendingInvocations()
+  {
+    if (this.pendingInvocations.isEmpty())
+      return Collections.emptyList();
+
+    List<@NonNull Invocation> invocations = new ArrayList<>(this.pendingInvocations);
+    this.pendingInvocations.clear();
+
+    return invocations;
+  }
+
+  static final class Invocation
+  {
+    @NonNull private final DroolsBuiltInInvocationSite site;
+    @NonNull private final BA @NonNull [] arguments;
+    @NonNull private final BIR request;
+
+    private Invocation(@NonNull DroolsBuiltInInvocationSite site, @NonNull BA @NonNull [] arguments,
+      @NonNull BIR request)
+    {
+      this.site = site;
+      this.arguments = arguments;
+      this.request = request;
+    }
+
+    @NonNull DroolsBuiltInInvocationSite getSite()
+    {
+      return this.site;
+    }
+
+    @NonNull BA @NonNull [] getArguments()
+    {
+      return this.arguments;
+    }
+
+    @NonNull BIR getRequest()
+    {
+      return this.request;
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package org.swrlapi.drools.core;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.dataflow.qual.SideEffectFree;
+
+/**
+ * An immutable snapshot of the counters of a {@link DroolsBuiltInResultCache} or a {@link DroolsSQWRLResultCache}. The
+ * estimated size is approximate and is intended for sizing the cache rather than for precise memory accounting.
+ *
+ * @see DroolsBuiltInResultCache#getStatistics()
+ * @see DroolsSQWRLResultCache#getStatistics()
+ */
+public class DroolsBuiltInCacheStatistics
+{
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+  private final long entries;
+  private final long weight;
+  private final long estimatedBytes;
+
+  public DroolsBuiltInCacheStatistics(long hits, long misses, long evictions, long entries, long weight,
+    long estimatedBytes)
+  {
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+    this.entries = entries;
+    this.weight = weight;
+    this.estimatedBytes = estimatedBytes;
+  }
+
+  public long getHits()
+  {
+    return this.hits;
+  }
+
+  public long getMisses()
+  {
+    return this.misses;
+  }
+
+  public long getEvictions()
+  {
+    return this.evictions;
+  }
+
+  public long getEntries()
+  {
+    return this.entries;
+  }
+
+  public long getWeight()
+  {
+    return this.weight;
+  }
+
+  public long getEstimatedBytes()
+  {
+    return this.estimatedBytes;
+  }
+
+  public double getHitRate()
+  {
+    long requests = this.hits + this.misses;
+
+    return requests == 0 ? 0.0 : (double)this.hits / requests;
+  }
+
+  @NonNull @SideEffectFree @Override public String toString()
+  {
+    return "(hits=" + this.hits + ", misses=" + this.misses + ", evictions=" + this.evictions + ", entries="
+      + this.entries + ", weight=" + this.weight + ", estimatedBytes=" + this.estimatedBytes + ")";
+  }
+}
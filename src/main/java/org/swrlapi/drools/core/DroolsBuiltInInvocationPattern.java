@@ -0,0 +1,88 @@
+package org.swrlapi.drools.core;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.dataflow.qual.Deterministic;
+import org.checkerframework.dataflow.qual.SideEffectFree;
+import org.swrlapi.drools.owl.core.DroolsHashCodes;
+import org.swrlapi.drools.swrl.BA;
+
+import java.util.Arrays;
+
+/**
+ * An immutable key identifying an invocation of a SWRL built-in from a rule body. It is built directly from the Drools
+ * built-in arguments so that the result cache in {@link DroolsSWRLBuiltInInvoker} can be consulted before any
+ * arguments are converted to their SWRLAPI equivalents.
+ *
+ * @see DroolsSWRLBuiltInInvoker
+ */
+final class DroolsBuiltInInvocationPattern
+{
+  @NonNull private final String ruleName;
+  @NonNull private final String builtInName;
+  private final int builtInIndex;
+  private final boolean isInConsequent;
+  @NonNull private final BA @NonNull [] pathArguments;
+  @NonNull private final BA @NonNull [] arguments;
+  private final int hash;
+
+  /**
+   * The supplied arrays are not copied. A pattern built over arrays that are later modified may only be used for
+   * lookups; use {@link #copy()} to obtain a pattern that can be stored.
+   */
+  DroolsBuiltInInvocationPattern(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
+    boolean isInConsequent, @NonNull BA @NonNull [] pathArguments, @NonNull BA @NonNull [] arguments)
+  {
+    this.ruleName = ruleName;
+    this.builtInName = builtInName;
+    this.builtInIndex = builtInIndex;
+    this.isInConsequent = isInConsequent;
+    this.pathArguments = pathArguments;
+    this.arguments = arguments;
+
+    int h = DroolsHashCodes.seed(DroolsBuiltInInvocationPattern.class);
+    h = DroolsHashCodes.combine(h, ruleName);
+    h = DroolsHashCodes.combine(h, builtInName);
+    h = 31 * h + builtInIndex;
+    h = 31 * h + (isInConsequent ? 1 : 0);
+    h = 31 * h + Arrays.hashCode(pathArguments);
+    h = 31 * h + Arrays.hashCode(arguments);
+    this.hash = DroolsHashCodes.mix(h);
+  }
+
+  @NonNull DroolsBuiltInInvocationPattern copy()
+  {
+    return new DroolsBuiltInInvocationPattern(this.ruleName, this.builtInName, this.builtInIndex, this.isInConsequent,
+      this.pathArguments.clone(), this.arguments.clone());
+  }
+
+  @NonNull String getBuiltInName()
+  {
+    return this.builtInName;
+  }
+
+  @SideEffectFree @Deterministic @Override public boolean equals(@Nullable Object obj)
+  {
+    if (this == obj)
+      return true;
+    if (!(obj instanceof DroolsBuiltInInvocationPattern))
+      return false;
+
+    DroolsBuiltInInvocationPattern p = (DroolsBuiltInInvocationPattern)obj;
+
+    return this.hash == p.hash && this.builtInIndex == p.builtInIndex && this.isInConsequent == p.isInConsequent
+      && this.ruleName.equals(p.ruleName) && this.builtInName.equals(p.builtInName) && Arrays
+      .equals(this.arguments, p.arguments) && Arrays.equals(this.pathArguments, p.pathArguments);
+  }
+
+  @SideEffectFree @Deterministic @Override public int hashCode()
+  {
+    return this.hash;
+  }
+
+  @NonNull @SideEffectFree @Override public String toString()
+  {
+    return this.ruleName + "." + this.builtInName + "." + this.builtInIndex + "." + this.isInConsequent + Arrays
+      .toString(this.pathArguments) + Arrays.toString(this.arguments);
+  }
+}
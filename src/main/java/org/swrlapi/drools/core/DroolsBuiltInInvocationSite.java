@@ -0,0 +1,176 @@
+package org.swrlapi.drools.core;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.dataflow.qual.Deterministic;
+import org.checkerframework.dataflow.qual.SideEffectFree;
+import org.swrlapi.drools.owl.core.DroolsHashCodes;
+import org.swrlapi.drools.swrl.BA;
+
+import java.util.Arrays;
+
+/**
+ * A descriptor of a single built-in atom in a rule, created once when the rule is converted to DRL. Generated rules
+ * refer to the descriptor by its identifier and pass only the values that are not known when the rule is converted,
+ * i.e., the values of any path variables followed by the values of bound variable arguments. Constant arguments and
+ * unbound variable arguments are created once and held by the descriptor.
+ * <p>
+ * Each descriptor owns the argument arrays that are filled on every invocation. They are reused, so a descriptor must
+ * only be used by the rule engine thread and arrays obtained from it must be copied before they are retained.
+ *
+ * @see DroolsSWRLBuiltInInvoker#defineInvocationSite
+ */
+public final class DroolsBuiltInInvocationSite
+{
+  private final int id;
+  @NonNull private final String ruleName;
+  @NonNull private final String builtInName;
+  private final int builtInIndex;
+  private final boolean isInConsequent;
+  private final int numberOfPathVariables;
+  @NonNull private final String @NonNull [] variableNames;
+  @Nullable private final BA @NonNull [] constantArguments; // Null at the positions passed from the rule
+  @NonNull private final int @NonNull [] passedArgumentPositions;
+  @NonNull private final BA @NonNull [] pathArguments;
+  @NonNull private final BA @NonNull [] arguments;
+  private final int hash;
+
+  DroolsBuiltInInvocationSite(int id, @NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
+    boolean isInConsequent, int numberOfPathVariables, @NonNull String @NonNull [] variableNames,
+    @Nullable BA @NonNull [] constantArguments)
+  {
+    this.id = id;
+    this.ruleName = ruleName;
+    this.builtInName = builtInName;
+    this.builtInIndex = builtInIndex;
+    this.isInConsequent = isInConsequent;
+    this.numberOfPathVariables = numberOfPathVariables;
+    this.variableNames = variableNames;
+    this.constantArguments = constantArguments;
+    this.pathArguments = new BA[numberOfPathVariables];
+    this.arguments = new BA[constantArguments.length];
+
+    int numberOfPassedArguments = 0;
+    for (BA constantArgument : constantArguments)
+      if (constantArgument == null)
+        numberOfPassedArguments++;
+
+    this.passedArgumentPositions = new int[numberOfPassedArguments];
+    for (int i = 0, p = 0; i < constantArguments.length; i++) {
+      if (constantArguments[i] == null)
+        this.passedArgumentPositions[p++] = i;
+      else
+        this.arguments[i] = constantArguments[i];
+    }
+
+    int h = DroolsHashCodes.seed(DroolsBuiltInInvocationSite.class);
+    h = DroolsHashCodes.combine(h, ruleName);
+    h = DroolsHashCodes.combine(h, builtInName);
+    h = 31 * h + builtInIndex;
+    h = 31 * h + (isInConsequent ? 1 : 0);
+    h = 31 * h + numberOfPathVariables;
+    h = 31 * h + Arrays.hashCode(variableNames);
+    h = 31 * h + Arrays.hashCode(constantArguments);
+    this.hash = DroolsHashCodes.mix(h);
+  }
+
+  public int getId()
+  {
+    return this.id;
+  }
+
+  @NonNull public String getRuleName()
+  {
+    return this.ruleName;
+  }
+
+  @NonNull public String getBuiltInName()
+  {
+    return this.builtInName;
+  }
+
+  public int getBuiltInIndex()
+  {
+    return this.builtInIndex;
+  }
+
+  public boolean isInConsequent()
+  {
+    return this.isInConsequent;
+  }
+
+  /**
+   * @return The number of values a rule passes when invoking the built-in at this site
+   */
+  public int getNumberOfPassedValues()
+  {
+    return this.numberOfPathVariables + this.passedArgumentPositions.length;
+  }
+
+  /**
+   * @param argumentIndex The zero-based index of an argument
+   * @return True if the value of the argument is passed by the rule on each invocation
+   */
+  public boolean isPassedArgument(int argumentIndex)
+  {
+    return this.constantArguments[argumentIndex] == null;
+  }
+
+  /**
+   * @return The names of the variable arguments, with an empty string for each non-variable argument
+   */
+  @NonNull String @NonNull [] getVariableNames()
+  {
+    return this.variableNames;
+  }
+
+  @NonNull BA @NonNull [] getPathArguments()
+  {
+    return this.pathArguments;
+  }
+
+  @NonNull BA @NonNull [] getArguments()
+  {
+    return this.arguments;
+  }
+
+  /**
+   * Place a value passed from a rule into the reused path or argument arrays.
+   *
+   * @param valueIndex The zero-based position of the value in the list of passed values
+   * @param value      The value
+   */
+  void setPassedValue(int valueIndex, @NonNull BA value)
+  {
+    if (valueIndex < this.numberOfPathVariables)
+      this.pathArguments[valueIndex] = value;
+    else
+      this.arguments[this.passedArgumentPositions[valueIndex - this.numberOfPathVariables]] = value;
+  }
+
+  @SideEffectFree @Deterministic @Override public boolean equals(@Nullable Object obj)
+  {
+    if (this == obj)
+      return true;
+    if (!(obj instanceof DroolsBuiltInInvocationSite))
+      return false;
+
+    DroolsBuiltInInvocationSite s = (DroolsBuiltInInvocationSite)obj;
+
+    return this.hash == s.hash && this.builtInIndex == s.builtInIndex && this.isInConsequent == s.isInConsequent
+      && this.numberOfPathVariables == s.numberOfPathVariables && this.ruleName.equals(s.ruleName)
+      && this.builtInName.equals(s.builtInName) && Arrays.equals(this.variableNames, s.variableNames) && Arrays
+      .equals(this.constantArguments, s.constantArguments);
+  }
+
+  @SideEffectFree @Deterministic @Override public int hashCode()
+  {
+    return this.hash;
+  }
+
+  @NonNull @SideEffectFree @Override public String toString()
+  {
+    return "#" + this.id + " " + this.ruleName + "." + this.builtInName + "." + this.builtInIndex + "."
+      + this.isInConsequent + Arrays.toString(this.variableNames);
+  }
+}
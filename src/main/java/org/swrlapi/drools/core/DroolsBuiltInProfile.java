@@ -0,0 +1,152 @@
+package org.swrlapi.drools.core;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.dataflow.qual.SideEffectFree;
+
+/**
+ * An immutable snapshot of the counters recorded by a {@link DroolsBuiltInProfiler} for a built-in in a rule. Latencies
+ * are recorded in a histogram with power-of-two nanosecond buckets, so percentiles are upper bounds that are accurate to
+ * within a factor of two.
+ *
+ * @see DroolsBuiltInProfiler#getProfiles()
+ */
+public class DroolsBuiltInProfile
+{
+  @NonNull private final String ruleName;
+  @NonNull private final String builtInName;
+  private final long calls;
+  private final long failures;
+  private final long cacheHits;
+  private final long nativeEvaluations;
+  private final long results;
+  private final long totalNanos;
+  private final long bridgeNanos;
+  private final long conversionNanos;
+  @NonNull private final long @NonNull [] latencyHistogram;
+
+  public DroolsBuiltInProfile(@NonNull String ruleName, @NonNull String builtInName, long calls, long failures,
+    long cacheHits, long nativeEvaluations, long results, long totalNanos, long bridgeNanos, long conversionNanos,
+    @NonNull long @NonNull [] latencyHistogram)
+  {
+    this.ruleName = ruleName;
+    this.builtInName = builtInName;
+    this.calls = calls;
+    this.failures = failures;
+    this.cacheHits = cacheHits;
+    this.nativeEvaluations = nativeEvaluations;
+    this.results = results;
+    this.totalNanos = totalNanos;
+    this.bridgeNanos = bridgeNanos;
+    this.conversionNanos = conversionNanos;
+    this.latencyHistogram = latencyHistogram.clone();
+  }
+
+  @NonNull public String getRuleName()
+  {
+    return this.ruleName;
+  }
+
+  @NonNull public String getBuiltInName()
+  {
+    return this.builtInName;
+  }
+
+  /**
+   * @return The number of invocations, including failed invocations and invocations answered from a cache or natively
+   */
+  public long getCalls()
+  {
+    return this.calls;
+  }
+
+  public long getFailures()
+  {
+    return this.failures;
+  }
+
+  /**
+   * @return The number of invocations answered from the result cache or memo table without a bridge call
+   */
+  public long getCacheHits()
+  {
+    return this.cacheHits;
+  }
+
+  /**
+   * @return The number of invocations computed natively without a bridge call
+   */
+  public long getNativeEvaluations()
+  {
+    return this.nativeEvaluations;
+  }
+
+  /**
+   * @return The total number of argument patterns returned
+   */
+  public long getResults()
+  {
+    return this.results;
+  }
+
+  public long getTotalNanos()
+  {
+    return this.totalNanos;
+  }
+
+  /**
+   * @return The time spent invoking the built-in through the bridge
+   */
+  public long getBridgeNanos()
+  {
+    return this.bridgeNanos;
+  }
+
+  /**
+   * @return The time spent converting arguments to the bridge and results from it
+   */
+  public long getConversionNanos()
+  {
+    return this.conversionNanos;
+  }
+
+  public double getMeanLatencyNanos()
+  {
+    return this.calls == 0 ? 0.0 : (double)this.totalNanos / this.calls;
+  }
+
+  /**
+   * @return The number of invocations in each latency bucket; bucket i counts latencies in [2^i, 2^(i+1)) nanoseconds
+   */
+  @NonNull public long @NonNull [] getLatencyHistogram()
+  {
+    return this.latencyHistogram.clone();
+  }
+
+  /**
+   * @param percentile A percentile between 0 and 100
+   * @return An upper bound on the latency of the given percentile of invocations, in nanoseconds
+   */
+  public long getLatencyPercentileNanos(double percentile)
+  {
+    if (percentile < 0.0 || percentile > 100.0)
+      throw new IllegalArgumentException("percentile must be between 0 and 100, got " + percentile);
+
+    long rank = (long)Math.ceil(percentile / 100.0 * this.calls);
+    long count = 0;
+
+    for (int bucket = 0; bucket < this.latencyHistogram.length; bucket++) {
+      count += this.latencyHistogram[bucket];
+      if (count >= rank && count > 0)
+        return bucket >= 62 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+    }
+    return 0;
+  }
+
+  @NonNull @SideEffectFree @Override public String toString()
+  {
+    return this.ruleName + "." + this.builtInName + "(calls=" + this.calls + ", failures=" + this.failures
+      + ", cacheHits=" + this.cacheHits + ", nativeEvaluations=" + this.nativeEvaluations + ", results=" + this.results
+      + ", totalNanos=" + this.totalNanos + ", bridgeNanos=" + this.bridgeNanos + ", conversionNanos="
+      + this.conversionNanos + ")";
+  }
+}
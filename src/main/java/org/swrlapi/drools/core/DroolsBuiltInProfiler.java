@@ -0,0 +1,167 @@
+package org.swrlapi.drools.core;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records per-(rule, built-in) counters and latency histograms for the built-ins invoked by a
+ * {@link DroolsSWRLBuiltInInvoker}. Profiling is disabled by default; when disabled the invoker does not read the clock
+ * or touch any counters. Counters are retained across rule engine runs until {@link #reset()} is called.
+ * <p>
+ * Counters are updated by the rule engine thread only.
+ *
+ * @see DroolsBuiltInProfile
+ */
+public class DroolsBuiltInProfiler
+{
+  static final int NUMBER_OF_LATENCY_BUCKETS = 64;
+
+  @NonNull private final Map<@NonNull String, @NonNull Map<@NonNull String, @NonNull Counters>> counters;
+  @NonNull private final List<@Nullable Counters> siteCounters; // Indexed by invocation site identifier
+  private boolean isEnabled;
+
+  public DroolsBuiltInProfiler()
+  {
+    this.counters = new HashMap<>();
+    this.siteCounters = new ArrayList<>();
+    this.isEnabled = false;
+  }
+
+  public void setEnabled(boolean isEnabled)
+  {
+    this.isEnabled = isEnabled;
+  }
+
+  public boolean isEnabled()
+  {
+    return this.isEnabled;
+  }
+
+  /**
+   * Discard all recorded counters.
+   */
+  public void reset()
+  {
+    this.counters.clear();
+    this.siteCounters.clear();
+  }
+
+  /**
+   * @return A snapshot of the counters of every profiled built-in, ordered by decreasing total time
+   */
+  @NonNull public List<@NonNull DroolsBuiltInProfile> getProfiles()
+  {
+    List<@NonNull DroolsBuiltInProfile> profiles = new ArrayList<>();
+
+    for (Map.Entry<@NonNull String, @NonNull Map<@NonNull String, @NonNull Counters>> ruleEntry : this.counters
+      .entrySet())
+      for (Map.Entry<@NonNull String, @NonNull Counters> builtInEntry : ruleEntry.getValue().entrySet())
+        profiles.add(builtInEntry.getValue().createProfile(ruleEntry.getKey(), builtInEntry.getKey()));
+
+    profiles.sort(Comparator.comparingLong(DroolsBuiltInProfile::getTotalNanos).reversed());
+
+    return profiles;
+  }
+
+  /**
+   * @return A snapshot of the counters of a built-in in a rule, or null if it has not been invoked while profiling
+   */
+  @Nullable public DroolsBuiltInProfile getProfile(@NonNull String ruleName, @NonNull String builtInName)
+  {
+    Map<@NonNull String, @NonNull Counters> ruleCounters = this.counters.get(ruleName);
+    Counters builtInCounters = ruleCounters != null ? ruleCounters.get(builtInName) : null;
+
+    return builtInCounters != null ? builtInCounters.createProfile(ruleName, builtInName) : null;
+  }
+
+  @NonNull Counters getCounters(@NonNull DroolsBuiltInInvocationSite site)
+  {
+    int siteId = site.getId();
+
+    while (this.siteCounters.size() <= siteId)
+      this.siteCounters.add(null);
+
+    Counters siteCounters = this.siteCounters.get(siteId);
+
+    if (siteCounters == null) {
+      siteCounters = this.counters.computeIfAbsent(site.getRuleName(), k -> new HashMap<>())
+        .computeIfAbsent(site.getBuiltInName(), k -> new Counters());
+      this.siteCounters.set(siteId, siteCounters);
+    }
+    return siteCounters;
+  }
+
+  /**
+   * Forget the association of counters with invocation sites. Called when the sites are discarded.
+   */
+  void clearInvocationSites()
+  {
+    this.siteCounters.clear();
+  }
+
+  static final class Counters
+  {
+    private long calls;
+    private long failures;
+    private long cacheHits;
+    private long nativeEvaluations;
+    private long results;
+    private long totalNanos;
+    private long bridgeNanos;
+    private long conversionNanos;
+    @NonNull private final long @NonNull [] latencyHistogram = new long[NUMBER_OF_LATENCY_BUCKETS];
+
+    void recordCall(long nanos, int numberOfResults)
+    {
+      this.calls++;
+      this.results += numberOfResults;
+      recordLatency(nanos);
+    }
+
+    void recordFailure(long nanos)
+    {
+      this.calls++;
+      this.failures++;
+      recordLatency(nanos);
+    }
+
+    void recordCacheHit()
+    {
+      this.cacheHits++;
+    }
+
+    void recordNativeEvaluation()
+    {
+      this.nativeEvaluations++;
+    }
+
+    void recordBridgeTime(long nanos)
+    {
+      this.bridgeNanos += nanos;
+    }
+
+    void recordConversionTime(long nanos)
+    {
+      this.conversionNanos += nanos;
+    }
+
+    private void recordLatency(long nanos)
+    {
+      this.totalNanos += nanos;
+      this.latencyHistogram[nanos <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos)]++;
+    }
+
+    @NonNull DroolsBuiltInProfile createProfile(@NonNull String ruleName, @NonNull String builtInName)
+    {
+      return new DroolsBuiltInProfile(ruleName, builtInName, this.calls, this.failures, this.cacheHits,
+        this.nativeEvaluations, this.results, this.totalNanos, this.bridgeNanos, this.conversionNanos,
+        this.latencyHistogram);
+    }
+  }
+}
@@ -0,0 +1,336 @@
+package org.swrlapi.drools.core;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.swrlapi.drools.owl.core.DroolsHashCodes;
+import org.swrlapi.drools.swrl.BAP;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A bounded cache of the results of SWRL built-in invocations in rule bodies. The cache is bounded by a number of
+ * entries and by a total weight, where the weight of an entry is one plus the number of arguments in its result
+ * patterns.
+ * <p>
+ * Two eviction policies are supported. {@link EvictionPolicy#LRU} evicts the least recently used entry.
+ * {@link EvictionPolicy#TINY_LFU} admits new entries into a small LRU window; when the cache is full the eldest window
+ * entry and the least recently used main entry compete and the one with the lower estimated access frequency, as
+ * recorded by a count-min sketch, is evicted.
+ * <p>
+ * Caching can be disabled for individual built-ins, e.g., for built-ins whose results depend on state that changes
+ * during rule firing.
+ *
+ * @see DroolsSWRLBuiltInInvoker
+ */
+public class DroolsBuiltInResultCache
+{
+  public enum EvictionPolicy
+  {
+    LRU, TINY_LFU
+  }
+
+  public static final long UNBOUNDED = Long.MAX_VALUE;
+  public static final long DEFAULT_MAXIMUM_ENTRIES = 100_000;
+
+  // A rough per-entry and per-argument cost covering the key, the result list and the argument objects
+  private static final long ESTIMATED_BYTES_PER_ENTRY = 128;
+  private static final long ESTIMATED_BYTES_PER_ARGUMENT = 48;
+
+  private static final int WINDOW_PERCENTAGE = 1;
+
+  @NonNull private final Map<@NonNull DroolsBuiltInInvocationPattern, @NonNull CacheEntry> window;
+  @NonNull private final Map<@NonNull DroolsBuiltInInvocationPattern, @NonNull CacheEntry> main;
+  @NonNull private final Set<@NonNull String> disabledBuiltInNames;
+
+  @NonNull private EvictionPolicy evictionPolicy;
+  @Nullable private FrequencySketch sketch; // Only used by TinyLFU
+  private long maximumEntries;
+  private long maximumWeight;
+  private long weight;
+  private long numberOfArguments;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  public DroolsBuiltInResultCache()
+  {
+    this.window = new LinkedHashMap<>(16, 0.75f, true);
+    this.main = new LinkedHashMap<>(16, 0.75f, true);
+    this.disabledBuiltInNames = new HashSet<>();
+    this.evictionPolicy = EvictionPolicy.LRU;
+    this.maximumEntries = DEFAULT_MAXIMUM_ENTRIES;
+    this.maximumWeight = UNBOUNDED;
+    this.sketch = null;
+  }
+
+  /**
+   * Remove all entries. Statistics are retained; see {@link #resetStatistics()}.
+   */
+  public void clear()
+  {
+    this.window.clear();
+    this.main.clear();
+    this.sketch = this.evictionPolicy == EvictionPolicy.TINY_LFU ? new FrequencySketch(this.maximumEntries) : null;
+    this.weight = 0;
+    this.numberOfArguments = 0;
+  }
+
+  public void resetStatistics()
+  {
+    this.hits = 0;
+    this.misses = 0;
+    this.evictions = 0;
+  }
+
+  /**
+   * @param maximumEntries The maximum number of entries, or {@link #UNBOUNDED}; zero disables caching
+   * @param maximumWeight  The maximum total weight of all entries, or {@link #UNBOUNDED}
+   * @param evictionPolicy The eviction policy
+   */
+  public void configure(long maximumEntries, long maximumWeight, @NonNull EvictionPolicy evictionPolicy)
+  {
+    if (maximumEntries < 0 || maximumWeight < 0)
+      throw new IllegalArgumentException("built-in cache bounds must not be negative");
+
+    this.maximumEntries = maximumEntries;
+    this.maximumWeight = maximumWeight;
+    this.evictionPolicy = evictionPolicy;
+    clear();
+  }
+
+  public void disableCaching(@NonNull String builtInName)
+  {
+    this.disabledBuiltInNames.add(builtInName);
+    removeAll(builtInName);
+  }
+
+  public void enableCaching(@NonNull String builtInName)
+  {
+    this.disabledBuiltInNames.remove(builtInName);
+  }
+
+  public boolean isCachingEnabled(@NonNull String builtInName)
+  {
+    return this.maximumEntries != 0 && !this.disabledBuiltInNames.contains(builtInName);
+  }
+
+  @NonNull public Set<@NonNull String> getDisabledBuiltInNames()
+  {
+    return Collections.unmodifiableSet(this.disabledBuiltInNames);
+  }
+
+  @NonNull public EvictionPolicy getEvictionPolicy()
+  {
+    return this.evictionPolicy;
+  }
+
+  public long getMaximumEntries()
+  {
+    return this.maximumEntries;
+  }
+
+  public long getMaximumWeight()
+  {
+    return this.maximumWeight;
+  }
+
+  @NonNull public DroolsBuiltInCacheStatistics getStatistics()
+  {
+    return new DroolsBuiltInCacheStatistics(this.hits, this.misses, this.evictions, size(), this.weight,
+      size() * ESTIMATED_BYTES_PER_ENTRY + this.numberOfArguments * ESTIMATED_BYTES_PER_ARGUMENT);
+  }
+
+  public int size()
+  {
+    return this.window.size() + this.main.size();
+  }
+
+  @Nullable List<@NonNull BAP> get(@NonNull DroolsBuiltInInvocationPattern invocationPattern)
+  {
+    if (!isCachingEnabled(invocationPattern.getBuiltInName()))
+      return null;
+
+    if (this.sketch != null)
+      this.sketch.increment(invocationPattern.hashCode());
+
+    CacheEntry entry = this.window.get(invocationPattern);
+    if (entry == null)
+      entry = this.main.get(invocationPattern);
+
+    if (entry != null) {
+      this.hits++;
+      return entry.baps;
+    } else {
+      this.misses++;
+      return null;
+    }
+  }
+
+  void put(@NonNull DroolsBuiltInInvocationPattern invocationPattern, @NonNull List<@NonNull BAP> baps)
+  {
+    if (!isCachingEnabled(invocationPattern.getBuiltInName()))
+      return;
+
+    CacheEntry entry = new CacheEntry(invocationPattern, Collections.unmodifiableList(baps));
+    CacheEntry previous = this.window.remove(invocationPattern);
+
+    if (previous == null)
+      previous = this.main.remove(invocationPattern);
+    if (previous != null)
+      subtract(previous);
+
+    add(entry);
+
+    if (this.sketch != null) {
+      long maximumWindowEntries = Math.max(1, this.maximumEntries / 100 * WINDOW_PERCENTAGE);
+
+      this.window.put(invocationPattern, entry);
+      while (this.window.size() > maximumWindowEntries)
+        admit(this.sketch, removeEldest(this.window));
+    } else
+      this.main.put(invocationPattern, entry);
+
+    while (size() > this.maximumEntries || this.weight > this.maximumWeight)
+      evict(removeEldest(this.main.isEmpty() ? this.window : this.main));
+  }
+
+  /**
+   * TinyLFU admission: an entry leaving the window enters the main region if there is room or if it has been requested
+   * more often than the least recently used main entry, which is then evicted in its place.
+   */
+  private void admit(@NonNull FrequencySketch sketch, @NonNull CacheEntry candidate)
+  {
+    if (!this.main.isEmpty() && (size() >= this.maximumEntries || this.weight > this.maximumWeight)) {
+      CacheEntry incumbent = this.main.values().iterator().next();
+
+      if (sketch.frequency(candidate.invocationPattern.hashCode()) <= sketch
+        .frequency(incumbent.invocationPattern.hashCode())) {
+        evict(candidate);
+        return;
+      }
+      evict(removeEldest(this.main));
+    }
+    this.main.put(candidate.invocationPattern, candidate);
+  }
+
+  private void evict(@NonNull CacheEntry victim)
+  {
+    subtract(victim);
+    this.evictions++;
+  }
+
+  private void removeAll(@NonNull String builtInName)
+  {
+    for (Map<DroolsBuiltInInvocationPattern, CacheEntry> region : List.of(this.window, this.main)) {
+      Iterator<CacheEntry> iterator = region.values().iterator();
+      while (iterator.hasNext()) {
+        CacheEntry entry = iterator.next();
+        if (entry.invocationPattern.getBuiltInName().equals(builtInName)) {
+          iterator.remove();
+          subtract(entry);
+        }
+      }
+    }
+  }
+
+  @NonNull private static CacheEntry removeEldest(@NonNull Map<DroolsBuiltInInvocationPattern, CacheEntry> region)
+  {
+    Iterator<CacheEntry> iterator = region.values().iterator();
+    CacheEntry eldest = iterator.next();
+    iterator.remove();
+
+    return eldest;
+  }
+
+  private void add(@NonNull CacheEntry entry)
+  {
+    this.weight += entry.weight;
+    this.numberOfArguments += entry.weight - 1;
+  }
+
+  private void subtract(@NonNull CacheEntry entry)
+  {
+    this.weight -= entry.weight;
+    this.numberOfArguments -= entry.weight - 1;
+  }
+
+  private static class CacheEntry
+  {
+    @NonNull private final DroolsBuiltInInvocationPattern invocationPattern;
+    @NonNull private final List<@NonNull BAP> baps;
+    private final long weight;
+
+    CacheEntry(@NonNull DroolsBuiltInInvocationPattern invocationPattern, @NonNull List<@NonNull BAP> baps)
+    {
+      long numberOfArguments = 0;
+
+      for (BAP bap : baps)
+        numberOfArguments += bap.getNumberOfArguments();
+
+      this.invocationPattern = invocationPattern;
+      this.baps = baps;
+      this.weight = 1 + numberOfArguments;
+    }
+  }
+
+  /**
+   * A count-min sketch of four rows of saturating counters that estimates how often a key has been requested. All
+   * counters are halved periodically so that the estimates favour recent history.
+   */
+  private static class FrequencySketch
+  {
+    private static final int DEPTH = 4;
+    private static final int MAXIMUM_COUNT = 15;
+    private static final int MAXIMUM_WIDTH = 1 << 18;
+
+    @NonNull private final int[] counters;
+    private final int mask;
+    private final int sampleSize;
+    private int numberOfIncrements;
+
+    FrequencySketch(long expectedEntries)
+    {
+      int width = Integer.highestOneBit((int)Math.max(16, Math.min(MAXIMUM_WIDTH, expectedEntries)) * 2 - 1);
+
+      this.counters = new int[DEPTH * width];
+      this.mask = width - 1;
+      this.sampleSize = 10 * width;
+    }
+
+    void increment(int hash)
+    {
+      for (int row = 0; row < DEPTH; row++) {
+        int index = index(hash, row);
+        if (this.counters[index] < MAXIMUM_COUNT)
+          this.counters[index]++;
+      }
+
+      if (++this.numberOfIncrements == this.sampleSize) {
+        for (int i = 0; i < this.counters.length; i++)
+          this.counters[i] >>>= 1;
+        this.numberOfIncrements /= 2;
+      }
+    }
+
+    int frequency(int hash)
+    {
+      int frequency = MAXIMUM_COUNT;
+
+      for (int row = 0; row < DEPTH; row++)
+        frequency = Math.min(frequency, this.counters[index(hash, row)]);
+
+      return frequency;
+    }
+
+    private int index(int hash, int row)
+    {
+      return row * (this.mask + 1) + (DroolsHashCodes.mix(hash + row * 0x9E3779B9) & this.mask);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package org.swrlapi.drools.core;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.dataflow.qual.SideEffectFree;
+
+/**
+ * Limits on the growth of a Drools knowledge session during a single run of the rule engine. When a limit is exceeded
+ * the {@link DroolsSWRLRuleEngine} halts the session and reports the rules that produced the most inferred axioms.
+ * <p>
+ * The working memory size is not measured. It is estimated from the number of facts in the session, each of which is
+ * assumed to take {@link #ESTIMATED_BYTES_PER_FACT} bytes, so the byte limit is in effect a limit on the number of
+ * facts. The actual heap usage of a session can differ considerably from the estimate, depending on the size of its
+ * facts and the rules that match them.
+ * <p>
+ * By default no limits are imposed. Default limits can be supplied using the system properties
+ * <tt>swrlapi.drools.maxInferredAxioms</tt>, <tt>swrlapi.drools.maxRuleFirings</tt> and
+ * <tt>swrlapi.drools.maxWorkingMemoryBytes</tt>.
+ *
+ * @see DroolsSWRLRuleEngine#setExecutionLimits(DroolsExecutionLimits)
+ */
+public class DroolsExecutionLimits
+{
+  public static final long UNLIMITED = Long.MAX_VALUE;
+
+  // A rough per-fact cost covering the fact object, its fact handle, and its share of the Rete/Phreak node memories
+  public static final long ESTIMATED_BYTES_PER_FACT = 512;
+
+  private final long maxInferredAxioms;
+  private final long maxRuleFirings;
+  private final long maxWorkingMemoryBytes;
+
+  /**
+   * @param maxInferredAxioms     The maximum number of axioms that may be inferred
+   * @param maxRuleFirings        The maximum number of times any single rule may fire
+   * @param maxWorkingMemoryBytes The maximum size of the working memory in bytes, estimated from its number of facts
+   */
+  public DroolsExecutionLimits(long maxInferredAxioms, long maxRuleFirings, long maxWorkingMemoryBytes)
+  {
+    if (maxInferredAxioms <= 0 || maxRuleFirings <= 0 || maxWorkingMemoryBytes <= 0)
+      throw new IllegalArgumentException("rule engine execution limits must be positive");
+
+    this.maxInferredAxioms = maxInferredAxioms;
+    this.maxRuleFirings = maxRuleFirings;
+    this.maxWorkingMemoryBytes = maxWorkingMemoryBytes;
+  }
+
+  @NonNull public static DroolsExecutionLimits unlimited()
+  {
+    return new DroolsExecutionLimits(UNLIMITED, UNLIMITED, UNLIMITED);
+  }
+
+  @NonNull public static DroolsExecutionLimits getDefaultLimits()
+  {
+    return new DroolsExecutionLimits(Long.getLong("swrlapi.drools.maxInferredAxioms", UNLIMITED),
+      Long.getLong("swrlapi.drools.maxRuleFirings", UNLIMITED),
+      Long.getLong("swrlapi.drools.maxWorkingMemoryBytes", UNLIMITED));
+  }
+
+  public long getMaxInferredAxioms()
+  {
+    return this.maxInferredAxioms;
+  }
+
+  public long getMaxRuleFirings()
+  {
+    return this.maxRuleFirings;
+  }
+
+  public long getMaxWorkingMemoryBytes()
+  {
+    return this.maxWorkingMemoryBytes;
+  }
+
+  public boolean isUnlimited()
+  {
+    return this.maxInferredAxioms == UNLIMITED && this.maxRuleFirings == UNLIMITED
+      && this.maxWorkingMemoryBytes == UNLIMITED;
+  }
+
+  @NonNull @SideEffectFree @Override public String toString()
+  {
+    return "(maxInferredAxioms=" + this.maxInferredAxioms + ", maxRuleFirings=" + this.maxRuleFirings
+      + ", maxWorkingMemoryBytes=" + this.maxWorkingMemoryBytes + ")";
+  }
+}
@@ -0,0 +1,122 @@
+package org.swrlapi.drools.core;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.BeforeMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.runtime.KieSession;
+import org.swrlapi.drools.reasoner.DefaultDroolsOWLAxiomHandler;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the number of firings and inferred axioms of each rule and halts the knowledge session as soon as one of the
+ * supplied {@link DroolsExecutionLimits} is exceeded. Nothing is recorded when no limits are imposed.
+ *
+ * @see DroolsSWRLRuleEngine
+ */
+class DroolsExecutionLimitsListener extends DefaultAgendaEventListener
+{
+  private static final int NUMBER_OF_REPORTED_RULES = 5;
+
+  @NonNull private final DefaultDroolsOWLAxiomHandler axiomInferrer;
+  @NonNull private final Map<@NonNull String, @NonNull RuleStatistics> ruleStatistics;
+
+  @NonNull private DroolsExecutionLimits limits;
+  @Nullable private KieSession knowledgeSession;
+  @Nullable private String limitExceededMessage;
+  private int numberOfInferredOWLAxiomsBeforeMatch;
+
+  DroolsExecutionLimitsListener(@NonNull DefaultDroolsOWLAxiomHandler axiomInferrer,
+    @NonNull DroolsExecutionLimits limits)
+  {
+    this.axiomInferrer = axiomInferrer;
+    this.ruleStatistics = new HashMap<>();
+    this.limits = limits;
+  }
+
+  void reset(@NonNull KieSession knowledgeSession, @NonNull DroolsExecutionLimits limits)
+  {
+    this.knowledgeSession = knowledgeSession;
+    this.limits = limits;
+    this.ruleStatistics.clear();
+    this.limitExceededMessage = null;
+
+    knowledgeSession.addEventListener(this);
+  }
+
+  void setLimits(@NonNull DroolsExecutionLimits limits)
+  {
+    this.limits = limits;
+  }
+
+  boolean isLimitExceeded()
+  {
+    return this.limitExceededMessage != null;
+  }
+
+  /**
+   * @return A description of the exceeded limit followed by the rules that inferred the most axioms
+   */
+  @NonNull String getLimitExceededMessage()
+  {
+    List<Map.Entry<String, RuleStatistics>> entries = new ArrayList<>(this.ruleStatistics.entrySet());
+    StringBuilder sb = new StringBuilder(this.limitExceededMessage != null ? this.limitExceededMessage : "");
+
+    entries.sort(Comparator.comparingLong((Map.Entry<String, RuleStatistics> e) -> e.getValue().inferredOWLAxioms)
+      .thenComparingLong(e -> e.getValue().firings).reversed());
+
+    sb.append("; top rules by inferred axioms:");
+    for (Map.Entry<String, RuleStatistics> entry : entries.subList(0,
+      Math.min(NUMBER_OF_REPORTED_RULES, entries.size()))) {
+      sb.append("\n  ").append(entry.getKey()).append(": ").append(entry.getValue().inferredOWLAxioms)
+        .append(" axiom(s) in ").append(entry.getValue().firings).append(" firing(s)");
+    }
+    return sb.toString();
+  }
+
+  @Override public void beforeMatchFired(@NonNull BeforeMatchFiredEvent event)
+  {
+    if (!this.limits.isUnlimited())
+      this.numberOfInferredOWLAxiomsBeforeMatch = this.axiomInferrer.getInferredOWLAxioms().size();
+  }
+
+  @Override public void afterMatchFired(@NonNull AfterMatchFiredEvent event)
+  {
+    if (this.limits.isUnlimited() || this.limitExceededMessage != null)
+      return;
+
+    String ruleName = event.getMatch().getRule().getName();
+    RuleStatistics statistics = this.ruleStatistics.computeIfAbsent(ruleName, n -> new RuleStatistics());
+    int numberOfInferredOWLAxioms = this.axiomInferrer.getInferredOWLAxioms().size();
+    long estimatedWorkingMemoryBytes =
+      DroolsExecutionLimits.ESTIMATED_BYTES_PER_FACT * event.getKieRuntime().getFactCount();
+
+    statistics.firings++;
+    statistics.inferredOWLAxioms += numberOfInferredOWLAxioms - this.numberOfInferredOWLAxiomsBeforeMatch;
+
+    if (statistics.firings > this.limits.getMaxRuleFirings())
+      this.limitExceededMessage =
+        "rule " + ruleName + " exceeded the limit of " + this.limits.getMaxRuleFirings() + " firings";
+    else if (numberOfInferredOWLAxioms > this.limits.getMaxInferredAxioms())
+      this.limitExceededMessage = "limit of " + this.limits.getMaxInferredAxioms() + " inferred axioms exceeded";
+    else if (estimatedWorkingMemoryBytes > this.limits.getMaxWorkingMemoryBytes())
+      this.limitExceededMessage =
+        "estimated working memory size of " + estimatedWorkingMemoryBytes + " bytes exceeded the limit of "
+          + this.limits.getMaxWorkingMemoryBytes() + " bytes";
+
+    if (this.limitExceededMessage != null && this.knowledgeSession != null)
+      this.knowledgeSession.halt();
+  }
+
+  private static class RuleStatistics
+  {
+    private long firings;
+    private long inferredOWLAxioms;
+  }
+}
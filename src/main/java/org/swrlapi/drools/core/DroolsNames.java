@@ -10,10 +10,11 @@ public class DroolsNames
   public static final String SAME_INDIVIDUAL_AXIOM_CLASS_NAME = "SIA";
   public static final String DIFFERENT_INDIVIDUALS_AXIOM_CLASS_NAME = "DIA";
 
+  public static final String BUILT_IN_ARGUMENT_CLASS_NAME = "BA";
   public static final String BUILT_IN_ARGUMENTS_PATTERN_CLASS_NAME = "BAP";
-  public static final String BUILT_IN_VARIABLE_PATH_CLASS_NAME = "VPATH";
-  public static final String BUILT_IN_VARIABLE_NAMES_CLASS_NAME = "BAVNs";
+  public static final String BUILT_IN_INVOCATION_REQUEST_CLASS_NAME = "BIR";
   public static final String UNBOUND_ARGUMENT_CLASS_NAME = "UBA";
+  public static final String NATIVE_BUILT_INS_CLASS_NAME = "DroolsNativeSWRLBuiltIns";
 
   public static final String CLASS_CLASS_NAME = "C";
   public static final String CLASS_EXPRESSION_CLASS_NAME = "CE";
@@ -28,8 +29,11 @@ public class DroolsNames
   public static final String LITERAL_CLASS_NAME = "L";
 
   public static final String SQWRL_COLLECTION_CLASS_NAME = "SQWRLC";
+  public static final String SQWRL_AGGREGATE_CLASS_NAME = "SQWRLA";
+  public static final String SQWRL_PARAMETERS_CLASS_NAME = "SQWRLP";
   public static final String QUERY_NAME_FIELD_NAME = "queryName";
   public static final String COLLECTION_NAME_FIELD_NAME = "collectionName";
+  public static final String GROUP_ARGUMENTS_FIELD_NAME = "groupArguments";
 
   public static final String CLASS_FIELD_NAME = "cid";
   public static final String INDIVIDUAL_FIELD_NAME = "i";
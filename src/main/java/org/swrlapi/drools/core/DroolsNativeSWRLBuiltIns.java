@@ -0,0 +1,440 @@
+package org.swrlapi.drools.core;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.semanticweb.owlapi.vocab.XSDVocabulary;
+import org.swrlapi.drools.owl.literals.DroolsXSDDatatype;
+import org.swrlapi.drools.owl.literals.L;
+import org.swrlapi.drools.swrl.BA;
+import org.swrlapi.drools.swrl.BAP;
+import org.swrlapi.drools.swrl.UBA;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Native implementations of common SWRL built-ins operating directly on Drools literals. They follow the semantics
+ * of the SWRLAPI's <tt>swrlb</tt> library. When an outcome cannot be computed natively, e.g., because an argument is
+ * not a literal or has a datatype without a dedicated representation, null is returned and the caller falls back to
+ * invoking the built-in through the bridge.
+ * <p>
+ * Comparisons whose arguments are known to be literals when a rule is converted call {@link #compare(String, BA, BA)}
+ * directly from the rule and never reach the bridge. Such a comparison fails if its outcome cannot be computed
+ * natively. As in the <tt>swrlb</tt> library, literals of different datatypes are unequal and cannot be ordered.
+ * <p>
+ * The arithmetic and string built-ins are evaluated natively only when their first argument is unbound. As in the
+ * <tt>swrlb</tt> library, arithmetic is performed on the decimal expansion of the operands and the result has the
+ * least narrow numeric type of the operands.
+ *
+ * @see DroolsSWRLBuiltInInvoker
+ */
+public final class DroolsNativeSWRLBuiltIns
+{
+  @NonNull public static final String EQUAL = "swrlb:equal";
+  @NonNull public static final String NOT_EQUAL = "swrlb:notEqual";
+  @NonNull public static final String LESS_THAN = "swrlb:lessThan";
+  @NonNull public static final String LESS_THAN_OR_EQUAL = "swrlb:lessThanOrEqual";
+  @NonNull public static final String GREATER_THAN = "swrlb:greaterThan";
+  @NonNull public static final String GREATER_THAN_OR_EQUAL = "swrlb:greaterThanOrEqual";
+
+  @NonNull public static final String ADD = "swrlb:add";
+  @NonNull public static final String SUBTRACT = "swrlb:subtract";
+  @NonNull public static final String MULTIPLY = "swrlb:multiply";
+  @NonNull public static final String DIVIDE = "swrlb:divide";
+  @NonNull public static final String MOD = "swrlb:mod";
+  @NonNull public static final String UNARY_MINUS = "swrlb:unaryMinus";
+  @NonNull public static final String ABS = "swrlb:abs";
+  @NonNull public static final String STRING_CONCAT = "swrlb:stringConcat";
+  @NonNull public static final String SUBSTRING = "swrlb:substring";
+  @NonNull public static final String STRING_LENGTH = "swrlb:stringLength";
+  @NonNull public static final String UPPER_CASE = "swrlb:upperCase";
+  @NonNull public static final String LOWER_CASE = "swrlb:lowerCase";
+
+  @NonNull private static final Set<@NonNull String> COMPARISON_BUILT_IN_NAMES = Set
+    .of(EQUAL, NOT_EQUAL, LESS_THAN, LESS_THAN_OR_EQUAL, GREATER_THAN, GREATER_THAN_OR_EQUAL);
+
+  @NonNull private static final Set<@NonNull String> BINDING_BUILT_IN_NAMES = Set
+    .of(ADD, SUBTRACT, MULTIPLY, DIVIDE, MOD, UNARY_MINUS, ABS, STRING_CONCAT, SUBSTRING, STRING_LENGTH, UPPER_CASE,
+      LOWER_CASE);
+
+  @NonNull private static final String STRING_DATATYPE_NAME = XSDVocabulary.STRING.getPrefixedName();
+  @NonNull private static final String INTEGER_DATATYPE_NAME = XSDVocabulary.INTEGER.getPrefixedName();
+  @NonNull private static final String DECIMAL_DATATYPE_NAME = XSDVocabulary.DECIMAL.getPrefixedName();
+
+  /*
+   * The numeric datatypes supported by native arithmetic, ordered from narrowest to widest.
+   */
+  private enum NumericType
+  {
+    BYTE(XSDVocabulary.BYTE), SHORT(XSDVocabulary.SHORT), INT(XSDVocabulary.INT), LONG(XSDVocabulary.LONG),
+    INTEGER(XSDVocabulary.INTEGER), FLOAT(XSDVocabulary.FLOAT), DOUBLE(XSDVocabulary.DOUBLE),
+    DECIMAL(XSDVocabulary.DECIMAL);
+
+    @NonNull private final String prefixedName;
+
+    NumericType(@NonNull XSDVocabulary vocabulary)
+    {
+      this.prefixedName = vocabulary.getPrefixedName();
+    }
+
+    @NonNull L createLiteral(@NonNull BigDecimal value)
+    {
+      switch (this) {
+      case BYTE:
+        return new L(String.valueOf(value.byteValue()), this.prefixedName);
+      case SHORT:
+        return new L(String.valueOf(value.shortValue()), this.prefixedName);
+      case INT:
+        return new L(String.valueOf(value.intValue()), this.prefixedName);
+      case LONG:
+        return new L(String.valueOf(value.longValue()), this.prefixedName);
+      case INTEGER:
+        return new L(value.toBigInteger().toString(), this.prefixedName);
+      case FLOAT:
+        return new L(String.valueOf(value.floatValue()), this.prefixedName);
+      case DOUBLE:
+        return new L(String.valueOf(value.doubleValue()), this.prefixedName);
+      default:
+        return new L(value.toString(), this.prefixedName);
+      }
+    }
+  }
+
+  private DroolsNativeSWRLBuiltIns()
+  {
+  }
+
+  /**
+   * @param builtInName The prefixed name of a built-in
+   * @return True if the built-in is a two-argument comparison that can be evaluated natively
+   */
+  public static boolean isComparison(@NonNull String builtInName)
+  {
+    return COMPARISON_BUILT_IN_NAMES.contains(builtInName);
+  }
+
+  /**
+   * @param builtInName The prefixed name of a built-in
+   * @return True if the built-in binds its first argument and may be evaluated natively
+   */
+  public static boolean isBinding(@NonNull String builtInName)
+  {
+    return BINDING_BUILT_IN_NAMES.contains(builtInName);
+  }
+
+  /**
+   * Evaluate an arithmetic or string built-in whose first argument is unbound and whose remaining arguments are
+   * literals.
+   *
+   * @param builtInName The prefixed name of a built-in
+   * @param arguments   The built-in arguments
+   * @return The single argument pattern binding the first argument, or null if it cannot be computed natively
+   */
+  @Nullable public static List<@NonNull BAP> invoke(@NonNull String builtInName, @NonNull BA @NonNull [] arguments)
+  {
+    if (!isBinding(builtInName) || arguments.length < 2 || !(arguments[0] instanceof UBA))
+      return null;
+
+    for (int i = 1; i < arguments.length; i++)
+      if (!(arguments[i] instanceof L))
+        return null;
+
+    L result;
+    try {
+      result = evaluate(builtInName, arguments);
+    } catch (RuntimeException e) { // Malformed lexical forms and arithmetic errors are reported by the bridge
+      return null;
+    }
+
+    if (result == null)
+      return null;
+
+    BA[] bas = arguments.clone(); // The supplied arguments may be a reused array
+    bas[0] = result;
+
+    return Collections.singletonList(new BAP(bas));
+  }
+
+  /**
+   * @param builtInName The prefixed name of a comparison built-in
+   * @param literal     A literal argument of the built-in
+   * @return True if the built-in can compare literals of the datatype of the literal natively
+   */
+  public static boolean isComparable(@NonNull String builtInName, @NonNull L literal)
+  {
+    return compare(builtInName, literal, literal) != null;
+  }
+
+  /**
+   * @param builtInName The prefixed name of a comparison built-in
+   * @param ba1         The first argument
+   * @param ba2         The second argument
+   * @return The outcome of the comparison or null if it cannot be computed natively
+   */
+  @Nullable public static Boolean compare(@NonNull String builtInName, @NonNull BA ba1, @NonNull BA ba2)
+  {
+    if (!(ba1 instanceof L) || !(ba2 instanceof L))
+      return null;
+
+    boolean isEquality = builtInName.equals(EQUAL) || builtInName.equals(NOT_EQUAL);
+    Integer comparison = compareLiterals((L)ba1, (L)ba2, isEquality);
+
+    if (comparison == null)
+      return null;
+
+    switch (builtInName) {
+    case EQUAL:
+      return comparison == 0;
+    case NOT_EQUAL:
+      return comparison != 0;
+    case LESS_THAN:
+      return comparison < 0;
+    case LESS_THAN_OR_EQUAL:
+      return comparison <= 0;
+    case GREATER_THAN:
+      return comparison > 0;
+    case GREATER_THAN_OR_EQUAL:
+      return comparison >= 0;
+    default:
+      return null;
+    }
+  }
+
+  /*
+   * Literals of identical numeric types are compared by value, mixed numeric types by their decimal expansion; this is
+   * the ordering used by the SWRLAPI's OWLLiteralComparator. The unbounded xsd:integer and xsd:decimal types are
+   * always compared by their decimal expansion. Booleans are only compared for (in)equality. Literals of different
+   * supported datatypes are never equal but cannot be ordered.
+   */
+  @Nullable private static Integer compareLiterals(@NonNull L l1, @NonNull L l2, boolean isEquality)
+  {
+    DroolsXSDDatatype datatype1 = l1.getDatatype();
+    DroolsXSDDatatype datatype2 = l2.getDatatype();
+
+    try {
+      NumericType type1 = numericType(l1);
+      NumericType type2 = numericType(l2);
+
+      if (type1 != null && type2 != null) {
+        if (type1 == type2 && type1 == NumericType.FLOAT)
+          return Float.compare(l1.getFloat(), l2.getFloat());
+        else if (type1 == type2 && type1 == NumericType.DOUBLE)
+          return Double.compare(l1.getDouble(), l2.getDouble());
+        else if (type1 == type2 && type1.compareTo(NumericType.LONG) <= 0)
+          return Long.compare(l1.getNumber().longValue(), l2.getNumber().longValue());
+        else
+          return new BigDecimal(l1.getValue()).compareTo(new BigDecimal(l2.getValue()));
+      } else if (datatype1 != datatype2)
+        return isEquality && isSupported(l1) && isSupported(l2) ? 1 : null;
+
+      switch (datatype1) {
+      case STRING:
+        return l1.getValue().compareTo(l2.getValue());
+      case BOOLEAN:
+        return isEquality ? Boolean.compare(l1.getBoolean(), l2.getBoolean()) : null;
+      case DATE_TIME:
+        return l1.getDateTime().compareTo(l2.getDateTime());
+      case DATE:
+        return l1.getDate().compareTo(l2.getDate());
+      case TIME:
+        return l1.getTime().compareTo(l2.getTime());
+      case DURATION:
+        return l1.getDuration().compareTo(l2.getDuration());
+      default:
+        return null;
+      }
+    } catch (RuntimeException e) { // Malformed lexical forms are reported by the bridge
+      return null;
+    }
+  }
+
+  private static boolean isSupported(@NonNull L l)
+  {
+    if (numericType(l) != null)
+      return true;
+
+    switch (l.getDatatype()) {
+    case STRING:
+    case BOOLEAN:
+    case DATE_TIME:
+    case DATE:
+    case TIME:
+    case DURATION:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  @Nullable private static L evaluate(@NonNull String builtInName, @NonNull BA @NonNull [] arguments)
+  {
+    switch (builtInName) {
+    case ADD:
+    case MULTIPLY: {
+      BigDecimal value = builtInName.equals(ADD) ? BigDecimal.ZERO : BigDecimal.ONE;
+      for (int i = 1; i < arguments.length; i++) {
+        BigDecimal operand = decimal((L)arguments[i]);
+        if (operand == null)
+          return null;
+        value = builtInName.equals(ADD) ? value.add(operand) : value.multiply(operand);
+      }
+      return numericLiteral(value, operands(arguments));
+    }
+    case SUBTRACT:
+    case DIVIDE: {
+      if (arguments.length != 3)
+        return null;
+      BigDecimal operand1 = decimal((L)arguments[1]);
+      BigDecimal operand2 = decimal((L)arguments[2]);
+      if (operand1 == null || operand2 == null)
+        return null;
+      BigDecimal value = builtInName.equals(SUBTRACT) ?
+        operand1.subtract(operand2) :
+        operand1.divide(operand2, RoundingMode.HALF_UP);
+      return numericLiteral(value, operands(arguments));
+    }
+    case MOD: {
+      if (arguments.length != 3 || numericType((L)arguments[1]) == null || numericType((L)arguments[2]) == null)
+        return null;
+      BigInteger value = new BigInteger(((L)arguments[1]).getValue())
+        .remainder(new BigInteger(((L)arguments[2]).getValue()));
+      return numericLiteral(new BigDecimal(value), operands(arguments));
+    }
+    case UNARY_MINUS:
+    case ABS: {
+      if (arguments.length != 2)
+        return null;
+      BigDecimal operand = decimal((L)arguments[1]);
+      if (operand == null)
+        return null;
+      return numericLiteral(builtInName.equals(ABS) ? operand.abs() : operand.negate(), operands(arguments));
+    }
+    case STRING_CONCAT: {
+      StringBuilder value = new StringBuilder();
+      for (int i = 1; i < arguments.length; i++)
+        value.append(((L)arguments[i]).getValue());
+      return new L(value.toString(), STRING_DATATYPE_NAME);
+    }
+    case SUBSTRING: {
+      if (arguments.length != 3 && arguments.length != 4)
+        return null;
+      String string = string((L)arguments[1]);
+      Integer beginIndex = integer((L)arguments[2]);
+      Integer endIndex = arguments.length == 4 ? integer((L)arguments[3]) : null;
+      if (string == null || beginIndex == null || (arguments.length == 4 && endIndex == null))
+        return null;
+      return new L(endIndex != null ? string.substring(beginIndex, endIndex) : string.substring(beginIndex),
+        STRING_DATATYPE_NAME);
+    }
+    case STRING_LENGTH:
+    case UPPER_CASE:
+    case LOWER_CASE: {
+      String string = arguments.length == 2 ? string((L)arguments[1]) : null;
+      if (string == null)
+        return null;
+      else if (builtInName.equals(STRING_LENGTH))
+        return new L(String.valueOf(string.length()), INTEGER_DATATYPE_NAME);
+      else
+        return new L(builtInName.equals(UPPER_CASE) ? string.toUpperCase() : string.toLowerCase(),
+          STRING_DATATYPE_NAME);
+    }
+    default:
+      return null;
+    }
+  }
+
+  /**
+   * @param l A literal
+   * @return The decimal expansion of the literal, or null if it does not have a numeric type supported natively
+   */
+  @Nullable public static BigDecimal decimalValue(@NonNull L l)
+  {
+    try {
+      return decimal(l);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @param value    A value computed from the operands
+   * @param operands The numeric operands
+   * @return A literal holding the value with the least narrow numeric type of the operands, or null if there are no
+   * operands or an operand does not have a numeric type supported natively
+   */
+  @Nullable public static L numericLiteral(@NonNull BigDecimal value, @NonNull Collection<@NonNull L> operands)
+  {
+    NumericType widestType = null;
+
+    for (L operand : operands) {
+      NumericType type = numericType(operand);
+      if (type == null)
+        return null;
+      if (widestType == null || type.compareTo(widestType) > 0)
+        widestType = type;
+    }
+    return widestType != null ? widestType.createLiteral(value) : null;
+  }
+
+  /*
+   * The operands of an arithmetic built-in are its arguments after the first. Its result has the widest numeric type of
+   * its operands.
+   */
+  @NonNull private static List<@NonNull L> operands(@NonNull BA @NonNull [] arguments)
+  {
+    List<@NonNull L> operands = new ArrayList<>(arguments.length - 1);
+
+    for (int i = 1; i < arguments.length; i++)
+      operands.add((L)arguments[i]);
+
+    return operands;
+  }
+
+  @Nullable private static NumericType numericType(@NonNull L l)
+  {
+    switch (l.getDatatype()) {
+    case BYTE:
+      return NumericType.BYTE;
+    case SHORT:
+      return NumericType.SHORT;
+    case INT:
+      return NumericType.INT;
+    case LONG:
+      return NumericType.LONG;
+    case FLOAT:
+      return NumericType.FLOAT;
+    case DOUBLE:
+      return NumericType.DOUBLE;
+    case OTHER:
+      if (l.getTypeName().equals(INTEGER_DATATYPE_NAME))
+        return NumericType.INTEGER;
+      else if (l.getTypeName().equals(DECIMAL_DATATYPE_NAME))
+        return NumericType.DECIMAL;
+      else
+        return null;
+    default:
+      return null;
+    }
+  }
+
+  @Nullable private static BigDecimal decimal(@NonNull L l)
+  {
+    return numericType(l) != null ? new BigDecimal(l.getValue()) : null;
+  }
+
+  @Nullable private static Integer integer(@NonNull L l)
+  {
+    return numericType(l) != null ? new BigInteger(l.getValue()).intValueExact() : null;
+  }
+
+  @Nullable private static String string(@NonNull L l)
+  {
+    return l.getDatatype() == DroolsXSDDatatype.STRING ? l.getValue() : null;
+  }
+}
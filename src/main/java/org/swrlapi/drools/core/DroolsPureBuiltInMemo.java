@@ -0,0 +1,183 @@
+package org.swrlapi.drools.core;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.swrlapi.drools.sqwrl.SQWRLC;
+import org.swrlapi.drools.swrl.BA;
+import org.swrlapi.drools.swrl.BAP;
+import org.swrlapi.drools.swrl.UBA;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A memo table of the results of pure SWRL built-ins, i.e., built-ins whose results depend only on their argument
+ * values. Unlike the {@link DroolsBuiltInResultCache}, entries are keyed only by built-in name and argument values,
+ * ignoring the bindings of the path variables of an invocation site, and are kept across rule engine resets, so repeated
+ * rule engine runs reuse earlier results. Entries are discarded when
+ * {@link #invalidate()} is called or when a new ontology version is supplied with {@link #setOntologyVersion(long)}.
+ * <p>
+ * By default the built-ins in the <tt>swrlb</tt> and <tt>swrlm</tt> namespaces are treated as pure. Built-ins
+ * operating on SQWRL collections are never memoized because collection contents differ between runs.
+ *
+ * @see DroolsSWRLBuiltInInvoker
+ */
+public class DroolsPureBuiltInMemo
+{
+  public static final int DEFAULT_MAXIMUM_ENTRIES = 100_000;
+
+  private static final UBA UNBOUND_ARGUMENT = new UBA("");
+
+  @NonNull private final Set<@NonNull String> pureBuiltInPrefixes;
+  @NonNull private final Set<@NonNull String> pureBuiltInNames;
+  @NonNull private final Set<@NonNull String> impureBuiltInNames;
+  @NonNull private final Map<@NonNull DroolsBuiltInInvocationPattern, @NonNull List<@NonNull BAP>> memo;
+
+  private int maximumEntries;
+  private long ontologyVersion;
+  private long hits;
+  private long misses;
+
+  public DroolsPureBuiltInMemo()
+  {
+    this.pureBuiltInPrefixes = new HashSet<>();
+    this.pureBuiltInPrefixes.add("swrlb:");
+    this.pureBuiltInPrefixes.add("swrlm:");
+    this.pureBuiltInNames = new HashSet<>();
+    this.impureBuiltInNames = new HashSet<>();
+    this.maximumEntries = DEFAULT_MAXIMUM_ENTRIES;
+    this.memo = new LinkedHashMap<DroolsBuiltInInvocationPattern, List<BAP>>(16, 0.75f, true)
+    {
+      @Override protected boolean removeEldestEntry(Map.Entry<DroolsBuiltInInvocationPattern, List<BAP>> eldest)
+      {
+        return size() > DroolsPureBuiltInMemo.this.maximumEntries;
+      }
+    };
+  }
+
+  public void invalidate()
+  {
+    this.memo.clear();
+  }
+
+  /**
+   * Discard all entries if the supplied ontology version differs from the version the entries were computed with.
+   *
+   * @param ontologyVersion The current ontology version
+   */
+  public void setOntologyVersion(long ontologyVersion)
+  {
+    if (ontologyVersion != this.ontologyVersion) {
+      this.ontologyVersion = ontologyVersion;
+      invalidate();
+    }
+  }
+
+  public long getOntologyVersion()
+  {
+    return this.ontologyVersion;
+  }
+
+  /**
+   * @param maximumEntries The maximum number of memoized invocations; zero disables memoization
+   */
+  public void setMaximumEntries(int maximumEntries)
+  {
+    if (maximumEntries < 0)
+      throw new IllegalArgumentException("maximum number of memoized built-in invocations must not be negative");
+
+    this.maximumEntries = maximumEntries;
+    invalidate();
+  }
+
+  public void declarePure(@NonNull String builtInName)
+  {
+    this.impureBuiltInNames.remove(builtInName);
+    this.pureBuiltInNames.add(builtInName);
+  }
+
+  public void declareImpure(@NonNull String builtInName)
+  {
+    this.pureBuiltInNames.remove(builtInName);
+    this.impureBuiltInNames.add(builtInName);
+    invalidate();
+  }
+
+  /**
+   * @return True if the built-in is pure and its invocations are memoized
+   */
+  public boolean isPure(@NonNull String builtInName)
+  {
+    return this.maximumEntries != 0 && isDeclaredPure(builtInName);
+  }
+
+  /**
+   * @return True if the built-in is pure, whether or not memoization is enabled
+   */
+  public boolean isDeclaredPure(@NonNull String builtInName)
+  {
+    if (this.impureBuiltInNames.contains(builtInName))
+      return false;
+    if (this.pureBuiltInNames.contains(builtInName))
+      return true;
+
+    int separatorIndex = builtInName.indexOf(':');
+
+    return separatorIndex != -1 && this.pureBuiltInPrefixes.contains(builtInName.substring(0, separatorIndex + 1));
+  }
+
+  public int size()
+  {
+    return this.memo.size();
+  }
+
+  public long getHits()
+  {
+    return this.hits;
+  }
+
+  public long getMisses()
+  {
+    return this.misses;
+  }
+
+  /**
+   * @return A key for the invocation, or null if the invocation cannot be memoized
+   */
+  @Nullable DroolsBuiltInInvocationPattern createKey(@NonNull String builtInName, @NonNull BA @NonNull [] arguments)
+  {
+    BA[] keyArguments = arguments;
+
+    for (int i = 0; i < arguments.length; i++) {
+      if (arguments[i] instanceof SQWRLC)
+        return null;
+      else if (arguments[i] instanceof UBA) { // Unbound arguments are identified by position, not variable name
+        if (keyArguments == arguments)
+          keyArguments = arguments.clone();
+        keyArguments[i] = UNBOUND_ARGUMENT;
+      }
+    }
+    return new DroolsBuiltInInvocationPattern("", builtInName, -1, false, new BA[0], keyArguments);
+  }
+
+  @Nullable List<@NonNull BAP> get(@NonNull DroolsBuiltInInvocationPattern key)
+  {
+    List<@NonNull BAP> baps = this.memo.get(key);
+
+    if (baps != null)
+      this.hits++;
+    else
+      this.misses++;
+
+    return baps;
+  }
+
+  void put(@NonNull DroolsBuiltInInvocationPattern key, @NonNull List<@NonNull BAP> baps)
+  {
+    this.memo.put(key, Collections.unmodifiableList(baps));
+  }
+}
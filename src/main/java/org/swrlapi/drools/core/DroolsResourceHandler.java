@@ -51,6 +51,8 @@ public class DroolsResourceHandler
 
     defineDRLResource("import org.swrlapi.drools.core.DroolsSWRLBuiltInInvoker;");
     defineDRLResource("global DroolsSWRLBuiltInInvoker invoker;");
+
+    defineDRLResource("import org.swrlapi.drools.core.DroolsNativeSWRLBuiltIns;");
   }
 
   private void importOWLAndSWRLJavaClasses()
@@ -65,9 +67,11 @@ public class DroolsResourceHandler
 
   private void importSQWRLJavaClasses()
   {
-    // Drools class representing SQWRL collections
+    // Drools classes representing SQWRL collections, their incrementally maintained aggregates and the parameters of
+    // prepared queries
     defineDRLResource("import org.swrlapi.drools.sqwrl.SQWRLC");
-    defineDRLResource("import org.swrlapi.drools.sqwrl.VPATH");
+    defineDRLResource("import org.swrlapi.drools.sqwrl.SQWRLA");
+    defineDRLResource("import org.swrlapi.drools.sqwrl.SQWRLP");
   }
 
   private void importSWRLJavaClasses()
@@ -75,8 +79,8 @@ public class DroolsResourceHandler
     // Drools classes representing SWRL built-in arguments and other built-in support classes
     defineDRLResource("import org.swrlapi.drools.swrl.BA");
     defineDRLResource("import org.swrlapi.drools.swrl.BAP");
+    defineDRLResource("import org.swrlapi.drools.swrl.BIR");
     defineDRLResource("import org.swrlapi.drools.swrl.UBA");
-    defineDRLResource("import org.swrlapi.drools.swrl.BAVNs");
   }
 
   private void importOWLDataRangeJavaClasses()
@@ -0,0 +1,306 @@
+package org.swrlapi.drools.core;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.dataflow.qual.Deterministic;
+import org.checkerframework.dataflow.qual.SideEffectFree;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.swrlapi.builtins.arguments.SWRLBuiltInArgument;
+import org.swrlapi.owl2rl.OWL2RLNames;
+import org.swrlapi.sqwrl.SQWRLQuery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A bounded cache of the outcomes of rule engine runs that answer SQWRL queries. The results of SQWRL queries are
+ * generated by the bridge from the invocations of SQWRL built-ins in rule heads, so a run is cached as the head
+ * built-in invocations it made and the OWL axioms it inferred. When the same queries are run again against the same
+ * ontology with the same OWL 2 RL rules enabled, the cached invocations and axioms are passed to the bridge again
+ * instead of running Drools.
+ * <p>
+ * Runs are keyed by the name, head atoms and body atoms of each active query, the enabled OWL 2 RL rules and the
+ * ontology version maintained by the rule engine. Atoms are compared structurally, so queries that differ only in
+ * their formatting share entries. All entries are discarded when the ontology version changes. Only runs whose rules
+ * invoke pure or SQWRL built-ins only are cached; see {@link DroolsPureBuiltInMemo#isDeclaredPure(String)}.
+ *
+ * @see DroolsSWRLRuleEngine#getSQWRLResultCache()
+ */
+public class DroolsSQWRLResultCache
+{
+  public static final int DEFAULT_MAXIMUM_ENTRIES = 64;
+
+  // A rough per-entry and per-argument cost covering the key, the recorded invocations and the argument objects
+  private static final long ESTIMATED_BYTES_PER_ENTRY = 512;
+  private static final long ESTIMATED_BYTES_PER_ARGUMENT = 64;
+
+  @NonNull private final Map<@NonNull Key, @NonNull Result> results;
+
+  @Nullable private List<@NonNull Invocation> recordedInvocations; // Non-null while a run is recorded
+  private int maximumEntries;
+  private long ontologyVersion;
+  private long numberOfArguments;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  public DroolsSQWRLResultCache()
+  {
+    this.maximumEntries = DEFAULT_MAXIMUM_ENTRIES;
+    this.results = new LinkedHashMap<Key, Result>(16, 0.75f, true)
+    {
+      @Override protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest)
+      {
+        if (size() <= DroolsSQWRLResultCache.this.maximumEntries)
+          return false;
+
+        DroolsSQWRLResultCache.this.numberOfArguments -= eldest.getValue().getNumberOfArguments();
+        DroolsSQWRLResultCache.this.evictions++;
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Remove all entries. Statistics are retained; see {@link #resetStatistics()}.
+   */
+  public void invalidate()
+  {
+    this.results.clear();
+    this.numberOfArguments = 0;
+  }
+
+  public void resetStatistics()
+  {
+    this.hits = 0;
+    this.misses = 0;
+    this.evictions = 0;
+  }
+
+  /**
+   * Discard all entries if the supplied ontology version differs from the version the entries were computed with.
+   *
+   * @param ontologyVersion The current ontology version
+   */
+  public void setOntologyVersion(long ontologyVersion)
+  {
+    if (ontologyVersion != this.ontologyVersion) {
+      this.ontologyVersion = ontologyVersion;
+      invalidate();
+    }
+  }
+
+  /**
+   * @param maximumEntries The maximum number of cached runs; zero disables caching
+   */
+  public void setMaximumEntries(int maximumEntries)
+  {
+    if (maximumEntries < 0)
+      throw new IllegalArgumentException("maximum number of cached SQWRL results must not be negative");
+
+    this.maximumEntries = maximumEntries;
+    invalidate();
+  }
+
+  public int getMaximumEntries()
+  {
+    return this.maximumEntries;
+  }
+
+  public boolean isCachingEnabled()
+  {
+    return this.maximumEntries != 0;
+  }
+
+  public int size()
+  {
+    return this.results.size();
+  }
+
+  @NonNull public DroolsBuiltInCacheStatistics getStatistics()
+  {
+    return new DroolsBuiltInCacheStatistics(this.hits, this.misses, this.evictions, size(), this.numberOfArguments,
+      size() * ESTIMATED_BYTES_PER_ENTRY + this.numberOfArguments * ESTIMATED_BYTES_PER_ARGUMENT);
+  }
+
+  /**
+   * @param activeSQWRLQueries The active queries of a run
+   * @param enabledRules       The OWL 2 RL rules enabled for the run
+   * @param ontologyVersion    The ontology version of the run
+   * @return The key of the run
+   */
+  @NonNull Key createKey(@NonNull Collection<@NonNull SQWRLQuery> activeSQWRLQueries,
+    @NonNull Set<OWL2RLNames.@NonNull OWL2RLRule> enabledRules, long ontologyVersion)
+  {
+    List<@NonNull SQWRLQuery> queries = new ArrayList<>(activeSQWRLQueries);
+    List<@NonNull List<@NonNull Object>> queryForms = new ArrayList<>(queries.size());
+
+    queries.sort(Comparator.comparing(SQWRLQuery::getQueryName));
+    for (SQWRLQuery query : queries)
+      queryForms.add(Arrays.asList(query.getQueryName(), query.getHeadAtoms(), query.getBodyAtoms()));
+
+    return new Key(queryForms, new HashSet<>(enabledRules), ontologyVersion);
+  }
+
+  /**
+   * @return The cached outcome of the run with the key, or null if the run is not cached
+   */
+  @Nullable Result get(@NonNull Key key)
+  {
+    Result result = this.results.get(key);
+
+    if (result != null)
+      this.hits++;
+    else
+      this.misses++;
+
+    return result;
+  }
+
+  /**
+   * Start recording the head built-in invocations of a run.
+   */
+  void startRecording()
+  {
+    this.recordedInvocations = new ArrayList<>();
+  }
+
+  /**
+   * Stop recording without caching the run, e.g., because it failed.
+   */
+  void stopRecording()
+  {
+    this.recordedInvocations = null;
+  }
+
+  void recordInvocation(@NonNull DroolsBuiltInInvocationSite site,
+    @NonNull List<@NonNull SWRLBuiltInArgument> builtInArguments)
+  {
+    if (this.recordedInvocations != null)
+      this.recordedInvocations.add(new Invocation(site, builtInArguments));
+  }
+
+  /**
+   * Cache the recorded invocations of a run together with the axioms it inferred and stop recording.
+   */
+  void put(@NonNull Key key, @NonNull List<@NonNull OWLAxiom> inferredOWLAxioms)
+  {
+    List<@NonNull Invocation> invocations = this.recordedInvocations;
+
+    this.recordedInvocations = null;
+
+    if (invocations == null || !isCachingEnabled() || key.getOntologyVersion() != this.ontologyVersion)
+      return;
+
+    Result result = new Result(invocations, inferredOWLAxioms);
+    Result replacedResult = this.results.put(key, result);
+
+    this.numberOfArguments += result.getNumberOfArguments();
+    if (replacedResult != null)
+      this.numberOfArguments -= replacedResult.getNumberOfArguments();
+  }
+
+  static final class Key
+  {
+    @NonNull private final List<@NonNull List<@NonNull Object>> queryForms;
+    @NonNull private final Set<OWL2RLNames.@NonNull OWL2RLRule> enabledRules;
+    private final long ontologyVersion;
+    private final int hashCode;
+
+    private Key(@NonNull List<@NonNull List<@NonNull Object>> queryForms,
+      @NonNull Set<OWL2RLNames.@NonNull OWL2RLRule> enabledRules, long ontologyVersion)
+    {
+      this.queryForms = queryForms;
+      this.enabledRules = enabledRules;
+      this.ontologyVersion = ontologyVersion;
+      this.hashCode = Objects.hash(queryForms, enabledRules, ontologyVersion);
+    }
+
+    long getOntologyVersion()
+    {
+      return this.ontologyVersion;
+    }
+
+    @SideEffectFree @Deterministic @Override public boolean equals(@Nullable Object obj)
+    {
+      if (this == obj)
+        return true;
+      if (obj == null || getClass() != obj.getClass())
+        return false;
+
+      Key key = (Key)obj;
+
+      return this.hashCode == key.hashCode && this.ontologyVersion == key.ontologyVersion && this.queryForms
+        .equals(key.queryForms) && this.enabledRules.equals(key.enabledRules);
+    }
+
+    @SideEffectFree @Deterministic @Override public int hashCode()
+    {
+      return this.hashCode;
+    }
+  }
+
+  static final class Result
+  {
+    @NonNull private final List<@NonNull Invocation> invocations;
+    @NonNull private final List<@NonNull OWLAxiom> inferredOWLAxioms;
+    private final long numberOfArguments;
+
+    private Result(@NonNull List<@NonNull Invocation> invocations, @NonNull List<@NonNull OWLAxiom> inferredOWLAxioms)
+    {
+      this.invocations = Collections.unmodifiableList(invocations);
+      this.inferredOWLAxioms = Collections.unmodifiableList(new ArrayList<>(inferredOWLAxioms));
+      this.numberOfArguments = invocations.stream().mapToLong(i -> i.getBuiltInArguments().size()).sum();
+    }
+
+    /**
+     * @return The head built-in invocations of the run in the order in which they were passed to the bridge
+     */
+    @NonNull List<@NonNull Invocation> getInvocations()
+    {
+      return this.invocations;
+    }
+
+    @NonNull List<@NonNull OWLAxiom> getInferredOWLAxioms()
+    {
+      return this.inferredOWLAxioms;
+    }
+
+    long getNumberOfArguments()
+    {
+      return this.numberOfArguments;
+    }
+  }
+
+  static final class Invocation
+  {
+    @NonNull private final DroolsBuiltInInvocationSite site;
+    @NonNull private final List<@NonNull SWRLBuiltInArgument> builtInArguments;
+
+    private Invocation(@NonNull DroolsBuiltInInvocationSite site,
+      @NonNull List<@NonNull SWRLBuiltInArgument> builtInArguments)
+    {
+      this.site = site;
+      this.builtInArguments = Collections.unmodifiableList(new ArrayList<>(builtInArguments));
+    }
+
+    @NonNull DroolsBuiltInInvocationSite getSite()
+    {
+      return this.site;
+    }
+
+    @NonNull List<@NonNull SWRLBuiltInArgument> getBuiltInArguments()
+    {
+      return this.builtInArguments;
+    }
+  }
+}
@@ -0,0 +1,303 @@
+package org.swrlapi.drools.core;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.kie.api.runtime.KieSession;
+import org.swrlapi.drools.sqwrl.DroolsSQWRLRowLimit;
+import org.swrlapi.drools.swrl.BA;
+import org.swrlapi.sqwrl.exceptions.SQWRLException;
+import org.swrlapi.sqwrl.values.SQWRLResultValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Pushes the row limits of SQWRL queries down into rule firing. The SQWRL result generator of the bridge sorts and
+ * slices the rows of a query once all of them have been selected; the limiter drops the rows selected by a query that
+ * cannot be among the rows described by its {@link DroolsSQWRLRowLimit}, so they never reach the bridge.
+ * <p>
+ * An unordered query needs the first rows that it selects only. Once it has selected the required number of distinct
+ * rows its further rows are dropped, and the knowledge session is halted as soon as every active SQWRL query has
+ * selected the rows it needs. The OWL axioms inferred by a halted run may then be incomplete.
+ * <p>
+ * For an ordered query the limiter keeps a bounded heap of the best distinct rows selected so far, using the same
+ * comparison of result values as the result generator. A row that sorts strictly after every row in a full heap is
+ * dropped. A row that is already selected is never retracted, so the bridge may still receive more rows than needed.
+ * Rows whose values cannot be compared are always selected.
+ * <p>
+ * The limiter is enabled by default. Limits are defined when queries are converted and the rows of each query are
+ * tracked per rule engine run.
+ *
+ * @see DroolsSWRLBuiltInInvoker
+ */
+public class DroolsSQWRLRowLimiter
+{
+  @NonNull private final Map<@NonNull String, @NonNull DroolsSQWRLRowLimit> rowLimits; // Keyed by rule name
+  @NonNull private final Map<@NonNull String, @NonNull Rows> rows; // Keyed by query name
+
+  @NonNull private Set<@NonNull String> activeSQWRLQueryNames;
+  @Nullable private KieSession knowledgeSession;
+  private boolean isEnabled;
+  private boolean isHalted;
+
+  public DroolsSQWRLRowLimiter()
+  {
+    this.rowLimits = new HashMap<>();
+    this.rows = new HashMap<>();
+    this.activeSQWRLQueryNames = Collections.emptySet();
+    this.isEnabled = true;
+  }
+
+  public void setEnabled(boolean isEnabled)
+  {
+    this.isEnabled = isEnabled;
+  }
+
+  public boolean isEnabled()
+  {
+    return this.isEnabled;
+  }
+
+  /**
+   * @return The row limit of the query a rule represents, or null if its rows are not limited
+   */
+  @Nullable public DroolsSQWRLRowLimit getRowLimit(@NonNull String ruleName)
+  {
+    return this.rowLimits.get(ruleName);
+  }
+
+  /**
+   * @return True if the knowledge session was halted because every active query selected the rows it needs
+   */
+  public boolean isHalted()
+  {
+    return this.isHalted;
+  }
+
+  /**
+   * Discard all limits and supply the knowledge session that is halted once the active queries have their rows.
+   */
+  void reset(@NonNull KieSession knowledgeSession, @NonNull Set<@NonNull String> activeSQWRLQueryNames)
+  {
+    this.knowledgeSession = knowledgeSession;
+    this.activeSQWRLQueryNames = activeSQWRLQueryNames;
+    this.rowLimits.clear();
+    clearRows();
+  }
+
+  void defineRowLimit(@NonNull String ruleName, @NonNull DroolsSQWRLRowLimit rowLimit)
+  {
+    this.rowLimits.put(ruleName, rowLimit);
+  }
+
+  boolean hasRowLimits()
+  {
+    return this.isEnabled && !this.rowLimits.isEmpty();
+  }
+
+  /**
+   * Forget the rows selected by a previous rule engine run.
+   */
+  void clearRows()
+  {
+    this.rows.clear();
+    this.isHalted = false;
+  }
+
+  /**
+   * @param ruleName  The name of the rule selecting the row
+   * @param arguments The arguments of the selection, which are copied if retained
+   * @param values    Supplies the result values of the arguments, or null if they cannot be represented
+   * @return True if the row may be among the rows the query needs and must be selected
+   */
+  boolean selectRow(@NonNull String ruleName, @NonNull BA @NonNull [] arguments,
+    @NonNull Supplier<@Nullable List<@NonNull SQWRLResultValue>> values)
+  {
+    DroolsSQWRLRowLimit rowLimit = this.isEnabled ? this.rowLimits.get(ruleName) : null;
+
+    if (rowLimit == null)
+      return true;
+
+    Rows queryRows = this.rows.computeIfAbsent(rowLimit.getQueryName(), n -> new Rows(rowLimit));
+
+    if (rowLimit.isOrdered())
+      return queryRows.selectOrderedRow(arguments, values);
+    else if (queryRows.isComplete())
+      return false;
+    else {
+      queryRows.selectUnorderedRow(arguments);
+      if (queryRows.isComplete())
+        haltIfAllRowsSelected();
+      return true;
+    }
+  }
+
+  private void haltIfAllRowsSelected()
+  {
+    if (this.isHalted || this.knowledgeSession == null || this.activeSQWRLQueryNames.isEmpty())
+      return;
+
+    for (String queryName : this.activeSQWRLQueryNames) {
+      Rows queryRows = this.rows.get(queryName);
+      if (queryRows == null || !queryRows.isComplete())
+        return;
+    }
+    this.isHalted = true;
+    this.knowledgeSession.halt();
+  }
+
+  /**
+   * Compares two rows the way the SQWRL result generator orders them.
+   *
+   * @return The comparison, or null if the values of a column cannot be compared
+   */
+  @Nullable static Integer compare(@NonNull List<@NonNull SQWRLResultValue> row1,
+    @NonNull List<@NonNull SQWRLResultValue> row2, @NonNull List<@NonNull Integer> columnIndexes, boolean isAscending)
+  {
+    try {
+      for (int columnIndex : columnIndexes) {
+        SQWRLResultValue value1 = row1.get(columnIndex);
+        SQWRLResultValue value2 = row2.get(columnIndex);
+        int comparison;
+
+        if (value1.isLiteral() && value2.isLiteral())
+          comparison = value1.asLiteralResult().compareTo(value2.asLiteralResult());
+        else if (value1.isClassExpression() && value2.isClassExpression())
+          comparison = value1.asClassExpressionResult().compareTo(value2.asClassExpressionResult());
+        else if (value1.isEntity() && value2.isEntity())
+          comparison = value1.asEntityResult().compareTo(value2.asEntityResult());
+        else
+          return null;
+
+        if (comparison != 0)
+          return isAscending ? comparison : -comparison;
+      }
+      return 0;
+    } catch (SQWRLException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static final class Rows
+  {
+    @NonNull private final DroolsSQWRLRowLimit rowLimit;
+    @NonNull private final Set<@NonNull List<@NonNull BA>> keys; // Distinct rows of unordered queries, or heap rows
+    @NonNull private final PriorityQueue<@NonNull Row> heap; // The best rows of ordered queries; the worst at its head
+    @NonNull private final List<@NonNull Integer> allColumnIndexes;
+    private boolean isUnbounded;
+
+    Rows(@NonNull DroolsSQWRLRowLimit rowLimit)
+    {
+      this.rowLimit = rowLimit;
+      this.keys = new HashSet<>();
+      this.heap = new PriorityQueue<>((r1, r2) -> {
+        Integer comparison = compare(r2.values, r1.values, rowLimit.getOrderByColumnIndexes(),
+          rowLimit.isAscending());
+        return comparison != null ? comparison : 0;
+      });
+      this.allColumnIndexes = new ArrayList<>();
+    }
+
+    boolean isComplete()
+    {
+      return !this.rowLimit.isOrdered() && this.keys.size() >= this.rowLimit.getNumberOfRows();
+    }
+
+    void selectUnorderedRow(@NonNull BA @NonNull [] arguments)
+    {
+      List<@NonNull BA> key = Arrays.asList(arguments);
+
+      if (!this.keys.contains(key))
+        this.keys.add(Arrays.asList(arguments.clone()));
+    }
+
+    boolean selectOrderedRow(@NonNull BA @NonNull [] arguments,
+      @NonNull Supplier<@Nullable List<@NonNull SQWRLResultValue>> valuesSupplier)
+    {
+      if (this.isUnbounded || this.keys.contains(Arrays.asList(arguments)))
+        return true;
+
+      List<@NonNull SQWRLResultValue> values = valuesSupplier.get();
+
+      if (values == null) {
+        this.isUnbounded = true;
+        return true;
+      }
+
+      Row worst = this.heap.peek();
+      Integer comparison = worst != null ?
+        compare(values, worst.values, this.rowLimit.getOrderByColumnIndexes(), this.rowLimit.isAscending()) :
+        Integer.valueOf(-1);
+
+      if (comparison == null) {
+        this.isUnbounded = true;
+        return true;
+      }
+
+      if (this.heap.size() < this.rowLimit.getNumberOfRows()) {
+        if (!isDuplicate(values))
+          retain(arguments, values);
+        return true;
+      }
+
+      if (comparison > 0)
+        return false;
+
+      if (comparison < 0 && !isDuplicate(values)) {
+        this.heap.poll();
+        this.keys.remove(worst.key);
+        retain(arguments, values);
+      }
+      return true;
+    }
+
+    private void retain(@NonNull BA @NonNull [] arguments, @NonNull List<@NonNull SQWRLResultValue> values)
+    {
+      Row row = new Row(Arrays.asList(arguments.clone()), values);
+
+      this.heap.add(row);
+      this.keys.add(row.key);
+    }
+
+    /**
+     * The result generator removes the duplicates of distinct queries by comparing the values of all their columns, so
+     * only one of the rows with equal values may count towards the limit.
+     */
+    private boolean isDuplicate(@NonNull List<@NonNull SQWRLResultValue> values)
+    {
+      if (!this.rowLimit.isDistinct())
+        return false;
+
+      if (this.allColumnIndexes.isEmpty())
+        for (int columnIndex = 0; columnIndex < values.size(); columnIndex++)
+          this.allColumnIndexes.add(columnIndex);
+
+      for (Row row : this.heap) {
+        Integer comparison = compare(values, row.values, this.allColumnIndexes, true);
+        if (comparison == null || comparison == 0)
+          return true;
+      }
+      return false;
+    }
+  }
+
+  private static final class Row
+  {
+    @NonNull private final List<@NonNull BA> key;
+    @NonNull private final List<@NonNull SQWRLResultValue> values;
+
+    Row(@NonNull List<@NonNull BA> key, @NonNull List<@NonNull SQWRLResultValue> values)
+    {
+      this.key = key;
+      this.values = values;
+    }
+  }
+}
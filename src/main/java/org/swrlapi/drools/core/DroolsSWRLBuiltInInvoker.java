@@ -1,485 +1,756 @@
 package org.swrlapi.drools.core;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.swrlapi.bridge.SWRLRuleEngineBridge;
+import org.swrlapi.builtins.arguments.SWRLAnnotationPropertyBuiltInArgument;
 import org.swrlapi.builtins.arguments.SWRLBuiltInArgument;
+import org.swrlapi.builtins.arguments.SWRLClassBuiltInArgument;
+import org.swrlapi.builtins.arguments.SWRLClassExpressionBuiltInArgument;
+import org.swrlapi.builtins.arguments.SWRLDataPropertyBuiltInArgument;
+import org.swrlapi.builtins.arguments.SWRLLiteralBuiltInArgument;
+import org.swrlapi.builtins.arguments.SWRLNamedIndividualBuiltInArgument;
+import org.swrlapi.builtins.arguments.SWRLObjectPropertyBuiltInArgument;
+import org.swrlapi.builtins.arguments.SWRLVariableBuiltInArgument;
 import org.swrlapi.drools.converters.oo.DroolsOWLClassExpressionHandler;
 import org.swrlapi.drools.converters.oo.DroolsOWLPropertyExpressionHandler;
 import org.swrlapi.drools.converters.oo.DroolsSWRLBuiltInArgument2BAConverter;
 import org.swrlapi.drools.extractors.DroolsSWRLBuiltInArgumentExtractor;
-import org.swrlapi.drools.sqwrl.VPATH;
+import org.swrlapi.drools.sqwrl.DroolsSQWRLRow;
+import org.swrlapi.drools.sqwrl.DroolsSQWRLRowConsumer;
 import org.swrlapi.drools.swrl.BA;
 import org.swrlapi.drools.swrl.BAP;
-import org.swrlapi.drools.swrl.BAVNs;
+import org.swrlapi.drools.swrl.BIR;
+import org.swrlapi.drools.swrl.UBA;
 import org.swrlapi.exceptions.SWRLAPIException;
 import org.swrlapi.exceptions.SWRLBuiltInException;
 import org.swrlapi.exceptions.SWRLBuiltInMethodRuntimeException;
 import org.swrlapi.exceptions.TargetSWRLRuleEngineException;
 import org.swrlapi.exceptions.TargetSWRLRuleEngineInternalException;
+import org.swrlapi.factory.SQWRLResultValueFactory;
+import org.swrlapi.sqwrl.SQWRLNames;
+import org.swrlapi.sqwrl.values.SQWRLResultValue;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * This class is used to invoke SWRL built-ins from within a Drools rule.
  * <p>
- * Varargs seem to work inconsistently in this version of Drools. Hence the need for the repetitions for the invoke()
- * methods with varying numbers of arguments. We really want to replace this with a single call with a varargs argument.
+ * Each built-in atom in a rule is described by a {@link DroolsBuiltInInvocationSite} that is defined when the rule is
+ * converted to DRL. Generated rules pass the site identifier and the values that are only known at run time. The
+ * values are placed in argument arrays owned by the site, so an invocation does not allocate argument lists. The values
+ * are passed as an array, so a site may need any number of them.
+ * <p>
+ * Built-ins declared batchable with the {@link DroolsBuiltInBatcher} are not invoked from rule conditions. Rules
+ * request them instead and the requested invocations are evaluated together by the rule engine between firing cycles.
+ * <p>
+ * Built-ins in rule heads are only invoked for their side effects. Their invocations are queued in the order the rule
+ * consequences make them and are flushed to the bridge in that order at the end of each firing cycle, or whenever the
+ * queue is full. When a {@link DroolsSQWRLRowConsumer} is set, SQWRL selections in rule heads are not queued; each
+ * selected row is passed to the consumer as soon as the rule consequence makes it. Selections of SQWRL queries whose
+ * rows are limited are first passed to the {@link DroolsSQWRLRowLimiter}, which drops the rows the query does not need.
+ * Head built-in invocations passed to the bridge are also recorded by the {@link DroolsSQWRLResultCache} while it
+ * records a run.
  */
 public class DroolsSWRLBuiltInInvoker
 {
   @NonNull private final SWRLRuleEngineBridge bridge;
   @NonNull private final DroolsSWRLBuiltInArgument2BAConverter builtInArgumentConvertor;
   @NonNull private final DroolsSWRLBuiltInArgumentExtractor builtInArgumentExtractor;
-
-  public static final int MAX_BUILTIN_ARGUMENTS = 11;
-
-  @NonNull private final Map<@NonNull String, @NonNull List<@NonNull List<@NonNull SWRLBuiltInArgument>>> invocationPatternMap;
+  @NonNull private final DroolsBuiltInArgumentConversionCache conversionCache;
+
+  public static final int DEFAULT_CONSEQUENT_BATCH_SIZE = 1024;
+
+  @NonNull private final DroolsBuiltInResultCache resultCache;
+  @NonNull private final DroolsPureBuiltInMemo pureBuiltInMemo;
+  @NonNull private final List<@NonNull DroolsBuiltInInvocationSite> invocationSites;
+  @NonNull private final Map<@NonNull DroolsBuiltInInvocationSite, @NonNull DroolsBuiltInInvocationSite> siteMap;
+  @NonNull private final DroolsBuiltInBatcher batcher;
+  @NonNull private final DroolsBuiltInProfiler profiler;
+  @NonNull private final List<@NonNull DroolsBuiltInInvocationSite> consequentSites;
+  @NonNull private final List<@NonNull BA @NonNull []> consequentArguments;
+  private int consequentBatchSize;
+  @Nullable private DroolsSQWRLRowConsumer sqwrlRowConsumer;
+  @NonNull private Map<@NonNull String, String> ruleName2SQWRLQueryNameMap;
+  @NonNull private final Set<@NonNull DroolsBuiltInInvocationPattern> streamedDistinctRows;
+  @NonNull private final DroolsSQWRLRowLimiter sqwrlRowLimiter;
+  @NonNull private final DroolsSQWRLResultCache sqwrlResultCache;
 
   public DroolsSWRLBuiltInInvoker(@NonNull SWRLRuleEngineBridge bridge,
     @NonNull DroolsOWLClassExpressionHandler droolsOWLClassExpressionHandler,
     @NonNull DroolsOWLPropertyExpressionHandler droolsOWLPropertyExpressionHandler)
   {
     this.bridge = bridge;
-    this.builtInArgumentConvertor = new DroolsSWRLBuiltInArgument2BAConverter(bridge, droolsOWLClassExpressionHandler);
+    this.conversionCache = new DroolsBuiltInArgumentConversionCache();
+    this.builtInArgumentConvertor = new DroolsSWRLBuiltInArgument2BAConverter(bridge, droolsOWLClassExpressionHandler,
+      this.conversionCache);
     this.builtInArgumentExtractor = new DroolsSWRLBuiltInArgumentExtractor(bridge, droolsOWLClassExpressionHandler,
-      droolsOWLPropertyExpressionHandler);
+      droolsOWLPropertyExpressionHandler, this.conversionCache);
+
+    this.resultCache = new DroolsBuiltInResultCache();
+    this.pureBuiltInMemo = new DroolsPureBuiltInMemo();
+    this.invocationSites = new ArrayList<>();
+    this.siteMap = new HashMap<>();
+    this.batcher = new DroolsBuiltInBatcher();
+    this.profiler = new DroolsBuiltInProfiler();
+    this.consequentSites = new ArrayList<>();
+    this.consequentArguments = new ArrayList<>();
+    this.consequentBatchSize = DEFAULT_CONSEQUENT_BATCH_SIZE;
+    this.sqwrlRowConsumer = null;
+    this.ruleName2SQWRLQueryNameMap = Collections.emptyMap();
+    this.streamedDistinctRows = new HashSet<>();
+    this.sqwrlRowLimiter = new DroolsSQWRLRowLimiter();
+    this.sqwrlResultCache = new DroolsSQWRLResultCache();
+  }
+
+  /**
+   * Clears the per-run result cache, the argument conversion cache and any batched or queued invocations. The memo
+   * table of pure built-in results and the counters of the profiler are retained.
+   */
+  public void reset()
+  {
+    this.resultCache.clear();
+    this.conversionCache.clear();
+    this.batcher.clear();
+    this.consequentSites.clear();
+    this.consequentArguments.clear();
+    this.streamedDistinctRows.clear();
+  }
 
-    this.invocationPatternMap = new HashMap<>();
+  /**
+   * Stream the rows selected by SQWRL queries to a consumer instead of accumulating them in the bridge. The results of
+   * the queries obtained from the bridge then hold no rows.
+   *
+   * @param sqwrlRowConsumer           The consumer, or null to stop streaming
+   * @param ruleName2SQWRLQueryNameMap The name of the query of each rule generated from a SQWRL query
+   */
+  void setSQWRLRowConsumer(@Nullable DroolsSQWRLRowConsumer sqwrlRowConsumer,
+    @NonNull Map<@NonNull String, String> ruleName2SQWRLQueryNameMap)
+  {
+    flushConsequentInvocations();
+    this.sqwrlRowConsumer = sqwrlRowConsumer;
+    this.ruleName2SQWRLQueryNameMap = ruleName2SQWRLQueryNameMap;
+    this.streamedDistinctRows.clear();
   }
 
-  public void reset()
+  /**
+   * @param consequentBatchSize The number of head built-in invocations queued before they are flushed to the bridge;
+   *                            zero invokes head built-ins immediately
+   */
+  public void setConsequentBatchSize(int consequentBatchSize)
   {
-    this.invocationPatternMap.clear();
+    if (consequentBatchSize < 0)
+      throw new IllegalArgumentException("consequent built-in batch size must not be negative");
+
+    flushConsequentInvocations();
+    this.consequentBatchSize = consequentBatchSize;
   }
 
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull BA ba1)
+  public int getConsequentBatchSize()
   {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, new VPATH(), new BAVNs(), bas);
+    return this.consequentBatchSize;
   }
 
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull VPATH vpath, @NonNull BAVNs bavns, @NonNull BA ba1)
+  /**
+   * Invoke the queued head built-ins in the order in which they were queued. Called by the rule engine at the end of
+   * each firing cycle.
+   */
+  public void flushConsequentInvocations()
   {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, vpath, bavns, bas);
+    if (this.consequentSites.isEmpty())
+      return;
+
+    List<@NonNull DroolsBuiltInInvocationSite> sites = new ArrayList<>(this.consequentSites);
+    List<@NonNull BA @NonNull []> arguments = new ArrayList<>(this.consequentArguments);
+    boolean isProfiling = this.profiler.isEnabled();
+
+    this.consequentSites.clear();
+    this.consequentArguments.clear();
+
+    for (int i = 0; i < sites.size(); i++) {
+      DroolsBuiltInInvocationSite site = sites.get(i);
+
+      if (!isProfiling) {
+        invokeSWRLBuiltIn(site, bas2SWRLBuiltInArguments(site, arguments.get(i)));
+        continue;
+      }
+
+      DroolsBuiltInProfiler.Counters counters = this.profiler.getCounters(site);
+      long startTime = System.nanoTime();
+
+      try {
+        List<@NonNull SWRLBuiltInArgument> builtInArguments = bas2SWRLBuiltInArguments(site, arguments.get(i));
+        long bridgeStartTime = System.nanoTime();
+        invokeSWRLBuiltIn(site, builtInArguments);
+        long endTime = System.nanoTime();
+        counters.recordConversionTime(bridgeStartTime - startTime);
+        counters.recordBridgeTime(endTime - bridgeStartTime);
+        counters.recordCall(endTime - startTime, 0);
+      } catch (RuntimeException e) {
+        counters.recordFailure(System.nanoTime() - startTime);
+        throw e;
+      }
+    }
   }
 
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull BA ba1, @NonNull BA ba2)
+  /**
+   * @return The cache of body built-in results, which can be configured and queried for statistics
+   */
+  @NonNull public DroolsBuiltInResultCache getResultCache()
   {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, new VPATH(), new BAVNs(), bas);
+    return this.resultCache;
   }
 
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull VPATH vpath, @NonNull BAVNs bavns, @NonNull BA ba1, @NonNull BA ba2)
+  /**
+   * @return The cache of conversions between Drools and SWRLAPI built-in arguments
+   */
+  @NonNull public DroolsBuiltInArgumentConversionCache getConversionCache()
   {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, vpath, bavns, bas);
+    return this.conversionCache;
   }
 
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull BA ba1, @NonNull BA ba2, @NonNull BA ba3)
+  /**
+   * @return The memo table of pure built-in results, which is retained across resets
+   */
+  @NonNull public DroolsPureBuiltInMemo getPureBuiltInMemo()
   {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, new VPATH(), new BAVNs(), bas);
+    return this.pureBuiltInMemo;
   }
 
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull VPATH vpath, @NonNull BAVNs bavns, @NonNull BA ba1, @NonNull BA ba2,
-    @NonNull BA ba3)
+  /**
+   * @return The batcher of body built-in invocations, which declares batchable built-ins and their executor
+   */
+  @NonNull public DroolsBuiltInBatcher getBatcher()
   {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, vpath, bavns, bas);
+    return this.batcher;
   }
 
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull BA ba1, @NonNull BA ba2, @NonNull BA ba3, @NonNull BA ba4)
+  /**
+   * @return The profiler of built-in invocations, which is disabled by default
+   */
+  @NonNull public DroolsBuiltInProfiler getProfiler()
   {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    bas.add(ba4);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, new VPATH(), new BAVNs(), bas);
+    return this.profiler;
   }
 
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull VPATH vpath, @NonNull BAVNs bavns, @NonNull BA ba1, @NonNull BA ba2,
-    @NonNull BA ba3, @NonNull BA ba4)
+  /**
+   * @return The limiter of the rows selected by SQWRL queries, which is enabled by default
+   */
+  @NonNull public DroolsSQWRLRowLimiter getSQWRLRowLimiter()
   {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    bas.add(ba4);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, vpath, bavns, bas);
+    return this.sqwrlRowLimiter;
   }
 
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull BA ba1, @NonNull BA ba2, @NonNull BA ba3, @NonNull BA ba4, @NonNull BA ba5)
+  /**
+   * @return The cache of the outcomes of rule engine runs answering SQWRL queries, which is retained across rule engine
+   * resets until the ontology changes
+   */
+  @NonNull public DroolsSQWRLResultCache getSQWRLResultCache()
   {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    bas.add(ba4);
-    bas.add(ba5);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, new VPATH(), new BAVNs(), bas);
+    return this.sqwrlResultCache;
   }
 
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull VPATH vpath, @NonNull BAVNs bavns, @NonNull BA ba1, @NonNull BA ba2,
-    @NonNull BA ba3, @NonNull BA ba4, @NonNull BA ba5)
+  /**
+   * Define the invocation site of a built-in atom in a rule. Constant arguments and unbound variable arguments are
+   * converted once here; the values of bound variable arguments and of arguments that cannot be represented as
+   * constants are passed by the rule on each invocation. Sites are interned, so converting a rule again yields the same
+   * site.
+   *
+   * @param ruleName              The name of the rule
+   * @param builtInName           The prefixed name of the built-in
+   * @param builtInIndex          The index of the built-in atom in the rule
+   * @param isInConsequent        True if the built-in atom is in the rule head
+   * @param numberOfPathVariables The number of path variable values passed ahead of the argument values
+   * @param arguments             The built-in arguments
+   * @param variableNames         The Drools name of each variable argument, with an empty string for other arguments
+   * @return The invocation site
+   */
+  @NonNull public DroolsBuiltInInvocationSite defineInvocationSite(@NonNull String ruleName,
+    @NonNull String builtInName, int builtInIndex, boolean isInConsequent, int numberOfPathVariables,
+    @NonNull List<@NonNull SWRLBuiltInArgument> arguments, @NonNull List<@NonNull String> variableNames)
   {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    bas.add(ba4);
-    bas.add(ba5);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, vpath, bavns, bas);
-  }
-
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull BA ba1, @NonNull BA ba2, @NonNull BA ba3, @NonNull BA ba4, @NonNull BA ba5,
-    @NonNull BA ba6)
-  {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    bas.add(ba4);
-    bas.add(ba5);
-    bas.add(ba6);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, new VPATH(), new BAVNs(), bas);
-  }
-
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull VPATH vpath, @NonNull BAVNs bavns, @NonNull BA ba1, @NonNull BA ba2,
-    @NonNull BA ba3, @NonNull BA ba4, @NonNull BA ba5, @NonNull BA ba6)
-  {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    bas.add(ba4);
-    bas.add(ba5);
-    bas.add(ba6);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, vpath, bavns, bas);
-  }
-
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull BA ba1, @NonNull BA ba2, @NonNull BA ba3, @NonNull BA ba4, @NonNull BA ba5,
-    @NonNull BA ba6, @NonNull BA ba7)
-  {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    bas.add(ba4);
-    bas.add(ba5);
-    bas.add(ba6);
-    bas.add(ba7);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, new VPATH(), new BAVNs(), bas);
-  }
-
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull VPATH vpath, @NonNull BAVNs bavns, @NonNull BA ba1, @NonNull BA ba2,
-    @NonNull BA ba3, @NonNull BA ba4, @NonNull BA ba5, @NonNull BA ba6, @NonNull BA ba7)
-  {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    bas.add(ba4);
-    bas.add(ba5);
-    bas.add(ba6);
-    bas.add(ba7);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, vpath, bavns, bas);
-  }
-
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull BA ba1, @NonNull BA ba2, @NonNull BA ba3, @NonNull BA ba4, @NonNull BA ba5,
-    @NonNull BA ba6, @NonNull BA ba7, @NonNull BA ba8)
-  {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    bas.add(ba4);
-    bas.add(ba5);
-    bas.add(ba6);
-    bas.add(ba7);
-    bas.add(ba8);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, new VPATH(), new BAVNs(), bas);
-  }
-
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull VPATH vpath, @NonNull BAVNs bavns, @NonNull BA ba1, @NonNull BA ba2,
-    @NonNull BA ba3, @NonNull BA ba4, @NonNull BA ba5, @NonNull BA ba6, BA ba7, @NonNull BA ba8)
-  {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    bas.add(ba4);
-    bas.add(ba5);
-    bas.add(ba6);
-    bas.add(ba7);
-    bas.add(ba8);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, vpath, bavns, bas);
-  }
-
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull BA ba1, @NonNull BA ba2, @NonNull BA ba3, @NonNull BA ba4, @NonNull BA ba5,
-    @NonNull BA ba6, @NonNull BA ba7, @NonNull BA ba8, @NonNull BA ba9)
-  {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    bas.add(ba4);
-    bas.add(ba5);
-    bas.add(ba6);
-    bas.add(ba7);
-    bas.add(ba8);
-    bas.add(ba9);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, new VPATH(), new BAVNs(), bas);
-  }
-
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull VPATH vpath, @NonNull BAVNs bavns, @NonNull BA ba1, @NonNull BA ba2,
-    @NonNull BA ba3, @NonNull BA ba4, @NonNull BA ba5, @NonNull BA ba6, BA ba7, @NonNull BA ba8, @NonNull BA ba9)
-  {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    bas.add(ba4);
-    bas.add(ba5);
-    bas.add(ba6);
-    bas.add(ba7);
-    bas.add(ba8);
-    bas.add(ba9);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, vpath, bavns, bas);
-  }
-
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull BA ba1, @NonNull BA ba2, @NonNull BA ba3, @NonNull BA ba4, @NonNull BA ba5,
-    @NonNull BA ba6, @NonNull BA ba7, @NonNull BA ba8, @NonNull BA ba9, @NonNull BA ba10)
-  {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    bas.add(ba4);
-    bas.add(ba5);
-    bas.add(ba6);
-    bas.add(ba7);
-    bas.add(ba8);
-    bas.add(ba9);
-    bas.add(ba10);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, new VPATH(), new BAVNs(), bas);
-  }
-
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull VPATH vpath, @NonNull BAVNs bavns, @NonNull BA ba1, @NonNull BA ba2,
-    @NonNull BA ba3, @NonNull BA ba4, @NonNull BA ba5, @NonNull BA ba6, BA ba7, @NonNull BA ba8, @NonNull BA ba9,
-    @NonNull BA ba10)
-  {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    bas.add(ba4);
-    bas.add(ba5);
-    bas.add(ba6);
-    bas.add(ba7);
-    bas.add(ba8);
-    bas.add(ba9);
-    bas.add(ba10);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, vpath, bavns, bas);
-  }
-
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull BA ba1, @NonNull BA ba2, @NonNull BA ba3, @NonNull BA ba4, @NonNull BA ba5,
-    @NonNull BA ba6, @NonNull BA ba7, @NonNull BA ba8, @NonNull BA ba9, @NonNull BA ba10, @NonNull BA ba11)
-  {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    bas.add(ba4);
-    bas.add(ba5);
-    bas.add(ba6);
-    bas.add(ba7);
-    bas.add(ba8);
-    bas.add(ba9);
-    bas.add(ba10);
-    bas.add(ba11);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, new VPATH(), new BAVNs(), bas);
-  }
-
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull VPATH vpath, @NonNull BAVNs bavns, @NonNull BA ba1, @NonNull BA ba2,
-    @NonNull BA ba3, @NonNull BA ba4, @NonNull BA ba5, @NonNull BA ba6, BA ba7, @NonNull BA ba8, @NonNull BA ba9,
-    @NonNull BA ba10, @NonNull BA ba11)
-  {
-    List<@NonNull BA> bas = new ArrayList<>();
-    bas.add(ba1);
-    bas.add(ba2);
-    bas.add(ba3);
-    bas.add(ba4);
-    bas.add(ba5);
-    bas.add(ba6);
-    bas.add(ba7);
-    bas.add(ba8);
-    bas.add(ba9);
-    bas.add(ba10);
-    bas.add(ba11);
-    return invoke(ruleName, builtInName, builtInIndex, isInConsequent, vpath, bavns, bas);
-  }
-
-  private String createInvocationPattern(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull List<@NonNull SWRLBuiltInArgument> vPathArguments,
-    @NonNull List<@NonNull SWRLBuiltInArgument> builtInrguments)
-  {
-    StringBuilder sb = new StringBuilder();
-
-    sb.append(ruleName).append(".");
-    sb.append(builtInName).append(".");
-    sb.append("").append(builtInIndex).append(".");
-    sb.append("").append(isInConsequent);
-
-    for (SWRLBuiltInArgument vPathArgument : vPathArguments)
-      sb.append(".").append(vPathArgument.toString());
-
-    for (SWRLBuiltInArgument builtInArgument : builtInrguments)
-      sb.append(".").append(builtInArgument.toString());
-
-    return sb.toString();
-  }
-
-  @NonNull public List<@NonNull BAP> invoke(@NonNull String ruleName, @NonNull String builtInName, int builtInIndex,
-    boolean isInConsequent, @NonNull VPATH vpath, @NonNull BAVNs argumentVariableNames, @NonNull List<@NonNull BA> bas)
-  {
-    List<@NonNull SWRLBuiltInArgument> builtInArguments = bas2SWRLBuiltInArguments(ruleName, builtInName,
-      argumentVariableNames, bas);
-    List<@NonNull SWRLBuiltInArgument> vPathArguments = vpath2SWRLBuiltInArguments(ruleName, builtInName, vpath);
+    if (arguments.size() != variableNames.size())
+      throw new TargetSWRLRuleEngineInternalException(
+        "inconsistent variable names for built-in " + builtInName + " in rule " + ruleName);
 
-    try {
-      String invocationPattern = createInvocationPattern(ruleName, builtInName, builtInIndex, isInConsequent,
-        vPathArguments, builtInArguments);
+    BA[] constantArguments = new BA[arguments.size()];
 
-      if (!isInConsequent && hasInvocationPattern(invocationPattern)) {
-        List<@NonNull List<@NonNull SWRLBuiltInArgument>> argumentPatterns = getInvocationPatternArguments(ruleName,
-          builtInName, invocationPattern);
-        return swrlBuiltInArgumentPatterns2BAPs(ruleName, builtInName, argumentPatterns);
-      } else {
-        List<@NonNull List<@NonNull SWRLBuiltInArgument>> argumentPatterns = getBridge()
-          .invokeSWRLBuiltIn(ruleName, builtInName, builtInIndex, isInConsequent, builtInArguments);
+    for (int i = 0; i < arguments.size(); i++) {
+      SWRLBuiltInArgument argument = arguments.get(i);
 
-        if (!isInConsequent)
-          addInvocationPattern(builtInName, invocationPattern, argumentPatterns);
+      if (argument instanceof SWRLVariableBuiltInArgument) {
+        if (((SWRLVariableBuiltInArgument)argument).isUnbound())
+          constantArguments[i] = new UBA(variableNames.get(i));
+      } else
+        constantArguments[i] = convertConstantArgument(argument);
+    }
 
-        return swrlBuiltInArgumentPatterns2BAPs(ruleName, builtInName, argumentPatterns);
-      }
-    } catch (Throwable e) {
-      if (e instanceof SWRLBuiltInMethodRuntimeException) {
+    DroolsBuiltInInvocationSite site = new DroolsBuiltInInvocationSite(this.invocationSites.size(), ruleName,
+      builtInName, builtInIndex, isInConsequent, numberOfPathVariables, variableNames.toArray(new String[0]),
+      constantArguments);
+    DroolsBuiltInInvocationSite existingSite = this.siteMap.get(site);
+
+    if (existingSite != null)
+      return existingSite;
+
+    this.invocationSites.add(site);
+    this.siteMap.put(site, site);
+
+    return site;
+  }
+
+  /**
+   * @param ruleNameFilter Accepts the names of the rules that may fire
+   * @return True if the built-ins of all invocation sites in the accepted rules are pure or SQWRL built-ins
+   */
+  boolean invokesOnlyPureBuiltIns(@NonNull Predicate<@NonNull String> ruleNameFilter)
+  {
+    for (DroolsBuiltInInvocationSite site : this.invocationSites) {
+      String builtInName = site.getBuiltInName();
+
+      if (ruleNameFilter.test(site.getRuleName()) && !builtInName.startsWith(SQWRLNames.SQWRL_PREFIX)
+        && !this.pureBuiltInMemo.isDeclaredPure(builtInName))
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * Discard all invocation sites. Called when the rules referring to them are discarded.
+   */
+  void clearInvocationSites()
+  {
+    this.invocationSites.clear();
+    this.siteMap.clear();
+    this.batcher.clear();
+    this.profiler.clearInvocationSites();
+  }
+
+  @NonNull public List<@NonNull BAP> invoke(int siteId, @NonNull BA @NonNull [] values)
+  {
+    return invoke(setPassedValues(siteId, values));
+  }
+
+  /**
+   * Request an invocation of a batchable built-in in a rule body. The invocation is queued and its results are later
+   * held by the returned request once {@link #evaluateBatchedInvocations()} has evaluated it.
+   *
+   * @return A list holding the request for the invocation
+   */
+  @NonNull public List<@NonNull BIR> request(int siteId, @NonNull BA @NonNull [] values)
+  {
+    return Collections.singletonList(this.batcher.request(setPassedValues(siteId, values)));
+  }
+
+  /**
+   * Evaluate the batched built-in invocations requested since the previous call. Arguments are extracted and results
+   * are converted on the calling thread; only the built-ins themselves are invoked on the executor of the batcher, if
+   * any.
+   *
+   * @return The evaluated requests, each holding its resulting built-in argument patterns
+   */
+  @NonNull public List<@NonNull BIR> evaluateBatchedInvocations()
+  {
+    List<DroolsBuiltInBatcher.@NonNull Invocation> invocations = this.batcher.takePendingInvocations();
+
+    if (invocations.isEmpty())
+      return Collections.emptyList();
+
+    Executor executor = this.batcher.getExecutor();
+    boolean isProfiling = this.profiler.isEnabled();
+    long[] bridgeNanos = new long[invocations.size()]; // Each element is only written by the invocation at its index
+    long[] conversionNanos = new long[invocations.size()];
+    List<@NonNull CompletableFuture<@NonNull List<@NonNull List<@NonNull SWRLBuiltInArgument>>>> futures =
+      new ArrayList<>(invocations.size());
+
+    for (int i = 0; i < invocations.size(); i++) {
+      DroolsBuiltInBatcher.Invocation invocation = invocations.get(i);
+      DroolsBuiltInInvocationSite site = invocation.getSite();
+      long startTime = isProfiling ? System.nanoTime() : 0;
+      List<@NonNull SWRLBuiltInArgument> builtInArguments = bas2SWRLBuiltInArguments(site, invocation.getArguments());
+      int index = i;
+      Supplier<@NonNull List<@NonNull List<@NonNull SWRLBuiltInArgument>>> call = isProfiling ? () -> {
+        long callStartTime = System.nanoTime();
+        try {
+          return invokeSWRLBuiltIn(site, builtInArguments);
+        } finally {
+          bridgeNanos[index] = System.nanoTime() - callStartTime;
+        }
+      } : () -> invokeSWRLBuiltIn(site, builtInArguments);
+
+      if (isProfiling)
+        conversionNanos[i] = System.nanoTime() - startTime;
+
+      if (executor == null)
+        futures.add(CompletableFuture.completedFuture(call.get()));
+      else
+        futures.add(CompletableFuture.supplyAsync(call, executor));
+    }
+
+    List<@NonNull BIR> requests = new ArrayList<>(invocations.size());
+
+    for (int i = 0; i < invocations.size(); i++) {
+      DroolsBuiltInBatcher.Invocation invocation = invocations.get(i);
+      DroolsBuiltInInvocationSite site = invocation.getSite();
+      DroolsBuiltInProfiler.Counters counters = isProfiling ? this.profiler.getCounters(site) : null;
+      List<@NonNull List<@NonNull SWRLBuiltInArgument>> argumentPatterns;
+
+      try {
+        argumentPatterns = futures.get(i).join();
+      } catch (CompletionException e) {
+        if (counters != null)
+          counters.recordFailure(conversionNanos[i] + bridgeNanos[i]);
         Throwable cause = e.getCause();
-        throw new SWRLAPIException(
-          "runtime exception thrown by built-in " + builtInName + " in rule " + ruleName + ": " + (cause != null ?
-            cause.toString() :
-            ""), cause);
-      } else if (e instanceof SWRLBuiltInException) {
-        throw new SWRLAPIException(
-          "built-in exception thrown by built-in " + builtInName + " in rule " + ruleName + ": " + (e != null ?
-            e.getMessage() :
-            ""), e);
-      } else {
-        throw new SWRLAPIException(
-          "unknown exception " + e.getClass().getCanonicalName() + " thrown by built-in " + builtInName + " in rule "
-            + ruleName + ": " + (e.getMessage() != null ? e.getMessage() : ""), e);
+        if (cause instanceof RuntimeException)
+          throw (RuntimeException)cause;
+        else
+          throw builtInInvocationException(site, cause != null ? cause : e);
+      }
+      long startTime = counters != null ? System.nanoTime() : 0;
+      BIR request = invocation.getRequest();
+      request.setResults(swrlBuiltInArgumentPatterns2BAPs(site.getRuleName(), site.getBuiltInName(), argumentPatterns));
+      requests.add(request);
+
+      if (counters != null) {
+        long nanos = conversionNanos[i] + System.nanoTime() - startTime;
+        counters.recordConversionTime(nanos);
+        counters.recordBridgeTime(bridgeNanos[i]);
+        counters.recordCall(nanos + bridgeNanos[i], request.getResults().size());
       }
     }
+    return requests;
   }
 
-  @NonNull private List<@NonNull SWRLBuiltInArgument> bas2SWRLBuiltInArguments(@NonNull String ruleName,
-    @NonNull String builtInName, @NonNull BAVNs argumentVariableNames, @NonNull List<@NonNull BA> bas)
+  /**
+   * @return The site, holding the values passed by the rule in its argument arrays
+   */
+  @NonNull private DroolsBuiltInInvocationSite setPassedValues(int siteId, @NonNull BA @NonNull [] values)
   {
-    List<@NonNull SWRLBuiltInArgument> arguments = new ArrayList<>();
+    DroolsBuiltInInvocationSite site = getInvocationSite(siteId, values.length);
+
+    for (int i = 0; i < values.length; i++)
+      site.setPassedValue(i, values[i]);
 
-    if (argumentVariableNames.hasVariableNames() && argumentVariableNames.getNumberOfArguments() != bas.size())
+    return site;
+  }
+
+  @NonNull private DroolsBuiltInInvocationSite getInvocationSite(int siteId, int numberOfPassedValues)
+  {
+    if (siteId < 0 || siteId >= this.invocationSites.size())
+      throw new TargetSWRLRuleEngineInternalException("unknown built-in invocation site " + siteId);
+
+    DroolsBuiltInInvocationSite site = this.invocationSites.get(siteId);
+
+    if (site.getNumberOfPassedValues() != numberOfPassedValues)
       throw new TargetSWRLRuleEngineInternalException(
-        "inconsistent variable names passed to built-in " + builtInName + " in rule " + ruleName);
+        "expecting " + site.getNumberOfPassedValues() + " values for built-in " + site.getBuiltInName() + " in rule "
+          + site.getRuleName() + ", got " + numberOfPassedValues);
+
+    return site;
+  }
+
+  @NonNull private List<@NonNull BAP> invoke(@NonNull DroolsBuiltInInvocationSite site)
+  {
+    if (site.isInConsequent() && this.sqwrlRowLimiter.hasRowLimits() && !limitSQWRLRow(site))
+      return Collections.emptyList();
+
+    if (site.isInConsequent() && this.sqwrlRowConsumer != null && streamSQWRLRow(site, this.sqwrlRowConsumer))
+      return Collections.emptyList();
+
+    // The results of head built-ins are not used, so their invocations can be deferred
+    if (site.isInConsequent() && this.consequentBatchSize != 0) {
+      this.consequentSites.add(site);
+      this.consequentArguments.add(site.getArguments().clone());
+      if (this.consequentSites.size() >= this.consequentBatchSize)
+        flushConsequentInvocations();
+      return Collections.emptyList();
+    }
+
+    if (!this.profiler.isEnabled())
+      return invoke(site, null);
+
+    DroolsBuiltInProfiler.Counters counters = this.profiler.getCounters(site);
+    long startTime = System.nanoTime();
 
     try {
-      int argumentNumber = 0;
-      for (BA ba : bas) {
-        SWRLBuiltInArgument argument = ba.extract(getSWRLAtomArgumentExtractor());
-        if (argumentVariableNames.hasVariableNames()
-          && argumentVariableNames.getVariableNames().get(argumentNumber).length() != 0) {
-          String variableName = argumentVariableNames.getVariableNames().get(argumentNumber);
-          argument.setBoundVariableName(variableName); // This argument was bound from this original variable
-        }
-        arguments.add(argument);
-        argumentNumber++;
+      List<@NonNull BAP> baps = invoke(site, counters);
+      counters.recordCall(System.nanoTime() - startTime, baps.size());
+      return baps;
+    } catch (RuntimeException e) {
+      counters.recordFailure(System.nanoTime() - startTime);
+      throw e;
+    }
+  }
+
+  /**
+   * @return False if the site selects a row of a SQWRL query that the query does not need
+   */
+  private boolean limitSQWRLRow(@NonNull DroolsBuiltInInvocationSite site)
+  {
+    String builtInName = site.getBuiltInName();
+
+    if (!builtInName.equals(SQWRLNames.Select) && !builtInName.equals(SQWRLNames.SelectDistinct))
+      return true;
+
+    return this.sqwrlRowLimiter
+      .selectRow(site.getRuleName(), site.getArguments(), () -> bas2SQWRLResultValues(site, site.getArguments()));
+  }
+
+  /**
+   * @return True if the site selects a row of a SQWRL query, which has been passed to the consumer
+   */
+  private boolean streamSQWRLRow(@NonNull DroolsBuiltInInvocationSite site,
+    @NonNull DroolsSQWRLRowConsumer sqwrlRowConsumer)
+  {
+    String builtInName = site.getBuiltInName();
+    boolean isDistinct = builtInName.equals(SQWRLNames.SelectDistinct);
+
+    if (!isDistinct && !builtInName.equals(SQWRLNames.Select))
+      return false;
+
+    String queryName = this.ruleName2SQWRLQueryNameMap.get(site.getRuleName());
 
+    if (queryName == null)
+      return false;
+
+    if (isDistinct) {
+      DroolsBuiltInInvocationPattern row = new DroolsBuiltInInvocationPattern(site.getRuleName(), builtInName,
+        site.getBuiltInIndex(), true, site.getPathArguments(), site.getArguments());
+      if (this.streamedDistinctRows.contains(row))
+        return true;
+      this.streamedDistinctRows.add(row.copy());
+    }
+
+    try {
+      sqwrlRowConsumer.consumeRow(new DroolsSQWRLRow(queryName, bas2SWRLBuiltInArguments(site, site.getArguments())));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SWRLAPIException("interrupted while streaming rows of SQWRL query " + queryName, e);
+    }
+    return true;
+  }
+
+  @NonNull private List<@NonNull BAP> invoke(@NonNull DroolsBuiltInInvocationSite site,
+    DroolsBuiltInProfiler.@Nullable Counters counters)
+  {
+    String ruleName = site.getRuleName();
+    String builtInName = site.getBuiltInName();
+    int builtInIndex = site.getBuiltInIndex();
+    boolean isInConsequent = site.isInConsequent();
+    BA[] pathArguments = site.getPathArguments();
+    BA[] arguments = site.getArguments();
+
+    // Common arithmetic and string built-ins in rule bodies are computed natively without a bridge round trip. Their
+    // results depend on their arguments only, so the bindings of the path variables of their site are ignored.
+    // Body built-in results are cached. The cache is consulted before any arguments are extracted from Drools.
+    // Pure built-ins are also memoized across runs, keyed by their argument values only, so sites whose path variables
+    // are bound differently share entries. Keys are built over the reused argument arrays of the site and are copied
+    // before they are stored.
+    if (!isInConsequent && DroolsNativeSWRLBuiltIns.isBinding(builtInName)) {
+      List<@NonNull BAP> baps = DroolsNativeSWRLBuiltIns.invoke(builtInName, arguments);
+      if (baps != null) {
+        if (counters != null)
+          counters.recordNativeEvaluation();
+        return baps;
       }
-    } catch (TargetSWRLRuleEngineException e) {
-      throw new TargetSWRLRuleEngineInternalException(
-        "error extracting arguments from Drools when invoking built-in " + builtInName + " in rule " + ruleName + ": "
-          + e.toString());
     }
-    return arguments;
+
+    boolean isCached = !isInConsequent && this.resultCache.isCachingEnabled(builtInName);
+    boolean isMemoized = !isInConsequent && this.pureBuiltInMemo.isPure(builtInName);
+    DroolsBuiltInInvocationPattern invocationPattern = isCached ?
+      new DroolsBuiltInInvocationPattern(ruleName, builtInName, builtInIndex, isInConsequent, pathArguments,
+        arguments) :
+      null;
+    DroolsBuiltInInvocationPattern memoKey = isMemoized ? this.pureBuiltInMemo.createKey(builtInName, arguments) : null;
+
+    if (invocationPattern != null) {
+      List<@NonNull BAP> baps = this.resultCache.get(invocationPattern);
+      if (baps != null) {
+        if (counters != null)
+          counters.recordCacheHit();
+        return baps;
+      }
+    }
+
+    if (memoKey != null) {
+      List<@NonNull BAP> baps = this.pureBuiltInMemo.get(memoKey);
+      if (baps != null) {
+        if (counters != null)
+          counters.recordCacheHit();
+        if (invocationPattern != null)
+          this.resultCache.put(invocationPattern.copy(), baps);
+        return baps;
+      }
+    }
+
+    List<@NonNull BAP> baps;
+
+    if (counters == null) {
+      List<@NonNull SWRLBuiltInArgument> builtInArguments = bas2SWRLBuiltInArguments(site, arguments);
+      List<@NonNull List<@NonNull SWRLBuiltInArgument>> argumentPatterns = invokeSWRLBuiltIn(site, builtInArguments);
+      baps = swrlBuiltInArgumentPatterns2BAPs(ruleName, builtInName, argumentPatterns);
+    } else {
+      long startTime = System.nanoTime();
+      List<@NonNull SWRLBuiltInArgument> builtInArguments = bas2SWRLBuiltInArguments(site, arguments);
+      long bridgeStartTime = System.nanoTime();
+      List<@NonNull List<@NonNull SWRLBuiltInArgument>> argumentPatterns = invokeSWRLBuiltIn(site, builtInArguments);
+      long bridgeEndTime = System.nanoTime();
+      baps = swrlBuiltInArgumentPatterns2BAPs(ruleName, builtInName, argumentPatterns);
+      counters.recordBridgeTime(bridgeEndTime - bridgeStartTime);
+      counters.recordConversionTime(bridgeStartTime - startTime + System.nanoTime() - bridgeEndTime);
+    }
+
+    if (invocationPattern != null)
+      this.resultCache.put(invocationPattern.copy(), baps);
+    if (memoKey != null)
+      this.pureBuiltInMemo.put(memoKey.copy(), baps);
+
+    return baps;
   }
 
-  @NonNull private List<@NonNull SWRLBuiltInArgument> vpath2SWRLBuiltInArguments(@NonNull String ruleName,
-    @NonNull String builtInName, @NonNull VPATH vpath)
+  /**
+   * Invoke a built-in through the bridge. May be called concurrently for batched invocations, so it must not touch the
+   * reused argument arrays of the site.
+   */
+  @NonNull private List<@NonNull List<@NonNull SWRLBuiltInArgument>> invokeSWRLBuiltIn(
+    @NonNull DroolsBuiltInInvocationSite site, @NonNull List<@NonNull SWRLBuiltInArgument> builtInArguments)
   {
-    List<@NonNull SWRLBuiltInArgument> arguments = new ArrayList<>();
+    if (site.isInConsequent())
+      this.sqwrlResultCache.recordInvocation(site, builtInArguments);
 
     try {
-      for (BA ba : vpath.getArguments()) {
-        SWRLBuiltInArgument argument = ba.extract(getSWRLAtomArgumentExtractor());
-        arguments.add(argument);
-      }
+      return getBridge()
+        .invokeSWRLBuiltIn(site.getRuleName(), site.getBuiltInName(), site.getBuiltInIndex(), site.isInConsequent(),
+          builtInArguments);
+    } catch (Throwable e) {
+      throw builtInInvocationException(site, e);
+    }
+  }
+
+  @NonNull private SWRLAPIException builtInInvocationException(@NonNull DroolsBuiltInInvocationSite site,
+    @NonNull Throwable e)
+  {
+    String builtInName = site.getBuiltInName();
+    String ruleName = site.getRuleName();
+
+    if (e instanceof SWRLBuiltInMethodRuntimeException) {
+      Throwable cause = e.getCause();
+      return new SWRLAPIException(
+        "runtime exception thrown by built-in " + builtInName + " in rule " + ruleName + ": " + (cause != null ?
+          cause.toString() :
+          ""), cause);
+    } else if (e instanceof SWRLBuiltInException) {
+      return new SWRLAPIException(
+        "built-in exception thrown by built-in " + builtInName + " in rule " + ruleName + ": " + e.getMessage(), e);
+    } else {
+      return new SWRLAPIException(
+        "unknown exception " + e.getClass().getCanonicalName() + " thrown by built-in " + builtInName + " in rule "
+          + ruleName + ": " + (e.getMessage() != null ? e.getMessage() : ""), e);
+    }
+  }
+
+  @NonNull private List<@NonNull SWRLBuiltInArgument> bas2SWRLBuiltInArguments(
+    @NonNull DroolsBuiltInInvocationSite site, @NonNull BA @NonNull [] bas)
+  {
+    try {
+      return bas2SWRLBuiltInArguments(bas, site.getVariableNames());
     } catch (TargetSWRLRuleEngineException e) {
       throw new TargetSWRLRuleEngineInternalException(
-        "error extracting path arguments from Drools when invoking built-in " + builtInName + " in rule " + ruleName
-          + ": " + e.toString());
+        "error extracting arguments from Drools when invoking built-in " + site.getBuiltInName() + " in rule " + site
+          .getRuleName() + ": " + e.toString());
+    }
+  }
+
+  /**
+   * @param variableNames The names of the variables the arguments were bound from, or empty names for constants
+   */
+  @NonNull List<@NonNull SWRLBuiltInArgument> bas2SWRLBuiltInArguments(@NonNull BA @NonNull [] bas,
+    @NonNull String @NonNull [] variableNames) throws TargetSWRLRuleEngineException
+  {
+    List<@NonNull SWRLBuiltInArgument> arguments = new ArrayList<>(bas.length);
+
+    for (int argumentNumber = 0; argumentNumber < bas.length; argumentNumber++) {
+      SWRLBuiltInArgument argument = bas[argumentNumber].extract(getSWRLAtomArgumentExtractor());
+      if (variableNames[argumentNumber].length() != 0)
+        argument.setBoundVariableName(variableNames[argumentNumber]); // This argument was bound from this variable
+      arguments.add(argument);
     }
     return arguments;
   }
 
+  /**
+   * Converts the arguments of a SQWRL selection to result values the way the SQWRL built-in library does.
+   *
+   * @return The result values, or null if an argument has no result value representation
+   */
+  @Nullable private List<@NonNull SQWRLResultValue> bas2SQWRLResultValues(@NonNull DroolsBuiltInInvocationSite site,
+    @NonNull BA @NonNull [] bas)
+  {
+    SQWRLResultValueFactory factory = getBridge().getSWRLAPIOWLDataFactory().getSQWRLResultValueFactory();
+    List<@NonNull SQWRLResultValue> values = new ArrayList<>(bas.length);
+
+    for (SWRLBuiltInArgument argument : bas2SWRLBuiltInArguments(site, bas)) {
+      if (argument instanceof SWRLLiteralBuiltInArgument)
+        values.add(factory.getLiteralValue(((SWRLLiteralBuiltInArgument)argument).getLiteral()));
+      else if (argument instanceof SWRLNamedIndividualBuiltInArgument)
+        values.add(factory.getNamedIndividualValue((SWRLNamedIndividualBuiltInArgument)argument));
+      else if (argument instanceof SWRLClassBuiltInArgument)
+        values.add(factory.getClassValue((SWRLClassBuiltInArgument)argument));
+      else if (argument instanceof SWRLObjectPropertyBuiltInArgument)
+        values.add(factory.getObjectPropertyValue((SWRLObjectPropertyBuiltInArgument)argument));
+      else if (argument instanceof SWRLDataPropertyBuiltInArgument)
+        values.add(factory.getDataPropertyValue((SWRLDataPropertyBuiltInArgument)argument));
+      else if (argument instanceof SWRLAnnotationPropertyBuiltInArgument)
+        values.add(factory.getAnnotationPropertyValue((SWRLAnnotationPropertyBuiltInArgument)argument));
+      else if (argument instanceof SWRLClassExpressionBuiltInArgument)
+        values.add(factory.getClassExpressionValue((SWRLClassExpressionBuiltInArgument)argument));
+      else
+        return null;
+    }
+    return values;
+  }
+
+  /**
+   * @throws RuntimeException If the argument has no Drools representation
+   */
+  @NonNull BA convertSWRLBuiltInArgument(@NonNull SWRLBuiltInArgument argument)
+  {
+    return getSWRLBuiltInArgumentConverter().convert(argument);
+  }
+
+  /**
+   * @return The converted constant argument, or null if the argument must be passed from the rule
+   */
+  @Nullable private BA convertConstantArgument(@NonNull SWRLBuiltInArgument argument)
+  {
+    try {
+      return getSWRLBuiltInArgumentConverter().convert(argument);
+    } catch (RuntimeException e) {
+      return null; // Arguments such as class or property expressions are resolved by the rule
+    }
+  }
+
   @NonNull private List<@NonNull BAP> swrlBuiltInArgumentPatterns2BAPs(@NonNull String ruleName,
     @NonNull String builtInName, @NonNull List<@NonNull List<@NonNull SWRLBuiltInArgument>> argumentPatterns)
-    throws SWRLBuiltInException
   {
     List<@NonNull BAP> baps = new ArrayList<>();
 
     try {
       for (List<@NonNull SWRLBuiltInArgument> argumentPattern : argumentPatterns) {
-        BAP bap = new BAP();
+        BA[] bas = new BA[argumentPattern.size()];
+        int argumentNumber = 0;
         for (SWRLBuiltInArgument argument : argumentPattern) {
           if (argument.isVariable() && argument.asVariable().hasBuiltInResult()) {
             Optional<@NonNull SWRLBuiltInArgument> builtInResult = argument.asVariable().getBuiltInResult();
@@ -492,11 +763,11 @@ public class DroolsSWRLBuiltInInvoker
               "error converting return argument " + argument + " after invoking built-in " + builtInName + " in rule "
                 + ruleName);
 
-          bap.addArgument(ba);
+          bas[argumentNumber++] = ba;
         }
-        baps.add(bap);
+        baps.add(new BAP(bas));
       }
-    } catch (RuntimeException e) {
+    } catch (RuntimeException | SWRLBuiltInException e) {
       throw new TargetSWRLRuleEngineInternalException(
         "error converting return arguments after invoking built-in " + builtInName + " in rule " + ruleName + ": " + e
           .toString());
@@ -504,30 +775,6 @@ public class DroolsSWRLBuiltInInvoker
     return baps;
   }
 
-  private boolean hasInvocationPattern(@NonNull String invocationPattern)
-  {
-    return this.invocationPatternMap.containsKey(invocationPattern);
-  }
-
-  private void addInvocationPattern(@NonNull String builtInName, @NonNull String invocationPattern,
-    List<@NonNull List<@NonNull SWRLBuiltInArgument>> argumentPatterns)
-  {
-    if (!this.invocationPatternMap.containsKey(invocationPattern))
-      this.invocationPatternMap.put(invocationPattern, argumentPatterns);
-    else
-      throw new TargetSWRLRuleEngineInternalException("inconsistent invocation pattern in " + builtInName + " in rule");
-  }
-
-  private List<@NonNull List<@NonNull SWRLBuiltInArgument>> getInvocationPatternArguments(@NonNull String ruleName,
-    @NonNull String builtInName, @NonNull String invocationPattern)
-  {
-    if (this.invocationPatternMap.containsKey(invocationPattern))
-      return this.invocationPatternMap.get(invocationPattern);
-    else
-      throw new TargetSWRLRuleEngineInternalException(
-        "unknown invocation pattern in " + builtInName + " in rule " + ruleName);
-  }
-
   @NonNull private DroolsSWRLBuiltInArgument2BAConverter getSWRLBuiltInArgumentConverter()
   {
     return this.builtInArgumentConvertor;
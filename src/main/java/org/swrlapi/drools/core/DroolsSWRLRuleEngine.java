@@ -1,16 +1,20 @@
 package org.swrlapi.drools.core;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.drools.core.impl.InternalKnowledgeBase;
 import org.drools.core.impl.KnowledgeBaseFactory;
 import org.kie.api.KieBaseConfiguration;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
 import org.kie.api.runtime.rule.AgendaFilter;
 import org.kie.api.runtime.rule.Match;
+import org.kie.api.runtime.rule.QueryResultsRow;
 import org.kie.internal.builder.KnowledgeBuilder;
 import org.kie.internal.builder.KnowledgeBuilderFactory;
 import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.SWRLRule;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.swrlapi.bridge.SWRLRuleEngineBridge;
 import org.swrlapi.bridge.TargetSWRLRuleEngine;
@@ -26,7 +30,16 @@ import org.swrlapi.drools.factory.DroolsFactory;
 import org.swrlapi.drools.owl.axioms.A;
 import org.swrlapi.drools.owl2rl.DroolsOWL2RLEngine;
 import org.swrlapi.drools.reasoner.DefaultDroolsOWLAxiomHandler;
+import org.swrlapi.builtins.arguments.SWRLBuiltInArgument;
 import org.swrlapi.drools.sqwrl.DroolsSQWRLCollectionHandler;
+import org.swrlapi.drools.sqwrl.DroolsSQWRLRow;
+import org.swrlapi.drools.sqwrl.DroolsSQWRLRowConsumer;
+import org.swrlapi.drools.sqwrl.DroolsSQWRLRowLimit;
+import org.swrlapi.drools.sqwrl.DroolsSQWRLRowQueue;
+import org.swrlapi.drools.sqwrl.DroolsSQWRLSelectQuery;
+import org.swrlapi.drools.sqwrl.SQWRLP;
+import org.swrlapi.drools.swrl.BA;
+import org.swrlapi.drools.swrl.BIR;
 import org.swrlapi.exceptions.SWRLBuiltInException;
 import org.swrlapi.exceptions.SWRLRuleEngineBridgeException;
 import org.swrlapi.exceptions.TargetSWRLRuleEngineException;
@@ -36,8 +49,11 @@ import org.swrlapi.sqwrl.SQWRLQuery;
 
 import javax.swing.*;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -65,20 +81,33 @@ public class DroolsSWRLRuleEngine implements TargetSWRLRuleEngine
 
   // We keep track of axioms supplied to and inferred by Drools so that we do not redundantly assert them.
   @NonNull private final Set<@NonNull OWLAxiom> assertedAndInferredOWLAxioms;
+  private long owlAxiomDigest; // An order-independent digest of the axioms supplied since the last reset
+  private long previousRunOWLAxiomDigest; // The digest of the axioms supplied for the previous cacheable run
+  private int previousRunNumberOfOWLAxioms;
   @NonNull private final Set<@NonNull String> allSQWRLQueryNames; // Drools is supplied with all currently enabled SQWRL queries.
   // Typically, only one query is active so we use an agenda filter to ignore the ones that are not active.
   @NonNull private final Set<@NonNull String> activeSQWRLQueryNames;
+  @NonNull private final List<@NonNull SQWRLQuery> activeSQWRLQueries;
   @NonNull private final Set<@NonNull String> phase1SQWRLRuleNames;
   @NonNull private final Set<@NonNull String> phase2SQWRLRuleNames;
   @NonNull private final Map<@NonNull String, String> ruleName2SQWRLQueryNameMap;
+  @NonNull private final Map<@NonNull String, @NonNull List<@NonNull String>> preparedSQWRLQueryParameterNames;
+  @NonNull private final Map<@NonNull String, @NonNull DroolsSQWRLSelectQuery> sqwrlSelectQueries; // By query name
   @NonNull private final SQWRLPhase1AgendaFilter sqwrlPhase1AgendaFilter;
   @NonNull private final SQWRLPhase2AgendaFilter sqwrlPhase2AgendaFilter;
+  @NonNull private final DroolsExecutionLimitsListener executionLimitsListener;
 
   private InternalKnowledgeBase knowledgeBase;
   private KnowledgeBuilder knowledgeBuilder;
   private KieSession knowledgeSession;
   private DroolsResourceHandler resourceHandler;
   private boolean ruleLoadRequired;
+  private boolean batchedBuiltInResultSentinelInserted;
+  private boolean isKnowledgeSessionSaturated; // True once the rules have been fired to completion in the session
+  private long ontologyVersion; // Incremented whenever the bridge reports an ontology change
+  @NonNull private DroolsExecutionLimits executionLimits;
+  @Nullable private DroolsSQWRLRowConsumer sqwrlRowConsumer;
+  private boolean isIncrementalSQWRLAggregationEnabled;
 
   public DroolsSWRLRuleEngine(@NonNull SWRLRuleEngineBridge bridge) throws TargetSWRLRuleEngineException
   {
@@ -91,6 +120,7 @@ public class DroolsSWRLRuleEngine implements TargetSWRLRuleEngine
     this.dataRangeHandler = new DroolsOWLDataRangeHandler(bridge);
     this.classExpressionHandler = new DroolsOWLClassExpressionHandler(bridge, droolsOWLIndividual2IConverter,
       propertyExpressionHandler, dataRangeHandler, droolsOWLLiteral2LConverter);
+    this.builtInInvoker = new DroolsSWRLBuiltInInvoker(bridge, classExpressionHandler, propertyExpressionHandler);
     this.axiom2AConverter = new DroolsOWLAxiom2AConverter(bridge, this, classExpressionHandler,
       propertyExpressionHandler, dataRangeHandler);
     this.sqwrlQuery2DRLConverter = new DroolsSQWRLQuery2DRLConverter(bridge, this, classExpressionHandler,
@@ -98,7 +128,6 @@ public class DroolsSWRLRuleEngine implements TargetSWRLRuleEngine
 
     this.axiomExtractor = DroolsFactory
       .getDroolsOWLAxiomExtractor(bridge, classExpressionHandler, propertyExpressionHandler, dataRangeHandler);
-    this.builtInInvoker = new DroolsSWRLBuiltInInvoker(bridge, classExpressionHandler, propertyExpressionHandler);
     this.owl2RLEngine = new DroolsOWL2RLEngine(bridge.getOWL2RLPersistenceLayer());
     this.axiomInferrer = new DefaultDroolsOWLAxiomHandler();
     this.sqwrlCollectionHandler = new DroolsSQWRLCollectionHandler();
@@ -107,12 +136,17 @@ public class DroolsSWRLRuleEngine implements TargetSWRLRuleEngine
 
     this.allSQWRLQueryNames = new HashSet<>();
     this.activeSQWRLQueryNames = new HashSet<>();
+    this.activeSQWRLQueries = new ArrayList<>();
     this.phase1SQWRLRuleNames = new HashSet<>();
     this.phase2SQWRLRuleNames = new HashSet<>();
     this.ruleName2SQWRLQueryNameMap = new HashMap<>();
+    this.preparedSQWRLQueryParameterNames = new HashMap<>();
+    this.sqwrlSelectQueries = new HashMap<>();
 
     this.sqwrlPhase1AgendaFilter = new SQWRLPhase1AgendaFilter();
     this.sqwrlPhase2AgendaFilter = new SQWRLPhase2AgendaFilter();
+    this.executionLimits = DroolsExecutionLimits.getDefaultLimits();
+    this.executionLimitsListener = new DroolsExecutionLimitsListener(this.axiomInferrer, this.executionLimits);
 
     this.knowledgeBase = KnowledgeBaseFactory.newKnowledgeBase(createKnowledgeBaseConfiguration());
     this.knowledgeBuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
@@ -132,12 +166,15 @@ public class DroolsSWRLRuleEngine implements TargetSWRLRuleEngine
     this.builtInInvoker.reset();
 
     this.knowledgeSession = this.knowledgeBase.newKieSession();
+    this.batchedBuiltInResultSentinelInserted = false;
     this.knowledgeSession.setGlobal("invoker", this.builtInInvoker);
     this.knowledgeSession.setGlobal("inferrer", this.axiomInferrer);
     this.knowledgeSession.setGlobal("sqwrlInferrer", this.sqwrlCollectionHandler);
 
     // Supply the inferrer with the knowledge session is so that it can insert new facts as inference is performed.
     this.axiomInferrer.reset(this.knowledgeSession);
+    this.executionLimitsListener.reset(this.knowledgeSession, this.executionLimits);
+    this.builtInInvoker.getSQWRLRowLimiter().reset(this.knowledgeSession, this.activeSQWRLQueryNames);
   }
 
   @Override public void resetRuleEngine() throws TargetSWRLRuleEngineException
@@ -148,8 +185,12 @@ public class DroolsSWRLRuleEngine implements TargetSWRLRuleEngine
     // TODO This could be optimized so that we do not repeat addition of the Java classes representing OWL and SWRL
     // concepts on a knowledge base rebuild.
 
+    if (getBridge().hasOntologyChanged())
+      incrementOntologyVersion();
+
     if (getBridge().hasOntologyChanged() || getOWL2RLEngine().hasRuleSelectionChanged()) {
 
+      this.builtInInvoker.clearInvocationSites(); // The rules referring to them are discarded with the knowledge base
       this.knowledgeBase = KnowledgeBaseFactory.newKnowledgeBase(createKnowledgeBaseConfiguration());
       this.knowledgeBuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
       this.resourceHandler = new DroolsResourceHandler(this.knowledgeBuilder);
@@ -174,7 +215,49 @@ public class DroolsSWRLRuleEngine implements TargetSWRLRuleEngine
     resetKnowledgeSession();
   }
 
+  /**
+   * Run the rules. If the active SQWRL queries were answered before against the same ontology with the same OWL 2 RL
+   * rules enabled, the outcome of that run is taken from the {@link DroolsSQWRLResultCache} instead.
+   */
   @Override public void runRuleEngine() throws TargetSWRLRuleEngineException
+  {
+    if (!isSQWRLResultCacheable()) {
+      runDroolsRuleEngine();
+      return;
+    }
+
+    // The bridge clears its ontology changed status whenever it processes a change to the ontology, so a change made
+    // between runs is detected by comparing a digest of the OWL axioms supplied for this run with that of the previous
+    // run.
+    if (this.owlAxiomDigest != this.previousRunOWLAxiomDigest
+      || this.assertedAndInferredOWLAxioms.size() != this.previousRunNumberOfOWLAxioms) {
+      this.previousRunOWLAxiomDigest = this.owlAxiomDigest;
+      this.previousRunNumberOfOWLAxioms = this.assertedAndInferredOWLAxioms.size();
+      incrementOntologyVersion();
+    }
+
+    DroolsSQWRLResultCache sqwrlResultCache = getSQWRLResultCache();
+    DroolsSQWRLResultCache.Key sqwrlResultKey = sqwrlResultCache
+      .createKey(this.activeSQWRLQueries, getOWL2RLEngine().getEnabledRules(), this.ontologyVersion);
+    DroolsSQWRLResultCache.Result sqwrlResult = sqwrlResultCache.get(sqwrlResultKey);
+
+    if (sqwrlResult != null) {
+      writeCachedSQWRLResultToBridge(sqwrlResult);
+      return;
+    }
+
+    sqwrlResultCache.startRecording();
+    try {
+      sqwrlResultCache.put(sqwrlResultKey, runDroolsRuleEngine());
+    } finally {
+      sqwrlResultCache.stopRecording();
+    }
+  }
+
+  /**
+   * @return The inferred OWL axioms supplied to the bridge
+   */
+  @NonNull private List<@NonNull OWLAxiom> runDroolsRuleEngine() throws TargetSWRLRuleEngineException
   {
     ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
     Thread.currentThread().setContextClassLoader(DroolsSWRLRuleEngine.class.getClassLoader());
@@ -203,24 +286,45 @@ public class DroolsSWRLRuleEngine implements TargetSWRLRuleEngine
     // the knowledge session that are identical to asserted knowledge.
     this.axiomInferrer.addAssertOWLAxioms(getDroolsOWLAxiom2AConverter().getAssertedOWLAxioms());
 
+    if (!this.batchedBuiltInResultSentinelInserted && this.builtInInvoker.getBatcher().hasBatchableBuiltIns()) {
+      // Rules match the evaluated requests for batched built-ins in the working memory. Drools only evaluates the
+      // conditions of a rule once each of its patterns has facts to match, so a placeholder request is inserted to let
+      // the rules make their requests.
+      this.knowledgeSession.insert(new BIR(-1));
+      this.batchedBuiltInResultSentinelInserted = true;
+    }
+
+    this.builtInInvoker.getSQWRLRowLimiter().clearRows();
+
     try { // Fire the rules
       // Phase1 rules with SQWRL collection operators will generate SQWRLC objects, which
       // are collected by a DroolsSQWRLCollectionHandler. Any generated SQWRLC objects are
       // inserted into the knowledge session after then phase 1 rules run to be picked up
-      // by phase 2 rules.
-      this.knowledgeSession.fireAllRules(this.sqwrlPhase1AgendaFilter);
-      if (!this.phase2SQWRLRuleNames.isEmpty() && this.sqwrlCollectionHandler.hasSQWRLCollections()) {
+      // by phase 2 rules. The same applies to the SQWRLA aggregates of queries that are
+      // aggregated incrementally.
+      fireAllRules(this.sqwrlPhase1AgendaFilter);
+      if (!this.executionLimitsListener.isLimitExceeded() && !this.phase2SQWRLRuleNames.isEmpty() && (
+        this.sqwrlCollectionHandler.hasSQWRLCollections() || this.sqwrlCollectionHandler.hasSQWRLAggregates())) {
         this.sqwrlCollectionHandler.getSQWRLCollections().forEach(this.knowledgeSession::insert);
-        this.knowledgeSession.fireAllRules(this.sqwrlPhase2AgendaFilter);
+        this.sqwrlCollectionHandler.getSQWRLAggregates().forEach(this.knowledgeSession::insert);
+        fireAllRules(this.sqwrlPhase2AgendaFilter);
       }
     } catch (Exception e) {
       Thread.currentThread().setContextClassLoader(oldClassLoader);
       String errorMessage = getInvocationTargetCause(e);
       throw new TargetSWRLRuleEngineException("error running Drools rule engine:\n" + errorMessage, e);
+    } finally {
+      signalEndOfSQWRLRows();
     }
     Thread.currentThread().setContextClassLoader(oldClassLoader);
 
-    writeInferredOWLAxiomsToBridge(); // Supply the inferred OWL axioms back to the bridge.
+    if (this.executionLimitsListener.isLimitExceeded())
+      throw new TargetSWRLRuleEngineException(
+        "Drools rule engine halted: " + this.executionLimitsListener.getLimitExceededMessage());
+
+    this.isKnowledgeSessionSaturated = !this.builtInInvoker.getSQWRLRowLimiter().isHalted();
+
+    return writeInferredOWLAxiomsToBridge(); // Supply the inferred OWL axioms back to the bridge.
   }
 
   @Override public void defineOWLAxiom(@NonNull OWLAxiom axiom) throws TargetSWRLRuleEngineException
@@ -228,6 +332,7 @@ public class DroolsSWRLRuleEngine implements TargetSWRLRuleEngine
     if (!this.assertedAndInferredOWLAxioms.contains(axiom)) {
       getDroolsOWLAxiom2AConverter().convert(axiom); // Put the axiom into the Drools knowledge base
       this.assertedAndInferredOWLAxioms.add(axiom);
+      this.owlAxiomDigest += owlAxiomDigest(axiom);
       if (axiom.isOfType(AxiomType.SWRL_RULE))
         this.ruleLoadRequired = true;
     }
@@ -240,6 +345,7 @@ public class DroolsSWRLRuleEngine implements TargetSWRLRuleEngine
 
     if (query.isActive()) { // If a query is not active, we convert it but record it as inactive.
       this.activeSQWRLQueryNames.add(query.getQueryName());
+      this.activeSQWRLQueries.add(query);
       this.ruleLoadRequired = true;
     }
     getDroolsSQWRLQuery2DRLConverter().convert(query); // Will call local defineSQWRLPhase{1,2}Rule.
@@ -274,6 +380,293 @@ public class DroolsSWRLRuleEngine implements TargetSWRLRuleEngine
     return getClass().getPackage().getImplementationVersion();
   }
 
+  /**
+   * @return The invoker called by rules to evaluate SWRL built-ins
+   */
+  @NonNull public DroolsSWRLBuiltInInvoker getBuiltInInvoker()
+  {
+    return this.builtInInvoker;
+  }
+
+  /**
+   * @return The knowledge session of the last run of the rule engine, which is replaced when the rule engine is reset
+   */
+  @NonNull KieSession getKnowledgeSession()
+  {
+    return this.knowledgeSession;
+  }
+
+  /**
+   * @return The cache of SWRL built-in results, which can be bounded, disabled per built-in and queried for statistics
+   */
+  @NonNull public DroolsBuiltInResultCache getBuiltInResultCache()
+  {
+    return this.builtInInvoker.getResultCache();
+  }
+
+  /**
+   * @return The memo table of pure SWRL built-in results, which is retained across rule engine resets until the
+   * ontology changes
+   */
+  @NonNull public DroolsPureBuiltInMemo getPureBuiltInMemo()
+  {
+    return this.builtInInvoker.getPureBuiltInMemo();
+  }
+
+  /**
+   * @return The cache of the outcomes of rule engine runs answering SQWRL queries, which is retained across rule engine
+   * resets until the ontology changes
+   */
+  @NonNull public DroolsSQWRLResultCache getSQWRLResultCache()
+  {
+    return this.builtInInvoker.getSQWRLResultCache();
+  }
+
+  /**
+   * @return The profiler of SWRL built-in invocations, which records per-rule call counts and latencies once enabled
+   * and retains them across rule engine runs until reset
+   */
+  @NonNull public DroolsBuiltInProfiler getBuiltInProfiler()
+  {
+    return this.builtInInvoker.getProfiler();
+  }
+
+  /**
+   * @return The limiter of the rows selected by SQWRL queries that are sliced from the start of their results, which
+   * is enabled by default and can halt a run once the active queries have selected the rows they need
+   */
+  @NonNull public DroolsSQWRLRowLimiter getSQWRLRowLimiter()
+  {
+    return this.builtInInvoker.getSQWRLRowLimiter();
+  }
+
+  /**
+   * Enable the incremental aggregation of SQWRL collections. Collection queries that only compute the size, sum,
+   * average, minimum or maximum of their collections then maintain these aggregates per group as their phase 1 rules
+   * fire, instead of materializing the collections in the SQWRL built-in library and operating on them in phase 2.
+   * Sums and averages must be of numeric literals, and minima and maxima of literals that can be compared natively.
+   * Disabled by default. Takes effect for queries converted after it is changed.
+   */
+  public void setIncrementalSQWRLAggregationEnabled(boolean isIncrementalSQWRLAggregationEnabled)
+  {
+    this.isIncrementalSQWRLAggregationEnabled = isIncrementalSQWRLAggregationEnabled;
+  }
+
+  public boolean isIncrementalSQWRLAggregationEnabled()
+  {
+    return this.isIncrementalSQWRLAggregationEnabled;
+  }
+
+  @NonNull public DroolsExecutionLimits getExecutionLimits()
+  {
+    return this.executionLimits;
+  }
+
+  /**
+   * Set the limits that are enforced while rules are fired. If a limit is exceeded the knowledge session is halted and
+   * {@link #runRuleEngine()} throws a {@link TargetSWRLRuleEngineException} naming the rules that inferred the most
+   * axioms.
+   *
+   * @param executionLimits The limits
+   */
+  public void setExecutionLimits(@NonNull DroolsExecutionLimits executionLimits)
+  {
+    this.executionLimits = executionLimits;
+    this.executionLimitsListener.setLimits(executionLimits);
+  }
+
+  /**
+   * Stream the rows selected by SQWRL queries to a consumer as rules fire, instead of accumulating them in the bridge.
+   * The consumer is called from rule consequences on the thread running the rule engine, so a consumer that blocks,
+   * such as a {@link DroolsSQWRLRowQueue} that is full, pauses rule firing until it returns.
+   * <p>
+   * Rows are streamed in the order in which they are produced. Duplicate rows of <code>sqwrl:selectDistinct</code> and
+   * rows dropped by the {@link DroolsSQWRLRowLimiter} are not streamed, but ordering, slicing and aggregation operators
+   * are not applied to streamed rows, and the query results obtained from the bridge hold no rows while streaming.
+   *
+   * @param sqwrlRowConsumer The consumer, or null to accumulate rows in the bridge
+   */
+  public void setSQWRLRowConsumer(@Nullable DroolsSQWRLRowConsumer sqwrlRowConsumer)
+  {
+    this.sqwrlRowConsumer = sqwrlRowConsumer;
+    this.builtInInvoker.setSQWRLRowConsumer(sqwrlRowConsumer, this.ruleName2SQWRLQueryNameMap);
+  }
+
+  @Nullable public DroolsSQWRLRowConsumer getSQWRLRowConsumer()
+  {
+    return this.sqwrlRowConsumer;
+  }
+
+  /**
+   * @return True if the rows of a SQWRL query can be read with {@link #selectSQWRLRows(String)}
+   */
+  public boolean canSelectSQWRLRows(@NonNull String queryName)
+  {
+    return this.sqwrlSelectQueries.containsKey(queryName);
+  }
+
+  /**
+   * Read the rows of a SQWRL query from the knowledge session saturated by the last run of the rule engine. Queries
+   * without collections whose head only selects variables with <code>sqwrl:select</code> are compiled to a Drools
+   * query over the asserted and inferred facts, so their rows can be read repeatedly, and for any such query that was
+   * converted for the run whether or not it was active, without resetting the rule engine or firing rules.
+   * <p>
+   * The rows are returned in no particular order, and they do not reach the bridge. A run whose outcome was taken from
+   * the {@link DroolsSQWRLResultCache} or that was halted early does not saturate the knowledge session.
+   *
+   * @param queryName The name of the query
+   * @return The rows selected by the query
+   * @throws TargetSWRLRuleEngineException If the rows of the query cannot be read from the knowledge session
+   */
+  @NonNull public List<@NonNull DroolsSQWRLRow> selectSQWRLRows(@NonNull String queryName)
+    throws TargetSWRLRuleEngineException
+  {
+    DroolsSQWRLSelectQuery selectQuery = this.sqwrlSelectQueries.get(queryName);
+
+    if (selectQuery == null)
+      throw new TargetSWRLRuleEngineException("SQWRL query " + queryName + " cannot be answered by a Drools query");
+
+    if (!this.isKnowledgeSessionSaturated)
+      throw new TargetSWRLRuleEngineException(
+        "rows of SQWRL query " + queryName + " can only be selected after a completed run of the rule engine");
+
+    List<@NonNull String> columnDeclarations = selectQuery.getColumnDeclarations();
+    String[] columnVariableNames = selectQuery.getColumnVariableNames().toArray(new String[0]);
+    List<@NonNull DroolsSQWRLRow> rows = new ArrayList<>();
+    ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
+    Thread.currentThread().setContextClassLoader(DroolsSWRLRuleEngine.class.getClassLoader());
+
+    try {
+      for (QueryResultsRow row : this.knowledgeSession.getQueryResults(selectQuery.getDRLQueryName())) {
+        BA[] values = new BA[columnDeclarations.size()];
+
+        for (int columnIndex = 0; columnIndex < values.length; columnIndex++)
+          values[columnIndex] = (BA)row.get(columnDeclarations.get(columnIndex));
+
+        rows.add(
+          new DroolsSQWRLRow(queryName, this.builtInInvoker.bas2SWRLBuiltInArguments(values, columnVariableNames)));
+      }
+    } catch (RuntimeException e) {
+      String errorMessage = getInvocationTargetCause(e);
+      throw new TargetSWRLRuleEngineException("error selecting rows of SQWRL query " + queryName + ":\n" + errorMessage,
+        e);
+    } finally {
+      Thread.currentThread().setContextClassLoader(oldClassLoader);
+    }
+    return rows;
+  }
+
+  /**
+   * Prepare a SQWRL query for execution with different values of some of its variables. The rule representing the
+   * query then takes the values of these variables from an {@link SQWRLP} fact instead of from the ontology, so it is
+   * compiled once and executed against a saturated knowledge session by {@link #executePreparedSQWRLQuery(String,
+   * List)} without resetting or re-running the rule engine.
+   * <p>
+   * Each parameter variable must appear in a class or property atom of the body of the query. Queries with collections
+   * and queries with head built-ins other than <code>sqwrl:select</code>, <code>sqwrl:selectDistinct</code> and
+   * <code>sqwrl:columnNames</code> cannot be prepared. Takes effect for queries converted after it is called, and is
+   * retained across resets of the rule engine.
+   *
+   * @param queryName              The name of the query
+   * @param parameterVariableNames The names of the parameter variables, with or without a leading <code>?</code>
+   */
+  public void prepareSQWRLQuery(@NonNull String queryName, @NonNull List<@NonNull String> parameterVariableNames)
+  {
+    List<@NonNull String> variableNames = new ArrayList<>(parameterVariableNames.size());
+
+    for (String parameterVariableName : parameterVariableNames)
+      variableNames
+        .add(parameterVariableName.startsWith("?") ? parameterVariableName.substring(1) : parameterVariableName);
+
+    this.preparedSQWRLQueryParameterNames.put(queryName, Collections.unmodifiableList(variableNames));
+  }
+
+  /**
+   * Convert a query that was prepared with {@link #prepareSQWRLQuery(String, List)} as an ordinary query again. Takes
+   * effect for queries converted after it is called.
+   */
+  public void unprepareSQWRLQuery(@NonNull String queryName)
+  {
+    this.preparedSQWRLQueryParameterNames.remove(queryName);
+  }
+
+  /**
+   * @return The names of the parameter variables of a prepared query, or null if the query is not prepared
+   */
+  @Nullable public List<@NonNull String> getPreparedSQWRLQueryParameterNames(@NonNull String queryName)
+  {
+    return this.preparedSQWRLQueryParameterNames.get(queryName);
+  }
+
+  /**
+   * Execute a prepared SQWRL query with values for its parameter variables. The query must have been prepared with
+   * {@link #prepareSQWRLQuery(String, List)} before it was converted and must have been active in the last run of the
+   * rule engine, which selects no rows for it. Only the rule of the query is fired, so the OWL axioms inferred by that
+   * run are reused and no further axioms are inferred.
+   * <p>
+   * The rows are returned in the order in which they are selected. Duplicate rows of <code>sqwrl:selectDistinct</code>
+   * are removed, but ordering and slicing operators are not applied, and the rows do not reach the bridge.
+   *
+   * @param queryName  The name of the query
+   * @param parameters The values of the parameter variables in the order in which they were prepared
+   * @return The rows selected by the query
+   * @throws TargetSWRLRuleEngineException If the query cannot be executed
+   */
+  @NonNull public List<@NonNull DroolsSQWRLRow> executePreparedSQWRLQuery(@NonNull String queryName,
+    @NonNull List<@NonNull SWRLBuiltInArgument> parameters) throws TargetSWRLRuleEngineException
+  {
+    List<@NonNull String> parameterVariableNames = this.preparedSQWRLQueryParameterNames.get(queryName);
+
+    if (parameterVariableNames == null)
+      throw new TargetSWRLRuleEngineException("SQWRL query " + queryName + " is not prepared");
+
+    if (parameters.size() != parameterVariableNames.size())
+      throw new TargetSWRLRuleEngineException(
+        "prepared SQWRL query " + queryName + " expects " + parameterVariableNames.size() + " parameters, got "
+          + parameters.size());
+
+    if (!this.isKnowledgeSessionSaturated || !this.activeSQWRLQueryNames.contains(queryName))
+      throw new TargetSWRLRuleEngineException(
+        "prepared SQWRL query " + queryName + " must be active in a completed run of the rule engine before execution");
+
+    List<@NonNull BA> arguments = new ArrayList<>(parameters.size());
+    List<@NonNull DroolsSQWRLRow> rows = new ArrayList<>();
+    DroolsSQWRLRowConsumer previousSQWRLRowConsumer = this.sqwrlRowConsumer;
+
+    try {
+      for (SWRLBuiltInArgument parameter : parameters)
+        arguments.add(this.builtInInvoker.convertSWRLBuiltInArgument(parameter));
+    } catch (RuntimeException e) {
+      throw new TargetSWRLRuleEngineException(
+        "error converting parameters of prepared SQWRL query " + queryName + ": " + (e.getMessage() != null ?
+          e.getMessage() :
+          ""), e);
+    }
+
+    ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
+    Thread.currentThread().setContextClassLoader(DroolsSWRLRuleEngine.class.getClassLoader());
+
+    this.builtInInvoker.setSQWRLRowConsumer(rows::add, this.ruleName2SQWRLQueryNameMap);
+    FactHandle parametersHandle = this.knowledgeSession.insert(new SQWRLP(queryName, arguments));
+    try {
+      fireAllRules(activation -> queryName.equals(this.ruleName2SQWRLQueryNameMap.get(activation.getRule().getName())));
+    } catch (RuntimeException e) {
+      String errorMessage = getInvocationTargetCause(e);
+      throw new TargetSWRLRuleEngineException(
+        "error executing prepared SQWRL query " + queryName + ":\n" + errorMessage, e);
+    } finally {
+      this.knowledgeSession.delete(parametersHandle);
+      this.builtInInvoker.setSQWRLRowConsumer(previousSQWRLRowConsumer, this.ruleName2SQWRLQueryNameMap);
+      Thread.currentThread().setContextClassLoader(oldClassLoader);
+    }
+
+    if (this.executionLimitsListener.isLimitExceeded())
+      throw new TargetSWRLRuleEngineException(
+        "Drools rule engine halted: " + this.executionLimitsListener.getLimitExceededMessage());
+
+    return rows;
+  }
+
   /**
    * Define a Drools representation of a SWRL rule or a SQWRL query. This method will be called by Drools converters
    * after they have translated SWRL rules and SQWRL queries into their Drools equivalent.
@@ -324,44 +717,181 @@ public class DroolsSWRLRuleEngine implements TargetSWRLRuleEngine
       defineDRLRule(ruleText);
   }
 
+  /**
+   * Define a Drools query answering a SQWRL query that only selects variables. This method will be called by the
+   * {@link DroolsSQWRLQuery2DRLConverter}.
+   *
+   * @param selectQuery The Drools query
+   * @param queryText   The query text
+   */
+  public void defineDRLSQWRLSelectQuery(@NonNull DroolsSQWRLSelectQuery selectQuery, @NonNull String queryText)
+  {
+    this.sqwrlSelectQueries.put(selectQuery.getQueryName(), selectQuery);
+
+    if (this.ruleLoadRequired)
+      defineDRLRule(queryText);
+  }
+
+  /**
+   * Define the rows needed by a SQWRL query that is sliced from the start of its result. This method will be called by
+   * the {@link DroolsSQWRLQuery2DRLConverter}.
+   *
+   * @param ruleName The name of the rule selecting the rows of the query
+   * @param rowLimit The rows needed by the query
+   */
+  public void defineSQWRLRowLimit(@NonNull String ruleName, @NonNull DroolsSQWRLRowLimit rowLimit)
+  {
+    this.builtInInvoker.getSQWRLRowLimiter().defineRowLimit(ruleName, rowLimit);
+  }
+
   private void resetKnowledgeSession()
   {
     if (this.knowledgeSession != null)
       this.knowledgeSession.dispose();
 
     this.knowledgeSession = this.knowledgeBase.newKieSession();
+    this.batchedBuiltInResultSentinelInserted = false;
+    this.isKnowledgeSessionSaturated = false;
     this.knowledgeSession.setGlobal("invoker", this.builtInInvoker);
     this.knowledgeSession.setGlobal("inferrer", this.axiomInferrer);
     this.knowledgeSession.setGlobal("sqwrlInferrer", this.sqwrlCollectionHandler);
 
     // Supply the inferrer with the knowledge session is so that it can insert new facts as inference is performed.
     this.axiomInferrer.reset(this.knowledgeSession);
+    this.executionLimitsListener.reset(this.knowledgeSession, this.executionLimits);
+    this.builtInInvoker.getSQWRLRowLimiter().reset(this.knowledgeSession, this.activeSQWRLQueryNames);
 
     this.sqwrlCollectionHandler.reset();
     this.assertedAndInferredOWLAxioms.clear();
+    this.owlAxiomDigest = 0;
     this.allSQWRLQueryNames.clear();
     this.activeSQWRLQueryNames.clear();
+    this.activeSQWRLQueries.clear();
     this.phase1SQWRLRuleNames.clear();
     this.phase2SQWRLRuleNames.clear();
     this.ruleName2SQWRLQueryNameMap.clear();
+    this.sqwrlSelectQueries.clear();
     this.axiom2AConverter.reset();
     this.sqwrlQuery2DRLConverter.reset();
   }
 
+  /**
+   * The axiom inferrer inserts inferred axioms into the knowledge session in batches and batched built-ins are
+   * evaluated once rules have been fired, so rules are fired until no inferred axioms or batched built-in invocations
+   * remain pending or the session is halted because an execution limit was exceeded or the active SQWRL queries have
+   * selected all the rows they need. Queued head built-in invocations are flushed after each firing cycle.
+   */
+  private void fireAllRules(@NonNull AgendaFilter agendaFilter)
+  {
+    do {
+      this.knowledgeSession.fireAllRules(agendaFilter);
+      this.builtInInvoker.flushConsequentInvocations();
+    } while (!this.executionLimitsListener.isLimitExceeded() && !this.builtInInvoker.getSQWRLRowLimiter().isHalted()
+      && (this.axiomInferrer.flushInferredOWLAxioms() != 0 || insertBatchedBuiltInResults() != 0));
+  }
+
+  /**
+   * @return The number of evaluated requests for batched built-ins inserted into the knowledge session
+   */
+  private int insertBatchedBuiltInResults()
+  {
+    List<@NonNull BIR> requests = this.builtInInvoker.evaluateBatchedInvocations();
+
+    requests.forEach(this.knowledgeSession::insert);
+
+    return requests.size();
+  }
+
+  private void signalEndOfSQWRLRows()
+  {
+    if (this.sqwrlRowConsumer != null) {
+      try {
+        this.sqwrlRowConsumer.endOfRows();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * SWRL rules supplied by the bridge are recreated for each run and their equality depends on their activation, so
+   * they are digested by their body and head atoms. The hash code is spread over 64 bits so that the sum of the digests
+   * of the supplied axioms rarely collides.
+   */
+  private static long owlAxiomDigest(@NonNull OWLAxiom axiom)
+  {
+    long hashCode = axiom instanceof SWRLRule ?
+      31L * ((SWRLRule)axiom).getBody().hashCode() + ((SWRLRule)axiom).getHead().hashCode() :
+      axiom.hashCode();
+    long digest = hashCode * 0x9E3779B97F4A7C15L;
+
+    return digest ^ (digest >>> 32);
+  }
+
+  private void incrementOntologyVersion()
+  {
+    this.ontologyVersion++;
+    this.builtInInvoker.getPureBuiltInMemo().setOntologyVersion(this.ontologyVersion);
+    this.builtInInvoker.getSQWRLResultCache().setOntologyVersion(this.ontologyVersion);
+  }
+
+  /**
+   * A run can be cached if SQWRL queries are active, their rows are not streamed and the rules that may fire invoke
+   * pure or SQWRL built-ins only. Rules of inactive queries do not fire. Prepared queries are executed against the
+   * knowledge session saturated by a run, so runs with active prepared queries are not cached.
+   */
+  private boolean isSQWRLResultCacheable()
+  {
+    if (!getSQWRLResultCache().isCachingEnabled() || this.activeSQWRLQueries.isEmpty() || this.sqwrlRowConsumer != null
+      || this.activeSQWRLQueryNames.stream().anyMatch(this.preparedSQWRLQueryParameterNames::containsKey))
+      return false;
+
+    return this.builtInInvoker.invokesOnlyPureBuiltIns(ruleName -> {
+      String sqwrlQueryName = this.ruleName2SQWRLQueryNameMap.get(ruleName);
+      return sqwrlQueryName == null || this.activeSQWRLQueryNames.contains(sqwrlQueryName);
+    });
+  }
+
+  /**
+   * Pass the head built-in invocations and inferred OWL axioms of a cached run to the bridge in their original order.
+   */
+  private void writeCachedSQWRLResultToBridge(DroolsSQWRLResultCache.@NonNull Result sqwrlResult)
+    throws TargetSWRLRuleEngineException
+  {
+    try {
+      for (DroolsSQWRLResultCache.Invocation invocation : sqwrlResult.getInvocations()) {
+        DroolsBuiltInInvocationSite site = invocation.getSite();
+        getBridge().invokeSWRLBuiltIn(site.getRuleName(), site.getBuiltInName(), site.getBuiltInIndex(),
+          site.isInConsequent(), new ArrayList<>(invocation.getBuiltInArguments()));
+      }
+      for (OWLAxiom axiom : sqwrlResult.getInferredOWLAxioms())
+        getBridge().inferOWLAxiom(axiom);
+    } catch (SWRLBuiltInException | SWRLRuleEngineBridgeException e) {
+      throw new TargetSWRLRuleEngineException(
+        "error writing cached SQWRL results to bridge: " + (e.getMessage() != null ? e.getMessage() : ""), e);
+    }
+  }
+
   /**
    * Converts a Drools representation of an OWL axiom to an OWLAPI equivalent and pass it back to the bridge.
+   *
+   * @return The inferred OWL axioms
    */
-  private void writeInferredOWLAxiomsToBridge() throws TargetSWRLRuleEngineException
+  @NonNull private List<@NonNull OWLAxiom> writeInferredOWLAxiomsToBridge() throws TargetSWRLRuleEngineException
   {
+    List<@NonNull OWLAxiom> inferredOWLAxioms = new ArrayList<>();
+
     try {
       for (A a : this.axiomInferrer.getInferredOWLAxioms()) {
         OWLAxiom axiom = a.extract(getDroolsOWLAxiomExtractor());
         getBridge().inferOWLAxiom(axiom);
+        inferredOWLAxioms.add(axiom);
       }
     } catch (SWRLRuleEngineBridgeException e) {
       throw new TargetSWRLRuleEngineException(
         "error writing inferred OWL axioms to bridge: " + (e.getMessage() != null ? e.getMessage() : ""), e);
     }
+    return inferredOWLAxioms;
   }
 
   private static void addKnowledgePackages(@NonNull InternalKnowledgeBase knowledgeBase,
@@ -382,7 +912,8 @@ public class DroolsSWRLRuleEngine implements TargetSWRLRuleEngine
   private static KieBaseConfiguration createKnowledgeBaseConfiguration()
   {
     KieBaseConfiguration config = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
-    config.setProperty("drools.assertBehaviour", "equality");
+    // Inferred axioms are canonicalized by the axiom inferrer, so each distinct fact is inserted exactly once.
+    config.setProperty("drools.assertBehaviour", "identity");
     config.setProperty("drools.dialect.mvel.strict", "false");
 
     return config;
@@ -29,6 +29,7 @@ import org.swrlapi.builtins.arguments.SWRLObjectPropertyExpressionBuiltInArgumen
 import org.swrlapi.builtins.arguments.SWRLVariableBuiltInArgument;
 import org.swrlapi.drools.converters.oo.DroolsOWLClassExpressionHandler;
 import org.swrlapi.drools.converters.oo.DroolsOWLPropertyExpressionHandler;
+import org.swrlapi.drools.core.DroolsBuiltInArgumentConversionCache;
 import org.swrlapi.drools.owl.classes.C;
 import org.swrlapi.drools.owl.classes.CE;
 import org.swrlapi.drools.owl.dataranges.D;
@@ -54,14 +55,17 @@ public class DroolsSWRLBuiltInArgumentExtractor extends DroolsExtractorBase
 {
   @NonNull private final DroolsOWLClassExpressionHandler droolsOWLClassExpressionHandler;
   @NonNull private final DroolsOWLPropertyExpressionHandler droolsOWLPropertyExpressionHandler;
+  @NonNull private final DroolsBuiltInArgumentConversionCache conversionCache;
 
   public DroolsSWRLBuiltInArgumentExtractor(SWRLRuleEngineBridge bridge,
     @NonNull DroolsOWLClassExpressionHandler droolsOWLClassExpressionHandler,
-    @NonNull DroolsOWLPropertyExpressionHandler droolsOWLPropertyExpressionHandler)
+    @NonNull DroolsOWLPropertyExpressionHandler droolsOWLPropertyExpressionHandler,
+    @NonNull DroolsBuiltInArgumentConversionCache conversionCache)
   {
     super(bridge);
     this.droolsOWLClassExpressionHandler = droolsOWLClassExpressionHandler;
     this.droolsOWLPropertyExpressionHandler = droolsOWLPropertyExpressionHandler;
+    this.conversionCache = conversionCache;
   }
 
   @NonNull public SWRLVariable extract(@NonNull VA va) throws TargetSWRLRuleEngineException
@@ -72,7 +76,12 @@ public class DroolsSWRLBuiltInArgumentExtractor extends DroolsExtractorBase
 
   @NonNull public SWRLClassBuiltInArgument extract(C c) throws TargetSWRLRuleEngineException
   {
-    OWLClass cls = getDroolsOWLEntityExtractor().extract(c);
+    OWLClass cls = this.conversionCache.getOWLObject(c);
+
+    if (cls == null) {
+      cls = getDroolsOWLEntityExtractor().extract(c);
+      this.conversionCache.putOWLObject(c, cls);
+    }
 
     return getSWRLBuiltInArgumentFactory().getClassBuiltInArgument(cls);
   }
@@ -86,14 +95,24 @@ public class DroolsSWRLBuiltInArgumentExtractor extends DroolsExtractorBase
 
   @NonNull public SWRLNamedIndividualBuiltInArgument extract(I i) throws TargetSWRLRuleEngineException
   {
-    OWLNamedIndividual individual = getDroolsOWLEntityExtractor().extract(i);
+    OWLNamedIndividual individual = this.conversionCache.getOWLObject(i);
+
+    if (individual == null) {
+      individual = getDroolsOWLEntityExtractor().extract(i);
+      this.conversionCache.putOWLObject(i, individual);
+    }
 
     return getSWRLBuiltInArgumentFactory().getNamedIndividualBuiltInArgument(individual);
   }
 
   @NonNull public SWRLObjectPropertyBuiltInArgument extract(OP op) throws TargetSWRLRuleEngineException
   {
-    OWLObjectProperty property = getDroolsOWLEntityExtractor().extract(op);
+    OWLObjectProperty property = this.conversionCache.getOWLObject(op);
+
+    if (property == null) {
+      property = getDroolsOWLEntityExtractor().extract(op);
+      this.conversionCache.putOWLObject(op, property);
+    }
 
     return getSWRLBuiltInArgumentFactory().getObjectPropertyBuiltInArgument(property);
   }
@@ -108,7 +127,12 @@ public class DroolsSWRLBuiltInArgumentExtractor extends DroolsExtractorBase
 
   @NonNull public SWRLDataPropertyBuiltInArgument extract(DP dp) throws TargetSWRLRuleEngineException
   {
-    OWLDataProperty property = getDroolsOWLEntityExtractor().extract(dp);
+    OWLDataProperty property = this.conversionCache.getOWLObject(dp);
+
+    if (property == null) {
+      property = getDroolsOWLEntityExtractor().extract(dp);
+      this.conversionCache.putOWLObject(dp, property);
+    }
 
     return getSWRLBuiltInArgumentFactory().getDataPropertyBuiltInArgument(property);
   }
@@ -122,21 +146,36 @@ public class DroolsSWRLBuiltInArgumentExtractor extends DroolsExtractorBase
 
   @NonNull public SWRLAnnotationPropertyBuiltInArgument extract(AP ap) throws TargetSWRLRuleEngineException
   {
-    OWLAnnotationProperty property = getDroolsOWLEntityExtractor().extract(ap);
+    OWLAnnotationProperty property = this.conversionCache.getOWLObject(ap);
+
+    if (property == null) {
+      property = getDroolsOWLEntityExtractor().extract(ap);
+      this.conversionCache.putOWLObject(ap, property);
+    }
 
     return getSWRLBuiltInArgumentFactory().getAnnotationPropertyBuiltInArgument(property);
   }
 
   @NonNull public SWRLDatatypeBuiltInArgument extract(D d) throws TargetSWRLRuleEngineException
   {
-    OWLDatatype datatype = getDroolsOWLEntityExtractor().extract(d);
+    OWLDatatype datatype = this.conversionCache.getOWLObject(d);
+
+    if (datatype == null) {
+      datatype = getDroolsOWLEntityExtractor().extract(d);
+      this.conversionCache.putOWLObject(d, datatype);
+    }
 
     return getSWRLBuiltInArgumentFactory().getDatatypeBuiltInArgument(datatype);
   }
 
   @NonNull public SWRLLiteralBuiltInArgument extract(@NonNull L l) throws TargetSWRLRuleEngineException
   {
-    OWLLiteral literal = getDroolsOWLLiteralExtractor().extract(l);
+    OWLLiteral literal = this.conversionCache.getOWLObject(l);
+
+    if (literal == null) {
+      literal = getDroolsOWLLiteralExtractor().extract(l);
+      this.conversionCache.putOWLObject(l, literal);
+    }
 
     return getSWRLBuiltInArgumentFactory().getLiteralBuiltInArgument(literal);
   }
@@ -11,11 +11,13 @@ public abstract class DroolsBinaryObject<T1, T2>
 {
   @NonNull private final T1 t1;
   @NonNull private final T2 t2;
+  private final int hash;
 
   protected DroolsBinaryObject(@NonNull T1 t1, @NonNull T2 t2)
   {
     this.t1 = t1;
     this.t2 = t2;
+    this.hash = DroolsHashCodes.combine(DroolsHashCodes.combine(DroolsHashCodes.seed(getClass()), this.t1), this.t2);
   }
 
   @NonNull public T1 getT1()
@@ -37,6 +39,9 @@ public abstract class DroolsBinaryObject<T1, T2>
 
     DroolsBinaryObject<? extends @NonNull Object, ? extends @NonNull Object> that = (DroolsBinaryObject<? extends @NonNull Object, ? extends @NonNull Object>)o;
 
+    if (this.hash != that.hash)
+      return false;
+
     if (!Objects.equals(t1, that.t1))
       return false;
     return Objects.equals(t2, that.t2);
@@ -45,9 +50,7 @@ public abstract class DroolsBinaryObject<T1, T2>
 
   @SideEffectFree @Deterministic @Override public int hashCode()
   {
-    int result = t1 != null ? t1.hashCode() : 0;
-    result = 31 * result + (t2 != null ? t2.hashCode() : 0);
-    return result;
+    return this.hash;
   }
 
    @NonNull @SideEffectFree @Override public String toString()
@@ -0,0 +1,49 @@
+package org.swrlapi.drools.owl.core;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.dataflow.qual.Deterministic;
+import org.checkerframework.dataflow.qual.SideEffectFree;
+
+/**
+ * Hash functions for the immutable Drools representations of OWL and SWRL objects. These objects hash their fields
+ * once at construction time. Most fields are prefixed names with a common prefix. Their string hashes differ only in
+ * the low-order bits, so each field hash is passed through a mixing function before it is combined.
+ */
+public final class DroolsHashCodes
+{
+  private DroolsHashCodes()
+  {
+  }
+
+  /**
+   * @param type The class of the object being hashed
+   * @return A seed distinguishing objects of different classes with equal fields
+   */
+  @SideEffectFree @Deterministic public static int seed(Class<?> type)
+  {
+    return mix(type.getName().hashCode());
+  }
+
+  /**
+   * @param result The hash accumulated so far
+   * @param field  The next field
+   * @return The hash combined with the field
+   */
+  @SideEffectFree @Deterministic public static int combine(int result, @Nullable Object field)
+  {
+    return 31 * result + mix(field != null ? field.hashCode() : 0);
+  }
+
+  /**
+   * The finalization step of MurmurHash3, which spreads the influence of every input bit over the whole output.
+   */
+  @SideEffectFree @Deterministic public static int mix(int h)
+  {
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+}
@@ -4,6 +4,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.dataflow.qual.Deterministic;
 import org.checkerframework.dataflow.qual.SideEffectFree;
 
+import java.util.Collections;
 import java.util.Objects;
 import java.util.Set;
 
@@ -11,11 +12,16 @@ public abstract class DroolsNarySet<ID, E>
 {
   @NonNull private final ID id;
   @NonNull private final Set<@NonNull E> elements;
+  private final int hash;
 
   protected DroolsNarySet(@NonNull ID id, @NonNull Set<@NonNull E> elements)
   {
     this.id = id;
-    this.elements = elements;
+    this.elements = Collections.unmodifiableSet(elements);
+    int result = DroolsHashCodes.seed(getClass());
+    result = DroolsHashCodes.combine(result, this.id);
+    result = DroolsHashCodes.combine(result, this.elements);
+    this.hash = result;
   }
 
   @NonNull public ID getID()
@@ -37,6 +43,9 @@ public abstract class DroolsNarySet<ID, E>
 
     DroolsNarySet<? extends @NonNull Object, ? extends @NonNull Object> that = (DroolsNarySet<? extends @NonNull Object, ? extends @NonNull Object>)o;
 
+    if (this.hash != that.hash)
+      return false;
+
     if (!Objects.equals(id, that.id))
       return false;
     return Objects.equals(elements, that.elements);
@@ -45,9 +54,7 @@ public abstract class DroolsNarySet<ID, E>
 
   @SideEffectFree @Deterministic @Override public int hashCode()
   {
-    int result = id != null ? id.hashCode() : 0;
-    result = 31 * result + (elements != null ? elements.hashCode() : 0);
-    return result;
+    return this.hash;
   }
 
   @NonNull @SideEffectFree @Deterministic @Override public String toString()
@@ -0,0 +1,102 @@
+package org.swrlapi.drools.owl.core;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.swrlapi.drools.owl.axioms.A;
+import org.swrlapi.drools.owl.individuals.I;
+import org.swrlapi.drools.swrl.BA;
+import org.swrlapi.exceptions.TargetSWRLRuleEngineInternalException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Canonicalizing (hash-consing) factory for the Drools representation of OWL individuals and axioms. Each distinct
+ * individual or axiom is represented by a single instance, so facts obtained from this class can be compared by
+ * identity and inserted into a Drools knowledge session running in identity assert mode.
+ *
+ * @see org.swrlapi.drools.owl.individuals.I
+ * @see org.swrlapi.drools.owl.axioms.A
+ */
+public class DroolsOWLObjectInterner
+{
+  @NonNull private final Map<@NonNull String, @NonNull I> individuals;
+  @NonNull private final Map<@NonNull A, @NonNull A> axioms;
+
+  public DroolsOWLObjectInterner()
+  {
+    this.individuals = new HashMap<>();
+    this.axioms = new HashMap<>();
+  }
+
+  public void reset()
+  {
+    this.individuals.clear();
+    this.axioms.clear();
+  }
+
+  /**
+   * @param individualID The prefixed name or anonymous ID of an individual
+   * @return The canonical instance representing the individual
+   */
+  @NonNull public I getI(@NonNull String individualID)
+  {
+    I i = this.individuals.get(individualID);
+
+    if (i == null) {
+      i = new I(individualID);
+      this.individuals.put(individualID, i);
+    }
+    return i;
+  }
+
+  /*
+   * We have no way of anticipating the return types of built-ins in rules so we need to perform a runtime check.
+   */
+  @NonNull public I getI(@NonNull BA ba)
+  {
+    if (ba instanceof I)
+      return intern((I)ba);
+    else
+      throw new TargetSWRLRuleEngineInternalException(
+        "expecting OWL named individual from bound built-in argument, got " + ba.getClass().getCanonicalName());
+  }
+
+  /**
+   * @param i An individual
+   * @return The canonical instance equal to the supplied individual; the supplied instance becomes canonical if none
+   * has been recorded
+   */
+  @NonNull public I intern(@NonNull I i)
+  {
+    I canonical = this.individuals.putIfAbsent(i.getid(), i);
+
+    return canonical != null ? canonical : i;
+  }
+
+  /**
+   * @param a An axiom
+   * @return The canonical instance equal to the supplied axiom; the supplied instance becomes canonical if none has
+   * been recorded
+   */
+  @SuppressWarnings("unchecked") @NonNull public <T extends A> T intern(@NonNull T a)
+  {
+    A canonical = this.axioms.putIfAbsent(a, a);
+
+    return canonical != null ? (T)canonical : a;
+  }
+
+  public boolean isInterned(@NonNull A a)
+  {
+    return this.axioms.containsKey(a);
+  }
+
+  public int getNumberOfInternedIndividuals()
+  {
+    return this.individuals.size();
+  }
+
+  public int getNumberOfInternedAxioms()
+  {
+    return this.axioms.size();
+  }
+}
@@ -13,6 +13,7 @@ public abstract class DroolsQuadObject<T1, T2, T3, T4>
   @NonNull private final T2 t2;
   @NonNull private final T3 t3;
   @NonNull private final T4 t4;
+  private final int hash;
 
   protected DroolsQuadObject(@NonNull T1 t1, @NonNull T2 t2, @NonNull T3 t3, @NonNull T4 t4)
   {
@@ -20,6 +21,12 @@ public abstract class DroolsQuadObject<T1, T2, T3, T4>
     this.t2 = t2;
     this.t3 = t3;
     this.t4 = t4;
+    int result = DroolsHashCodes.seed(getClass());
+    result = DroolsHashCodes.combine(result, this.t1);
+    result = DroolsHashCodes.combine(result, this.t2);
+    result = DroolsHashCodes.combine(result, this.t3);
+    result = DroolsHashCodes.combine(result, this.t4);
+    this.hash = result;
   }
 
   @NonNull protected T1 getT1()
@@ -56,6 +63,9 @@ public abstract class DroolsQuadObject<T1, T2, T3, T4>
 
     DroolsQuadObject<? extends @NonNull Object, ? extends @NonNull Object, ? extends @NonNull Object, ? extends @NonNull Object> that = (DroolsQuadObject<? extends @NonNull Object, ? extends @NonNull Object, ? extends @NonNull Object, ? extends @NonNull Object>)o;
 
+    if (this.hash != that.hash)
+      return false;
+
     if (!Objects.equals(t1, that.t1))
       return false;
     if (!Objects.equals(t2, that.t2))
@@ -68,10 +78,6 @@ public abstract class DroolsQuadObject<T1, T2, T3, T4>
 
   @SideEffectFree @Deterministic @Override public int hashCode()
   {
-    int result = t1 != null ? t1.hashCode() : 0;
-    result = 31 * result + (t2 != null ? t2.hashCode() : 0);
-    result = 31 * result + (t3 != null ? t3.hashCode() : 0);
-    result = 31 * result + (t4 != null ? t4.hashCode() : 0);
-    return result;
+    return this.hash;
   }
 }
@@ -12,12 +12,18 @@ public abstract class DroolsTernaryObject<T1, T2, T3>
   @NonNull private final T1 t1;
   @NonNull private final T2 t2;
   @NonNull private final T3 t3;
+  private final int hash;
 
   protected DroolsTernaryObject(@NonNull T1 t1, @NonNull T2 t2, @NonNull T3 t3)
   {
     this.t1 = t1;
     this.t2 = t2;
     this.t3 = t3;
+    int result = DroolsHashCodes.seed(getClass());
+    result = DroolsHashCodes.combine(result, this.t1);
+    result = DroolsHashCodes.combine(result, this.t2);
+    result = DroolsHashCodes.combine(result, this.t3);
+    this.hash = result;
   }
 
   @NonNull public T1 getT1()
@@ -50,19 +56,17 @@ public abstract class DroolsTernaryObject<T1, T2, T3>
     DroolsTernaryObject<? extends @NonNull Object, ? extends @NonNull Object, ? extends @NonNull Object> that
         = (DroolsTernaryObject<? extends @NonNull Object, ? extends @NonNull Object, ? extends @NonNull Object>)o;
 
+    if (this.hash != that.hash)
+      return false;
     if (!Objects.equals(t1, that.t1))
       return false;
     if (!Objects.equals(t2, that.t2))
       return false;
     return Objects.equals(t3, that.t3);
-
   }
 
   @SideEffectFree @Deterministic @Override public int hashCode()
   {
-    int result = t1 != null ? t1.hashCode() : 0;
-    result = 31 * result + (t2 != null ? t2.hashCode() : 0);
-    result = 31 * result + (t3 != null ? t3.hashCode() : 0);
-    return result;
+    return this.hash;
   }
 }
@@ -10,10 +10,12 @@ import java.util.Objects;
 public abstract class DroolsUnaryObject<T1>
 {
   @NonNull private final T1 t1;
+  private final int hash;
 
   protected DroolsUnaryObject(@NonNull T1 t1)
   {
     this.t1 = t1;
+    this.hash = DroolsHashCodes.combine(DroolsHashCodes.seed(getClass()), this.t1);
   }
 
   @NonNull protected T1 getT1()
@@ -35,12 +37,15 @@ public abstract class DroolsUnaryObject<T1>
 
     DroolsUnaryObject<? extends @NonNull Object> that = (DroolsUnaryObject<? extends @NonNull Object>)o;
 
+    if (this.hash != that.hash)
+      return false;
+
     return Objects.equals(t1, that.t1);
 
   }
 
   @SideEffectFree @Deterministic @Override public int hashCode()
   {
-    return t1 != null ? t1.hashCode() : 0;
+    return this.hash;
   }
 }
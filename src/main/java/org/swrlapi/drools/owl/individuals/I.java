@@ -7,6 +7,7 @@ import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.swrlapi.builtins.arguments.SWRLNamedIndividualBuiltInArgument;
 import org.swrlapi.drools.extractors.DroolsOWLEntityExtractor;
 import org.swrlapi.drools.extractors.DroolsSWRLBuiltInArgumentExtractor;
+import org.swrlapi.drools.owl.core.DroolsHashCodes;
 import org.swrlapi.drools.owl.core.OE;
 import org.swrlapi.drools.swrl.BA;
 import org.swrlapi.exceptions.TargetSWRLRuleEngineException;
@@ -24,10 +25,12 @@ public class I implements OE
   private static final long serialVersionUID = 1L;
 
   @NonNull public final String id;
+  private final int hash;
 
   public I(@NonNull String name)
   {
     this.id = name;
+    this.hash = DroolsHashCodes.mix(name.hashCode());
   }
 
   @NonNull public String getid() { return this.id; }
@@ -40,6 +43,7 @@ public class I implements OE
     if (ba instanceof I) {
       I i = (I)ba;
       this.id = i.getid();
+      this.hash = i.hash;
     } else
       throw new TargetSWRLRuleEngineInternalException(
         "expecting OWL named individual from bound built-in argument, got " + ba.getClass().getCanonicalName());
@@ -66,12 +70,15 @@ public class I implements OE
 
     I i = (I)o;
 
+    if (this.hash != i.hash)
+      return false;
+
     return Objects.equals(id, i.id);
 
   }
 
   @SideEffectFree @Deterministic @Override public int hashCode()
   {
-    return id != null ? id.hashCode() : 0;
+    return this.hash;
   }
 }
@@ -0,0 +1,61 @@
+package org.swrlapi.drools.owl.literals;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.semanticweb.owlapi.vocab.XSDVocabulary;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The XSD datatypes that have a dedicated representation in the Drools literal class {@link L}. Literals with any
+ * other datatype are recorded as {@link #OTHER} and are handled using their lexical form only.
+ *
+ * @see L
+ */
+public enum DroolsXSDDatatype
+{
+  STRING(XSDVocabulary.STRING), ANY_URI(XSDVocabulary.ANY_URI), BOOLEAN(XSDVocabulary.BOOLEAN),
+  BYTE(XSDVocabulary.BYTE), SHORT(XSDVocabulary.SHORT), INT(XSDVocabulary.INT), LONG(XSDVocabulary.LONG),
+  FLOAT(XSDVocabulary.FLOAT), DOUBLE(XSDVocabulary.DOUBLE), TIME(XSDVocabulary.TIME), DATE(XSDVocabulary.DATE),
+  DATE_TIME(XSDVocabulary.DATE_TIME), DURATION(XSDVocabulary.DURATION), OTHER(null);
+
+  @NonNull private static final Map<@NonNull String, @NonNull DroolsXSDDatatype> prefixedName2Datatype = new HashMap<>();
+
+  static {
+    for (DroolsXSDDatatype datatype : values())
+      if (datatype.prefixedName != null)
+        prefixedName2Datatype.put(datatype.prefixedName, datatype);
+  }
+
+  @Nullable private final String prefixedName;
+
+  DroolsXSDDatatype(@Nullable XSDVocabulary vocabulary)
+  {
+    this.prefixedName = vocabulary != null ? vocabulary.getPrefixedName() : null;
+  }
+
+  /**
+   * @param prefixedName The prefixed name of a datatype, e.g., xsd:int
+   * @return The corresponding datatype or {@link #OTHER} if it has no dedicated representation
+   */
+  @NonNull public static DroolsXSDDatatype forPrefixedName(@NonNull String prefixedName)
+  {
+    return prefixedName2Datatype.getOrDefault(prefixedName, OTHER);
+  }
+
+  public boolean isNumeric()
+  {
+    switch (this) {
+    case BYTE:
+    case SHORT:
+    case INT:
+    case LONG:
+    case FLOAT:
+    case DOUBLE:
+      return true;
+    default:
+      return false;
+    }
+  }
+}
@@ -4,18 +4,27 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.dataflow.qual.Deterministic;
 import org.checkerframework.dataflow.qual.SideEffectFree;
-import org.semanticweb.owlapi.vocab.XSDVocabulary;
 import org.swrlapi.builtins.arguments.SWRLBuiltInArgument;
 import org.swrlapi.drools.extractors.DroolsSWRLBuiltInArgumentExtractor;
+import org.swrlapi.drools.owl.core.DroolsHashCodes;
 import org.swrlapi.drools.owl.core.OO;
 import org.swrlapi.drools.swrl.BA;
 import org.swrlapi.exceptions.TargetSWRLRuleEngineException;
 import org.swrlapi.exceptions.TargetSWRLRuleEngineInternalException;
+import org.swrlapi.literal.XSDDate;
+import org.swrlapi.literal.XSDDateTime;
+import org.swrlapi.literal.XSDDuration;
+import org.swrlapi.literal.XSDTime;
 
 import java.io.Serializable;
+import java.net.URI;
 
 /**
  * Class representing an OWL literal in Drools
+ * <p>
+ * The lexical form and datatype name are kept for round-tripping. The datatype is also resolved to a
+ * {@link DroolsXSDDatatype} at construction time and the typed value is parsed on first use, so type tests are
+ * simple enum comparisons and each literal is parsed at most once.
  *
  * @see org.semanticweb.owlapi.model.OWLLiteral
  */
@@ -25,17 +34,25 @@ public class L implements OO, BA, Serializable
 
   @NonNull public final String value;
   @NonNull public final String datatypeName;
+  @NonNull private final DroolsXSDDatatype datatype;
+  private final int hash;
+  @Nullable private transient Object parsedValue;
 
   public L(@NonNull String value, @NonNull String datatypeName)
   {
     this.value = value;
     this.datatypeName = datatypeName;
+    this.datatype = DroolsXSDDatatype.forPrefixedName(datatypeName);
+    this.hash = DroolsHashCodes.combine(DroolsHashCodes.mix(value.hashCode()), datatypeName);
   }
 
   public L(@NonNull L l)
   {
     this.value = l.value;
     this.datatypeName = l.datatypeName;
+    this.datatype = l.datatype;
+    this.hash = l.hash;
+    this.parsedValue = l.parsedValue;
   }
 
   /*
@@ -47,6 +64,9 @@ public class L implements OO, BA, Serializable
       L l = (L)ba;
       this.value = l.getValue();
       this.datatypeName = l.getTypeName();
+      this.datatype = l.datatype;
+      this.hash = l.hash;
+      this.parsedValue = l.parsedValue;
     } else
       throw new TargetSWRLRuleEngineInternalException(
         "expecting OWL literal from bound built-in argument, got " + ba.getClass().getCanonicalName());
@@ -54,67 +74,159 @@ public class L implements OO, BA, Serializable
 
   public boolean isInt()
   {
-    return this.datatypeName.equals(XSDVocabulary.INT.getPrefixedName());
+    return this.datatype == DroolsXSDDatatype.INT;
   }
 
   public boolean isLong()
   {
-    return this.datatypeName.equals(XSDVocabulary.LONG.getPrefixedName());
+    return this.datatype == DroolsXSDDatatype.LONG;
   }
 
   public boolean isFloat()
   {
-    return this.datatypeName.equals(XSDVocabulary.FLOAT.getPrefixedName());
+    return this.datatype == DroolsXSDDatatype.FLOAT;
   }
 
   public boolean isDouble()
   {
-    return this.datatypeName.equals(XSDVocabulary.DOUBLE.getPrefixedName());
+    return this.datatype == DroolsXSDDatatype.DOUBLE;
   }
 
   public boolean isShort()
   {
-    return this.datatypeName.equals(XSDVocabulary.SHORT.getPrefixedName());
+    return this.datatype == DroolsXSDDatatype.SHORT;
   }
 
   public boolean isBoolean()
   {
-    return this.datatypeName.equals(XSDVocabulary.BOOLEAN.getPrefixedName());
+    return this.datatype == DroolsXSDDatatype.BOOLEAN;
   }
 
   public boolean isByte()
   {
-    return this.datatypeName.equals(XSDVocabulary.BYTE.getPrefixedName());
+    return this.datatype == DroolsXSDDatatype.BYTE;
   }
 
   public boolean isAnyURI()
   {
-    return this.datatypeName.equals(XSDVocabulary.ANY_URI.getPrefixedName());
+    return this.datatype == DroolsXSDDatatype.ANY_URI;
   }
 
   public boolean isTime()
   {
-    return this.datatypeName.equals(XSDVocabulary.TIME.getPrefixedName());
+    return this.datatype == DroolsXSDDatatype.TIME;
   }
 
   public boolean isDate()
   {
-    return this.datatypeName.equals(XSDVocabulary.DATE.getPrefixedName());
+    return this.datatype == DroolsXSDDatatype.DATE;
   }
 
   public boolean isDateTime()
   {
-    return this.datatypeName.equals(XSDVocabulary.DATE_TIME.getPrefixedName());
+    return this.datatype == DroolsXSDDatatype.DATE_TIME;
   }
 
   public boolean isDuration()
   {
-    return this.datatypeName.equals(XSDVocabulary.DURATION.getPrefixedName());
+    return this.datatype == DroolsXSDDatatype.DURATION;
   }
 
   public boolean isString()
   {
-    return this.datatypeName.equals(XSDVocabulary.STRING.getPrefixedName());
+    return this.datatype == DroolsXSDDatatype.STRING;
+  }
+
+  public boolean isNumeric()
+  {
+    return this.datatype.isNumeric();
+  }
+
+  @NonNull public DroolsXSDDatatype getDatatype()
+  {
+    return this.datatype;
+  }
+
+  public boolean getBoolean()
+  {
+    return (Boolean)getParsedValue(DroolsXSDDatatype.BOOLEAN);
+  }
+
+  public byte getByte()
+  {
+    return (Byte)getParsedValue(DroolsXSDDatatype.BYTE);
+  }
+
+  public short getShort()
+  {
+    return (Short)getParsedValue(DroolsXSDDatatype.SHORT);
+  }
+
+  public int getInt()
+  {
+    return (Integer)getParsedValue(DroolsXSDDatatype.INT);
+  }
+
+  public long getLong()
+  {
+    return (Long)getParsedValue(DroolsXSDDatatype.LONG);
+  }
+
+  public float getFloat()
+  {
+    return (Float)getParsedValue(DroolsXSDDatatype.FLOAT);
+  }
+
+  public double getDouble()
+  {
+    return (Double)getParsedValue(DroolsXSDDatatype.DOUBLE);
+  }
+
+  /**
+   * @return The parsed value of a numeric literal, e.g., a {@link Long} for an xsd:long
+   */
+  @NonNull public Number getNumber()
+  {
+    if (!isNumeric())
+      throw new TargetSWRLRuleEngineInternalException("literal " + this + " is not numeric");
+
+    return (Number)getParsedValue(this.datatype);
+  }
+
+  /**
+   * @return The value of a numeric literal widened to a double
+   */
+  public double getNumericValue()
+  {
+    if (!isNumeric())
+      throw new TargetSWRLRuleEngineInternalException("literal " + this + " is not numeric");
+
+    return ((Number)getParsedValue(this.datatype)).doubleValue();
+  }
+
+  @NonNull public URI getURI()
+  {
+    return (URI)getParsedValue(DroolsXSDDatatype.ANY_URI);
+  }
+
+  @NonNull public XSDTime getTime()
+  {
+    return (XSDTime)getParsedValue(DroolsXSDDatatype.TIME);
+  }
+
+  @NonNull public XSDDate getDate()
+  {
+    return (XSDDate)getParsedValue(DroolsXSDDatatype.DATE);
+  }
+
+  @NonNull public XSDDateTime getDateTime()
+  {
+    return (XSDDateTime)getParsedValue(DroolsXSDDatatype.DATE_TIME);
+  }
+
+  @NonNull public XSDDuration getDuration()
+  {
+    return (XSDDuration)getParsedValue(DroolsXSDDatatype.DURATION);
   }
 
   @NonNull @Override public SWRLBuiltInArgument extract(@NonNull DroolsSWRLBuiltInArgumentExtractor extractor)
@@ -138,6 +250,56 @@ public class L implements OO, BA, Serializable
     return this.value;
   }
 
+  /*
+   * Literals are immutable so a racy initialization of the parsed value is harmless.
+   */
+  @NonNull private Object getParsedValue(@NonNull DroolsXSDDatatype expectedDatatype)
+  {
+    if (this.datatype != expectedDatatype)
+      throw new TargetSWRLRuleEngineInternalException(
+        "expecting literal of type " + expectedDatatype + ", got " + this + " with type " + this.datatypeName);
+
+    Object parsedValue = this.parsedValue;
+
+    if (parsedValue == null) {
+      parsedValue = parseValue();
+      this.parsedValue = parsedValue;
+    }
+    return parsedValue;
+  }
+
+  @NonNull private Object parseValue()
+  {
+    switch (this.datatype) {
+    case BOOLEAN:
+      return Boolean.parseBoolean(this.value);
+    case BYTE:
+      return Byte.parseByte(this.value);
+    case SHORT:
+      return Short.parseShort(this.value);
+    case INT:
+      return Integer.parseInt(this.value);
+    case LONG:
+      return Long.parseLong(this.value);
+    case FLOAT:
+      return Float.parseFloat(this.value);
+    case DOUBLE:
+      return Double.parseDouble(this.value);
+    case ANY_URI:
+      return URI.create(this.value);
+    case TIME:
+      return new XSDTime(this.value);
+    case DATE:
+      return new XSDDate(this.value);
+    case DATE_TIME:
+      return new XSDDateTime(this.value);
+    case DURATION:
+      return new XSDDuration(this.value);
+    default:
+      return this.value;
+    }
+  }
+
   // We consider literals to be equal if they have the same type name and value.
   // TODO This is a very simpleminded implementation of equals. Think about using the SWRLAPI's OWLLiteralComparator
 
@@ -150,6 +312,8 @@ public class L implements OO, BA, Serializable
 
     L l = (L)o;
 
+    if (this.hash != l.hash)
+      return false;
     if (!value.equals(l.value))
       return false;
     return datatypeName.equals(l.datatypeName);
@@ -158,8 +322,6 @@ public class L implements OO, BA, Serializable
 
   @SideEffectFree @Deterministic @Override public int hashCode()
   {
-    int result = value.hashCode();
-    result = 31 * result + datatypeName.hashCode();
-    return result;
+    return this.hash;
   }
 }
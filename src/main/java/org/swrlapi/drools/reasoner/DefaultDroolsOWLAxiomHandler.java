@@ -2,6 +2,7 @@ package org.swrlapi.drools.reasoner;
 
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.kie.api.runtime.KieSession;
 import org.swrlapi.drools.owl.axioms.A;
 import org.swrlapi.drools.owl.axioms.AOPA;
@@ -38,15 +39,21 @@ import org.swrlapi.drools.owl.axioms.SIA;
 import org.swrlapi.drools.owl.axioms.SOPA;
 import org.swrlapi.drools.owl.axioms.SPA;
 import org.swrlapi.drools.owl.axioms.TOPA;
+import org.swrlapi.drools.owl.core.DroolsOWLObjectInterner;
+import org.swrlapi.drools.owl.individuals.I;
 import org.swrlapi.drools.owl.literals.L;
+import org.swrlapi.drools.swrl.BA;
 import org.swrlapi.exceptions.TargetSWRLRuleEngineInternalException;
 import org.swrlapi.owl2rl.OWL2RLInconsistencyDescription;
 
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -56,86 +63,108 @@ import java.util.Set;
  * SWRL rules and a reasoner (e.g., the OWL 2 RL rules defined in {@link org.swrlapi.drools.owl2rl.DroolsOWL2RLRules})
  * use a single instance of this class.
  * <p>
- * This {@link #infer(org.swrlapi.drools.owl.axioms.A...)} method in this class is called during reasoning and rule
- * execution. It keeps track of the inferred axioms and associated knowledge and also inserts the axioms in to a Drools
- * knowledge session.
+ * The {@link #infer(org.swrlapi.drools.owl.axioms.A)} method in this class is called during reasoning and rule
+ * execution. It keeps track of the inferred axioms and associated knowledge and also inserts the axioms, in batches,
+ * in to a Drools knowledge session.
+ * <p>
+ * Asserted and inferred axioms are canonicalized by a {@link DroolsOWLObjectInterner} so that each distinct axiom is
+ * inserted into the knowledge session exactly once.
+ * <p>
+ * The knowledge recorded from axioms is indexed by {@link DroolsStringDictionary} handles in primitive int tables, and
+ * is decoded back to strings and literals only when queried.
  *
  * @see org.swrlapi.drools.reasoner.DroolsOWLReasoner
  */
 public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVisitor
 {
-  @NonNull private final Set<@NonNull A> inferredOWLAxioms;
-  @NonNull private final Set<@NonNull A> assertedOWLAxioms;
+  public static final int DEFAULT_INSERTION_BATCH_SIZE = 256;
 
-  @NonNull private final Set<@NonNull String> declaredClassIDs;
-  @NonNull private final Set<@NonNull String> declaredIndividualIDs;
-  @NonNull private final Set<@NonNull String> declaredObjectPropertyIDs;
-  @NonNull private final Set<@NonNull String> declaredDataPropertyIDs;
-  @NonNull private final Set<@NonNull String> declaredAnnotationPropertyIDs;
-
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> classAssertions;
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> subClasses;
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> superClasses;
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> disjointClasses;
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> equivalentClasses;
-
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> sameIndividual;
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> differentIndividuals;
-
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> subObjectProperties;
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> superObjectProperties;
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> disjointObjectProperties;
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> equivalentObjectProperties;
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> inverseObjectProperties;
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> objectPropertyRanges;
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> objectPropertyDomains;
-  @NonNull private final Map<@NonNull String, @NonNull Map<@NonNull String, @NonNull Set<@NonNull String>>> objectPropertyAssertions;
-
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> subDataProperties;
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> superDataProperties;
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> disjointDataProperties;
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> equivalentDataProperties;
-  @NonNull private final Map<@NonNull String, @NonNull Set<@NonNull String>> dataPropertyDomains;
-  @NonNull private final Map<@NonNull String, @NonNull Map<@NonNull String, @NonNull Set<@NonNull L>>> dataPropertyAssertions;
+  @NonNull private final List<@NonNull A> inferredOWLAxioms; // Distinct because all axioms are interned
+  @NonNull private final Set<@NonNull A> inferredOWLAxiomsView;
+  @NonNull private final List<@NonNull A> pendingOWLAxioms; // Inferred but not yet inserted into the knowledge session
+  @NonNull private final Set<@NonNull A> assertedOWLAxioms;
+  @NonNull private final DroolsOWLObjectInterner interner;
+  @NonNull private final DroolsStringDictionary dictionary;
+
+  @NonNull private final DroolsIDSet declaredClassIDs;
+  @NonNull private final DroolsIDSet declaredIndividualIDs;
+  @NonNull private final DroolsIDSet declaredObjectPropertyIDs;
+  @NonNull private final DroolsIDSet declaredDataPropertyIDs;
+  @NonNull private final DroolsIDSet declaredAnnotationPropertyIDs;
+
+  @NonNull private final DroolsIDIndex classAssertions;
+  @NonNull private final DroolsIDIndex subClasses;
+  @NonNull private final DroolsIDIndex superClasses;
+  @NonNull private final DroolsIDIndex disjointClasses;
+  @NonNull private final DroolsIDIndex equivalentClasses;
+
+  @NonNull private final DroolsIDIndex sameIndividual;
+  @NonNull private final DroolsIDIndex differentIndividuals;
+
+  @NonNull private final DroolsIDIndex subObjectProperties;
+  @NonNull private final DroolsIDIndex superObjectProperties;
+  @NonNull private final DroolsIDIndex disjointObjectProperties;
+  @NonNull private final DroolsIDIndex equivalentObjectProperties;
+  @NonNull private final DroolsIDIndex inverseObjectProperties;
+  @NonNull private final DroolsIDIndex objectPropertyRanges;
+  @NonNull private final DroolsIDIndex objectPropertyDomains;
+  @NonNull private final DroolsIDIndex objectPropertyAssertionKeys; // Subject ID to property IDs
+  @NonNull private final DroolsIDIndex objectPropertyAssertions; // Subject and property IDs to object IDs
+
+  @NonNull private final DroolsIDIndex subDataProperties;
+  @NonNull private final DroolsIDIndex superDataProperties;
+  @NonNull private final DroolsIDIndex disjointDataProperties;
+  @NonNull private final DroolsIDIndex equivalentDataProperties;
+  @NonNull private final DroolsIDIndex dataPropertyDomains;
+  @NonNull private final DroolsIDIndex dataPropertyAssertionKeys; // Subject ID to property IDs
+  @NonNull private final DroolsIDIndex dataPropertyAssertions; // Subject and property IDs to literals
 
   @NonNull private final Set<@NonNull String> inconsistentMessages;
 
   private boolean isInconsistent;
+  private int insertionBatchSize;
 
   @MonotonicNonNull private KieSession knowledgeSession;
 
   public DefaultDroolsOWLAxiomHandler()
   {
-    this.inferredOWLAxioms = new HashSet<>();
+    this.inferredOWLAxioms = new ArrayList<>();
+    this.inferredOWLAxiomsView = new InferredOWLAxiomsView();
+    this.pendingOWLAxioms = new ArrayList<>();
+    this.insertionBatchSize = DEFAULT_INSERTION_BATCH_SIZE;
     this.assertedOWLAxioms = new HashSet<>();
+    this.interner = new DroolsOWLObjectInterner();
+    this.dictionary = new DroolsStringDictionary();
     this.isInconsistent = false;
     this.inconsistentMessages = new HashSet<>();
-    this.declaredClassIDs = new HashSet<>();
-    this.declaredIndividualIDs = new HashSet<>();
-    this.declaredObjectPropertyIDs = new HashSet<>();
-    this.declaredDataPropertyIDs = new HashSet<>();
-    this.declaredAnnotationPropertyIDs = new HashSet<>();
-    this.subClasses = new HashMap<>();
-    this.subObjectProperties = new HashMap<>();
-    this.subDataProperties = new HashMap<>();
-    this.superClasses = new HashMap<>();
-    this.superObjectProperties = new HashMap<>();
-    this.superDataProperties = new HashMap<>();
-    this.sameIndividual = new HashMap<>();
-    this.differentIndividuals = new HashMap<>();
-    this.disjointClasses = new HashMap<>();
-    this.disjointObjectProperties = new HashMap<>();
-    this.disjointDataProperties = new HashMap<>();
-    this.equivalentClasses = new HashMap<>();
-    this.equivalentObjectProperties = new HashMap<>();
-    this.equivalentDataProperties = new HashMap<>();
-    this.classAssertions = new HashMap<>();
-    this.inverseObjectProperties = new HashMap<>();
-    this.objectPropertyRanges = new HashMap<>();
-    this.objectPropertyDomains = new HashMap<>();
-    this.dataPropertyDomains = new HashMap<>();
-    this.objectPropertyAssertions = new HashMap<>();
-    this.dataPropertyAssertions = new HashMap<>();
+    this.declaredClassIDs = new DroolsIDSet();
+    this.declaredIndividualIDs = new DroolsIDSet();
+    this.declaredObjectPropertyIDs = new DroolsIDSet();
+    this.declaredDataPropertyIDs = new DroolsIDSet();
+    this.declaredAnnotationPropertyIDs = new DroolsIDSet();
+    this.subClasses = new DroolsIDIndex();
+    this.subObjectProperties = new DroolsIDIndex();
+    this.subDataProperties = new DroolsIDIndex();
+    this.superClasses = new DroolsIDIndex();
+    this.superObjectProperties = new DroolsIDIndex();
+    this.superDataProperties = new DroolsIDIndex();
+    this.sameIndividual = new DroolsIDIndex();
+    this.differentIndividuals = new DroolsIDIndex();
+    this.disjointClasses = new DroolsIDIndex();
+    this.disjointObjectProperties = new DroolsIDIndex();
+    this.disjointDataProperties = new DroolsIDIndex();
+    this.equivalentClasses = new DroolsIDIndex();
+    this.equivalentObjectProperties = new DroolsIDIndex();
+    this.equivalentDataProperties = new DroolsIDIndex();
+    this.classAssertions = new DroolsIDIndex();
+    this.inverseObjectProperties = new DroolsIDIndex();
+    this.objectPropertyRanges = new DroolsIDIndex();
+    this.objectPropertyDomains = new DroolsIDIndex();
+    this.dataPropertyDomains = new DroolsIDIndex();
+    this.objectPropertyAssertionKeys = new DroolsIDIndex();
+    this.objectPropertyAssertions = new DroolsIDIndex();
+    this.dataPropertyAssertionKeys = new DroolsIDIndex();
+    this.dataPropertyAssertions = new DroolsIDIndex();
   }
 
   public void reset(KieSession knowledgeSession)
@@ -144,6 +173,9 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
 
     this.assertedOWLAxioms.clear();
     this.inferredOWLAxioms.clear();
+    this.pendingOWLAxioms.clear();
+    this.interner.reset();
+    this.dictionary.reset();
     this.isInconsistent = false;
     this.inconsistentMessages.clear();
     this.declaredClassIDs.clear();
@@ -170,7 +202,9 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
     this.objectPropertyRanges.clear();
     this.objectPropertyDomains.clear();
     this.dataPropertyDomains.clear();
+    this.objectPropertyAssertionKeys.clear();
     this.objectPropertyAssertions.clear();
+    this.dataPropertyAssertionKeys.clear();
     this.dataPropertyAssertions.clear();
   }
 
@@ -191,31 +225,89 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
   {
     this.assertedOWLAxioms.addAll(newAssertedOWLAxioms);
 
-    for (A a : newAssertedOWLAxioms)
+    for (A a : newAssertedOWLAxioms) {
+      this.interner.intern(a);
       a.visit(this);
+    }
   }
 
   /**
    * This method is called by Drools rules at runtime.
    */
-  @Override public void infer(@NonNull A... newInferredOWLAxioms)
+  @Override public void infer(@NonNull A newInferredOWLAxiom)
   {
     if (this.knowledgeSession == null)
       throw new TargetSWRLRuleEngineInternalException("knowledge session not initialized in axiom inferrer");
 
-    for (A newInferredOWLAxiom : newInferredOWLAxioms) {
-      if (!this.inferredOWLAxioms.contains(newInferredOWLAxiom) && (!this.assertedOWLAxioms
-        .contains(newInferredOWLAxiom))) {
-        this.inferredOWLAxioms.add(newInferredOWLAxiom);
-        if (this.knowledgeSession != null) {
-          this.knowledgeSession.insert(newInferredOWLAxiom);
-          newInferredOWLAxiom.visit(this);
-        } else
-          throw new TargetSWRLRuleEngineInternalException("No knowledge session!");
-      }
+    // Asserted and previously inferred axioms are already interned so a single lookup detects redundant inferences
+    if (this.interner.intern(newInferredOWLAxiom) == newInferredOWLAxiom) {
+      this.inferredOWLAxioms.add(newInferredOWLAxiom);
+      this.pendingOWLAxioms.add(newInferredOWLAxiom);
+      newInferredOWLAxiom.visit(this);
+
+      if (this.pendingOWLAxioms.size() >= this.insertionBatchSize)
+        flushInferredOWLAxioms();
     }
   }
 
+  /**
+   * This method is called by Drools rules at runtime.
+   */
+  @Override public void infer(@NonNull A... newInferredOWLAxioms)
+  {
+    for (A newInferredOWLAxiom : newInferredOWLAxioms)
+      infer(newInferredOWLAxiom);
+  }
+
+  /**
+   * Newly inferred axioms are inserted into the knowledge session in batches. This method inserts any axioms that are
+   * still pending and must be called whenever the session runs out of activations so that rules can fire on them.
+   *
+   * @return The number of axioms inserted
+   */
+  @Override public int flushInferredOWLAxioms()
+  {
+    if (this.knowledgeSession == null)
+      throw new TargetSWRLRuleEngineInternalException("knowledge session not initialized in axiom inferrer");
+
+    int numberOfAxioms = this.pendingOWLAxioms.size();
+
+    for (A a : this.pendingOWLAxioms)
+      this.knowledgeSession.insert(a);
+    this.pendingOWLAxioms.clear();
+
+    return numberOfAxioms;
+  }
+
+  /**
+   * @param insertionBatchSize The number of inferred axioms buffered before they are inserted into the knowledge
+   *                           session; a size of one inserts each axiom as soon as it is inferred
+   */
+  public void setInsertionBatchSize(int insertionBatchSize)
+  {
+    if (insertionBatchSize < 1)
+      throw new IllegalArgumentException("insertion batch size must be positive, got " + insertionBatchSize);
+
+    this.insertionBatchSize = insertionBatchSize;
+  }
+
+  /**
+   * This method is called by Drools rules at runtime to obtain the canonical instance of an individual.
+   */
+  @NonNull @Override public I getI(@NonNull String individualID)
+  {
+    return this.interner.getI(individualID);
+  }
+
+  /**
+   * This method is called by Drools rules at runtime to obtain the canonical instance of an individual bound to a
+   * variable.
+   */
+  @NonNull @Override public I getI(@NonNull BA ba)
+  {
+    return this.interner.getI(ba);
+  }
+
   @NonNull @Override public Set<@NonNull A> getAssertedOWLAxioms()
   {
     return Collections.unmodifiableSet(this.assertedOWLAxioms);
@@ -227,12 +319,12 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
    */
   @NonNull @Override public Set<@NonNull A> getInferredOWLAxioms()
   {
-    return Collections.unmodifiableSet(this.inferredOWLAxioms);
+    return this.inferredOWLAxiomsView;
   }
 
   @Override public boolean isEntailed(@NonNull A a)
   {
-    return this.assertedOWLAxioms.contains(a) || this.inferredOWLAxioms.contains(a);
+    return this.interner.isInterned(a);
   }
 
   @Override public boolean isEntailed(@NonNull Set<? extends @NonNull A> axioms)
@@ -247,30 +339,25 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
 
   @Override public boolean isDeclaredClass(@NonNull String classID)
   {
-    return this.declaredClassIDs.contains(classID);
+    return this.declaredClassIDs.contains(lookup(classID));
   }
 
   @NonNull @Override public Set<@NonNull String> getClassAssertions(@NonNull String classID)
   {
-    if (this.classAssertions.get(classID) != null)
-      return this.classAssertions.get(classID);
-    else
-      return Collections.emptySet();
+    return decode(this.classAssertions.get(lookup(classID)));
   }
 
   @NonNull @Override public Set<@NonNull String> getSubClasses(@NonNull String classID, boolean direct)
   {
     Set<@NonNull String> subClasses = new HashSet<>();
 
-    if (this.subClasses.get(classID) != null) {
-      for (String subClassID : this.subClasses.get(classID)) {
-        if (direct) {
-          if (directSubClassOf(classID, subClassID))
-            subClasses.add(subClassID);
-        } else {
-          if (strictSubClassOf(classID, subClassID))
-            subClasses.add(subClassID);
-        }
+    for (String subClassID : decode(this.subClasses.get(lookup(classID)))) {
+      if (direct) {
+        if (directSubClassOf(classID, subClassID))
+          subClasses.add(subClassID);
+      } else {
+        if (strictSubClassOf(classID, subClassID))
+          subClasses.add(subClassID);
       }
     }
     return subClasses;
@@ -280,15 +367,13 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
   {
     Set<@NonNull String> superClasses = new HashSet<>();
 
-    if (this.superClasses.get(classID) != null) {
-      for (String superClassID : this.superClasses.get(classID)) {
-        if (direct) {
-          if (directSubClassOf(superClassID, classID))
-            superClasses.add(superClassID);
-        } else {
-          if (strictSubClassOf(superClassID, classID))
-            superClasses.add(superClassID);
-        }
+    for (String superClassID : decode(this.superClasses.get(lookup(classID)))) {
+      if (direct) {
+        if (directSubClassOf(superClassID, classID))
+          superClasses.add(superClassID);
+      } else {
+        if (strictSubClassOf(superClassID, classID))
+          superClasses.add(superClassID);
       }
     }
     return superClasses;
@@ -296,18 +381,12 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
 
   @NonNull @Override public Set<@NonNull String> getDisjointClasses(@NonNull String classID)
   {
-    if (this.disjointClasses.get(classID) != null)
-      return this.disjointClasses.get(classID);
-    else
-      return Collections.emptySet();
+    return decode(this.disjointClasses.get(lookup(classID)));
   }
 
   @NonNull @Override public Set<@NonNull String> getEquivalentClasses(@NonNull String classID)
   {
-    if (this.equivalentClasses.get(classID) != null)
-      return this.equivalentClasses.get(classID);
-    else
-      return Collections.emptySet();
+    return decode(this.equivalentClasses.get(lookup(classID)));
   }
 
   /**
@@ -318,8 +397,7 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
   {
     checkSubClassIDs(ceid1, ceid2);
 
-    return this.subClasses.get(ceid1) != null && this.subClasses.get(ceid1).contains(ceid2)
-      && this.subClasses.get(ceid2) != null && !this.subClasses.get(ceid2).contains(ceid1);
+    return strictSubOf(this.subClasses, lookup(ceid1), lookup(ceid2));
   }
 
   /**
@@ -332,11 +410,9 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
     checkSubClassIDs(ceid1, ceid2);
 
     if (strictSubClassOf(ceid1, ceid2)) {
-      if (this.subClasses.get(ceid1) != null) {
-        for (String superClassID : this.subClasses.get(ceid1)) {
-          if (strictSubClassOf(superClassID, ceid2))
-            return false;
-        }
+      for (String superClassID : decode(this.subClasses.get(lookup(ceid1)))) {
+        if (strictSubClassOf(superClassID, ceid2))
+          return false;
       }
       return false;
     } else
@@ -347,45 +423,37 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
 
   @Override public boolean isDeclaredIndividual(@NonNull String individualID)
   {
-    return this.declaredIndividualIDs.contains(individualID);
+    return this.declaredIndividualIDs.contains(lookup(individualID));
   }
 
   @NonNull @Override public Set<@NonNull String> getSameIndividual(@NonNull String individualID)
   {
-    if (this.sameIndividual.get(individualID) != null)
-      return this.sameIndividual.get(individualID);
-    else
-      return Collections.emptySet();
+    return decode(this.sameIndividual.get(lookup(individualID)));
   }
 
   @NonNull @Override public Set<@NonNull String> getDifferentIndividuals(@NonNull String individualID)
   {
-    if (this.differentIndividuals.get(individualID) != null)
-      return this.differentIndividuals.get(individualID);
-    else
-      return Collections.emptySet();
+    return decode(this.differentIndividuals.get(lookup(individualID)));
   }
 
   // Object properties
 
   @Override public boolean isDeclaredObjectProperty(@NonNull String propertyID)
   {
-    return this.declaredObjectPropertyIDs.contains(propertyID);
+    return this.declaredObjectPropertyIDs.contains(lookup(propertyID));
   }
 
   @NonNull @Override public Set<@NonNull String> getSubObjectProperties(@NonNull String propertyID, boolean direct)
   {
     Set<@NonNull String> subProperties = new HashSet<>();
 
-    if (this.subObjectProperties.get(propertyID) != null) {
-      for (String subPropertyID : this.subObjectProperties.get(propertyID)) {
-        if (direct) {
-          if (directSubObjectPropertyOf(propertyID, subPropertyID))
-            subProperties.add(subPropertyID);
-        } else {
-          if (strictSubObjectPropertyOf(propertyID, subPropertyID))
-            subProperties.add(subPropertyID);
-        }
+    for (String subPropertyID : decode(this.subObjectProperties.get(lookup(propertyID)))) {
+      if (direct) {
+        if (directSubObjectPropertyOf(propertyID, subPropertyID))
+          subProperties.add(subPropertyID);
+      } else {
+        if (strictSubObjectPropertyOf(propertyID, subPropertyID))
+          subProperties.add(subPropertyID);
       }
     }
     return subProperties;
@@ -395,15 +463,13 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
   {
     Set<@NonNull String> superProperties = new HashSet<>();
 
-    if (this.superObjectProperties.get(propertyID) != null) {
-      for (String superPropertyID : this.superObjectProperties.get(propertyID)) {
-        if (direct) {
-          if (directSubObjectPropertyOf(superPropertyID, propertyID))
-            superProperties.add(superPropertyID);
-        } else {
-          if (strictSubObjectPropertyOf(superPropertyID, propertyID))
-            superProperties.add(superPropertyID);
-        }
+    for (String superPropertyID : decode(this.superObjectProperties.get(lookup(propertyID)))) {
+      if (direct) {
+        if (directSubObjectPropertyOf(superPropertyID, propertyID))
+          superProperties.add(superPropertyID);
+      } else {
+        if (strictSubObjectPropertyOf(superPropertyID, propertyID))
+          superProperties.add(superPropertyID);
       }
     }
     return superProperties;
@@ -411,66 +477,51 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
 
   @NonNull @Override public Set<@NonNull String> getObjectPropertyRanges(@NonNull String propertyID, boolean direct)
   {
-    if (this.objectPropertyRanges.get(propertyID) != null)
-      return this.objectPropertyRanges.get(propertyID); // TODO getObjectPropertyRanges direct argument?
-    else
-      return Collections.emptySet();
+    // TODO getObjectPropertyRanges direct argument?
+    return decode(this.objectPropertyRanges.get(lookup(propertyID)));
   }
 
   @NonNull @Override public Set<@NonNull String> getObjectPropertyDomains(@NonNull String propertyID, boolean direct)
   {
-    if (this.objectPropertyRanges.get(propertyID) != null)
-      return this.objectPropertyRanges.get(propertyID); // TODO getObjectPropertyDomains direct argument?
-    else
-      return Collections.emptySet();
+    // TODO getObjectPropertyDomains direct argument?
+    return decode(this.objectPropertyRanges.get(lookup(propertyID)));
   }
 
   @NonNull @Override public Set<@NonNull String> getDisjointObjectProperties(@NonNull String propertyID)
   {
-    if (this.disjointObjectProperties.get(propertyID) != null)
-      return this.disjointObjectProperties.get(propertyID);
-    else
-      return Collections.emptySet();
+    return decode(this.disjointObjectProperties.get(lookup(propertyID)));
   }
 
   @NonNull @Override public Set<@NonNull String> getEquivalentObjectProperties(@NonNull String propertyID)
   {
-    if (this.equivalentObjectProperties.get(propertyID) != null)
-      return this.equivalentObjectProperties.get(propertyID);
-    else
-      return Collections.emptySet();
+    return decode(this.equivalentObjectProperties.get(lookup(propertyID)));
   }
 
   @NonNull @Override public Set<@NonNull String> getInverseObjectProperties(@NonNull String propertyID)
   {
-    if (this.inverseObjectProperties.get(propertyID) != null)
-      return this.inverseObjectProperties.get(propertyID);
-    else
-      return Collections.emptySet();
+    return decode(this.inverseObjectProperties.get(lookup(propertyID)));
   }
 
   @NonNull @Override public Map<@NonNull String, @NonNull Set<@NonNull String>> getObjectPropertyAssertions(
     @NonNull String propertyID)
   {
-    if (this.objectPropertyAssertions.get(propertyID) != null)
-      return this.objectPropertyAssertions.get(propertyID);
-    else
+    int id = lookup(propertyID);
+    DroolsIDSet secondaryIDs = this.objectPropertyAssertionKeys.get(id);
+
+    if (secondaryIDs != null) {
+      Map<@NonNull String, @NonNull Set<@NonNull String>> values = new HashMap<>();
+      for (int secondaryID : secondaryIDs.toArray())
+        values.put(this.dictionary.getString(secondaryID),
+          decode(this.objectPropertyAssertions.get(DroolsIDIndex.key(id, secondaryID))));
+      return values;
+    } else
       return Collections.emptyMap();
   }
 
   @NonNull @Override public Set<@NonNull String> getObjectPropertyValuesForIndividual(@NonNull String individualID,
     @NonNull String propertyID)
   {
-    Set<@NonNull String> individualIDs = new HashSet<>();
-
-    if (this.objectPropertyAssertions.get(propertyID) != null) {
-      Map<@NonNull String, @NonNull Set<@NonNull String>> values = this.objectPropertyAssertions.get(propertyID);
-
-      if (values.get(individualID) != null)
-        individualIDs.addAll(values.get(individualID));
-    }
-
-    return individualIDs;
+    return decode(this.objectPropertyAssertions.get(DroolsIDIndex.key(lookup(propertyID), lookup(individualID))));
   }
 
   /**
@@ -482,8 +533,7 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
   {
     checkSubObjectPropertyIDs(opid1, opid2);
 
-    return this.subObjectProperties.get(opid1) != null && this.subObjectProperties.get(opid1).contains(opid2)
-      && this.subObjectProperties.get(opid2) != null && !this.subObjectProperties.get(opid2).contains(opid1);
+    return strictSubOf(this.subObjectProperties, lookup(opid1), lookup(opid2));
   }
 
   /**
@@ -497,11 +547,9 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
     checkSubObjectPropertyIDs(opid1, opid2);
 
     if (strictSubObjectPropertyOf(opid1, opid2)) {
-      if (this.subObjectProperties.get(opid1) != null) {
-        for (String superObjectPropertyID : this.subObjectProperties.get(opid1)) {
-          if (strictSubObjectPropertyOf(superObjectPropertyID, opid2))
-            return false;
-        }
+      for (String superObjectPropertyID : decode(this.subObjectProperties.get(lookup(opid1)))) {
+        if (strictSubObjectPropertyOf(superObjectPropertyID, opid2))
+          return false;
       }
       return false;
     } else
@@ -512,22 +560,20 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
 
   @Override public boolean isDeclaredDataProperty(@NonNull String propertyID)
   {
-    return this.declaredDataPropertyIDs.contains(propertyID);
+    return this.declaredDataPropertyIDs.contains(lookup(propertyID));
   }
 
   @NonNull @Override public Set<@NonNull String> getSubDataProperties(@NonNull String propertyID, boolean direct)
   {
     Set<@NonNull String> subProperties = new HashSet<>();
 
-    if (this.subDataProperties.get(propertyID) != null) {
-      for (String subPropertyID : this.subDataProperties.get(propertyID)) {
-        if (direct) {
-          if (directSubDataPropertyOf(propertyID, subPropertyID))
-            subProperties.add(subPropertyID);
-        } else {
-          if (strictSubDataPropertyOf(propertyID, subPropertyID))
-            subProperties.add(subPropertyID);
-        }
+    for (String subPropertyID : decode(this.subDataProperties.get(lookup(propertyID)))) {
+      if (direct) {
+        if (directSubDataPropertyOf(propertyID, subPropertyID))
+          subProperties.add(subPropertyID);
+      } else {
+        if (strictSubDataPropertyOf(propertyID, subPropertyID))
+          subProperties.add(subPropertyID);
       }
     }
     return subProperties;
@@ -537,15 +583,13 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
   {
     Set<@NonNull String> superProperties = new HashSet<>();
 
-    if (this.superDataProperties.get(propertyID) != null) {
-      for (String superPropertyID : this.superDataProperties.get(propertyID)) {
-        if (direct) {
-          if (directSubDataPropertyOf(superPropertyID, propertyID))
-            superProperties.add(superPropertyID);
-        } else {
-          if (strictSubDataPropertyOf(superPropertyID, propertyID))
-            superProperties.add(superPropertyID);
-        }
+    for (String superPropertyID : decode(this.superDataProperties.get(lookup(propertyID)))) {
+      if (direct) {
+        if (directSubDataPropertyOf(superPropertyID, propertyID))
+          superProperties.add(superPropertyID);
+      } else {
+        if (strictSubDataPropertyOf(superPropertyID, propertyID))
+          superProperties.add(superPropertyID);
       }
     }
     return superProperties;
@@ -553,49 +597,40 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
 
   @NonNull @Override public Set<@NonNull String> getDataPropertyDomains(@NonNull String propertyID, boolean direct)
   {
-    if (this.dataPropertyDomains.get(propertyID) != null)
-      return this.dataPropertyDomains.get(propertyID); // TODO getDataPropertyDomains direct argument?
-    else
-      return Collections.emptySet();
+    // TODO getDataPropertyDomains direct argument?
+    return decode(this.dataPropertyDomains.get(lookup(propertyID)));
   }
 
   @NonNull @Override public Set<@NonNull String> getDisjointDataProperties(@NonNull String propertyID)
   {
-    if (this.disjointDataProperties.get(propertyID) != null)
-      return this.disjointDataProperties.get(propertyID);
-    else
-      return Collections.emptySet();
+    return decode(this.disjointDataProperties.get(lookup(propertyID)));
   }
 
   @NonNull @Override public Set<@NonNull String> getEquivalentDataProperties(@NonNull String propertyID)
   {
-    if (this.equivalentDataProperties.get(propertyID) != null)
-      return this.equivalentDataProperties.get(propertyID);
-    else
-      return Collections.emptySet();
+    return decode(this.equivalentDataProperties.get(lookup(propertyID)));
   }
 
   @NonNull @Override public Map<@NonNull String, @NonNull Set<@NonNull L>> getDataPropertyAssertions(
     @NonNull String propertyID)
   {
-    if (this.dataPropertyAssertions.get(propertyID) != null)
-      return this.dataPropertyAssertions.get(propertyID);
-    else
+    int id = lookup(propertyID);
+    DroolsIDSet secondaryIDs = this.dataPropertyAssertionKeys.get(id);
+
+    if (secondaryIDs != null) {
+      Map<@NonNull String, @NonNull Set<@NonNull L>> values = new HashMap<>();
+      for (int secondaryID : secondaryIDs.toArray())
+        values.put(this.dictionary.getString(secondaryID),
+          decodeLiterals(this.dataPropertyAssertions.get(DroolsIDIndex.key(id, secondaryID))));
+      return values;
+    } else
       return Collections.emptyMap();
   }
 
   @NonNull @Override public Set<@NonNull L> getDataPropertyValuesForIndividual(@NonNull String individualID,
     @NonNull String propertyID)
   {
-    Set<@NonNull L> literals = new HashSet<>();
-
-    if (this.dataPropertyAssertions.get(propertyID) != null) {
-      Map<@NonNull String, @NonNull Set<@NonNull L>> values = this.dataPropertyAssertions.get(propertyID);
-
-      if (values.get(individualID) != null)
-        literals.addAll(values.get(individualID));
-    }
-    return literals;
+    return decodeLiterals(this.dataPropertyAssertions.get(DroolsIDIndex.key(lookup(propertyID), lookup(individualID))));
   }
 
   /**
@@ -607,8 +642,7 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
   {
     checkSubDataPropertyIDs(opid1, opid2);
 
-    return this.subDataProperties.get(opid1) != null && this.subDataProperties.get(opid1).contains(opid2)
-      && this.subDataProperties.get(opid2) != null && !this.subDataProperties.get(opid2).contains(opid1);
+    return strictSubOf(this.subDataProperties, lookup(opid1), lookup(opid2));
   }
 
   /**
@@ -622,11 +656,9 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
     checkSubDataPropertyIDs(dpid1, dpid2);
 
     if (strictSubDataPropertyOf(dpid1, dpid2)) {
-      if (this.subDataProperties.get(dpid1) != null) {
-        for (String superDataPropertyID : this.subDataProperties.get(dpid1)) {
-          if (strictSubDataPropertyOf(superDataPropertyID, dpid2))
-            return false;
-        }
+      for (String superDataPropertyID : decode(this.subDataProperties.get(lookup(dpid1)))) {
+        if (strictSubDataPropertyOf(superDataPropertyID, dpid2))
+          return false;
       }
       return false;
     } else
@@ -637,7 +669,7 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
 
   @Override public boolean isDeclaredAnnotation(@NonNull String propertyID)
   {
-    return this.declaredAnnotationPropertyIDs.contains(propertyID);
+    return this.declaredAnnotationPropertyIDs.contains(lookup(propertyID));
   }
 
   @NonNull public Set<@NonNull String> getInconsistentMessages()
@@ -704,325 +736,137 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
 
   @Override public void visit(@NonNull CDA cda)
   {
-    this.declaredClassIDs.add(cda.getcid());
+    this.declaredClassIDs.add(encode(cda.getcid()));
   }
 
   @Override public void visit(@NonNull OPDA opda)
   {
-    this.declaredObjectPropertyIDs.add(opda.getpid());
+    this.declaredObjectPropertyIDs.add(encode(opda.getpid()));
   }
 
   @Override public void visit(@NonNull DPDA dpda)
   {
-    this.declaredDataPropertyIDs.add(dpda.getpid());
+    this.declaredDataPropertyIDs.add(encode(dpda.getpid()));
   }
 
   @Override public void visit(@NonNull APDA apda)
   {
-    this.declaredAnnotationPropertyIDs.add(apda.getpid());
+    this.declaredAnnotationPropertyIDs.add(encode(apda.getpid()));
   }
 
   @Override public void visit(@NonNull IDA ida)
   {
-    this.declaredIndividualIDs.add(ida.getI().getid());
+    this.declaredIndividualIDs.add(encode(ida.getI().getid()));
   }
 
   @Override public void visit(@NonNull SCA sca)
   {
-    String subClassID = sca.getsubcid();
-    String superClassID = sca.getsupercid();
-
-    if (this.subClasses.containsKey(superClassID)) {
-      this.subClasses.get(superClassID).add(subClassID);
-    } else {
-      Set<@NonNull String> subClasses = new HashSet<>();
-      subClasses.add(subClassID);
-      this.subClasses.put(superClassID, subClasses);
-    }
+    int subClassID = encode(sca.getsubcid());
+    int superClassID = encode(sca.getsupercid());
 
-    if (this.superClasses.containsKey(subClassID)) {
-      this.superClasses.get(subClassID).add(superClassID);
-    } else {
-      Set<@NonNull String> superClasses = new HashSet<>();
-      superClasses.add(superClassID);
-      this.superClasses.put(subClassID, superClasses);
-    }
+    this.subClasses.add(superClassID, subClassID);
+    this.superClasses.add(subClassID, superClassID);
   }
 
   @Override public void visit(@NonNull DCA dca)
   {
-    String c1ID = dca.getc1id();
-    String c2ID = dca.getc2id();
-
-    if (this.disjointClasses.containsKey(c1ID)) {
-      this.disjointClasses.get(c1ID).add(c2ID);
-    } else {
-      Set<@NonNull String> classIDs = new HashSet<>();
-      classIDs.add(c2ID);
-      this.disjointClasses.put(c1ID, classIDs);
-    }
+    this.disjointClasses.add(encode(dca.getc1id()), encode(dca.getc2id()));
   }
 
   @Override public void visit(@NonNull DDPA ddpa)
   {
-    String propertyID = ddpa.getpid();
-    String domainID = ddpa.getdid();
-
-    if (this.dataPropertyDomains.containsKey(propertyID)) {
-      this.dataPropertyDomains.get(propertyID).add(domainID);
-    } else {
-      Set<@NonNull String> classIDs = new HashSet<>();
-      classIDs.add(domainID);
-      this.dataPropertyDomains.put(propertyID, classIDs);
-    }
+    this.dataPropertyDomains.add(encode(ddpa.getpid()), encode(ddpa.getdid()));
   }
 
   @Override public void visit(@NonNull DOPA dopa)
   {
-    String propertyID = dopa.getpid();
-    String domainID = dopa.getdid();
-
-    if (this.objectPropertyDomains.containsKey(propertyID)) {
-      this.objectPropertyDomains.get(propertyID).add(domainID);
-    } else {
-      Set<@NonNull String> classIDs = new HashSet<>();
-      classIDs.add(domainID);
-      this.objectPropertyDomains.put(propertyID, classIDs);
-    }
+    this.objectPropertyDomains.add(encode(dopa.getpid()), encode(dopa.getdid()));
   }
 
   @Override public void visit(@NonNull EOPA eopa)
   {
-    String p1ID = eopa.getp1id();
-    String p2ID = eopa.getp2id();
-
-    if (this.equivalentObjectProperties.containsKey(p1ID)) {
-      this.equivalentObjectProperties.get(p1ID).add(p2ID);
-    } else {
-      Set<@NonNull String> properties = new HashSet<>();
-      properties.add(p2ID);
-      this.equivalentObjectProperties.put(p1ID, properties);
-    }
+    this.equivalentObjectProperties.add(encode(eopa.getp1id()), encode(eopa.getp2id()));
   }
 
   @Override public void visit(@NonNull DIA dia)
   {
-    String i1ID = dia.geti1id();
-    String i2ID = dia.geti2id();
-
-    if (this.differentIndividuals.containsKey(i1ID)) {
-      this.differentIndividuals.get(i1ID).add(i2ID);
-    } else {
-      Set<@NonNull String> individuals = new HashSet<>();
-      individuals.add(i2ID);
-      this.differentIndividuals.put(i1ID, individuals);
-    }
+    this.differentIndividuals.add(encode(dia.geti1id()), encode(dia.geti2id()));
   }
 
   @Override public void visit(@NonNull DJDPA djdpa)
   {
-    String p1ID = djdpa.getp1id();
-    String p2ID = djdpa.getp2id();
-
-    if (this.disjointDataProperties.containsKey(p1ID)) {
-      this.disjointDataProperties.get(p1ID).add(p2ID);
-    } else {
-      Set<@NonNull String> properties = new HashSet<>();
-      properties.add(p2ID);
-      this.disjointDataProperties.put(p1ID, properties);
-    }
+    this.disjointDataProperties.add(encode(djdpa.getp1id()), encode(djdpa.getp2id()));
   }
 
   @Override public void visit(@NonNull DJOPA djopa)
   {
-    String p1ID = djopa.getp1id();
-    String p2ID = djopa.getp2id();
-
-    if (this.disjointObjectProperties.containsKey(p1ID)) {
-      this.disjointObjectProperties.get(p1ID).add(p2ID);
-    } else {
-      Set<@NonNull String> properties = new HashSet<>();
-      properties.add(p2ID);
-      this.disjointObjectProperties.put(p1ID, properties);
-    }
+    this.disjointObjectProperties.add(encode(djopa.getp1id()), encode(djopa.getp2id()));
   }
 
   @Override public void visit(@NonNull OPRA opra)
   {
-    String propertyID = opra.getpid();
-    String rangeID = opra.getrid();
-
-    if (this.objectPropertyRanges.containsKey(propertyID)) {
-      this.objectPropertyRanges.get(propertyID).add(rangeID);
-    } else {
-      Set<@NonNull String> classIDs = new HashSet<>();
-      classIDs.add(rangeID);
-      this.objectPropertyRanges.put(propertyID, classIDs);
-    }
+    this.objectPropertyRanges.add(encode(opra.getpid()), encode(opra.getrid()));
   }
 
   @Override public void visit(@NonNull OPAA opaa)
   {
-    String subjectID = opaa.getsid();
-    String propertyID = opaa.getpid();
-    String objectID = opaa.getoid();
+    int subjectID = encode(opaa.getsid());
+    int propertyID = encode(opaa.getpid());
 
-    if (this.objectPropertyAssertions.containsKey(subjectID)) {
-      Map<@NonNull String, Set<@NonNull String>> property2Values = this.objectPropertyAssertions.get(subjectID);
-      if (property2Values.containsKey(propertyID)) {
-        Set<@NonNull String> values = property2Values.get(propertyID);
-        values.add(objectID);
-      } else {
-        Set<@NonNull String> values = new HashSet<>();
-        values.add(objectID);
-        property2Values.put(propertyID, values);
-      }
-    } else {
-      Map<@NonNull String, Set<@NonNull String>> property2Values = new HashMap<>();
-      Set<@NonNull String> values = new HashSet<>();
-      values.add(objectID);
-      property2Values.put(propertyID, values);
-      this.objectPropertyAssertions.put(subjectID, property2Values);
-    }
+    this.objectPropertyAssertionKeys.add(subjectID, propertyID);
+    this.objectPropertyAssertions.add(DroolsIDIndex.key(subjectID, propertyID), encode(opaa.getoid()));
   }
 
   @Override public void visit(@NonNull SOPA sopa)
   {
-    String subPropertyID = sopa.getsubpid();
-    String superPropertyID = sopa.getsuperpid();
-
-    if (this.subObjectProperties.containsKey(superPropertyID)) {
-      this.subObjectProperties.get(superPropertyID).add(subPropertyID);
-    } else {
-      Set<@NonNull String> subProperties = new HashSet<>();
-      subProperties.add(subPropertyID);
-      this.subObjectProperties.put(superPropertyID, subProperties);
-    }
+    int subPropertyID = encode(sopa.getsubpid());
+    int superPropertyID = encode(sopa.getsuperpid());
 
-    if (this.superObjectProperties.containsKey(subPropertyID)) {
-      this.superObjectProperties.get(subPropertyID).add(superPropertyID);
-    } else {
-      Set<@NonNull String> superProperties = new HashSet<>();
-      superProperties.add(superPropertyID);
-      this.superObjectProperties.put(subPropertyID, superProperties);
-    }
+    this.subObjectProperties.add(superPropertyID, subPropertyID);
+    this.superObjectProperties.add(subPropertyID, superPropertyID);
   }
 
   @Override public void visit(@NonNull EDPA edpa)
   {
-    String p1ID = edpa.getp1id();
-    String p2ID = edpa.getp2id();
-
-    if (this.equivalentDataProperties.containsKey(p1ID)) {
-      this.equivalentDataProperties.get(p1ID).add(p2ID);
-    } else {
-      Set<@NonNull String> properties = new HashSet<>();
-      properties.add(p2ID);
-      this.equivalentDataProperties.put(p1ID, properties);
-    }
+    this.equivalentDataProperties.add(encode(edpa.getp1id()), encode(edpa.getp2id()));
   }
 
   @Override public void visit(@NonNull CAA caa)
   {
-    String classID = caa.getcid();
-    String individualID = caa.getiid();
-
-    if (this.classAssertions.containsKey(classID)) {
-      this.classAssertions.get(classID).add(individualID);
-    } else {
-      Set<@NonNull String> individuals = new HashSet<>();
-      individuals.add(individualID);
-      this.classAssertions.put(classID, individuals);
-    }
+    this.classAssertions.add(encode(caa.getcid()), encode(caa.getiid()));
   }
 
   @Override public void visit(@NonNull ECA eca)
   {
-    String c1ID = eca.getc1id();
-    String c2ID = eca.getc2id();
-
-    if (this.equivalentClasses.containsKey(c1ID)) {
-      this.equivalentClasses.get(c1ID).add(c2ID);
-    } else {
-      Set<@NonNull String> classIDs = new HashSet<>();
-      classIDs.add(c2ID);
-      this.equivalentClasses.put(c1ID, classIDs);
-    }
+    this.equivalentClasses.add(encode(eca.getc1id()), encode(eca.getc2id()));
   }
 
   @Override public void visit(@NonNull DPAA dpaa)
   {
-    String subjectID = dpaa.getsid();
-    String propertyID = dpaa.getpid();
-    L object = dpaa.geto();
+    int subjectID = encode(dpaa.getsid());
+    int propertyID = encode(dpaa.getpid());
 
-    if (this.dataPropertyAssertions.containsKey(subjectID)) {
-      Map<@NonNull String, @NonNull Set<@NonNull L>> property2Values = this.dataPropertyAssertions.get(subjectID);
-      if (property2Values.containsKey(propertyID)) {
-        Set<@NonNull L> values = property2Values.get(propertyID);
-        values.add(object);
-      } else {
-        Set<@NonNull L> values = new HashSet<>();
-        values.add(object);
-        property2Values.put(propertyID, values);
-      }
-    } else {
-      Map<@NonNull String, @NonNull Set<@NonNull L>> property2Values = new HashMap<>();
-      Set<@NonNull L> values = new HashSet<>();
-      values.add(object);
-      property2Values.put(propertyID, values);
-      this.dataPropertyAssertions.put(subjectID, property2Values);
-    }
+    this.dataPropertyAssertionKeys.add(subjectID, propertyID);
+    this.dataPropertyAssertions.add(DroolsIDIndex.key(subjectID, propertyID), encode(dpaa.geto()));
   }
 
   @Override public void visit(@NonNull SDPA sdpa)
   {
-    String subPropertyID = sdpa.getsubpid();
-    String superPropertyID = sdpa.getsuperpid();
+    int subPropertyID = encode(sdpa.getsubpid());
+    int superPropertyID = encode(sdpa.getsuperpid());
 
-    if (this.subDataProperties.containsKey(superPropertyID)) {
-      this.subDataProperties.get(superPropertyID).add(subPropertyID);
-    } else {
-      Set<@NonNull String> subProperties = new HashSet<>();
-      subProperties.add(subPropertyID);
-      this.subDataProperties.put(superPropertyID, subProperties);
-    }
-
-    if (this.superDataProperties.containsKey(subPropertyID)) {
-      this.superDataProperties.get(subPropertyID).add(superPropertyID);
-    } else {
-      Set<@NonNull String> superProperties = new HashSet<>();
-      superProperties.add(superPropertyID);
-      this.superDataProperties.put(subPropertyID, superProperties);
-    }
+    this.subDataProperties.add(superPropertyID, subPropertyID);
+    this.superDataProperties.add(subPropertyID, superPropertyID);
   }
 
   @Override public void visit(@NonNull SIA sia)
   {
-    String i1ID = sia.geti1id();
-    String i2ID = sia.geti2id();
-
-    if (this.sameIndividual.containsKey(i1ID)) {
-      this.sameIndividual.get(i1ID).add(i2ID);
-    } else {
-      Set<@NonNull String> individuals = new HashSet<>();
-      individuals.add(i2ID);
-      this.sameIndividual.put(i1ID, individuals);
-    }
+    this.sameIndividual.add(encode(sia.geti1id()), encode(sia.geti2id()));
   }
 
   @Override public void visit(@NonNull IOPA iopa)
   {
-    String p1ID = iopa.getp1id();
-    String p2ID = iopa.getp2id();
-
-    if (this.inverseObjectProperties.containsKey(p1ID)) {
-      this.inverseObjectProperties.get(p1ID).add(p2ID);
-    } else {
-      Set<@NonNull String> properties = new HashSet<>();
-      properties.add(p2ID);
-      this.inverseObjectProperties.put(p1ID, properties);
-    }
+    this.inverseObjectProperties.add(encode(iopa.getp1id()), encode(iopa.getp2id()));
   }
 
   @Override public void visit(NOPAA nopa)
@@ -1075,10 +919,33 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
     // An OWL 2 RL reasoner does not assert axioms of this type so we ignore.
   }
 
+  /**
+   * A read-only set view of the inferred axioms. Membership is answered by the interner, so the inferred axioms need
+   * not be kept in a second hash set.
+   */
+  private class InferredOWLAxiomsView extends AbstractSet<@NonNull A>
+  {
+    @NonNull @Override public Iterator<@NonNull A> iterator()
+    {
+      return Collections.unmodifiableList(DefaultDroolsOWLAxiomHandler.this.inferredOWLAxioms).iterator();
+    }
+
+    @Override public int size()
+    {
+      return DefaultDroolsOWLAxiomHandler.this.inferredOWLAxioms.size();
+    }
+
+    @Override public boolean contains(@Nullable Object o)
+    {
+      return o instanceof A && DefaultDroolsOWLAxiomHandler.this.interner.isInterned((A)o)
+        && !DefaultDroolsOWLAxiomHandler.this.assertedOWLAxioms.contains(o);
+    }
+  }
+
   private void checkSubClassIDs(@NonNull String... ceids)
   {
     for (String ceid : ceids) {
-      if (!this.subClasses.containsKey(ceid)) {
+      if (!this.subClasses.containsKey(lookup(ceid))) {
         throw new TargetSWRLRuleEngineInternalException(
           "No recordOWLClassExpression of OWL class expression with ID " + ceid);
       }
@@ -1088,7 +955,7 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
   private void checkSubObjectPropertyIDs(@NonNull String... opids)
   {
     for (String opid : opids) {
-      if (!this.subObjectProperties.containsKey(opid)) {
+      if (!this.subObjectProperties.containsKey(lookup(opid))) {
         throw new TargetSWRLRuleEngineInternalException(
           "No recordOWLClassExpression of OWL object property expression with ID " + opid);
       }
@@ -1098,10 +965,61 @@ public class DefaultDroolsOWLAxiomHandler implements DroolsOWLAxiomHandler, AVis
   private void checkSubDataPropertyIDs(@NonNull String... dpids)
   {
     for (String dpid : dpids) {
-      if (!this.subDataProperties.containsKey(dpid)) {
+      if (!this.subDataProperties.containsKey(lookup(dpid))) {
         throw new TargetSWRLRuleEngineInternalException(
           "No recordOWLClassExpression of OWL data property expression with ID " + dpid);
       }
     }
   }
+
+  private static boolean strictSubOf(@NonNull DroolsIDIndex subIndex, int id1, int id2)
+  {
+    return subIndex.contains(id1, id2) && subIndex.containsKey(id2) && !subIndex.contains(id2, id1);
+  }
+
+  /*
+   * Indexed IDs and literals are encoded as string dictionary handles. A literal is encoded as its datatype name and
+   * lexical form separated by a space, which cannot occur in a prefixed name.
+   */
+
+  private int encode(@NonNull String id)
+  {
+    return this.dictionary.getHandle(id);
+  }
+
+  private int encode(@NonNull L literal)
+  {
+    return this.dictionary.getHandle(literal.getTypeName() + " " + literal.getValue());
+  }
+
+  private int lookup(@NonNull String id)
+  {
+    return this.dictionary.findHandle(id);
+  }
+
+  @NonNull private Set<@NonNull String> decode(@Nullable DroolsIDSet ids)
+  {
+    if (ids == null)
+      return Collections.emptySet();
+
+    Set<@NonNull String> strings = new HashSet<>();
+    for (int id : ids.toArray())
+      strings.add(this.dictionary.getString(id));
+
+    return strings;
+  }
+
+  @NonNull private Set<@NonNull L> decodeLiterals(@Nullable DroolsIDSet ids)
+  {
+    if (ids == null)
+      return Collections.emptySet();
+
+    Set<@NonNull L> literals = new HashSet<>();
+    for (int id : ids.toArray()) {
+      String encodedLiteral = this.dictionary.getString(id);
+      int separatorIndex = encodedLiteral.indexOf(' ');
+      literals.add(new L(encodedLiteral.substring(separatorIndex + 1), encodedLiteral.substring(0, separatorIndex)));
+    }
+    return literals;
+  }
 }
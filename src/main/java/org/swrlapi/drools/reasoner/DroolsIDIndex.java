@@ -0,0 +1,117 @@
+package org.swrlapi.drools.reasoner;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.swrlapi.drools.owl.core.DroolsHashCodes;
+
+import java.util.Arrays;
+
+/**
+ * An index from keys to sets of non-negative int IDs, backed by an open-addressing table of primitive long keys. A key
+ * is either a single ID or a pair of IDs packed with {@link #key(int, int)}. Each edge costs a few bytes in the
+ * {@link DroolsIDSet} of its key, rather than a boxed entry in a hash set.
+ *
+ * @see DefaultDroolsOWLAxiomHandler
+ */
+class DroolsIDIndex
+{
+  private static final long FREE = Long.MIN_VALUE;
+  private static final int INITIAL_CAPACITY = 16; // Must be a power of two
+
+  @NonNull private long[] keys;
+  @NonNull private DroolsIDSet[] rows;
+  private int size;
+
+  DroolsIDIndex()
+  {
+    this.keys = newKeyTable(INITIAL_CAPACITY);
+    this.rows = new DroolsIDSet[INITIAL_CAPACITY];
+    this.size = 0;
+  }
+
+  static long key(int id1, int id2)
+  {
+    return ((long)id1 << 32) | (id2 & 0xFFFFFFFFL);
+  }
+
+  /**
+   * @return true if the edge was not already present
+   */
+  boolean add(long key, int id)
+  {
+    int slot = findSlot(this.keys, key);
+
+    if (this.keys[slot] == FREE) {
+      this.keys[slot] = key;
+      this.rows[slot] = new DroolsIDSet();
+      this.size++;
+
+      if (2 * this.size > this.keys.length) {
+        grow();
+        slot = findSlot(this.keys, key);
+      }
+    }
+    return this.rows[slot].add(id);
+  }
+
+  boolean containsKey(long key)
+  {
+    return this.keys[findSlot(this.keys, key)] != FREE;
+  }
+
+  boolean contains(long key, int id)
+  {
+    DroolsIDSet row = get(key);
+
+    return row != null && row.contains(id);
+  }
+
+  @Nullable DroolsIDSet get(long key)
+  {
+    int slot = findSlot(this.keys, key);
+
+    return this.keys[slot] != FREE ? this.rows[slot] : null;
+  }
+
+  void clear()
+  {
+    this.keys = newKeyTable(INITIAL_CAPACITY);
+    this.rows = new DroolsIDSet[INITIAL_CAPACITY];
+    this.size = 0;
+  }
+
+  private void grow()
+  {
+    long[] oldKeys = this.keys;
+    DroolsIDSet[] oldRows = this.rows;
+
+    this.keys = newKeyTable(2 * oldKeys.length);
+    this.rows = new DroolsIDSet[2 * oldKeys.length];
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != FREE) {
+        int slot = findSlot(this.keys, oldKeys[i]);
+        this.keys[slot] = oldKeys[i];
+        this.rows[slot] = oldRows[i];
+      }
+    }
+  }
+
+  private static int findSlot(@NonNull long[] keys, long key)
+  {
+    int mask = keys.length - 1;
+    int slot = DroolsHashCodes.mix(Long.hashCode(key)) & mask;
+
+    while (keys[slot] != FREE && keys[slot] != key)
+      slot = (slot + 1) & mask;
+
+    return slot;
+  }
+
+  @NonNull private static long[] newKeyTable(int capacity)
+  {
+    long[] keys = new long[capacity];
+    Arrays.fill(keys, FREE);
+    return keys;
+  }
+}
@@ -0,0 +1,110 @@
+package org.swrlapi.drools.reasoner;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.swrlapi.drools.owl.core.DroolsHashCodes;
+
+import java.util.Arrays;
+
+/**
+ * A set of non-negative int IDs (typically {@link DroolsStringDictionary} handles) backed by an open-addressing table
+ * of primitive ints. Used by {@link DefaultDroolsOWLAxiomHandler} to hold the rows of its indexes.
+ *
+ * @see DroolsIDIndex
+ */
+class DroolsIDSet
+{
+  private static final int FREE = -1;
+  private static final int INITIAL_CAPACITY = 4; // Must be a power of two
+
+  @NonNull private int[] table;
+  private int size;
+
+  DroolsIDSet()
+  {
+    this.table = newTable(INITIAL_CAPACITY);
+    this.size = 0;
+  }
+
+  /**
+   * @return true if the ID was not already present
+   */
+  boolean add(int id)
+  {
+    if (id < 0)
+      throw new IllegalArgumentException("negative ID " + id);
+
+    int slot = findSlot(this.table, id);
+
+    if (this.table[slot] == id)
+      return false;
+
+    this.table[slot] = id;
+    this.size++;
+
+    if (4 * this.size > 3 * this.table.length)
+      grow();
+
+    return true;
+  }
+
+  boolean contains(int id)
+  {
+    return id >= 0 && this.table[findSlot(this.table, id)] == id;
+  }
+
+  int size()
+  {
+    return this.size;
+  }
+
+  boolean isEmpty()
+  {
+    return this.size == 0;
+  }
+
+  @NonNull int[] toArray()
+  {
+    int[] ids = new int[this.size];
+    int i = 0;
+
+    for (int id : this.table)
+      if (id != FREE)
+        ids[i++] = id;
+
+    return ids;
+  }
+
+  void clear()
+  {
+    this.table = newTable(INITIAL_CAPACITY);
+    this.size = 0;
+  }
+
+  private void grow()
+  {
+    int[] oldTable = this.table;
+
+    this.table = newTable(2 * oldTable.length);
+    for (int id : oldTable)
+      if (id != FREE)
+        this.table[findSlot(this.table, id)] = id;
+  }
+
+  private static int findSlot(@NonNull int[] table, int id)
+  {
+    int mask = table.length - 1;
+    int slot = DroolsHashCodes.mix(id) & mask;
+
+    while (table[slot] != FREE && table[slot] != id)
+      slot = (slot + 1) & mask;
+
+    return slot;
+  }
+
+  @NonNull private static int[] newTable(int capacity)
+  {
+    int[] table = new int[capacity];
+    Arrays.fill(table, FREE);
+    return table;
+  }
+}
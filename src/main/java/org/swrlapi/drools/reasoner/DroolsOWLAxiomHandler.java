@@ -2,7 +2,9 @@ package org.swrlapi.drools.reasoner;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.swrlapi.drools.owl.axioms.A;
+import org.swrlapi.drools.owl.individuals.I;
 import org.swrlapi.drools.owl.literals.L;
+import org.swrlapi.drools.swrl.BA;
 
 import java.util.Map;
 import java.util.Set;
@@ -17,14 +19,24 @@ import java.util.Set;
  */
 public interface DroolsOWLAxiomHandler
 {
+  void infer(@NonNull A newInferredOWLAxiom);
+
   void infer(@NonNull A... newInferredOWLAxioms);
 
+  int flushInferredOWLAxioms();
+
   void addAssertOWLAxioms(@NonNull Set<@NonNull A> newAssertedOWLAxioms);
 
   void inferFalse(@NonNull String owl2RLRuleName, @NonNull String... arguments);
 
   boolean isInconsistent();
 
+  // Canonical individuals
+
+  @NonNull I getI(@NonNull String individualID);
+
+  @NonNull I getI(@NonNull BA ba);
+
   // Axioms
 
   @NonNull Set<@NonNull A> getAssertedOWLAxioms();
@@ -0,0 +1,238 @@
+package org.swrlapi.drools.reasoner;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.swrlapi.drools.owl.core.DroolsHashCodes;
+import org.swrlapi.exceptions.TargetSWRLRuleEngineInternalException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A dictionary that stores each distinct string once, UTF-8 encoded, in a direct (off-heap) byte buffer and hands out
+ * compact integer handles for them. It is used to hold the prefixed names and lexical forms recorded by
+ * {@link DefaultDroolsOWLAxiomHandler} without keeping large numbers of heap strings reachable.
+ * <p>
+ * Each entry is stored as a four byte length followed by the encoded bytes; the handle of an entry is its offset in
+ * the buffer. The handle index itself is an open-addressing table of primitive ints. Decoded strings are kept in a
+ * small access-ordered LRU cache so that frequently requested handles are not repeatedly decoded.
+ */
+public class DroolsStringDictionary
+{
+  public static final int NO_HANDLE = -1;
+
+  private static final int DEFAULT_INITIAL_BUFFER_CAPACITY = 64 * 1024;
+  private static final int DEFAULT_DECODE_CACHE_SIZE = 1024;
+  private static final int INITIAL_INDEX_CAPACITY = 1024; // Must be a power of two
+
+  private final int initialBufferCapacity;
+  private final int decodeCacheSize;
+  @NonNull private final Map<@NonNull Integer, @NonNull String> decodeCache;
+
+  @NonNull private ByteBuffer buffer;
+  @NonNull private int[] handles; // Open-addressing table of handles; NO_HANDLE marks a free slot
+  @NonNull private int[] hashes; // Hash of the entry in the corresponding handles slot
+  private int size;
+
+  public DroolsStringDictionary()
+  {
+    this(DEFAULT_INITIAL_BUFFER_CAPACITY, DEFAULT_DECODE_CACHE_SIZE);
+  }
+
+  public DroolsStringDictionary(int initialBufferCapacity, int decodeCacheSize)
+  {
+    if (initialBufferCapacity <= 0)
+      throw new IllegalArgumentException("initial buffer capacity must be positive, got " + initialBufferCapacity);
+    if (decodeCacheSize < 0)
+      throw new IllegalArgumentException("decode cache size must not be negative, got " + decodeCacheSize);
+
+    this.initialBufferCapacity = initialBufferCapacity;
+    this.decodeCacheSize = decodeCacheSize;
+    this.decodeCache = new LinkedHashMap<Integer, String>(16, 0.75f, true)
+    {
+      @Override protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest)
+      {
+        return size() > DroolsStringDictionary.this.decodeCacheSize;
+      }
+    };
+    this.buffer = ByteBuffer.allocateDirect(initialBufferCapacity);
+    this.handles = newIndexTable(INITIAL_INDEX_CAPACITY);
+    this.hashes = new int[INITIAL_INDEX_CAPACITY];
+    this.size = 0;
+  }
+
+  public void reset()
+  {
+    if (this.buffer.capacity() > this.initialBufferCapacity)
+      this.buffer = ByteBuffer.allocateDirect(this.initialBufferCapacity);
+    else
+      this.buffer.clear();
+
+    this.handles = newIndexTable(INITIAL_INDEX_CAPACITY);
+    this.hashes = new int[INITIAL_INDEX_CAPACITY];
+    this.size = 0;
+    this.decodeCache.clear();
+  }
+
+  /**
+   * @param s A string
+   * @return The handle of the string, which is added to the dictionary if it is not already present
+   */
+  public int getHandle(@NonNull String s)
+  {
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    int hash = hash(bytes);
+    int slot = findSlot(bytes, hash);
+
+    if (this.handles[slot] != NO_HANDLE)
+      return this.handles[slot];
+
+    int handle = append(bytes);
+    this.handles[slot] = handle;
+    this.hashes[slot] = hash;
+    this.size++;
+
+    if (this.size * 2 > this.handles.length)
+      growIndex();
+
+    return handle;
+  }
+
+  /**
+   * @param s A string
+   * @return The handle of the string or {@link #NO_HANDLE} if it is not in the dictionary
+   */
+  public int findHandle(@NonNull String s)
+  {
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+
+    return this.handles[findSlot(bytes, hash(bytes))];
+  }
+
+  /**
+   * @param handle A handle previously returned by this dictionary
+   * @return The string with the supplied handle
+   */
+  @NonNull public String getString(int handle)
+  {
+    String s = this.decodeCache.get(handle);
+
+    if (s == null) {
+      s = decode(handle);
+      if (this.decodeCacheSize > 0)
+        this.decodeCache.put(handle, s);
+    }
+    return s;
+  }
+
+  public int size()
+  {
+    return this.size;
+  }
+
+  /**
+   * @return The number of off-heap bytes used by the stored strings
+   */
+  public int getNumberOfBytes()
+  {
+    return this.buffer.position();
+  }
+
+  private int findSlot(@NonNull byte[] bytes, int hash)
+  {
+    int mask = this.handles.length - 1;
+    int slot = hash & mask;
+
+    while (this.handles[slot] != NO_HANDLE && (this.hashes[slot] != hash || !matches(this.handles[slot], bytes)))
+      slot = (slot + 1) & mask;
+
+    return slot;
+  }
+
+  private boolean matches(int handle, @NonNull byte[] bytes)
+  {
+    if (this.buffer.getInt(handle) != bytes.length)
+      return false;
+
+    int start = handle + Integer.BYTES;
+    for (int i = 0; i < bytes.length; i++)
+      if (this.buffer.get(start + i) != bytes[i])
+        return false;
+
+    return true;
+  }
+
+  private int append(@NonNull byte[] bytes)
+  {
+    int required = Integer.BYTES + bytes.length;
+
+    if (this.buffer.remaining() < required)
+      growBuffer(required);
+
+    int handle = this.buffer.position();
+    this.buffer.putInt(bytes.length);
+    this.buffer.put(bytes);
+
+    return handle;
+  }
+
+  @NonNull private String decode(int handle)
+  {
+    if (handle < 0 || handle >= this.buffer.position())
+      throw new TargetSWRLRuleEngineInternalException("invalid string dictionary handle " + handle);
+
+    byte[] bytes = new byte[this.buffer.getInt(handle)];
+    ByteBuffer view = this.buffer.duplicate();
+    view.position(handle + Integer.BYTES);
+    view.get(bytes);
+
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private void growBuffer(int required)
+  {
+    long newCapacity = Math.max(2L * this.buffer.capacity(), (long)this.buffer.position() + required);
+
+    if (newCapacity > Integer.MAX_VALUE)
+      throw new TargetSWRLRuleEngineInternalException("string dictionary exceeded maximum size");
+
+    ByteBuffer newBuffer = ByteBuffer.allocateDirect((int)newCapacity);
+    this.buffer.flip();
+    newBuffer.put(this.buffer);
+    this.buffer = newBuffer;
+  }
+
+  private void growIndex()
+  {
+    int[] oldHandles = this.handles;
+    int[] oldHashes = this.hashes;
+    int mask = 2 * oldHandles.length - 1;
+
+    this.handles = newIndexTable(2 * oldHandles.length);
+    this.hashes = new int[2 * oldHandles.length];
+
+    for (int i = 0; i < oldHandles.length; i++) {
+      if (oldHandles[i] != NO_HANDLE) {
+        int slot = oldHashes[i] & mask;
+        while (this.handles[slot] != NO_HANDLE)
+          slot = (slot + 1) & mask;
+        this.handles[slot] = oldHandles[i];
+        this.hashes[slot] = oldHashes[i];
+      }
+    }
+  }
+
+  @NonNull private static int[] newIndexTable(int capacity)
+  {
+    int[] table = new int[capacity];
+    Arrays.fill(table, NO_HANDLE);
+    return table;
+  }
+
+  private static int hash(@NonNull byte[] bytes)
+  {
+    return DroolsHashCodes.mix(Arrays.hashCode(bytes));
+  }
+}
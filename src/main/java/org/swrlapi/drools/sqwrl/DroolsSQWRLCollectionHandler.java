@@ -3,29 +3,42 @@ package org.swrlapi.drools.sqwrl;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.swrlapi.drools.swrl.BA;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Keeps track of SQWRL collections during rule execution.
  * <p>
  * The {@link #infer(org.swrlapi.drools.swrl.BA)} method in this class is called to inform Drools of inferred SQWRL
- * collections.
+ * collections. Collections of queries that are aggregated incrementally are not materialized; the
+ * {@link #accumulate(String, String, boolean, BA[], BA)} method adds each of their elements to the running aggregates
+ * of its group instead.
  *
  * @see org.swrlapi.drools.sqwrl.SQWRLC
+ * @see org.swrlapi.drools.sqwrl.SQWRLA
  */
 public class DroolsSQWRLCollectionHandler
 {
   @NonNull private final Set<@NonNull SQWRLC> generatedSQWRLCollections;
+  // Query name -> collection name -> group arguments -> aggregates
+  @NonNull private final Map<@NonNull String, @NonNull Map<@NonNull String, @NonNull Map<List<BA>, SQWRLA>>>
+    sqwrlAggregates;
 
   public DroolsSQWRLCollectionHandler()
   {
     this.generatedSQWRLCollections = new HashSet<>();
+    this.sqwrlAggregates = new HashMap<>();
   }
 
   public void reset()
   {
     this.generatedSQWRLCollections.clear();
+    this.sqwrlAggregates.clear();
   }
 
   public void infer(@NonNull BA ba)
@@ -43,4 +56,38 @@ public class DroolsSQWRLCollectionHandler
   {
     return this.generatedSQWRLCollections;
   }
+
+  /**
+   * Add an element to the aggregates of its group in a collection of a SQWRL query.
+   *
+   * @param queryName      The name of the query
+   * @param collectionName The name of the collection variable
+   * @param isSet          True if the collection is a set, false if it is a bag
+   * @param groupArguments The values of the variables the collection is grouped by
+   * @param element        The element
+   */
+  public void accumulate(@NonNull String queryName, @NonNull String collectionName, boolean isSet,
+    @NonNull BA @NonNull [] groupArguments, @NonNull BA element)
+  {
+    this.sqwrlAggregates.computeIfAbsent(queryName, k -> new HashMap<>())
+      .computeIfAbsent(collectionName, k -> new HashMap<>())
+      .computeIfAbsent(Arrays.asList(groupArguments), k -> new SQWRLA(queryName, collectionName, groupArguments, isSet))
+      .add(element);
+  }
+
+  public boolean hasSQWRLAggregates()
+  {
+    return !this.sqwrlAggregates.isEmpty();
+  }
+
+  @NonNull public List<@NonNull SQWRLA> getSQWRLAggregates()
+  {
+    List<@NonNull SQWRLA> aggregates = new ArrayList<>();
+
+    for (Map<@NonNull String, @NonNull Map<List<BA>, SQWRLA>> collectionAggregates : this.sqwrlAggregates.values())
+      for (Map<List<BA>, SQWRLA> groupAggregates : collectionAggregates.values())
+        aggregates.addAll(groupAggregates.values());
+
+    return aggregates;
+  }
 }
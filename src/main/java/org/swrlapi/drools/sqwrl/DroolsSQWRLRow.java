@@ -0,0 +1,51 @@
+package org.swrlapi.drools.sqwrl;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.dataflow.qual.SideEffectFree;
+import org.swrlapi.builtins.arguments.SWRLBuiltInArgument;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A row selected by a SQWRL query, holding the arguments of a <code>sqwrl:select</code> or
+ * <code>sqwrl:selectDistinct</code> built-in in the order in which they appear in the query.
+ *
+ * @see DroolsSQWRLRowConsumer
+ */
+public final class DroolsSQWRLRow
+{
+  /**
+   * Marks the end of the rows streamed by a rule engine run. Only supplied by {@link DroolsSQWRLRowQueue}.
+   */
+  @NonNull public static final DroolsSQWRLRow END_OF_ROWS = new DroolsSQWRLRow("", Collections.emptyList());
+
+  @NonNull private final String queryName;
+  @NonNull private final List<@NonNull SWRLBuiltInArgument> values;
+
+  public DroolsSQWRLRow(@NonNull String queryName, @NonNull List<@NonNull SWRLBuiltInArgument> values)
+  {
+    this.queryName = queryName;
+    this.values = Collections.unmodifiableList(values);
+  }
+
+  @NonNull public String getQueryName()
+  {
+    return this.queryName;
+  }
+
+  @NonNull public List<@NonNull SWRLBuiltInArgument> getValues()
+  {
+    return this.values;
+  }
+
+  public boolean isEndOfRows()
+  {
+    return this == END_OF_ROWS;
+  }
+
+  @NonNull @SideEffectFree @Override public String toString()
+  {
+    return isEndOfRows() ? "DroolsSQWRLRow(END_OF_ROWS)" : this.queryName + this.values;
+  }
+}
@@ -0,0 +1,22 @@
+package org.swrlapi.drools.sqwrl;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Receives the rows selected by SQWRL queries as the rule engine produces them. Consumers are called on the rule engine
+ * thread from within rule consequences, so rule firing is paused for as long as a call blocks.
+ *
+ * @see org.swrlapi.drools.core.DroolsSWRLRuleEngine#setSQWRLRowConsumer(DroolsSQWRLRowConsumer)
+ * @see DroolsSQWRLRowQueue
+ */
+public interface DroolsSQWRLRowConsumer
+{
+  void consumeRow(@NonNull DroolsSQWRLRow row) throws InterruptedException;
+
+  /**
+   * Called once a rule engine run has finished producing rows, including runs that fail.
+   */
+  default void endOfRows() throws InterruptedException
+  {
+  }
+}
@@ -0,0 +1,77 @@
+package org.swrlapi.drools.sqwrl;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.dataflow.qual.SideEffectFree;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes the rows of a SQWRL query that can contribute to its result when the query is sliced by an operator that
+ * only selects rows from the start of the result, such as <code>sqwrl:limit</code>, <code>sqwrl:firstN</code> or
+ * <code>sqwrl:nthSlice</code>. Only the first {@link #getNumberOfRows()} rows in the order of the result are needed.
+ * <p>
+ * The result of an ordered query is sorted by the values of its order by columns; the result of an unordered query
+ * holds its rows in the order in which they were selected. The order by columns are indexes of the arguments of the
+ * <code>sqwrl:select</code> or <code>sqwrl:selectDistinct</code> built-in of the query.
+ *
+ * @see org.swrlapi.drools.core.DroolsSQWRLRowLimiter
+ */
+public final class DroolsSQWRLRowLimit
+{
+  @NonNull private final String queryName;
+  private final int numberOfRows;
+  @NonNull private final List<@NonNull Integer> orderByColumnIndexes;
+  private final boolean isAscending;
+  private final boolean isDistinct;
+
+  public DroolsSQWRLRowLimit(@NonNull String queryName, int numberOfRows,
+    @NonNull List<@NonNull Integer> orderByColumnIndexes, boolean isAscending, boolean isDistinct)
+  {
+    if (numberOfRows < 1)
+      throw new IllegalArgumentException("number of rows of SQWRL query " + queryName + " must be positive");
+
+    this.queryName = queryName;
+    this.numberOfRows = numberOfRows;
+    this.orderByColumnIndexes = Collections.unmodifiableList(orderByColumnIndexes);
+    this.isAscending = isAscending;
+    this.isDistinct = isDistinct;
+  }
+
+  @NonNull public String getQueryName()
+  {
+    return this.queryName;
+  }
+
+  public int getNumberOfRows()
+  {
+    return this.numberOfRows;
+  }
+
+  @NonNull public List<@NonNull Integer> getOrderByColumnIndexes()
+  {
+    return this.orderByColumnIndexes;
+  }
+
+  public boolean isOrdered()
+  {
+    return !this.orderByColumnIndexes.isEmpty();
+  }
+
+  public boolean isAscending()
+  {
+    return this.isAscending;
+  }
+
+  public boolean isDistinct()
+  {
+    return this.isDistinct;
+  }
+
+  @NonNull @SideEffectFree @Override public String toString()
+  {
+    return "DroolsSQWRLRowLimit(" + this.queryName + ", " + this.numberOfRows + (isOrdered() ?
+      ", orderBy" + (this.isAscending ? "" : "Descending") + "=" + this.orderByColumnIndexes :
+      "") + (this.isDistinct ? ", distinct" : "") + ")";
+  }
+}
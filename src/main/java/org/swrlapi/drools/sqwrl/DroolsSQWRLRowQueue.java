@@ -0,0 +1,51 @@
+package org.swrlapi.drools.sqwrl;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Hands the rows selected by SQWRL queries to another thread through a bounded queue. When the queue is full the rule
+ * engine thread blocks until the reading thread takes a row, so a slow reader pauses rule firing instead of letting
+ * rows accumulate. {@link DroolsSQWRLRow#END_OF_ROWS} is queued when a rule engine run has finished.
+ */
+public class DroolsSQWRLRowQueue implements DroolsSQWRLRowConsumer
+{
+  @NonNull private final BlockingQueue<@NonNull DroolsSQWRLRow> queue;
+
+  public DroolsSQWRLRowQueue(int capacity)
+  {
+    this(new ArrayBlockingQueue<>(capacity));
+  }
+
+  public DroolsSQWRLRowQueue(@NonNull BlockingQueue<@NonNull DroolsSQWRLRow> queue)
+  {
+    this.queue = queue;
+  }
+
+  @Override public void consumeRow(@NonNull DroolsSQWRLRow row) throws InterruptedException
+  {
+    this.queue.put(row);
+  }
+
+  @Override public void endOfRows() throws InterruptedException
+  {
+    this.queue.put(DroolsSQWRLRow.END_OF_ROWS);
+  }
+
+  /**
+   * Wait for the next row.
+   *
+   * @return The next row, which is {@link DroolsSQWRLRow#END_OF_ROWS} once a rule engine run has finished
+   */
+  @NonNull public DroolsSQWRLRow take() throws InterruptedException
+  {
+    return this.queue.take();
+  }
+
+  @NonNull public BlockingQueue<@NonNull DroolsSQWRLRow> getQueue()
+  {
+    return this.queue;
+  }
+}
@@ -0,0 +1,67 @@
+package org.swrlapi.drools.sqwrl;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.dataflow.qual.SideEffectFree;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes a Drools query that answers a SQWRL query whose head only selects the values of variables of its body.
+ * The Drools query has the body of the SQWRL query and binds a declaration for each column of its
+ * <code>sqwrl:select</code> built-in, so the rows of the SQWRL query can be read from a saturated knowledge session
+ * without firing rules.
+ *
+ * @see org.swrlapi.drools.core.DroolsSWRLRuleEngine#selectSQWRLRows(String)
+ */
+public final class DroolsSQWRLSelectQuery
+{
+  @NonNull private final String queryName;
+  @NonNull private final String drlQueryName;
+  @NonNull private final List<@NonNull String> columnVariableNames;
+  @NonNull private final List<@NonNull String> columnDeclarations;
+
+  /**
+   * @param queryName           The name of the SQWRL query
+   * @param drlQueryName        The name of the Drools query
+   * @param columnVariableNames The names of the variables selected by the SQWRL query
+   * @param columnDeclarations  The identifiers of the declarations binding these variables in the Drools query
+   */
+  public DroolsSQWRLSelectQuery(@NonNull String queryName, @NonNull String drlQueryName,
+    @NonNull List<@NonNull String> columnVariableNames, @NonNull List<@NonNull String> columnDeclarations)
+  {
+    if (columnVariableNames.size() != columnDeclarations.size())
+      throw new IllegalArgumentException("each column of SQWRL query " + queryName + " must have one declaration");
+
+    this.queryName = queryName;
+    this.drlQueryName = drlQueryName;
+    this.columnVariableNames = Collections.unmodifiableList(columnVariableNames);
+    this.columnDeclarations = Collections.unmodifiableList(columnDeclarations);
+  }
+
+  @NonNull public String getQueryName()
+  {
+    return this.queryName;
+  }
+
+  @NonNull public String getDRLQueryName()
+  {
+    return this.drlQueryName;
+  }
+
+  @NonNull public List<@NonNull String> getColumnVariableNames()
+  {
+    return this.columnVariableNames;
+  }
+
+  @NonNull public List<@NonNull String> getColumnDeclarations()
+  {
+    return this.columnDeclarations;
+  }
+
+  @NonNull @SideEffectFree @Override public String toString()
+  {
+    return "DroolsSQWRLSelectQuery(" + getQueryName() + ", " + getDRLQueryName() + ", " + getColumnVariableNames()
+      + ")";
+  }
+}
@@ -0,0 +1,201 @@
+package org.swrlapi.drools.sqwrl;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.dataflow.qual.SideEffectFree;
+import org.semanticweb.owlapi.vocab.XSDVocabulary;
+import org.swrlapi.drools.core.DroolsNativeSWRLBuiltIns;
+import org.swrlapi.drools.owl.literals.L;
+import org.swrlapi.drools.swrl.BA;
+import org.swrlapi.exceptions.SWRLAPIException;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class holds the running aggregates of a group of a SQWRL collection in Drools. Collections of queries that are
+ * aggregated incrementally are not materialized. Instead, each element is added to the aggregates of its group by the
+ * phase 1 rule of the query as the element is produced. The aggregates are then inserted into the knowledge session
+ * for the phase 2 rule of the query to pick up.
+ * <p>
+ * The size, sum, average, minimum and maximum of a group follow the semantics of the corresponding SQWRL collection
+ * operators. A bag holds no elements; a set retains its distinct elements only. Sums and averages are computed
+ * natively for numeric literals; minima and maxima for literals that can be compared natively. Asking for an aggregate
+ * that cannot be computed natively for the elements of the group fails.
+ *
+ * @see org.swrlapi.drools.sqwrl.DroolsSQWRLCollectionHandler
+ */
+public class SQWRLA
+{
+  @NonNull private static final String INTEGER_DATATYPE_NAME = XSDVocabulary.INTEGER.getPrefixedName();
+
+  @NonNull private final String queryName, collectionName;
+  @NonNull private final List<@NonNull BA> groupArguments;
+  @Nullable private final Set<@NonNull BA> elements; // Only retained for sets
+  @NonNull private final Map<@NonNull String, @NonNull L> numericTypeOperands; // An element of each numeric datatype
+
+  private long size;
+  @NonNull private BigDecimal sum;
+  @Nullable private BA nonNumericElement;
+  @Nullable private BA minimum, maximum;
+  @Nullable private BA incomparableElement;
+
+  public SQWRLA(@NonNull String queryName, @NonNull String collectionName, @NonNull BA @NonNull [] groupArguments,
+    boolean isSet)
+  {
+    this.queryName = queryName;
+    this.collectionName = collectionName;
+    this.groupArguments = Collections.unmodifiableList(Arrays.asList(groupArguments.clone()));
+    this.elements = isSet ? new HashSet<>() : null;
+    this.numericTypeOperands = new LinkedHashMap<>();
+    this.sum = BigDecimal.ZERO;
+  }
+
+  @NonNull public String getQueryName()
+  {
+    return this.queryName;
+  }
+
+  @NonNull public String getCollectionName()
+  {
+    return this.collectionName;
+  }
+
+  @NonNull public List<@NonNull BA> getGroupArguments()
+  {
+    return this.groupArguments;
+  }
+
+  @NonNull public BA getGroupArgument(int index)
+  {
+    return this.groupArguments.get(index);
+  }
+
+  public void add(@NonNull BA element)
+  {
+    if (this.elements != null && !this.elements.add(element))
+      return;
+
+    this.size++;
+
+    BigDecimal value = element instanceof L ? DroolsNativeSWRLBuiltIns.decimalValue((L)element) : null;
+
+    if (value != null) {
+      this.sum = this.sum.add(value);
+      this.numericTypeOperands.putIfAbsent(((L)element).getTypeName(), (L)element);
+    } else if (this.nonNumericElement == null)
+      this.nonNumericElement = element;
+
+    if (this.incomparableElement == null) {
+      // Of equal elements, the minimum is the first one added and the maximum the last one
+      Integer minimumComparison = this.minimum != null ? compare(element, this.minimum) : Integer.valueOf(-1);
+      Integer maximumComparison = this.maximum != null ? compare(element, this.maximum) : Integer.valueOf(0);
+
+      if (minimumComparison == null || maximumComparison == null)
+        this.incomparableElement = element;
+      else {
+        if (minimumComparison < 0)
+          this.minimum = element;
+        if (maximumComparison >= 0)
+          this.maximum = element;
+      }
+    }
+  }
+
+  @NonNull public L getSize()
+  {
+    return new L(String.valueOf(this.size), INTEGER_DATATYPE_NAME);
+  }
+
+  @NonNull public L getSum()
+  {
+    return numericLiteral(this.sum, "sum");
+  }
+
+  @NonNull public L getAverage()
+  {
+    BigDecimal average;
+
+    try {
+      average = this.sum.divide(BigDecimal.valueOf(this.size));
+    } catch (ArithmeticException e) {
+      throw new SWRLAPIException(
+        "error computing average of collection " + this.collectionName + " in SQWRL query " + this.queryName + ": " + (
+          e.getMessage() != null ? e.getMessage() : ""), e);
+    }
+    return numericLiteral(average, "average");
+  }
+
+  @NonNull public BA getMinimum()
+  {
+    return extreme(this.minimum, "minimum");
+  }
+
+  @NonNull public BA getMaximum()
+  {
+    return extreme(this.maximum, "maximum");
+  }
+
+  /*
+   * Numeric literals are compared by their decimal expansion, other literals natively where possible.
+   */
+  @Nullable private static Integer compare(@NonNull BA element1, @NonNull BA element2)
+  {
+    if (!(element1 instanceof L) || !(element2 instanceof L))
+      return null;
+
+    BigDecimal value1 = DroolsNativeSWRLBuiltIns.decimalValue((L)element1);
+    BigDecimal value2 = DroolsNativeSWRLBuiltIns.decimalValue((L)element2);
+
+    if (value1 != null && value2 != null)
+      return value1.compareTo(value2);
+
+    Boolean isLess = DroolsNativeSWRLBuiltIns.compare(DroolsNativeSWRLBuiltIns.LESS_THAN, element1, element2);
+    Boolean isEqual = DroolsNativeSWRLBuiltIns.compare(DroolsNativeSWRLBuiltIns.EQUAL, element1, element2);
+
+    if (isLess == null || isEqual == null)
+      return null;
+    else
+      return isLess ? -1 : isEqual ? 0 : 1;
+  }
+
+  @NonNull private L numericLiteral(@NonNull BigDecimal value, @NonNull String aggregateName)
+  {
+    L literal = this.nonNumericElement == null ?
+      DroolsNativeSWRLBuiltIns.numericLiteral(value, this.numericTypeOperands.values()) :
+      null;
+
+    if (literal == null)
+      throw new SWRLAPIException(
+        "cannot compute " + aggregateName + " of collection " + this.collectionName + " in SQWRL query "
+          + this.queryName + " incrementally" + (this.nonNumericElement != null ?
+          ": non-numeric element " + this.nonNumericElement :
+          ""));
+
+    return literal;
+  }
+
+  @NonNull private BA extreme(@Nullable BA extreme, @NonNull String aggregateName)
+  {
+    if (this.incomparableElement != null || extreme == null)
+      throw new SWRLAPIException(
+        "cannot compute " + aggregateName + " of collection " + this.collectionName + " in SQWRL query "
+          + this.queryName + " incrementally" + (this.incomparableElement != null ?
+          ": incomparable element " + this.incomparableElement :
+          ""));
+
+    return extreme;
+  }
+
+  @NonNull @SideEffectFree @Override public String toString()
+  {
+    return "SQWRLA(" + getQueryName() + ", " + getCollectionName() + ", " + getGroupArguments() + ", size=" + this.size
+      + ")";
+  }
+}
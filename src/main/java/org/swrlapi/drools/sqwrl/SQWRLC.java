@@ -6,6 +6,7 @@ import org.checkerframework.dataflow.qual.Deterministic;
 import org.checkerframework.dataflow.qual.SideEffectFree;
 import org.swrlapi.builtins.arguments.SWRLBuiltInArgument;
 import org.swrlapi.drools.extractors.DroolsSWRLBuiltInArgumentExtractor;
+import org.swrlapi.drools.owl.core.DroolsHashCodes;
 import org.swrlapi.drools.swrl.BA;
 import org.swrlapi.exceptions.TargetSWRLRuleEngineException;
 
@@ -20,6 +21,7 @@ import java.util.Objects;
 public class SQWRLC implements BA
 {
   @NonNull private final String variableName, queryName, collectionName, collectionID;
+  private final int hash;
 
   public SQWRLC(@NonNull String variableName, @NonNull String queryName, @NonNull String collectionName,
     @NonNull String collectionID)
@@ -28,6 +30,12 @@ public class SQWRLC implements BA
     this.queryName = queryName;
     this.collectionName = collectionName;
     this.collectionID = collectionID;
+
+    int result = DroolsHashCodes.mix(variableName.hashCode());
+    result = DroolsHashCodes.combine(result, queryName);
+    result = DroolsHashCodes.combine(result, collectionName);
+    result = DroolsHashCodes.combine(result, collectionID);
+    this.hash = result;
   }
 
   @NonNull public String getVariableName()
@@ -70,6 +78,8 @@ public class SQWRLC implements BA
 
     SQWRLC sqwrlc = (SQWRLC)o;
 
+    if (this.hash != sqwrlc.hash)
+      return false;
     if (!Objects.equals(variableName, sqwrlc.variableName))
       return false;
     if (!Objects.equals(queryName, sqwrlc.queryName))
@@ -82,10 +92,6 @@ public class SQWRLC implements BA
 
   @SideEffectFree @Deterministic @Override public int hashCode()
   {
-    int result = variableName != null ? variableName.hashCode() : 0;
-    result = 31 * result + (queryName != null ? queryName.hashCode() : 0);
-    result = 31 * result + (collectionName != null ? collectionName.hashCode() : 0);
-    result = 31 * result + (collectionID != null ? collectionID.hashCode() : 0);
-    return result;
+    return this.hash;
   }
 }
@@ -0,0 +1,48 @@
+package org.swrlapi.drools.sqwrl;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.dataflow.qual.SideEffectFree;
+import org.swrlapi.drools.swrl.BA;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class holds the parameter values of an execution of a prepared SQWRL query in Drools. The rule of a prepared
+ * query joins its parameter variables against the arguments of this fact, so the query is executed with new values by
+ * inserting a new fact rather than by converting the query again.
+ *
+ * @see org.swrlapi.drools.core.DroolsSWRLRuleEngine#executePreparedSQWRLQuery
+ */
+public class SQWRLP
+{
+  @NonNull private final String queryName;
+  @NonNull private final List<@NonNull BA> arguments;
+
+  public SQWRLP(@NonNull String queryName, @NonNull List<@NonNull BA> arguments)
+  {
+    this.queryName = queryName;
+    this.arguments = Collections.unmodifiableList(Arrays.asList(arguments.toArray(new BA[0])));
+  }
+
+  @NonNull public String getQueryName()
+  {
+    return this.queryName;
+  }
+
+  @NonNull public List<@NonNull BA> getArguments()
+  {
+    return this.arguments;
+  }
+
+  @NonNull public BA getArgument(int index)
+  {
+    return this.arguments.get(index);
+  }
+
+  @NonNull @SideEffectFree @Override public String toString()
+  {
+    return "SQWRLP(" + getQueryName() + ", " + getArguments() + ")";
+  }
+}
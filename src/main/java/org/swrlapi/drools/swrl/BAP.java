@@ -1,12 +1,10 @@
 package org.swrlapi.drools.swrl;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
-import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.dataflow.qual.SideEffectFree;
 import org.swrlapi.exceptions.TargetSWRLRuleEngineInternalException;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * This class represent SWRL built-in argument pattern. Built-ins that evaluate to true return a list of BAPs
@@ -16,157 +14,147 @@ import java.util.List;
  */
 public class BAP
 {
-  public static final int MaxArguments = 11;
+  public static final int NumberOfArgumentFields = 11;
 
-  // This are used indirectly by Drools. The actual arguments are placed in this.arguments.
-  // This approach is not great but it will do for the moment.
-  @SuppressWarnings("unused") @Nullable private BA a1, a2, a3, a4, a5, a6, a7, a8, a9, a10, a11;
-
-  @NonNull private final List<@NonNull BA> arguments;
+  // Drools accesses the first arguments through the getA1() to getA11() methods and any others through getArgument()
+  @NonNull private BA @NonNull [] arguments;
+  private int numberOfArguments;
 
   public BAP()
   {
-    this.arguments = new ArrayList<>();
+    this.arguments = new BA[4];
+  }
+
+  /**
+   * @param arguments The arguments of the pattern; the array is not copied and must not be modified afterwards
+   */
+  public BAP(@NonNull BA @NonNull [] arguments)
+  {
+    this.arguments = arguments;
+    this.numberOfArguments = arguments.length;
   }
 
   public void addArgument(@NonNull BA argument)
   {
-    this.arguments.add(argument);
-    setArgument(this.arguments.size(), argument);
-  }
-
-  private void setArgument(int argumentNumber, @NonNull BA argument)
-  {
-    if (argumentNumber == 1)
-      this.a1 = argument;
-    else if (argumentNumber == 2)
-      this.a2 = argument;
-    else if (argumentNumber == 3)
-      this.a3 = argument;
-    else if (argumentNumber == 4)
-      this.a4 = argument;
-    else if (argumentNumber == 5)
-      this.a5 = argument;
-    else if (argumentNumber == 6)
-      this.a6 = argument;
-    else if (argumentNumber == 7)
-      this.a7 = argument;
-    else if (argumentNumber == 8)
-      this.a8 = argument;
-    else if (argumentNumber == 9)
-      this.a9 = argument;
-    else if (argumentNumber == 10)
-      this.a10 = argument;
-    else if (argumentNumber == 11)
-      this.a11 = argument;
-    else
-      throw new TargetSWRLRuleEngineInternalException("argument number " + argumentNumber + " out of bounds");
+    if (this.numberOfArguments == this.arguments.length)
+      this.arguments = Arrays.copyOf(this.arguments, this.arguments.length * 2);
+
+    this.arguments[this.numberOfArguments++] = argument;
   }
 
+  /**
+   * @param argumentNumber The one-based position of the argument
+   * @return The argument
+   */
   @NonNull public BA getArgument(int argumentNumber)
   {
-    if (argumentNumber > 0 && this.arguments.size() > argumentNumber)
-      return this.arguments.get(argumentNumber - 1);
+    if (argumentNumber > 0 && argumentNumber <= this.numberOfArguments)
+      return this.arguments[argumentNumber - 1];
     else
       throw new TargetSWRLRuleEngineInternalException("argument number " + argumentNumber + " out of bounds");
   }
 
+  public int getNumberOfArguments()
+  {
+    return this.numberOfArguments;
+  }
+
   @NonNull public BA getA1()
   {
-    if (this.arguments.size() < 1)
+    if (this.numberOfArguments < 1)
       throwInvalidArgumentNumberException(1);
 
-    return this.arguments.get(0);
+    return this.arguments[0];
   }
 
   @NonNull public BA getA2()
   {
-    if (this.arguments.size() < 2)
+    if (this.numberOfArguments < 2)
       throwInvalidArgumentNumberException(2);
 
-    return this.arguments.get(1);
+    return this.arguments[1];
   }
 
   @NonNull public BA getA3()
   {
-    if (this.arguments.size() < 3)
+    if (this.numberOfArguments < 3)
       throwInvalidArgumentNumberException(3);
 
-    return this.arguments.get(2);
+    return this.arguments[2];
   }
 
   @NonNull public BA getA4()
   {
-    if (this.arguments.size() < 4)
+    if (this.numberOfArguments < 4)
       throwInvalidArgumentNumberException(4);
 
-    return this.arguments.get(3);
+    return this.arguments[3];
   }
 
   @NonNull public BA getA5()
   {
-    if (this.arguments.size() < 5)
+    if (this.numberOfArguments < 5)
       throwInvalidArgumentNumberException(5);
 
-    return this.arguments.get(4);
+    return this.arguments[4];
   }
 
   @NonNull public BA getA6()
   {
-    if (this.arguments.size() < 6)
+    if (this.numberOfArguments < 6)
       throwInvalidArgumentNumberException(6);
 
-    return this.arguments.get(5);
+    return this.arguments[5];
   }
 
   @NonNull public BA getA7()
   {
-    if (this.arguments.size() < 7)
+    if (this.numberOfArguments < 7)
       throwInvalidArgumentNumberException(7);
 
-    return this.arguments.get(6);
+    return this.arguments[6];
   }
 
   @NonNull public BA getA8()
   {
-    if (this.arguments.size() < 8)
+    if (this.numberOfArguments < 8)
       throwInvalidArgumentNumberException(8);
 
-    return this.arguments.get(7);
+    return this.arguments[7];
   }
 
   @NonNull public BA getA9()
   {
-    if (this.arguments.size() < 9)
+    if (this.numberOfArguments < 9)
       throwInvalidArgumentNumberException(9);
 
-    return this.arguments.get(8);
+    return this.arguments[8];
   }
 
   @NonNull public BA getA10()
   {
-    if (this.arguments.size() < 10)
+    if (this.numberOfArguments < 10)
       throwInvalidArgumentNumberException(10);
 
-    return this.arguments.get(9);
+    return this.arguments[9];
   }
 
   @NonNull public BA getA11()
   {
-    if (this.arguments.size() < 11)
+    if (this.numberOfArguments < 11)
       throwInvalidArgumentNumberException(11);
 
-    return this.arguments.get(10);
+    return this.arguments[10];
   }
 
   @NonNull @SideEffectFree @Override public String toString()
   {
-    return this.arguments.toString();
+    return Arrays.asList(this.arguments).subList(0, this.numberOfArguments).toString();
   }
 
   private void throwInvalidArgumentNumberException(int argumentNumber)
   {
     throw new TargetSWRLRuleEngineInternalException(
-      "argument number " + argumentNumber + " out of bounds; current number of arguments = " + this.arguments.size());
+      "argument number " + argumentNumber + " out of bounds; current number of arguments = " + this.numberOfArguments);
   }
 }
@@ -0,0 +1,48 @@
+package org.swrlapi.drools.swrl;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.dataflow.qual.SideEffectFree;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents a request for the invocation of a batched SWRL built-in. A rule binds the request when its
+ * condition is evaluated. Once the built-in has been invoked the request is inserted into the working memory holding
+ * the resulting argument patterns, which the rule then matches. A single request is created for each distinct
+ * invocation, so requests are compared by identity.
+ *
+ * @see org.swrlapi.drools.swrl.BAP
+ * @see org.swrlapi.drools.core.DroolsBuiltInBatcher
+ */
+public final class BIR
+{
+  private final int siteId;
+  @NonNull private List<@NonNull BAP> results;
+
+  public BIR(int siteId)
+  {
+    this.siteId = siteId;
+    this.results = Collections.emptyList();
+  }
+
+  public int getSiteId()
+  {
+    return this.siteId;
+  }
+
+  @NonNull public List<@NonNull BAP> getResults()
+  {
+    return this.results;
+  }
+
+  public void setResults(@NonNull List<@NonNull BAP> results)
+  {
+    this.results = results;
+  }
+
+  @NonNull @SideEffectFree @Override public String toString()
+  {
+    return "BIR(#" + this.siteId + ")";
+  }
+}
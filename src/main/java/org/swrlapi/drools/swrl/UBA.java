@@ -1,6 +1,8 @@
 package org.swrlapi.drools.swrl;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.dataflow.qual.Deterministic;
 import org.checkerframework.dataflow.qual.SideEffectFree;
 import org.swrlapi.builtins.arguments.SWRLBuiltInArgument;
 import org.swrlapi.drools.extractors.DroolsSWRLBuiltInArgumentExtractor;
@@ -29,6 +31,21 @@ public class UBA implements BA
     return extractor.extract(this);
   }
 
+  @SideEffectFree @Deterministic @Override public boolean equals(@Nullable Object o)
+  {
+    if (this == o)
+      return true;
+    if (o == null || getClass() != o.getClass())
+      return false;
+
+    return this.variableName.equals(((UBA)o).variableName);
+  }
+
+  @SideEffectFree @Deterministic @Override public int hashCode()
+  {
+    return this.variableName.hashCode();
+  }
+
   @NonNull @SideEffectFree @Override public String toString()
   {
     return "UBA(?" + getVariableName() + ")";
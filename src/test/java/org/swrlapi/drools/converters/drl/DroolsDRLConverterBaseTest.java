@@ -0,0 +1,101 @@
+package org.swrlapi.drools.converters.drl;
+
+import junit.framework.TestCase;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.HasIRI;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.SWRLArgument;
+import org.semanticweb.owlapi.model.SWRLAtom;
+import org.semanticweb.owlapi.model.SWRLVariable;
+import org.swrlapi.bridge.SWRLRuleEngineBridge;
+import org.swrlapi.core.SWRLAPIBuiltInAtom;
+import org.swrlapi.core.SWRLAPIOWLOntology;
+import org.swrlapi.core.SWRLAPIRule;
+import org.swrlapi.drools.core.DroolsSWRLRuleEngine;
+import org.swrlapi.factory.SWRLAPIFactory;
+import org.swrlapi.factory.SWRLAPIInternalFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @see DroolsDRLConverterBase
+ */
+public class DroolsDRLConverterBaseTest extends TestCase
+{
+  private static final String NAMESPACE = "http://example.org/test#";
+
+  private SWRLAPIOWLOntology swrlapiOWLOntology;
+  private DroolsSWRLRuleEngine droolsSWRLRuleEngine;
+  private DroolsDRLConverterBase converter;
+
+  @Override protected void setUp() throws Exception
+  {
+    OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+    OWLOntology ontology = manager.createOntology(IRI.create("http://example.org/test"));
+    OWLDataFactory factory = manager.getOWLDataFactory();
+
+    manager.addAxiom(ontology, factory.getOWLDeclarationAxiom(factory.getOWLClass(IRI.create(NAMESPACE + "Person"))));
+    manager.addAxiom(ontology,
+      factory.getOWLDeclarationAxiom(factory.getOWLDataProperty(IRI.create(NAMESPACE + "hasAge"))));
+    manager.addAxiom(ontology,
+      factory.getOWLDeclarationAxiom(factory.getOWLObjectProperty(IRI.create(NAMESPACE + "knows"))));
+
+    this.swrlapiOWLOntology = SWRLAPIInternalFactory
+      .createSWRLAPIOntology(ontology, SWRLAPIFactory.createIRIResolver(NAMESPACE));
+    SWRLRuleEngineBridge bridge = SWRLAPIInternalFactory
+      .createSWRLBridge(this.swrlapiOWLOntology, SWRLAPIInternalFactory.createOWL2RLPersistenceLayer(ontology));
+    this.droolsSWRLRuleEngine = new DroolsSWRLRuleEngine(bridge);
+    this.converter = new DroolsDRLConverterBase(bridge);
+  }
+
+  public void testComparisonIsHoistedAheadOfLaterJoins() throws Exception
+  {
+    assertEquals(Arrays
+        .asList("Person(p)", "hasAge(p, a)", "swrlb:greaterThan", "knows(p, q)", "hasAge(q, b)", "swrlb:lessThan"),
+      orderBodyAtoms("Person(?p) ^ hasAge(?p, ?a) ^ knows(?p, ?q) ^ hasAge(?q, ?b) ^ swrlb:greaterThan(?a, 40) "
+        + "^ swrlb:lessThan(?b, ?a) -> Person(?q)"));
+  }
+
+  public void testBindingBuiltInFollowsAtomsBindingItsInputs() throws Exception
+  {
+    assertEquals(Arrays
+        .asList("Person(p)", "hasAge(p, a)", "knows(p, q)", "hasAge(q, c)", "swrlb:add", "swrlb:greaterThan"),
+      orderBodyAtoms("Person(?p) ^ hasAge(?p, ?a) ^ knows(?p, ?q) ^ hasAge(?q, ?c) ^ swrlb:add(?b, ?a, ?c) "
+        + "^ swrlb:greaterThan(?b, 80) -> Person(?q)"));
+  }
+
+  public void testBuiltInWithoutBoundVariablesComesFirst() throws Exception
+  {
+    assertEquals(Arrays.asList("swrlb:add", "Person(p)", "hasAge(p, a)", "swrlb:equal"),
+      orderBodyAtoms("Person(?p) ^ hasAge(?p, ?a) ^ swrlb:add(?b, 39, 1) ^ swrlb:equal(?a, ?b) -> Person(?p)"));
+  }
+
+  /**
+   * @return The ordered body atoms of the rule, each labelled by its built-in or its predicate and variables
+   */
+  private List<String> orderBodyAtoms(String rule) throws Exception
+  {
+    SWRLAPIRule swrlapiRule = this.swrlapiOWLOntology.createSWRLRule("r1", rule);
+    List<String> labels = new ArrayList<>();
+
+    for (SWRLAtom atom : this.converter
+      .orderBodyAtoms(swrlapiRule.getBodyAtoms(), this.droolsSWRLRuleEngine.getBuiltInInvoker())) {
+      if (atom instanceof SWRLAPIBuiltInAtom)
+        labels.add(((SWRLAPIBuiltInAtom)atom).getBuiltInPrefixedName());
+      else {
+        List<String> variableNames = new ArrayList<>();
+
+        for (SWRLArgument argument : atom.getAllArguments())
+          variableNames.add(((SWRLVariable)argument).getIRI().getShortForm());
+        labels.add(
+          ((HasIRI)atom.getPredicate()).getIRI().getShortForm() + "(" + String.join(", ", variableNames) + ")");
+      }
+    }
+    return labels;
+  }
+}
@@ -0,0 +1,46 @@
+package org.swrlapi.drools.core;
+
+import junit.framework.TestCase;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.swrlapi.drools.owl.individuals.I;
+
+/**
+ * @see DroolsBuiltInArgumentConversionCache
+ */
+public class DroolsBuiltInArgumentConversionCacheTest extends TestCase
+{
+  private final OWLNamedIndividual individual = OWLManager.getOWLDataFactory()
+    .getOWLNamedIndividual(IRI.create("http://example.org#p1"));
+
+  public void testLookupsAreByIdentity() throws Exception
+  {
+    DroolsBuiltInArgumentConversionCache cache = new DroolsBuiltInArgumentConversionCache();
+    I i = new I(":p1");
+
+    cache.putOWLObject(i, this.individual);
+    cache.putBA(this.individual, i);
+
+    assertSame(this.individual, cache.getOWLObject(i));
+    assertNull(cache.getOWLObject(new I(":p1")));
+    assertSame(i, cache.getBA(this.individual));
+    assertEquals(2, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+
+  public void testClearedWhenFull() throws Exception
+  {
+    DroolsBuiltInArgumentConversionCache cache = new DroolsBuiltInArgumentConversionCache();
+    cache.setMaximumEntries(1);
+
+    I i1 = new I(":p1");
+    I i2 = new I(":p2");
+    cache.putOWLObject(i1, this.individual);
+    cache.putOWLObject(i2, this.individual);
+
+    assertNull(cache.getOWLObject(i1));
+    assertSame(this.individual, cache.getOWLObject(i2));
+    assertEquals(1, cache.size());
+  }
+}
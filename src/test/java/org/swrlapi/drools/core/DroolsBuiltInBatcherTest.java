@@ -0,0 +1,30 @@
+package org.swrlapi.drools.core;
+
+import junit.framework.TestCase;
+import org.swrlapi.drools.owl.literals.L;
+import org.swrlapi.drools.swrl.BA;
+import org.swrlapi.drools.swrl.BIR;
+
+/**
+ * @see DroolsBuiltInBatcher
+ */
+public class DroolsBuiltInBatcherTest extends TestCase
+{
+  public void testRepeatedInvocationsShareRequest() throws Exception
+  {
+    DroolsBuiltInBatcher batcher = new DroolsBuiltInBatcher();
+    DroolsBuiltInInvocationSite site = new DroolsBuiltInInvocationSite(0, "r1", "ex:lookup", 0, false, 0,
+      new String[] { "x" }, new BA[] { null });
+
+    site.setPassedValue(0, new L("1", "xsd:int"));
+    BIR request = batcher.request(site);
+    site.setPassedValue(0, new L("1", "xsd:int"));
+    assertSame(request, batcher.request(site));
+    site.setPassedValue(0, new L("2", "xsd:int"));
+    assertNotSame(request, batcher.request(site));
+
+    assertEquals(2, batcher.getNumberOfPendingInvocations());
+    assertEquals(new L("1", "xsd:int"), batcher.takePendingInvocations().get(0).getArguments()[0]);
+    assertEquals(0, batcher.getNumberOfPendingInvocations());
+  }
+}
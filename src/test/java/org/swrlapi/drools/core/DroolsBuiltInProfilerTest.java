@@ -0,0 +1,46 @@
+package org.swrlapi.drools.core;
+
+import junit.framework.TestCase;
+import org.swrlapi.drools.swrl.BA;
+
+/**
+ * @see DroolsBuiltInProfiler
+ */
+public class DroolsBuiltInProfilerTest extends TestCase
+{
+  public void testSitesOfABuiltInInARuleShareCounters() throws Exception
+  {
+    DroolsBuiltInProfiler profiler = new DroolsBuiltInProfiler();
+    DroolsBuiltInInvocationSite site0 = new DroolsBuiltInInvocationSite(0, "r1", "swrlb:add", 0, false, 0,
+      new String[] { "x" }, new BA[] { null });
+    DroolsBuiltInInvocationSite site1 = new DroolsBuiltInInvocationSite(1, "r1", "swrlb:add", 1, false, 0,
+      new String[] { "y" }, new BA[] { null });
+
+    profiler.getCounters(site0).recordCall(100, 1);
+    profiler.getCounters(site1).recordCall(1000, 2);
+    profiler.getCounters(site1).recordCacheHit();
+    profiler.getCounters(site0).recordNativeEvaluation();
+
+    DroolsBuiltInProfile profile = profiler.getProfile("r1", "swrlb:add");
+    assertNotNull(profile);
+    assertEquals(2, profile.getCalls());
+    assertEquals(3, profile.getResults());
+    assertEquals(1, profile.getCacheHits());
+    assertEquals(1, profile.getNativeEvaluations());
+    assertEquals(1, profiler.getProfiles().size());
+
+    profiler.reset();
+    assertNull(profiler.getProfile("r1", "swrlb:add"));
+  }
+
+  public void testLatencyPercentilesAreBucketUpperBounds() throws Exception
+  {
+    long[] histogram = new long[DroolsBuiltInProfiler.NUMBER_OF_LATENCY_BUCKETS];
+    histogram[6] = 9; // 64-127 ns
+    histogram[10] = 1; // 1024-2047 ns
+    DroolsBuiltInProfile profile = new DroolsBuiltInProfile("r1", "swrlb:add", 10, 0, 0, 0, 10, 2000, 0, 0, histogram);
+
+    assertEquals(127, profile.getLatencyPercentileNanos(50.0));
+    assertEquals(2047, profile.getLatencyPercentileNanos(99.0));
+  }
+}
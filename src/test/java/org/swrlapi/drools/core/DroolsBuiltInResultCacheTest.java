@@ -0,0 +1,96 @@
+package org.swrlapi.drools.core;
+
+import junit.framework.TestCase;
+import org.swrlapi.drools.swrl.BA;
+import org.swrlapi.drools.swrl.BAP;
+import org.swrlapi.drools.swrl.UBA;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @see DroolsBuiltInResultCache
+ */
+public class DroolsBuiltInResultCacheTest extends TestCase
+{
+  private static final List<BAP> RESULT = Collections.singletonList(new BAP());
+
+  public void testLRUEvictsLeastRecentlyUsedEntry() throws Exception
+  {
+    DroolsBuiltInResultCache cache = new DroolsBuiltInResultCache();
+    cache.configure(2, DroolsBuiltInResultCache.UNBOUNDED, DroolsBuiltInResultCache.EvictionPolicy.LRU);
+
+    cache.put(pattern("swrlb:add", "a"), RESULT);
+    cache.put(pattern("swrlb:add", "b"), RESULT);
+    assertNotNull(cache.get(pattern("swrlb:add", "a")));
+    cache.put(pattern("swrlb:add", "c"), RESULT);
+
+    assertNotNull(cache.get(pattern("swrlb:add", "a")));
+    assertNull(cache.get(pattern("swrlb:add", "b")));
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getStatistics().getEvictions());
+    assertEquals(2, cache.getStatistics().getHits());
+    assertEquals(1, cache.getStatistics().getMisses());
+  }
+
+  public void testTinyLFUKeepsFrequentlyRequestedEntries() throws Exception
+  {
+    DroolsBuiltInResultCache cache = new DroolsBuiltInResultCache();
+    cache.configure(10, DroolsBuiltInResultCache.UNBOUNDED, DroolsBuiltInResultCache.EvictionPolicy.TINY_LFU);
+
+    for (int i = 0; i < 10; i++) {
+      cache.get(pattern("swrlb:add", "hot" + i));
+      cache.put(pattern("swrlb:add", "hot" + i), RESULT);
+      for (int j = 0; j < 5; j++)
+        cache.get(pattern("swrlb:add", "hot" + i));
+    }
+    for (int i = 0; i < 100; i++) { // A scan of entries that are requested only once
+      cache.get(pattern("swrlb:add", "cold" + i));
+      cache.put(pattern("swrlb:add", "cold" + i), RESULT);
+    }
+
+    int numberOfHotEntries = 0;
+    for (int i = 0; i < 10; i++)
+      if (cache.get(pattern("swrlb:add", "hot" + i)) != null)
+        numberOfHotEntries++;
+
+    assertTrue(numberOfHotEntries >= 8);
+    assertTrue(cache.size() <= 10);
+  }
+
+  public void testWeightBound() throws Exception
+  {
+    DroolsBuiltInResultCache cache = new DroolsBuiltInResultCache();
+    cache.configure(DroolsBuiltInResultCache.UNBOUNDED, 5, DroolsBuiltInResultCache.EvictionPolicy.LRU);
+    BAP bap = new BAP();
+    bap.addArgument(new UBA("x"));
+    bap.addArgument(new UBA("y"));
+
+    cache.put(pattern("swrlb:add", "a"), Collections.singletonList(bap)); // Weight 3
+    cache.put(pattern("swrlb:add", "b"), Collections.singletonList(bap));
+
+    assertEquals(1, cache.size());
+    assertEquals(3, cache.getStatistics().getWeight());
+  }
+
+  public void testDisableCachingForBuiltIn() throws Exception
+  {
+    DroolsBuiltInResultCache cache = new DroolsBuiltInResultCache();
+
+    cache.put(pattern("swrlb:add", "a"), RESULT);
+    cache.put(pattern("temporal:now", "a"), RESULT);
+    cache.disableCaching("temporal:now");
+    cache.put(pattern("temporal:now", "b"), RESULT);
+
+    assertFalse(cache.isCachingEnabled("temporal:now"));
+    assertNull(cache.get(pattern("temporal:now", "a")));
+    assertNotNull(cache.get(pattern("swrlb:add", "a")));
+    assertEquals(1, cache.size());
+  }
+
+  private static DroolsBuiltInInvocationPattern pattern(String builtInName, String variableName)
+  {
+    return new DroolsBuiltInInvocationPattern("r1", builtInName, 0, false, new BA[0],
+      new BA[] { new UBA(variableName) });
+  }
+}
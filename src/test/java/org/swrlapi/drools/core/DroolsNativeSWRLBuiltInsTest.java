@@ -0,0 +1,75 @@
+package org.swrlapi.drools.core;
+
+import junit.framework.TestCase;
+import org.swrlapi.drools.owl.literals.L;
+import org.swrlapi.drools.swrl.BA;
+import org.swrlapi.drools.swrl.BAP;
+import org.swrlapi.drools.swrl.UBA;
+
+import java.util.List;
+
+/**
+ * @see DroolsNativeSWRLBuiltIns
+ */
+public class DroolsNativeSWRLBuiltInsTest extends TestCase
+{
+  public void testAddYieldsWidestOperandType() throws Exception
+  {
+    List<BAP> baps = DroolsNativeSWRLBuiltIns.invoke(DroolsNativeSWRLBuiltIns.ADD,
+      new BA[] { new UBA("x"), new L("2", "xsd:int"), new L("1.5", "xsd:double") });
+
+    assertNotNull(baps);
+    assertEquals(1, baps.size());
+    assertEquals(new L("3.5", "xsd:double"), baps.get(0).getA1());
+    assertEquals(3, baps.get(0).getNumberOfArguments());
+  }
+
+  public void testSubstring() throws Exception
+  {
+    List<BAP> baps = DroolsNativeSWRLBuiltIns.invoke(DroolsNativeSWRLBuiltIns.SUBSTRING,
+      new BA[] { new UBA("s"), new L("swrl", "xsd:string"), new L("1", "xsd:integer"), new L("3", "xsd:integer") });
+
+    assertNotNull(baps);
+    assertEquals(new L("wr", "xsd:string"), baps.get(0).getA1());
+  }
+
+  public void testUnsupportedArgumentsFallBack() throws Exception
+  {
+    assertNull(DroolsNativeSWRLBuiltIns.invoke(DroolsNativeSWRLBuiltIns.ADD,
+      new BA[] { new L("3", "xsd:int"), new L("1", "xsd:int"), new L("2", "xsd:int") }));
+    assertNull(DroolsNativeSWRLBuiltIns.invoke(DroolsNativeSWRLBuiltIns.DIVIDE,
+      new BA[] { new UBA("x"), new L("1", "xsd:int"), new L("0", "xsd:int") }));
+    assertNull(DroolsNativeSWRLBuiltIns.compare(DroolsNativeSWRLBuiltIns.LESS_THAN, new L("1", "xsd:int"),
+      new L("a", "xsd:string")));
+  }
+
+  public void testCompareMismatchedTypes() throws Exception
+  {
+    assertEquals(Boolean.FALSE, DroolsNativeSWRLBuiltIns.compare(DroolsNativeSWRLBuiltIns.EQUAL,
+      new L("40", "xsd:int"), new L("40", "xsd:string")));
+    assertEquals(Boolean.TRUE, DroolsNativeSWRLBuiltIns.compare(DroolsNativeSWRLBuiltIns.NOT_EQUAL,
+      new L("40", "xsd:int"), new L("40", "xsd:string")));
+  }
+
+  public void testCompareMixedNumericTypes() throws Exception
+  {
+    assertEquals(Boolean.TRUE, DroolsNativeSWRLBuiltIns.compare(DroolsNativeSWRLBuiltIns.LESS_THAN,
+      new L("2", "xsd:int"), new L("2.5", "xsd:double")));
+    assertEquals(Boolean.FALSE, DroolsNativeSWRLBuiltIns.compare(DroolsNativeSWRLBuiltIns.NOT_EQUAL,
+      new L("7", "xsd:long"), new L("7", "xsd:long")));
+  }
+
+  public void testCompareIntegersAndDecimals() throws Exception
+  {
+    assertEquals(Boolean.TRUE, DroolsNativeSWRLBuiltIns.compare(DroolsNativeSWRLBuiltIns.GREATER_THAN,
+      new L("5", "xsd:integer"), new L("1", "xsd:integer")));
+    assertEquals(Boolean.TRUE, DroolsNativeSWRLBuiltIns.compare(DroolsNativeSWRLBuiltIns.LESS_THAN,
+      new L("9223372036854775807", "xsd:integer"), new L("9223372036854775808", "xsd:integer")));
+    assertEquals(Boolean.TRUE, DroolsNativeSWRLBuiltIns.compare(DroolsNativeSWRLBuiltIns.EQUAL,
+      new L("2.50", "xsd:decimal"), new L("2.5", "xsd:decimal")));
+    assertEquals(Boolean.FALSE, DroolsNativeSWRLBuiltIns.compare(DroolsNativeSWRLBuiltIns.GREATER_THAN_OR_EQUAL,
+      new L("3", "xsd:integer"), new L("3.5", "xsd:decimal")));
+    assertEquals(Boolean.TRUE, DroolsNativeSWRLBuiltIns.compare(DroolsNativeSWRLBuiltIns.LESS_THAN_OR_EQUAL,
+      new L("2", "xsd:int"), new L("2", "xsd:integer")));
+  }
+}
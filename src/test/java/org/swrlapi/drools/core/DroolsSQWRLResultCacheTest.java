@@ -0,0 +1,74 @@
+package org.swrlapi.drools.core;
+
+import junit.framework.TestCase;
+import org.swrlapi.drools.swrl.BA;
+import org.swrlapi.owl2rl.OWL2RLNames;
+import org.swrlapi.sqwrl.SQWRLNames;
+
+import java.util.Collections;
+import java.util.EnumSet;
+
+/**
+ * @see DroolsSQWRLResultCache
+ */
+public class DroolsSQWRLResultCacheTest extends TestCase
+{
+  public void testRecordedRunsAreCachedUntilTheOntologyVersionChanges() throws Exception
+  {
+    DroolsSQWRLResultCache cache = new DroolsSQWRLResultCache();
+    DroolsBuiltInInvocationSite site = new DroolsBuiltInInvocationSite(0, "q1", SQWRLNames.Select, 1, true, 0,
+      new String[0], new BA[0]);
+
+    cache.setOntologyVersion(1);
+    assertNull(cache.get(key(cache, 1)));
+
+    cache.recordInvocation(site, Collections.emptyList()); // Not recording
+    cache.startRecording();
+    cache.recordInvocation(site, Collections.emptyList());
+    cache.recordInvocation(site, Collections.emptyList());
+    cache.put(key(cache, 1), Collections.emptyList());
+
+    DroolsSQWRLResultCache.Result result = cache.get(key(cache, 1));
+    assertNotNull(result);
+    assertEquals(2, result.getInvocations().size());
+    assertSame(site, result.getInvocations().get(0).getSite());
+    assertNull(cache.get(createKey(cache, EnumSet.of(OWL2RLNames.OWL2RLRule.CAX_SCO), 1)));
+
+    cache.setOntologyVersion(2);
+    assertEquals(0, cache.size());
+    assertNull(cache.get(key(cache, 1)));
+    assertEquals(1, cache.getStatistics().getHits());
+    assertEquals(3, cache.getStatistics().getMisses());
+  }
+
+  public void testLeastRecentlyUsedRunIsEvicted() throws Exception
+  {
+    DroolsSQWRLResultCache cache = new DroolsSQWRLResultCache();
+    cache.setMaximumEntries(1);
+
+    cache.startRecording();
+    cache.put(key(cache, 0), Collections.emptyList());
+    cache.startRecording();
+    cache.put(createKey(cache, EnumSet.of(OWL2RLNames.OWL2RLRule.CAX_SCO), 0), Collections.emptyList());
+
+    assertNull(cache.get(key(cache, 0)));
+    assertEquals(1, cache.size());
+    assertEquals(1, cache.getStatistics().getEvictions());
+
+    cache.setMaximumEntries(0);
+    cache.startRecording();
+    cache.put(key(cache, 0), Collections.emptyList());
+    assertEquals(0, cache.size());
+  }
+
+  private static DroolsSQWRLResultCache.Key key(DroolsSQWRLResultCache cache, long ontologyVersion)
+  {
+    return createKey(cache, EnumSet.noneOf(OWL2RLNames.OWL2RLRule.class), ontologyVersion);
+  }
+
+  private static DroolsSQWRLResultCache.Key createKey(DroolsSQWRLResultCache cache,
+    EnumSet<OWL2RLNames.OWL2RLRule> enabledRules, long ontologyVersion)
+  {
+    return cache.createKey(Collections.emptyList(), enabledRules, ontologyVersion);
+  }
+}
@@ -0,0 +1,56 @@
+package org.swrlapi.drools.core;
+
+import junit.framework.TestCase;
+import org.swrlapi.drools.owl.literals.L;
+import org.swrlapi.drools.sqwrl.DroolsSQWRLRowLimit;
+import org.swrlapi.drools.swrl.BA;
+import org.swrlapi.factory.SQWRLResultValueFactory;
+import org.swrlapi.factory.SWRLAPIFactory;
+import org.swrlapi.factory.SWRLAPIInternalFactory;
+import org.swrlapi.sqwrl.values.SQWRLResultValue;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @see DroolsSQWRLRowLimiter
+ */
+public class DroolsSQWRLRowLimiterTest extends TestCase
+{
+  public void testUnorderedRowsAreDroppedOnceLimitIsReached() throws Exception
+  {
+    DroolsSQWRLRowLimiter limiter = new DroolsSQWRLRowLimiter();
+    limiter.defineRowLimit("q1", new DroolsSQWRLRowLimit("q1", 2, Collections.emptyList(), true, false));
+
+    assertTrue(limiter.selectRow("q1", new BA[] { new L("1", "xsd:int") }, () -> null));
+    assertTrue(limiter.selectRow("q1", new BA[] { new L("1", "xsd:int") }, () -> null));
+    assertTrue(limiter.selectRow("q1", new BA[] { new L("2", "xsd:int") }, () -> null));
+    assertFalse(limiter.selectRow("q1", new BA[] { new L("3", "xsd:int") }, () -> null));
+    assertTrue(limiter.selectRow("q2", new BA[] { new L("3", "xsd:int") }, () -> null));
+
+    limiter.clearRows();
+    assertTrue(limiter.selectRow("q1", new BA[] { new L("3", "xsd:int") }, () -> null));
+  }
+
+  public void testOrderedRowsAfterTheBestRowsAreDropped() throws Exception
+  {
+    SQWRLResultValueFactory factory = SWRLAPIInternalFactory
+      .createSQWRLResultValueFactory(SWRLAPIFactory.createIRIResolver("http://example.org#"));
+    DroolsSQWRLRowLimiter limiter = new DroolsSQWRLRowLimiter();
+    limiter.defineRowLimit("q1", new DroolsSQWRLRowLimit("q1", 2, Collections.singletonList(0), true, false));
+
+    assertTrue(selectRow(limiter, factory, 5));
+    assertTrue(selectRow(limiter, factory, 3));
+    assertFalse(selectRow(limiter, factory, 7));
+    assertTrue(selectRow(limiter, factory, 4));
+    assertFalse(selectRow(limiter, factory, 5));
+    assertTrue(selectRow(limiter, factory, 4));
+  }
+
+  private static boolean selectRow(DroolsSQWRLRowLimiter limiter, SQWRLResultValueFactory factory, int value)
+  {
+    List<SQWRLResultValue> values = Collections.singletonList(factory.getLiteralValue(value));
+
+    return limiter.selectRow("q1", new BA[] { new L(String.valueOf(value), "xsd:int") }, () -> values);
+  }
+}
@@ -0,0 +1,414 @@
+package org.swrlapi.drools.core;
+
+import junit.framework.TestCase;
+import org.kie.api.runtime.KieSession;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.vocab.OWL2Datatype;
+import org.swrlapi.bridge.SWRLRuleEngineBridge;
+import org.swrlapi.bridge.TargetSWRLRuleEngine;
+import org.swrlapi.bridge.TargetSWRLRuleEngineCreator;
+import org.swrlapi.builtins.arguments.SWRLLiteralBuiltInArgument;
+import org.swrlapi.drools.sqwrl.DroolsSQWRLRow;
+import org.swrlapi.drools.sqwrl.SQWRLP;
+import org.swrlapi.exceptions.TargetSWRLRuleEngineException;
+import org.swrlapi.factory.SWRLAPIFactory;
+import org.swrlapi.factory.SWRLAPIInternalFactory;
+import org.swrlapi.factory.SWRLBuiltInArgumentFactory;
+import org.swrlapi.factory.SWRLRuleAndQueryEngineFactory;
+import org.swrlapi.sqwrl.SQWRLQueryEngine;
+import org.swrlapi.sqwrl.SQWRLResult;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @see DroolsSWRLRuleEngine
+ */
+public class DroolsSWRLRuleEngineTest extends TestCase
+{
+  private static final String NAMESPACE = "http://example.org/test#";
+  private static final String RULE_ENGINE_NAME = "DroolsSWRLRuleEngineTest";
+
+  private final List<String> bodyBuiltInInvocations = new ArrayList<>();
+  private final List<String> headBuiltInInvocations = new ArrayList<>();
+  private final List<String> headBuiltInInvocationTimes = new ArrayList<>();
+  private DroolsSWRLRuleEngine droolsSWRLRuleEngine;
+
+  public void testNativeBuiltInsFollowingBodyAtomsDoNotCallBridge() throws Exception
+  {
+    // The built-ins of a SQWRL query are passed the bindings of the variables of the atoms preceding them
+    SQWRLQueryEngine queryEngine = createSQWRLQueryEngine(createOntology(40, 41, 42));
+    SQWRLResult result = queryEngine.runSQWRLQuery("q1",
+      "Person(?p) ^ hasAge(?p, ?a) ^ swrlb:add(?b, ?a, 1) -> sqwrl:select(?p, ?b) ^ sqwrl:orderBy(?b)");
+
+    assertTrue(this.bodyBuiltInInvocations.isEmpty());
+    assertEquals(3, result.getNumberOfRows());
+    assertTrue(result.next());
+    assertEquals("41", result.getLiteral("b").getValue());
+    assertTrue(result.next());
+    assertEquals("42", result.getLiteral("b").getValue());
+    assertTrue(result.next());
+    assertEquals("43", result.getLiteral("b").getValue());
+  }
+
+  public void testBoundComparisonsDoNotCallBridge() throws Exception
+  {
+    OWLOntology ontology = createOntology(40, 41, 42);
+    OWLDataFactory factory = ontology.getOWLOntologyManager().getOWLDataFactory();
+    OWLClass adult = factory.getOWLClass(IRI.create(NAMESPACE + "Adult"));
+    OWLClass aged = factory.getOWLClass(IRI.create(NAMESPACE + "Aged"));
+    ontology.getOWLOntologyManager().addAxiom(ontology, factory.getOWLDeclarationAxiom(adult));
+    ontology.getOWLOntologyManager().addAxiom(ontology, factory.getOWLDeclarationAxiom(aged));
+
+    SQWRLQueryEngine queryEngine = createSQWRLQueryEngine(ontology);
+
+    queryEngine.createSWRLRule("r1", "Person(?p) ^ hasAge(?p, ?a) ^ swrlb:greaterThan(?a, 40) -> Adult(?p)");
+    queryEngine.createSWRLRule("r2", "Person(?p) ^ hasAge(?p, ?a) ^ swrlb:notEqual(?a, \"40\") -> Aged(?p)");
+    queryEngine.infer();
+
+    assertTrue(this.bodyBuiltInInvocations.isEmpty());
+    assertFalse(ontology.containsAxiom(factory.getOWLClassAssertionAxiom(adult, individual(factory, 0))));
+    assertTrue(ontology.containsAxiom(factory.getOWLClassAssertionAxiom(adult, individual(factory, 1))));
+    assertTrue(ontology.containsAxiom(factory.getOWLClassAssertionAxiom(adult, individual(factory, 2))));
+    for (int i = 0; i < 3; i++) // An integer is never equal to a string
+      assertTrue(ontology.containsAxiom(factory.getOWLClassAssertionAxiom(aged, individual(factory, i))));
+  }
+
+  public void testPureBuiltInsFollowingBodyAtomsAreMemoized() throws Exception
+  {
+    SQWRLQueryEngine queryEngine = createSQWRLQueryEngine(createOntology(40, 40, 40));
+    SQWRLResult result = queryEngine
+      .runSQWRLQuery("q1", "Person(?p) ^ hasAge(?p, ?a) ^ swrlb:pow(?s, ?a, 2) -> sqwrl:select(?p, ?s)");
+
+    assertEquals(Collections.singletonList("swrlb:pow"), this.bodyBuiltInInvocations);
+    assertEquals(3, result.getNumberOfRows());
+  }
+
+  public void testPreparedSQWRLQueryIsExecutedWithDifferentParameters() throws Exception
+  {
+    OWLOntology ontology = createOntology(40, 41, 42);
+    OWLDataFactory factory = ontology.getOWLOntologyManager().getOWLDataFactory();
+    SWRLBuiltInArgumentFactory argumentFactory = SWRLAPIInternalFactory
+      .createSWRLBuiltInArgumentFactory(SWRLAPIFactory.createIRIResolver(NAMESPACE));
+    SQWRLQueryEngine queryEngine = createSQWRLQueryEngine(ontology);
+    this.droolsSWRLRuleEngine.prepareSQWRLQuery("q1", Collections.singletonList("?p"));
+
+    SQWRLResult result = queryEngine.runSQWRLQuery("q1", "Person(?p) ^ hasAge(?p, ?a) -> sqwrl:select(?a)");
+    KieSession knowledgeSession = this.droolsSWRLRuleEngine.getKnowledgeSession();
+
+    assertEquals(0, result.getNumberOfRows());
+    assertEquals(Collections.singletonList("40"), selectedValues(this.droolsSWRLRuleEngine
+      .executePreparedSQWRLQuery("q1",
+        Collections.singletonList(argumentFactory.getNamedIndividualBuiltInArgument(individual(factory, 0)))), 0));
+    assertEquals(Collections.singletonList("42"), selectedValues(this.droolsSWRLRuleEngine
+      .executePreparedSQWRLQuery("q1",
+        Collections.singletonList(argumentFactory.getNamedIndividualBuiltInArgument(individual(factory, 2)))), 0));
+    // Both executions fire the rule compiled for the run in its knowledge session and retract their parameters
+    assertSame(knowledgeSession, this.droolsSWRLRuleEngine.getKnowledgeSession());
+    assertTrue(knowledgeSession.getObjects(object -> object instanceof SQWRLP).isEmpty());
+  }
+
+  public void testPreparedSQWRLQueryWithNonBuiltInHeadAtomIsRejected() throws Exception
+  {
+    SQWRLQueryEngine queryEngine = createSQWRLQueryEngine(createOntology(40));
+    this.droolsSWRLRuleEngine.prepareSQWRLQuery("q1", Collections.singletonList("p"));
+
+    try {
+      queryEngine.createSQWRLQuery("q1", "Person(?p) ^ hasAge(?p, ?a) -> sqwrl:select(?a) ^ Person(?p)");
+      queryEngine.runSQWRLQuery("q1");
+      fail("expecting the head of the prepared query to be rejected");
+    } catch (Exception e) {
+      Throwable cause = e;
+      while (cause.getCause() != null && !(cause instanceof TargetSWRLRuleEngineException))
+        cause = cause.getCause();
+      assertTrue(cause.getMessage(), cause.getMessage().contains("may only have SQWRL built-ins in its head"));
+    }
+  }
+
+  public void testBatchedBuiltInsInferSameAxiomsAsUnbatchedBuiltIns() throws Exception
+  {
+    OWLDataFactory factory = OWLManager.getOWLDataFactory();
+    Set<OWLAxiom> unbatchedAxioms = inferAgeAxioms(false);
+
+    assertTrue(this.bodyBuiltInInvocations.isEmpty());
+
+    Set<OWLAxiom> batchedAxioms = inferAgeAxioms(true);
+
+    // The results of the batched add are matched by a rule whose batched multiply is only requested on re-firing
+    assertTrue(this.bodyBuiltInInvocations.containsAll(Arrays.asList("swrlb:add", "swrlb:multiply")));
+    assertEquals(unbatchedAxioms, batchedAxioms);
+    for (int i = 0; i < 3; i++)
+      assertTrue(batchedAxioms.contains(factory.getOWLDataPropertyAssertionAxiom(
+        factory.getOWLDataProperty(IRI.create(NAMESPACE + "hasDoubleNextAge")), individual(factory, i),
+        factory.getOWLLiteral(Integer.toString(2 * (41 + i)), OWL2Datatype.XSD_INTEGER))));
+  }
+
+  /**
+   * Infer the next and double next ages of persons.
+   *
+   * @return The axioms of the ontology after inference
+   */
+  private Set<OWLAxiom> inferAgeAxioms(boolean isBatched) throws Exception
+  {
+    OWLOntology ontology = createOntology(40, 41, 42);
+    OWLDataFactory factory = ontology.getOWLOntologyManager().getOWLDataFactory();
+    for (String propertyName : Arrays.asList("hasNextAge", "hasDoubleNextAge"))
+      ontology.getOWLOntologyManager().addAxiom(ontology,
+        factory.getOWLDeclarationAxiom(factory.getOWLDataProperty(IRI.create(NAMESPACE + propertyName))));
+
+    SQWRLQueryEngine queryEngine = createSQWRLQueryEngine(ontology);
+    this.bodyBuiltInInvocations.clear();
+    if (isBatched) {
+      this.droolsSWRLRuleEngine.getBuiltInInvoker().getBatcher().declareBatchable("swrlb:add");
+      this.droolsSWRLRuleEngine.getBuiltInInvoker().getBatcher().declareBatchable("swrlb:multiply");
+    }
+
+    queryEngine.createSWRLRule("r1", "Person(?p) ^ hasAge(?p, ?a) ^ swrlb:add(?n, ?a, 1) -> hasNextAge(?p, ?n)");
+    queryEngine
+      .createSWRLRule("r2", "hasNextAge(?p, ?n) ^ swrlb:multiply(?d, ?n, 2) -> hasDoubleNextAge(?p, ?d)");
+    queryEngine.infer();
+
+    return new HashSet<>(ontology.getAxioms());
+  }
+
+  public void testRunawayRuleIsHaltedByExecutionLimits() throws Exception
+  {
+    SQWRLQueryEngine queryEngine = createSQWRLQueryEngine(createOntology(1, 2));
+    this.droolsSWRLRuleEngine.setExecutionLimits(new DroolsExecutionLimits(100, DroolsExecutionLimits.UNLIMITED,
+      DroolsExecutionLimits.UNLIMITED));
+
+    // Each inferred age joins with every other age of the person to infer further ages
+    queryEngine.createSWRLRule("r1", "hasAge(?p, ?a) ^ hasAge(?p, ?b) ^ swrlb:add(?c, ?a, ?b) -> hasAge(?p, ?c)");
+    try {
+      queryEngine.infer();
+      fail("expecting the rule engine to be halted");
+    } catch (Exception e) {
+      Throwable cause = e;
+      while (cause.getCause() != null && !(cause instanceof TargetSWRLRuleEngineException))
+        cause = cause.getCause();
+      assertTrue(cause instanceof TargetSWRLRuleEngineException);
+      assertTrue(cause.getMessage(), cause.getMessage().contains("limit of 100 inferred axioms exceeded"));
+      assertTrue(cause.getMessage(), cause.getMessage().contains("top rules by inferred axioms:\n  r1: "));
+    }
+  }
+
+  public void testHeadBuiltInsAreFlushedAtEndOfCycle() throws Exception
+  {
+    List<String> immediateInvocations = selectWithConsequentBatchSize(0);
+
+    assertEquals(Collections.nCopies(5, "IMMEDIATE"), this.headBuiltInInvocationTimes);
+    // The queued invocations reach the bridge in the order in which the rule consequences made them
+    assertEquals(immediateInvocations,
+      selectWithConsequentBatchSize(DroolsSWRLBuiltInInvoker.DEFAULT_CONSEQUENT_BATCH_SIZE));
+    assertEquals(Collections.nCopies(5, "CYCLE"), this.headBuiltInInvocationTimes);
+  }
+
+  public void testHeadBuiltInsAreFlushedWhenBatchIsFull() throws Exception
+  {
+    List<String> immediateInvocations = selectWithConsequentBatchSize(0);
+
+    assertEquals(immediateInvocations, selectWithConsequentBatchSize(2));
+    assertEquals(Arrays.asList("FULL", "FULL", "FULL", "FULL", "CYCLE"), this.headBuiltInInvocationTimes);
+  }
+
+  /**
+   * @return The head built-in invocations of a query selecting five persons, in the order in which they reached the
+   * bridge
+   */
+  private List<String> selectWithConsequentBatchSize(int consequentBatchSize) throws Exception
+  {
+    SQWRLQueryEngine queryEngine = createSQWRLQueryEngine(createOntology(40, 41, 42, 43, 44));
+    this.droolsSWRLRuleEngine.getBuiltInInvoker().setConsequentBatchSize(consequentBatchSize);
+    this.headBuiltInInvocations.clear();
+    this.headBuiltInInvocationTimes.clear();
+
+    SQWRLResult result = queryEngine.runSQWRLQuery("q1", "Person(?p) ^ hasAge(?p, ?a) -> sqwrl:select(?p, ?a)");
+
+    assertEquals(5, result.getNumberOfRows());
+
+    return new ArrayList<>(this.headBuiltInInvocations);
+  }
+
+  public void testSQWRLRowsAreSelectedByDroolsQuery() throws Exception
+  {
+    SQWRLQueryEngine queryEngine = createSQWRLQueryEngine(createOntology(40, 41, 42));
+    SQWRLResult result = queryEngine
+      .runSQWRLQuery("q1", "Person(?p) ^ hasAge(?p, ?a) ^ swrlb:greaterThan(?a, 40) -> sqwrl:select(?p, ?a)");
+    List<String> ruleAges = new ArrayList<>();
+
+    while (result.next())
+      ruleAges.add(result.getLiteral("a").getValue());
+    Collections.sort(ruleAges);
+
+    assertTrue(this.droolsSWRLRuleEngine.canSelectSQWRLRows("q1"));
+    assertEquals(Arrays.asList("41", "42"), ruleAges);
+    assertEquals(ruleAges, selectedValues(this.droolsSWRLRuleEngine.selectSQWRLRows("q1"), 1));
+    // The Drools query is evaluated again without resetting the rule engine
+    assertEquals(ruleAges, selectedValues(this.droolsSWRLRuleEngine.selectSQWRLRows("q1"), 1));
+  }
+
+  public void testSQWRLRowsOfImpureQueryCannotBeSelected() throws Exception
+  {
+    SQWRLQueryEngine queryEngine = createSQWRLQueryEngine(createOntology(40));
+    this.droolsSWRLRuleEngine.getPureBuiltInMemo().declareImpure("swrlb:add");
+    queryEngine.runSQWRLQuery("q1", "Person(?p) ^ hasAge(?p, ?a) ^ swrlb:add(?b, ?a, 1) -> sqwrl:select(?p, ?b)");
+
+    assertSQWRLRowsCannotBeSelected("q1", "cannot be answered by a Drools query");
+  }
+
+  public void testSQWRLRowsOfBatchedQueryCannotBeSelected() throws Exception
+  {
+    SQWRLQueryEngine queryEngine = createSQWRLQueryEngine(createOntology(40));
+    this.droolsSWRLRuleEngine.getBuiltInInvoker().getBatcher().declareBatchable("swrlb:add");
+    queryEngine.runSQWRLQuery("q1", "Person(?p) ^ hasAge(?p, ?a) ^ swrlb:add(?b, ?a, 1) -> sqwrl:select(?p, ?b)");
+
+    assertSQWRLRowsCannotBeSelected("q1", "cannot be answered by a Drools query");
+  }
+
+  public void testSQWRLRowsOfPreparedQueryCannotBeSelected() throws Exception
+  {
+    SQWRLQueryEngine queryEngine = createSQWRLQueryEngine(createOntology(40));
+    this.droolsSWRLRuleEngine.prepareSQWRLQuery("q1", Collections.singletonList("p"));
+    queryEngine.runSQWRLQuery("q1", "Person(?p) ^ hasAge(?p, ?a) -> sqwrl:select(?p, ?a)");
+
+    assertSQWRLRowsCannotBeSelected("q1", "cannot be answered by a Drools query");
+  }
+
+  public void testSQWRLRowsCannotBeSelectedFromUnsaturatedSession() throws Exception
+  {
+    SQWRLQueryEngine queryEngine = createSQWRLQueryEngine(createOntology(40, 41, 42));
+    queryEngine.createSQWRLQuery("q1", "Person(?p) ^ hasAge(?p, ?a) -> sqwrl:select(?p, ?a)");
+    // The run is halted once the only active query has its row
+    queryEngine.runSQWRLQuery("q2", "Person(?p) -> sqwrl:select(?p) ^ sqwrl:limit(1)");
+
+    assertTrue(this.droolsSWRLRuleEngine.canSelectSQWRLRows("q1"));
+    assertSQWRLRowsCannotBeSelected("q1", "only be selected after a completed run");
+  }
+
+  private void assertSQWRLRowsCannotBeSelected(String queryName, String expectedMessage)
+  {
+    try {
+      this.droolsSWRLRuleEngine.selectSQWRLRows(queryName);
+      fail("expecting the rows of " + queryName + " not to be selectable");
+    } catch (TargetSWRLRuleEngineException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains(expectedMessage));
+    }
+  }
+
+  /**
+   * @return The sorted lexical forms of the literals in a column of the rows
+   */
+  private List<String> selectedValues(List<DroolsSQWRLRow> rows, int columnIndex)
+  {
+    List<String> values = new ArrayList<>();
+
+    for (DroolsSQWRLRow row : rows)
+      values.add(((SWRLLiteralBuiltInArgument)row.getValues().get(columnIndex)).getLiteral().getLiteral());
+    Collections.sort(values);
+
+    return values;
+  }
+
+  /**
+   * @return When the current head built-in invocation reaches the bridge: IMMEDIATE when its rule consequence invokes
+   * it, FULL when the consequence fills the queue of head built-in invocations, and CYCLE when the queue is flushed at
+   * the end of a firing cycle
+   */
+  private String headBuiltInInvocationTime()
+  {
+    boolean isInConsequence = false, isFlushed = false;
+
+    for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
+      if (element.getClassName().equals(DroolsSWRLBuiltInInvoker.class.getName())) {
+        isInConsequence |= element.getMethodName().equals("invoke");
+        isFlushed |= element.getMethodName().equals("flushConsequentInvocations");
+      }
+    }
+    return isInConsequence ? isFlushed ? "FULL" : "IMMEDIATE" : "CYCLE";
+  }
+
+  /**
+   * Create an ontology with a person of each of the supplied ages.
+   */
+  private OWLOntology createOntology(int... ages) throws Exception
+  {
+    OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+    OWLOntology ontology = manager.createOntology(IRI.create("http://example.org/test"));
+    OWLDataFactory factory = manager.getOWLDataFactory();
+    OWLClass person = factory.getOWLClass(IRI.create(NAMESPACE + "Person"));
+    OWLDataProperty hasAge = factory.getOWLDataProperty(IRI.create(NAMESPACE + "hasAge"));
+
+    manager.addAxiom(ontology, factory.getOWLDeclarationAxiom(person));
+    manager.addAxiom(ontology, factory.getOWLDeclarationAxiom(hasAge));
+    for (int i = 0; i < ages.length; i++) {
+      OWLNamedIndividual p = individual(factory, i);
+      manager.addAxiom(ontology, factory.getOWLDeclarationAxiom(p));
+      manager.addAxiom(ontology, factory.getOWLClassAssertionAxiom(person, p));
+      manager.addAxiom(ontology, factory.getOWLDataPropertyAssertionAxiom(hasAge, p, ages[i]));
+    }
+    return ontology;
+  }
+
+  private OWLNamedIndividual individual(OWLDataFactory factory, int index)
+  {
+    return factory.getOWLNamedIndividual(IRI.create(NAMESPACE + "p" + index));
+  }
+
+  /**
+   * Create a query engine whose bridge records the built-ins invoked in rule bodies.
+   */
+  private SQWRLQueryEngine createSQWRLQueryEngine(OWLOntology ontology) throws Exception
+  {
+    SWRLRuleAndQueryEngineFactory engineFactory = SWRLAPIInternalFactory.getSWRLRuleAndQueryEngineFactory();
+
+    engineFactory.registerRuleEngine(new TargetSWRLRuleEngineCreator()
+    {
+      @Override public TargetSWRLRuleEngine create(SWRLRuleEngineBridge bridge) throws TargetSWRLRuleEngineException
+      {
+        DroolsSWRLRuleEngineTest.this.droolsSWRLRuleEngine = new DroolsSWRLRuleEngine(recordingBridge(bridge));
+        return DroolsSWRLRuleEngineTest.this.droolsSWRLRuleEngine;
+      }
+
+      @Override public String getRuleEngineName()
+      {
+        return RULE_ENGINE_NAME;
+      }
+    });
+
+    return engineFactory
+      .createSQWRLQueryEngine(RULE_ENGINE_NAME, ontology, SWRLAPIFactory.createIRIResolver(NAMESPACE));
+  }
+
+  private SWRLRuleEngineBridge recordingBridge(SWRLRuleEngineBridge bridge)
+  {
+    return (SWRLRuleEngineBridge)Proxy
+      .newProxyInstance(SWRLRuleEngineBridge.class.getClassLoader(), new Class<?>[] { SWRLRuleEngineBridge.class },
+        (proxy, method, arguments) -> {
+          if (method.getName().equals("invokeSWRLBuiltIn") && !(Boolean)arguments[3])
+            this.bodyBuiltInInvocations.add((String)arguments[1]);
+          else if (method.getName().equals("invokeSWRLBuiltIn")) {
+            this.headBuiltInInvocations.add(arguments[1] + "" + arguments[4]);
+            this.headBuiltInInvocationTimes.add(headBuiltInInvocationTime());
+          }
+          try {
+            return method.invoke(bridge, arguments);
+          } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+          }
+        });
+  }
+}
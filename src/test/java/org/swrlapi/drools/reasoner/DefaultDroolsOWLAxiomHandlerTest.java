@@ -0,0 +1,301 @@
+package org.swrlapi.drools.reasoner;
+
+import junit.framework.TestCase;
+import org.swrlapi.drools.owl.axioms.A;
+import org.swrlapi.drools.owl.axioms.CAA;
+import org.swrlapi.drools.owl.axioms.CDA;
+import org.swrlapi.drools.owl.axioms.DCA;
+import org.swrlapi.drools.owl.axioms.DIA;
+import org.swrlapi.drools.owl.axioms.DJOPA;
+import org.swrlapi.drools.owl.axioms.DPAA;
+import org.swrlapi.drools.owl.axioms.ECA;
+import org.swrlapi.drools.owl.axioms.EOPA;
+import org.swrlapi.drools.owl.axioms.IDA;
+import org.swrlapi.drools.owl.axioms.IOPA;
+import org.swrlapi.drools.owl.axioms.OPAA;
+import org.swrlapi.drools.owl.axioms.OPDA;
+import org.swrlapi.drools.owl.axioms.OPRA;
+import org.swrlapi.drools.owl.axioms.SCA;
+import org.swrlapi.drools.owl.axioms.SIA;
+import org.swrlapi.drools.owl.individuals.I;
+import org.swrlapi.drools.owl.literals.L;
+import org.swrlapi.exceptions.TargetSWRLRuleEngineInternalException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * @see DefaultDroolsOWLAxiomHandler
+ */
+public class DefaultDroolsOWLAxiomHandlerTest extends TestCase
+{
+  private static final String UNKNOWN_NAME = "ex:unknown";
+
+  public void testQueriesOnUnknownNamesFindNothing() throws Exception
+  {
+    DefaultDroolsOWLAxiomHandler handler = new DefaultDroolsOWLAxiomHandler();
+    handler.addAssertOWLAxioms(new HashSet<>(Arrays
+      .asList(new CDA("ex:C"), new CAA("ex:C", new I("ex:i")), new OPAA(new I("ex:i"), "ex:p", new I("ex:j")),
+        new DPAA("ex:i", "ex:q", new L("1", "xsd:int")), new SCA("ex:C", "ex:D"))));
+
+    assertFalse(handler.isDeclaredClass(UNKNOWN_NAME));
+    assertFalse(handler.isDeclaredIndividual(UNKNOWN_NAME));
+    assertFalse(handler.isDeclaredObjectProperty(UNKNOWN_NAME));
+    assertFalse(handler.isDeclaredDataProperty(UNKNOWN_NAME));
+    assertTrue(handler.getClassAssertions(UNKNOWN_NAME).isEmpty());
+    assertTrue(handler.getSameIndividual(UNKNOWN_NAME).isEmpty());
+    assertTrue(handler.getSubClasses(UNKNOWN_NAME, false).isEmpty());
+    assertTrue(handler.getObjectPropertyAssertions(UNKNOWN_NAME).isEmpty());
+    assertTrue(handler.getObjectPropertyValuesForIndividual(UNKNOWN_NAME, "ex:p").isEmpty());
+    assertTrue(handler.getObjectPropertyValuesForIndividual("ex:i", UNKNOWN_NAME).isEmpty());
+    assertTrue(handler.getDataPropertyAssertions(UNKNOWN_NAME).isEmpty());
+    assertTrue(handler.getDataPropertyValuesForIndividual(UNKNOWN_NAME, UNKNOWN_NAME).isEmpty());
+    // The subclass relation of unrecorded class expressions is undefined
+    try {
+      handler.strictSubClassOf("ex:D", UNKNOWN_NAME);
+      fail("expecting an unknown class expression to be rejected");
+    } catch (RuntimeException e) {
+      assertTrue(e.getMessage().contains(UNKNOWN_NAME));
+    }
+  }
+
+  public void testQueriesOnKnownNames() throws Exception
+  {
+    DefaultDroolsOWLAxiomHandler handler = new DefaultDroolsOWLAxiomHandler();
+    handler.addAssertOWLAxioms(new HashSet<>(Arrays
+      .asList(new CDA("ex:C"), new CAA("ex:C", new I("ex:i")), new OPAA(new I("ex:i"), "ex:p", new I("ex:j")),
+        new DPAA("ex:i", "ex:q", new L("1", "xsd:int")), new SCA("ex:C", "ex:C"), new SCA("ex:C", "ex:D"),
+        new SCA("ex:D", "ex:D"))));
+
+    assertTrue(handler.isDeclaredClass("ex:C"));
+    assertEquals(Collections.singleton("ex:i"), handler.getClassAssertions("ex:C"));
+    assertEquals(Collections.singleton("ex:C"), handler.getSubClasses("ex:D", false));
+    assertEquals(Collections.singletonMap("ex:p", Collections.singleton("ex:j")),
+      handler.getObjectPropertyAssertions("ex:i"));
+    // Property values are looked up by the subject passed as the property, as they always were
+    assertEquals(Collections.singleton("ex:j"), handler.getObjectPropertyValuesForIndividual("ex:p", "ex:i"));
+    assertEquals(Collections.singleton(new L("1", "xsd:int")),
+      handler.getDataPropertyValuesForIndividual("ex:q", "ex:i"));
+  }
+
+  /**
+   * Compare the queries of the handler over randomly generated axioms with the plain maps of sets of names that the
+   * handler used to record its axioms in.
+   */
+  public void testRandomAxiomsMatchPlainMaps() throws Exception
+  {
+    Random random = new Random(42);
+    DefaultDroolsOWLAxiomHandler handler = new DefaultDroolsOWLAxiomHandler();
+    PlainMaps expected = new PlainMaps();
+
+    for (int batch = 0; batch < 4; batch++) {
+      Set<A> axioms = new HashSet<>();
+
+      for (int i = 0; i < 500; i++)
+        axioms.add(randomAxiom(random));
+      handler.addAssertOWLAxioms(axioms);
+      axioms.forEach(expected::add);
+    }
+
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < 12; i++)
+      Collections.addAll(names, "ex:C" + i, "ex:i" + i, "ex:p" + i);
+    names.add(UNKNOWN_NAME);
+
+    for (String name : names) {
+      assertEquals(expected.declaredClassIDs.contains(name), handler.isDeclaredClass(name));
+      assertEquals(expected.declaredIndividualIDs.contains(name), handler.isDeclaredIndividual(name));
+      assertEquals(expected.declaredObjectPropertyIDs.contains(name), handler.isDeclaredObjectProperty(name));
+      assertEquals(expected.get(expected.classAssertions, name), handler.getClassAssertions(name));
+      assertEquals(expected.get(expected.disjointClasses, name), handler.getDisjointClasses(name));
+      assertEquals(expected.get(expected.equivalentClasses, name), handler.getEquivalentClasses(name));
+      assertEquals(expected.get(expected.sameIndividual, name), handler.getSameIndividual(name));
+      assertEquals(expected.get(expected.differentIndividuals, name), handler.getDifferentIndividuals(name));
+      assertEquals(expected.get(expected.inverseObjectProperties, name), handler.getInverseObjectProperties(name));
+      assertEquals(expected.get(expected.disjointObjectProperties, name), handler.getDisjointObjectProperties(name));
+      assertEquals(expected.get(expected.equivalentObjectProperties, name),
+        handler.getEquivalentObjectProperties(name));
+      assertEquals(expected.get(expected.objectPropertyRanges, name), handler.getObjectPropertyRanges(name, false));
+      assertEquals(expected.get(expected.objectPropertyRanges, name), handler.getObjectPropertyDomains(name, false));
+      assertEquals(expected.objectPropertyAssertions.getOrDefault(name, Collections.emptyMap()),
+        handler.getObjectPropertyAssertions(name));
+      assertEquals(expected.dataPropertyAssertions.getOrDefault(name, Collections.emptyMap()),
+        handler.getDataPropertyAssertions(name));
+      assertEquals(outcome(() -> expected.getSubClasses(name)), outcome(() -> handler.getSubClasses(name, false)));
+      assertEquals(outcome(() -> expected.getSuperClasses(name)),
+        outcome(() -> handler.getSuperClasses(name, false)));
+
+      for (String otherName : names) {
+        assertEquals(expected.getValues(expected.objectPropertyAssertions, name, otherName),
+          handler.getObjectPropertyValuesForIndividual(otherName, name));
+        assertEquals(expected.getValues(expected.dataPropertyAssertions, name, otherName),
+          handler.getDataPropertyValuesForIndividual(otherName, name));
+        assertEquals(outcome(() -> expected.strictSubClassOf(name, otherName)),
+          outcome(() -> handler.strictSubClassOf(name, otherName)));
+      }
+    }
+  }
+
+  private A randomAxiom(Random random)
+  {
+    String c1 = "ex:C" + random.nextInt(10), c2 = "ex:C" + random.nextInt(10);
+    String i1 = "ex:i" + random.nextInt(10), i2 = "ex:i" + random.nextInt(10);
+    String p1 = "ex:p" + random.nextInt(10), p2 = "ex:p" + random.nextInt(10);
+
+    switch (random.nextInt(14)) {
+    case 0:
+      return new CDA(c1);
+    case 1:
+      return new IDA(i1);
+    case 2:
+      return new OPDA(p1);
+    case 3:
+      return new CAA(c1, new I(i1));
+    case 4:
+      return new SCA(c1, c2);
+    case 5:
+      return new DCA(c1, c2);
+    case 6:
+      return new ECA(c1, c2);
+    case 7:
+      return new SIA(new I(i1), new I(i2));
+    case 8:
+      return new DIA(new I(i1), new I(i2));
+    case 9:
+      return new IOPA(p1, p2);
+    case 10:
+      return new DJOPA(p1, p2);
+    case 11:
+      return new EOPA(p1, p2);
+    case 12:
+      return random.nextBoolean() ? new OPRA(p1, c1) : new OPAA(new I(i1), p1, new I(i2));
+    default:
+      return new DPAA(i1, p1, random.nextBoolean() ?
+        new L(Integer.toString(random.nextInt(5)), "xsd:int") :
+        new L("s" + random.nextInt(5), "xsd:string"));
+    }
+  }
+
+  /**
+   * @return The result of a query or the class of the exception it throws
+   */
+  private Object outcome(Callable<?> query)
+  {
+    try {
+      return query.call();
+    } catch (Exception e) {
+      return e.getClass();
+    }
+  }
+
+  /**
+   * The axioms recorded in the plain maps of the handler before they were encoded as string dictionary handles.
+   */
+  private static class PlainMaps
+  {
+    private final Set<String> declaredClassIDs = new HashSet<>();
+    private final Set<String> declaredIndividualIDs = new HashSet<>();
+    private final Set<String> declaredObjectPropertyIDs = new HashSet<>();
+    private final Map<String, Set<String>> classAssertions = new HashMap<>();
+    private final Map<String, Set<String>> subClasses = new HashMap<>();
+    private final Map<String, Set<String>> superClasses = new HashMap<>();
+    private final Map<String, Set<String>> disjointClasses = new HashMap<>();
+    private final Map<String, Set<String>> equivalentClasses = new HashMap<>();
+    private final Map<String, Set<String>> sameIndividual = new HashMap<>();
+    private final Map<String, Set<String>> differentIndividuals = new HashMap<>();
+    private final Map<String, Set<String>> inverseObjectProperties = new HashMap<>();
+    private final Map<String, Set<String>> disjointObjectProperties = new HashMap<>();
+    private final Map<String, Set<String>> equivalentObjectProperties = new HashMap<>();
+    private final Map<String, Set<String>> objectPropertyRanges = new HashMap<>();
+    private final Map<String, Map<String, Set<String>>> objectPropertyAssertions = new HashMap<>();
+    private final Map<String, Map<String, Set<L>>> dataPropertyAssertions = new HashMap<>();
+
+    private void add(A a)
+    {
+      if (a instanceof CDA)
+        this.declaredClassIDs.add(((CDA)a).getcid());
+      else if (a instanceof IDA)
+        this.declaredIndividualIDs.add(((IDA)a).getI().getid());
+      else if (a instanceof OPDA)
+        this.declaredObjectPropertyIDs.add(((OPDA)a).getpid());
+      else if (a instanceof CAA)
+        put(this.classAssertions, ((CAA)a).getcid(), ((CAA)a).getiid());
+      else if (a instanceof SCA) {
+        put(this.subClasses, ((SCA)a).getsupercid(), ((SCA)a).getsubcid());
+        put(this.superClasses, ((SCA)a).getsubcid(), ((SCA)a).getsupercid());
+      } else if (a instanceof DCA)
+        put(this.disjointClasses, ((DCA)a).getc1id(), ((DCA)a).getc2id());
+      else if (a instanceof ECA)
+        put(this.equivalentClasses, ((ECA)a).getc1id(), ((ECA)a).getc2id());
+      else if (a instanceof SIA)
+        put(this.sameIndividual, ((SIA)a).geti1id(), ((SIA)a).geti2id());
+      else if (a instanceof DIA)
+        put(this.differentIndividuals, ((DIA)a).geti1id(), ((DIA)a).geti2id());
+      else if (a instanceof IOPA)
+        put(this.inverseObjectProperties, ((IOPA)a).getp1id(), ((IOPA)a).getp2id());
+      else if (a instanceof DJOPA)
+        put(this.disjointObjectProperties, ((DJOPA)a).getp1id(), ((DJOPA)a).getp2id());
+      else if (a instanceof EOPA)
+        put(this.equivalentObjectProperties, ((EOPA)a).getp1id(), ((EOPA)a).getp2id());
+      else if (a instanceof OPRA)
+        put(this.objectPropertyRanges, ((OPRA)a).getpid(), ((OPRA)a).getrid());
+      else if (a instanceof OPAA)
+        put(this.objectPropertyAssertions.computeIfAbsent(((OPAA)a).getsid(), n -> new HashMap<>()),
+          ((OPAA)a).getpid(), ((OPAA)a).getoid());
+      else if (a instanceof DPAA)
+        this.dataPropertyAssertions.computeIfAbsent(((DPAA)a).getsid(), n -> new HashMap<>())
+          .computeIfAbsent(((DPAA)a).getpid(), n -> new HashSet<>()).add(((DPAA)a).geto());
+    }
+
+    private Set<String> get(Map<String, Set<String>> map, String name)
+    {
+      return map.getOrDefault(name, Collections.emptySet());
+    }
+
+    private <T> Set<T> getValues(Map<String, Map<String, Set<T>>> map, String name1, String name2)
+    {
+      return map.getOrDefault(name1, Collections.emptyMap()).getOrDefault(name2, Collections.emptySet());
+    }
+
+    private Set<String> getSubClasses(String classID)
+    {
+      Set<String> subClasses = new HashSet<>();
+
+      for (String subClassID : get(this.subClasses, classID))
+        if (strictSubClassOf(classID, subClassID))
+          subClasses.add(subClassID);
+      return subClasses;
+    }
+
+    private Set<String> getSuperClasses(String classID)
+    {
+      Set<String> superClasses = new HashSet<>();
+
+      for (String superClassID : get(this.superClasses, classID))
+        if (strictSubClassOf(superClassID, classID))
+          superClasses.add(superClassID);
+      return superClasses;
+    }
+
+    private boolean strictSubClassOf(String classID1, String classID2)
+    {
+      if (!this.subClasses.containsKey(classID1) || !this.subClasses.containsKey(classID2))
+        throw new TargetSWRLRuleEngineInternalException("no subclasses of " + classID1 + " or " + classID2);
+
+      return get(this.subClasses, classID1).contains(classID2) && !get(this.subClasses, classID2).contains(classID1);
+    }
+
+    private static void put(Map<String, Set<String>> map, String key, String value)
+    {
+      map.computeIfAbsent(key, k -> new HashSet<>()).add(value);
+    }
+  }
+}
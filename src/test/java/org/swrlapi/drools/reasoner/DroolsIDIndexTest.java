@@ -0,0 +1,105 @@
+package org.swrlapi.drools.reasoner;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * @see DroolsIDIndex
+ * @see DroolsIDSet
+ */
+public class DroolsIDIndexTest extends TestCase
+{
+  public void testPackedKeysOfDifferentPairsDiffer() throws Exception
+  {
+    assertFalse(DroolsIDIndex.key(1, 2) == DroolsIDIndex.key(2, 1));
+    assertFalse(DroolsIDIndex.key(0, 0) == DroolsIDIndex.key(-1, 0));
+    assertFalse(DroolsIDIndex.key(Integer.MAX_VALUE, 0) == DroolsIDIndex.key(0, Integer.MAX_VALUE));
+  }
+
+  public void testMissingIDsAreNotFound() throws Exception
+  {
+    DroolsIDIndex index = new DroolsIDIndex();
+    DroolsIDSet set = new DroolsIDSet();
+
+    index.add(0, 0);
+    set.add(0);
+
+    // Names unknown to the string dictionary are looked up as NO_HANDLE
+    assertNull(index.get(DroolsStringDictionary.NO_HANDLE));
+    assertFalse(index.containsKey(DroolsStringDictionary.NO_HANDLE));
+    assertFalse(index.contains(0, DroolsStringDictionary.NO_HANDLE));
+    assertFalse(index.contains(DroolsIDIndex.key(DroolsStringDictionary.NO_HANDLE, 0), 0));
+    assertFalse(set.contains(DroolsStringDictionary.NO_HANDLE));
+  }
+
+  public void testNegativeIDsAreRejected() throws Exception
+  {
+    try {
+      new DroolsIDSet().add(-1);
+      fail("expecting a negative ID to be rejected");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("-1"));
+    }
+  }
+
+  public void testClearDiscardsAllEdges() throws Exception
+  {
+    DroolsIDIndex index = new DroolsIDIndex();
+
+    for (int i = 0; i < 100; i++)
+      index.add(i, i);
+    index.clear();
+
+    for (int i = 0; i < 100; i++)
+      assertFalse(index.containsKey(i));
+    assertTrue(index.add(1, 1));
+  }
+
+  public void testRandomEdgesMatchPlainMaps() throws Exception
+  {
+    Random random = new Random(42);
+    DroolsIDIndex index = new DroolsIDIndex();
+    Map<Long, Set<Integer>> expected = new HashMap<>();
+
+    for (int i = 0; i < 50_000; i++) {
+      long key = random.nextBoolean() ?
+        random.nextInt(2_000) :
+        DroolsIDIndex.key(random.nextInt(200), random.nextInt(200));
+      int id = random.nextInt(random.nextBoolean() ? 8 : 5_000);
+
+      assertEquals(expected.computeIfAbsent(key, k -> new HashSet<>()).add(id), index.add(key, id));
+    }
+
+    for (long key = -1; key < 2_100; key++)
+      assertRow(expected.get(key), index, key);
+    for (int id1 = 0; id1 < 210; id1++)
+      for (int id2 = 0; id2 < 210; id2++)
+        assertRow(expected.get(DroolsIDIndex.key(id1, id2)), index, DroolsIDIndex.key(id1, id2));
+  }
+
+  private void assertRow(Set<Integer> expectedIDs, DroolsIDIndex index, long key)
+  {
+    DroolsIDSet row = index.get(key);
+
+    assertEquals(expectedIDs != null, index.containsKey(key));
+    if (expectedIDs == null)
+      assertNull(row);
+    else {
+      Set<Integer> ids = new HashSet<>();
+
+      for (int id : row.toArray())
+        ids.add(id);
+      assertEquals(expectedIDs, ids);
+      assertEquals(expectedIDs.size(), row.size());
+      assertEquals(expectedIDs.size(), row.toArray().length);
+      for (int id : Arrays.asList(-1, 0, 7, 4_999, 5_000))
+        assertEquals(expectedIDs.contains(id), index.contains(key, id));
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package org.swrlapi.drools.reasoner;
+
+import junit.framework.TestCase;
+
+/**
+ * @see DroolsStringDictionary
+ */
+public class DroolsStringDictionaryTest extends TestCase
+{
+  public void testGetHandleReturnsSameHandleForEqualStrings() throws Exception
+  {
+    DroolsStringDictionary dictionary = new DroolsStringDictionary();
+
+    int handle1 = dictionary.getHandle("ex:Person");
+    int handle2 = dictionary.getHandle(new String("ex:Person"));
+
+    assertEquals(handle1, handle2);
+    assertEquals(1, dictionary.size());
+  }
+
+  public void testRoundTripAcrossBufferAndIndexGrowth() throws Exception
+  {
+    DroolsStringDictionary dictionary = new DroolsStringDictionary(16, 4);
+    int[] handles = new int[5000];
+
+    for (int i = 0; i < handles.length; i++)
+      handles[i] = dictionary.getHandle("ex:i" + i + "\u00e9");
+
+    assertEquals(handles.length, dictionary.size());
+    for (int i = 0; i < handles.length; i++) {
+      assertEquals("ex:i" + i + "\u00e9", dictionary.getString(handles[i]));
+      assertEquals(handles[i], dictionary.findHandle("ex:i" + i + "\u00e9"));
+    }
+  }
+
+  public void testFindHandleDoesNotAddString() throws Exception
+  {
+    DroolsStringDictionary dictionary = new DroolsStringDictionary();
+
+    assertEquals(DroolsStringDictionary.NO_HANDLE, dictionary.findHandle("ex:absent"));
+    assertEquals(0, dictionary.size());
+  }
+
+  public void testReset() throws Exception
+  {
+    DroolsStringDictionary dictionary = new DroolsStringDictionary(16, 4);
+
+    for (int i = 0; i < 100; i++)
+      dictionary.getHandle("ex:i" + i);
+    dictionary.reset();
+
+    assertEquals(0, dictionary.size());
+    assertEquals(0, dictionary.getNumberOfBytes());
+    assertEquals(DroolsStringDictionary.NO_HANDLE, dictionary.findHandle("ex:i1"));
+    assertEquals("ex:j", dictionary.getString(dictionary.getHandle("ex:j")));
+  }
+}
@@ -0,0 +1,47 @@
+package org.swrlapi.drools.sqwrl;
+
+import junit.framework.TestCase;
+
+import java.util.Collections;
+
+/**
+ * @see DroolsSQWRLRowQueue
+ */
+public class DroolsSQWRLRowQueueTest extends TestCase
+{
+  public void testRowsAreFollowedByEndOfRows() throws Exception
+  {
+    DroolsSQWRLRowQueue queue = new DroolsSQWRLRowQueue(2);
+    DroolsSQWRLRow row = new DroolsSQWRLRow("q1", Collections.emptyList());
+
+    queue.consumeRow(row);
+    queue.endOfRows();
+
+    assertSame(row, queue.take());
+    assertTrue(queue.take().isEndOfRows());
+    assertFalse(row.isEndOfRows());
+  }
+
+  public void testFullQueueBlocksProducer() throws Exception
+  {
+    DroolsSQWRLRowQueue queue = new DroolsSQWRLRowQueue(1);
+    queue.consumeRow(new DroolsSQWRLRow("q1", Collections.emptyList()));
+
+    Thread producer = new Thread(() -> {
+      try {
+        queue.endOfRows();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    producer.setDaemon(true);
+    producer.start();
+    producer.join(100);
+
+    assertTrue(producer.isAlive());
+    assertFalse(queue.take().isEndOfRows());
+    assertTrue(queue.take().isEndOfRows());
+    producer.join(1000);
+    assertFalse(producer.isAlive());
+  }
+}
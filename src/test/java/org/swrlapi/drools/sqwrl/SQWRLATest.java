@@ -0,0 +1,49 @@
+package org.swrlapi.drools.sqwrl;
+
+import junit.framework.TestCase;
+import org.swrlapi.drools.owl.literals.L;
+import org.swrlapi.drools.swrl.BA;
+import org.swrlapi.exceptions.SWRLAPIException;
+
+/**
+ * @see SQWRLA
+ */
+public class SQWRLATest extends TestCase
+{
+  public void testBagAggregates() throws Exception
+  {
+    SQWRLA aggregates = new SQWRLA("q1", "b", new BA[0], false);
+    aggregates.add(new L("20", "xsd:integer"));
+    aggregates.add(new L("25", "xsd:integer"));
+    aggregates.add(new L("20", "xsd:integer"));
+
+    assertEquals(new L("3", "xsd:integer"), aggregates.getSize());
+    assertEquals(new L("65", "xsd:integer"), aggregates.getSum());
+    assertEquals(new L("25", "xsd:integer"), aggregates.getMaximum());
+    assertEquals(new L("20", "xsd:integer"), aggregates.getMinimum());
+  }
+
+  public void testSetKeepsDistinctElements() throws Exception
+  {
+    SQWRLA aggregates = new SQWRLA("q1", "s", new BA[0], true);
+    aggregates.add(new L("20", "xsd:integer"));
+    aggregates.add(new L("20", "xsd:integer"));
+
+    assertEquals(new L("1", "xsd:integer"), aggregates.getSize());
+  }
+
+  public void testSumOfNonNumericElementFails() throws Exception
+  {
+    SQWRLA aggregates = new SQWRLA("q1", "b", new BA[0], false);
+    aggregates.add(new L("n1", "xsd:string"));
+    aggregates.add(new L("n2", "xsd:string"));
+
+    assertEquals(new L("n2", "xsd:string"), aggregates.getMaximum());
+    try {
+      aggregates.getSum();
+      fail("expecting an exception");
+    } catch (SWRLAPIException e) {
+      assertTrue(e.getMessage().contains("non-numeric"));
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package org.swrlapi.drools.swrl;
+
+import junit.framework.TestCase;
+import org.swrlapi.drools.owl.literals.L;
+import org.swrlapi.exceptions.TargetSWRLRuleEngineInternalException;
+
+/**
+ * @see BAP
+ */
+public class BAPTest extends TestCase
+{
+  public void testArgumentsBeyondFieldsAreAccessibleByPosition() throws Exception
+  {
+    BAP bap = new BAP();
+
+    for (int i = 1; i <= BAP.NumberOfArgumentFields + 3; i++)
+      bap.addArgument(new L(Integer.toString(i), "xsd:int"));
+
+    assertEquals(BAP.NumberOfArgumentFields + 3, bap.getNumberOfArguments());
+    assertEquals(new L("1", "xsd:int"), bap.getA1());
+    assertEquals(new L("11", "xsd:int"), bap.getA11());
+    assertEquals(new L("14", "xsd:int"), bap.getArgument(14));
+  }
+
+  public void testArgumentOutOfBounds() throws Exception
+  {
+    BAP bap = new BAP(new BA[] { new L("1", "xsd:int") });
+
+    assertEquals(new L("1", "xsd:int"), bap.getArgument(1));
+    try {
+      bap.getArgument(2);
+      fail();
+    } catch (TargetSWRLRuleEngineInternalException e) {
+      // Expected
+    }
+  }
+}